@@ -0,0 +1,157 @@
+/**
+ * Licensed to the Apache Software Foundation (ASF) under one
+ * or more contributor license agreements.  See the NOTICE file
+ * distributed with this work for additional information
+ * regarding copyright ownership.  The ASF licenses this file
+ * to you under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance
+ * with the License.  You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package org.apache.tajo.engine.function;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+
+/**
+ * Aho-Corasick automaton over raw bytes for finding many literal patterns in a single pass.
+ * <p>
+ * The goto and failure functions are resolved into a full transition table when the automaton
+ * is built, so matching takes exactly one table lookup per input byte.
+ */
+class AhoCorasick {
+  private static final int ALPHABET = 256;
+
+  private final int[] patternLengths;
+  private final int[] transitions;
+  // index of the pattern ending at each state, or -1
+  private final int[] terminal;
+  // nearest proper suffix state which is terminal, or -1
+  private final int[] outputLink;
+
+  public AhoCorasick(byte[][] patterns) {
+    patternLengths = new int[patterns.length];
+
+    List<int[]> gotoTable = new ArrayList<int[]>();
+    List<Integer> terminals = new ArrayList<Integer>();
+    gotoTable.add(newRow());
+    terminals.add(-1);
+
+    for (int p = 0; p < patterns.length; p++) {
+      byte[] pattern = patterns[p];
+      patternLengths[p] = pattern.length;
+      if (pattern.length == 0) {
+        continue;
+      }
+
+      int state = 0;
+      for (byte b : pattern) {
+        int next = gotoTable.get(state)[b & 0xff];
+        if (next < 0) {
+          next = gotoTable.size();
+          gotoTable.get(state)[b & 0xff] = next;
+          gotoTable.add(newRow());
+          terminals.add(-1);
+        }
+        state = next;
+      }
+      // The first pattern wins if the same pattern is given more than once.
+      if (terminals.get(state) < 0) {
+        terminals.set(state, p);
+      }
+    }
+
+    int stateNum = gotoTable.size();
+    transitions = new int[stateNum * ALPHABET];
+    terminal = new int[stateNum];
+    outputLink = new int[stateNum];
+    int[] failure = new int[stateNum];
+    for (int s = 0; s < stateNum; s++) {
+      terminal[s] = terminals.get(s);
+    }
+
+    // Breadth-first traversal so that the failure state of each state is resolved before it.
+    int[] queue = new int[stateNum];
+    int head = 0, tail = 0;
+    int[] root = gotoTable.get(0);
+    for (int c = 0; c < ALPHABET; c++) {
+      int next = root[c];
+      if (next < 0) {
+        transitions[c] = 0;
+      } else {
+        transitions[c] = next;
+        failure[next] = 0;
+        outputLink[next] = -1;
+        queue[tail++] = next;
+      }
+    }
+    outputLink[0] = -1;
+
+    while (head < tail) {
+      int state = queue[head++];
+      int[] row = gotoTable.get(state);
+      for (int c = 0; c < ALPHABET; c++) {
+        int next = row[c];
+        if (next < 0) {
+          transitions[state * ALPHABET + c] = transitions[failure[state] * ALPHABET + c];
+        } else {
+          transitions[state * ALPHABET + c] = next;
+          int fail = transitions[failure[state] * ALPHABET + c];
+          failure[next] = fail;
+          outputLink[next] = terminal[fail] >= 0 ? fail : outputLink[fail];
+          queue[tail++] = next;
+        }
+      }
+    }
+  }
+
+  private static int[] newRow() {
+    int[] row = new int[ALPHABET];
+    Arrays.fill(row, -1);
+    return row;
+  }
+
+  public int patternLength(int pattern) {
+    return patternLengths[pattern];
+  }
+
+  /**
+   * Finds the longest pattern starting at each position of <code>text</code>.
+   *
+   * @param text input bytes
+   * @param longestAt output array whose length is at least <code>text.length</code>.
+   *                  Each element is set to the index of the longest pattern starting at the position, or -1.
+   * @return true if any pattern is found
+   */
+  public boolean findLongestMatches(byte[] text, int[] longestAt) {
+    Arrays.fill(longestAt, 0, text.length, -1);
+
+    boolean found = false;
+    int state = 0;
+    for (int i = 0; i < text.length; i++) {
+      state = transitions[state * ALPHABET + (text[i] & 0xff)];
+
+      int s = terminal[state] >= 0 ? state : outputLink[state];
+      while (s >= 0) {
+        int pattern = terminal[s];
+        int start = i - patternLengths[pattern] + 1;
+        int current = longestAt[start];
+        if (current < 0 || patternLengths[pattern] > patternLengths[current]) {
+          longestAt[start] = pattern;
+        }
+        found = true;
+        s = outputLink[s];
+      }
+    }
+    return found;
+  }
+}
@@ -0,0 +1,70 @@
+/**
+ * Licensed to the Apache Software Foundation (ASF) under one
+ * or more contributor license agreements.  See the NOTICE file
+ * distributed with this work for additional information
+ * regarding copyright ownership.  The ASF licenses this file
+ * to you under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance
+ * with the License.  You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package org.apache.tajo.engine.function;
+
+import org.apache.tajo.catalog.Column;
+import org.apache.tajo.datum.DatumFactory;
+import org.apache.tajo.datum.Int8Datum;
+import org.apache.tajo.engine.function.annotation.Description;
+import org.apache.tajo.engine.function.annotation.ParamTypes;
+import org.apache.tajo.engine.function.hll.HyperLogLog;
+import org.apache.tajo.plan.function.FunctionContext;
+import org.apache.tajo.storage.Tuple;
+
+import static org.apache.tajo.common.TajoDataTypes.Type.ANY;
+import static org.apache.tajo.common.TajoDataTypes.Type.INT4;
+import static org.apache.tajo.common.TajoDataTypes.Type.INT8;
+
+/**
+ * Aggregate UDF which estimates the number of distinct values with a {@link HyperLogLog} sketch,
+ * instead of shuffling all of them like <code>COUNT(DISTINCT ...)</code>.
+ */
+@Description(
+  functionName = "approx_count_distinct",
+  description = "returns the approximate number of distinct non-null values",
+  detail = "The optional precision between 4 and 18, 14 by default, sets the number of registers of "
+    + "the HyperLogLog++ sketch to 2^precision. The standard error is about 1.04 / sqrt(2^precision), "
+    + "e.g. 0.81% for 14.",
+  example = "> SELECT approx_count_distinct(user_id), approx_count_distinct(user_id, 16) FROM logs;\n"
+    + "1032442, 1029810",
+  returnType = INT8,
+  paramTypes = {
+    @ParamTypes(paramTypes = {ANY}),
+    @ParamTypes(paramTypes = {ANY, INT4})
+  }
+)
+public class ApproxCountDistinct extends HllAggregate<Int8Datum> {
+  public ApproxCountDistinct() {
+    super(new Column[] {
+      new Column("expr", ANY),
+      new Column("precision", INT4)
+    });
+  }
+
+  @Override
+  public void eval(FunctionContext ctx, Tuple params) {
+    add((HllContext) ctx, params);
+  }
+
+  @Override
+  public Int8Datum terminate(FunctionContext ctx) {
+    HyperLogLog sketch = ((HllContext) ctx).sketch;
+    return DatumFactory.createInt8(sketch == null ? 0 : sketch.estimate());
+  }
+}
@@ -18,22 +18,26 @@
 
 package org.apache.tajo.engine.function;
 
-import org.apache.tajo.catalog.Column;
-import org.apache.tajo.common.TajoDataTypes;
-import org.apache.tajo.engine.function.annotation.Description;
-import org.apache.tajo.engine.function.annotation.ParamTypes;
+import java.util.LinkedHashMap;
+import java.util.Map;
 
-@Description(
-  functionName = "greatest",
-  description = "Returns the greatest value in the list.",
-  example = "> SELECT greatest(2, 5, 12, 3) FROM src;\n 12",
-  returnType = TajoDataTypes.Type.INT4,
-  paramTypes = {@ParamTypes(paramTypes = {TajoDataTypes.Type.INT4_ARRAY})}
-)
-public class GreatestInt extends Greatest {
-  public GreatestInt() {
-    super(new Column[] {
-      new Column("values", TajoDataTypes.Type.INT4_ARRAY)
-    });
+/**
+ * A small LRU map which keeps at most <code>maxEntries</code> entries.
+ * <p>
+ * Functions use it to keep state derived from their arguments (e.g., compiled patterns)
+ * when the arguments are not constant. It is not thread-safe; each function instance
+ * owns its own cache.
+ */
+class BoundedCache<K, V> extends LinkedHashMap<K, V> {
+  private final int maxEntries;
+
+  public BoundedCache(int maxEntries) {
+    super(16, 0.75f, true);
+    this.maxEntries = maxEntries;
+  }
+
+  @Override
+  protected boolean removeEldestEntry(Map.Entry<K, V> eldest) {
+    return size() > maxEntries;
   }
-}
\ No newline at end of file
+}
@@ -0,0 +1,279 @@
+/**
+ * Licensed to the Apache Software Foundation (ASF) under one
+ * or more contributor license agreements.  See the NOTICE file
+ * distributed with this work for additional information
+ * regarding copyright ownership.  The ASF licenses this file
+ * to you under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance
+ * with the License.  You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+
+package org.apache.tajo.engine.function;
+
+import org.apache.tajo.util.datetime.TimeMeta;
+
+/**
+ * Calendar arithmetic on julian days, which is how {@link org.apache.tajo.datum.DateDatum} stores a date.
+ * It uses the same proleptic Gregorian calendar as {@link org.apache.tajo.util.datetime.DateTimeUtil},
+ * and it allocates nothing.
+ */
+final class DateArithmetic {
+
+  private DateArithmetic() {
+  }
+
+  static boolean isLeapYear(int year) {
+    return (year % 4 == 0) && ((year % 100 != 0) || (year % 400 == 0));
+  }
+
+  /**
+   * @param month 1 to 12
+   */
+  static int daysInMonth(int year, int month) {
+    switch (month) {
+    case 2:
+      return isLeapYear(year) ? 29 : 28;
+    case 4:
+    case 6:
+    case 9:
+    case 11:
+      return 30;
+    default:
+      return 31;
+    }
+  }
+
+  /**
+   * Returns the julian day of a date. See {@link org.apache.tajo.util.datetime.DateTimeUtil#date2j}.
+   */
+  static int date2j(int year, int month, int day) {
+    int y = year;
+    int m = month;
+    if (m > 2) {
+      m += 1;
+      y += 4800;
+    } else {
+      m += 13;
+      y += 4799;
+    }
+
+    int century = y / 100;
+    int julian = y * 365 - 32167;
+    julian += y / 4 - century + century / 4;
+    julian += 7834 * m / 256 + day;
+    return julian;
+  }
+
+  /**
+   * Returns the months since January of year 0 of a julian day, that is, <code>year * 12 + month - 1</code>.
+   * Use {@link #yearOf(int)} and {@link #monthOf(int)} to split it.
+   */
+  static int j2months(int julianDay) {
+    int julian = julianDay + 32044;
+    int quad = julian / 146097;
+    int extra = (julian - quad * 146097) * 4 + 3;
+    julian += 60 + quad * 3 + extra / 146097;
+    quad = julian / 1461;
+    julian -= quad * 1461;
+    int y = julian * 4 / 1461;
+    julian = (y != 0) ? ((julian + 305) % 365) : ((julian + 306) % 366);
+    julian += 123;
+    y += quad * 4;
+    quad = julian * 2141 / 65536;
+    int month = (quad + 10) % 12 + 1;
+    return (y - 4800) * 12 + month - 1;
+  }
+
+  static int yearOf(int months) {
+    // rounds toward negative infinity for years before 0
+    return months >= 0 ? months / 12 : (months - 11) / 12;
+  }
+
+  static int monthOf(int months) {
+    return months - yearOf(months) * 12 + 1;
+  }
+
+  /**
+   * Returns the day of month of a julian day.
+   *
+   * @param months the result of {@link #j2months(int)} for the julian day
+   */
+  static int dayOf(int julianDay, int months) {
+    return julianDay - date2j(yearOf(months), monthOf(months), 1) + 1;
+  }
+
+  /**
+   * Returns the day of week of a julian day, from 0 for Sunday to 6 for Saturday.
+   */
+  static int dayOfWeek(int julianDay) {
+    return (julianDay + 1) % 7;
+  }
+
+  /**
+   * Sets the date fields of <code>tm</code>, including the day of week and the day of year, to a julian day.
+   * The time fields are not changed.
+   */
+  static void toTimeMeta(int julianDay, TimeMeta tm) {
+    int months = j2months(julianDay);
+    tm.years = yearOf(months);
+    tm.monthOfYear = monthOf(months);
+    tm.dayOfMonth = dayOf(julianDay, months);
+    tm.dayOfWeek = dayOfWeek(julianDay);
+    tm.dayOfYear = julianDay - date2j(tm.years, 1, 1) + 1;
+  }
+
+  /**
+   * Returns the julian day of the last day of the month which a julian day belongs to.
+   */
+  static int lastDayOfMonth(int julianDay) {
+    int months = j2months(julianDay);
+    int year = yearOf(months);
+    int month = monthOf(months);
+    return date2j(year, month, daysInMonth(year, month));
+  }
+
+  /**
+   * Adds months to a julian day like Oracle <code>ADD_MONTHS</code>. If the day is the last day of its month,
+   * or the resulting month is shorter than the day, the result is the last day of the resulting month.
+   */
+  static int addMonths(int julianDay, int monthNum) {
+    int months = j2months(julianDay);
+    int day = dayOf(julianDay, months);
+    int lastDay = daysInMonth(yearOf(months), monthOf(months));
+
+    int resultMonths = months + monthNum;
+    int resultYear = yearOf(resultMonths);
+    int resultMonth = monthOf(resultMonths);
+    int resultLastDay = daysInMonth(resultYear, resultMonth);
+    if (day == lastDay || day > resultLastDay) {
+      day = resultLastDay;
+    }
+    return date2j(resultYear, resultMonth, day);
+  }
+
+  /**
+   * Returns the months between two julian days like Oracle <code>MONTHS_BETWEEN</code>. The result is
+   * an integer if the days of month are the same or both are the last days of their months.
+   * Otherwise, the fractional part is based on 31-day months.
+   */
+  static double monthsBetween(int julianDay1, int julianDay2) {
+    int months1 = j2months(julianDay1);
+    int months2 = j2months(julianDay2);
+    int day1 = dayOf(julianDay1, months1);
+    int day2 = dayOf(julianDay2, months2);
+
+    if (day1 == day2 || (day1 == daysInMonth(yearOf(months1), monthOf(months1))
+      && day2 == daysInMonth(yearOf(months2), monthOf(months2)))) {
+      return months1 - months2;
+    }
+    return (months1 - months2) + (day1 - day2) / 31.0;
+  }
+
+  /**
+   * Returns the first julian day later than a julian day whose day of week is <code>dayOfWeek</code>.
+   *
+   * @param dayOfWeek 0 for Sunday to 6 for Saturday
+   */
+  static int nextDay(int julianDay, int dayOfWeek) {
+    return julianDay + (dayOfWeek - dayOfWeek(julianDay) + 6) % 7 + 1;
+  }
+
+  /**
+   * Truncates a julian day to a unit like Oracle <code>TRUNC(date, fmt)</code>.
+   */
+  static int trunc(int julianDay, DateUnit unit) {
+    return startOf(julianDay, unit, false);
+  }
+
+  /**
+   * Rounds a julian day to the nearest start of a unit like Oracle <code>ROUND(date, fmt)</code>.
+   */
+  static int round(int julianDay, DateUnit unit) {
+    return startOf(julianDay, unit, true);
+  }
+
+  private static int startOf(int julianDay, DateUnit unit, boolean round) {
+    int months = j2months(julianDay);
+    int year = yearOf(months);
+    int month = monthOf(months);
+
+    switch (unit) {
+    case CENTURY: {
+      // centuries begin with years ending in 01
+      int century = floorDiv(year - 1, 100) * 100 + 1;
+      if (round && year - century >= 50) {
+        century += 100;
+      }
+      return date2j(century, 1, 1);
+    }
+    case YEAR:
+      return date2j(round && month >= 7 ? year + 1 : year, 1, 1);
+    case ISO_YEAR:
+      if (round) {
+        return isoYearStart(month >= 7 ? year + 1 : year);
+      }
+      if (julianDay >= isoYearStart(year + 1)) {
+        return isoYearStart(year + 1);
+      }
+      return julianDay >= isoYearStart(year) ? isoYearStart(year) : isoYearStart(year - 1);
+    case QUARTER: {
+      int quarterMonths = months - (month - 1) % 3;
+      // rounds up on the 16th day of the second month of a quarter
+      if (round && (months - quarterMonths == 2
+        || (months - quarterMonths == 1 && dayOf(julianDay, months) >= 16))) {
+        quarterMonths += 3;
+      }
+      return date2j(yearOf(quarterMonths), monthOf(quarterMonths), 1);
+    }
+    case MONTH: {
+      int resultMonths = round && dayOf(julianDay, months) >= 16 ? months + 1 : months;
+      return date2j(yearOf(resultMonths), monthOf(resultMonths), 1);
+    }
+    case WEEK_OF_YEAR:
+      return startOfWeek(julianDay, date2j(year, 1, 1), round);
+    case WEEK_OF_MONTH:
+      return startOfWeek(julianDay, date2j(year, month, 1), round);
+    case ISO_WEEK:
+      // julian day 0 is a Monday
+      return startOfWeek(julianDay, 0, round);
+    case DAY_OF_WEEK:
+      // julian day 6 is a Sunday
+      return startOfWeek(julianDay, 6, round);
+    case DAY:
+      return julianDay;
+    default:
+      throw new IllegalStateException("Unknown date unit: " + unit);
+    }
+  }
+
+  // Returns the start of the 7-day week containing julianDay, where weeks begin on the same day of week as base.
+  private static int startOfWeek(int julianDay, int base, boolean round) {
+    int offset = floorMod(julianDay - base, 7);
+    // without a time of day, days from the 4th day of a week are past the middle of the week
+    return julianDay - offset + (round && offset >= 4 ? 7 : 0);
+  }
+
+  // Returns the Monday of the week which contains January 4th.
+  private static int isoYearStart(int year) {
+    int jan4 = date2j(year, 1, 4);
+    return jan4 - floorMod(jan4, 7);
+  }
+
+  private static int floorDiv(int x, int y) {
+    int q = x / y;
+    return (x % y != 0 && ((x ^ y) < 0)) ? q - 1 : q;
+  }
+
+  private static int floorMod(int x, int y) {
+    return x - floorDiv(x, y) * y;
+  }
+}
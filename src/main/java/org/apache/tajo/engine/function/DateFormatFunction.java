@@ -0,0 +1,65 @@
+/**
+ * Licensed to the Apache Software Foundation (ASF) under one
+ * or more contributor license agreements.  See the NOTICE file
+ * distributed with this work for additional information
+ * regarding copyright ownership.  The ASF licenses this file
+ * to you under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance
+ * with the License.  You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+
+package org.apache.tajo.engine.function;
+
+import com.google.gson.annotations.Expose;
+import org.apache.tajo.OverridableConf;
+import org.apache.tajo.SessionVars;
+import org.apache.tajo.catalog.Column;
+import org.apache.tajo.datum.Datum;
+import org.apache.tajo.engine.function.metrics.InstrumentedFunction;
+import org.apache.tajo.plan.expr.FunctionEval;
+
+import java.util.TimeZone;
+
+/**
+ * Base class of functions whose second parameter is a date/time format pattern.
+ * <p>
+ * Patterns are compiled by {@link DateFormatProgram}. The program of the last pattern is kept,
+ * so that a constant pattern is looked up only once.
+ */
+abstract class DateFormatFunction extends InstrumentedFunction {
+  @Expose
+  protected TimeZone timezone;
+  protected TimeZoneOffsets offsets;
+
+  private Datum lastFormat;
+  private DateFormatProgram lastProgram;
+
+  public DateFormatFunction(Column[] definedArgs) {
+    super(definedArgs);
+  }
+
+  @Override
+  public void init(OverridableConf context, FunctionEval.ParamType[] types) {
+    super.init(context, types);
+    String timezoneId = context == null ? "GMT" : context.get(SessionVars.TIMEZONE, "GMT");
+    this.timezone = TimeZone.getTimeZone(timezoneId);
+    this.offsets = TimeZoneOffsets.of(timezone);
+  }
+
+  protected DateFormatProgram getProgram(Datum format) {
+    if (format != lastFormat) {
+      lastProgram = DateFormatProgram.of(format.asChars());
+      lastFormat = format;
+    }
+    return lastProgram;
+  }
+}
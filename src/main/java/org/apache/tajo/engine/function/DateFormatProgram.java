@@ -0,0 +1,740 @@
+/**
+ * Licensed to the Apache Software Foundation (ASF) under one
+ * or more contributor license agreements.  See the NOTICE file
+ * distributed with this work for additional information
+ * regarding copyright ownership.  The ASF licenses this file
+ * to you under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance
+ * with the License.  You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+
+package org.apache.tajo.engine.function;
+
+import org.apache.tajo.util.datetime.DateTimeFormat;
+import org.apache.tajo.util.datetime.TimeMeta;
+
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
+
+/**
+ * A date/time format pattern compiled into a sequence of instructions, so that the pattern text is
+ * parsed only once. It accepts the PostgreSQL style patterns of
+ * {@link org.apache.tajo.util.datetime.DateTimeFormat}, which are mostly the same as Oracle format models.
+ * <p>
+ * Keywords are written in upper or lower case, and the case of names follows the keyword (e.g., MONTH, month
+ * and AM, am). Month and day names can also be capitalized (e.g., Month and Dy). The prefix FM suppresses
+ * padding of the next keyword. Double-quoted text is copied as it is, and any other character is a literal.
+ * <p>
+ * A pattern with any other keyword or modifier, such as the ISO week date (IYYY, IW, ID, IDDD), TZ, BC/AD,
+ * FX, the prefix TM, the suffixes TH and SP, or a keyword in mixed case (e.g., Yyyy), is not compiled.
+ * Such a program delegates to {@link DateTimeFormat}, so that the result is always the same as
+ * <code>to_char()</code> and <code>to_timestamp()</code> of Tajo.
+ * <p>
+ * Instances are immutable and can be shared. Use {@link #of(String)} to get a cached instance.
+ */
+final class DateFormatProgram {
+  private static final int CACHE_SIZE = 256;
+  private static final ConcurrentMap<String, DateFormatProgram> CACHE =
+    new ConcurrentHashMap<String, DateFormatProgram>();
+
+  // opcodes
+  private static final int LITERAL = 0;
+  private static final int YEAR = 1;            // YYYY
+  private static final int YEAR_COMMA = 2;      // Y,YYY
+  private static final int YEAR_3 = 3;          // YYY
+  private static final int YEAR_2 = 4;          // YY
+  private static final int YEAR_1 = 5;          // Y
+  private static final int CENTURY = 6;         // CC
+  private static final int QUARTER = 7;         // Q
+  private static final int MONTH = 8;           // MM
+  private static final int MONTH_NAME = 9;      // MONTH
+  private static final int MONTH_ABBR = 10;     // MON
+  private static final int ROMAN_MONTH = 11;    // RM
+  private static final int WEEK_OF_YEAR = 12;   // WW
+  private static final int WEEK_OF_MONTH = 13;  // W
+  private static final int DAY_OF_YEAR = 14;    // DDD
+  private static final int DAY = 15;            // DD
+  private static final int DAY_OF_WEEK = 16;    // D
+  private static final int DAY_NAME = 17;       // DAY
+  private static final int DAY_ABBR = 18;       // DY
+  private static final int JULIAN_DAY = 19;     // J
+  private static final int HOUR_12 = 20;        // HH, HH12
+  private static final int HOUR_24 = 21;        // HH24
+  private static final int MINUTE = 22;         // MI
+  private static final int SECOND = 23;         // SS
+  private static final int SECOND_OF_DAY = 24;  // SSSS
+  private static final int MILLISECOND = 25;    // MS
+  private static final int MICROSECOND = 26;    // US
+  private static final int MERIDIEM = 27;       // AM, PM
+  private static final int MERIDIEM_DOTS = 28;  // A.M., P.M.
+  // a keyword of DateTimeFormat which is not compiled
+  private static final int UNSUPPORTED = -1;
+
+  // keywords in the order of matching, so that longer ones are tried first
+  private static final String[] KEYWORDS = {
+    "Y,YYY", "MONTH", "HH24", "HH12", "IDDD", "IYYY", "SSSS", "YYYY", "A.D.", "A.M.", "B.C.", "P.M.",
+    "DDD", "DAY", "IYY", "MON", "YYY",
+    "AD", "AM", "BC", "CC", "DD", "DY", "FX", "HH", "ID", "IW", "IY", "MI", "MM", "MS", "PM", "RM", "SS", "TZ",
+    "US", "WW", "YY",
+    "D", "I", "J", "Q", "W", "Y"
+  };
+  private static final int[] KEYWORD_OPS = {
+    YEAR_COMMA, MONTH_NAME, HOUR_24, HOUR_12, UNSUPPORTED, UNSUPPORTED, SECOND_OF_DAY, YEAR, UNSUPPORTED,
+    MERIDIEM_DOTS, UNSUPPORTED, MERIDIEM_DOTS,
+    DAY_OF_YEAR, DAY_NAME, UNSUPPORTED, MONTH_ABBR, YEAR_3,
+    UNSUPPORTED, MERIDIEM, UNSUPPORTED, CENTURY, DAY, DAY_ABBR, UNSUPPORTED, HOUR_12, UNSUPPORTED, UNSUPPORTED,
+    UNSUPPORTED, MINUTE, MONTH, MILLISECOND, MERIDIEM, ROMAN_MONTH, SECOND, UNSUPPORTED,
+    MICROSECOND, WEEK_OF_YEAR, YEAR_2,
+    DAY_OF_WEEK, UNSUPPORTED, JULIAN_DAY, QUARTER, WEEK_OF_MONTH, YEAR_1
+  };
+  // modifiers of DateTimeFormat which are not compiled
+  private static final String[] UNSUPPORTED_PREFIXES = {"TM"};
+  private static final String[] UNSUPPORTED_SUFFIXES = {"TH", "SP"};
+
+  // flags
+  private static final int FILL_MODE = 1;
+  private static final int UPPER_CASE = 2;
+  private static final int LOWER_CASE = 4;
+
+  static final String[] MONTH_NAMES = {"JANUARY", "FEBRUARY", "MARCH", "APRIL", "MAY", "JUNE", "JULY",
+    "AUGUST", "SEPTEMBER", "OCTOBER", "NOVEMBER", "DECEMBER"};
+  static final String[] DAY_NAMES = {"SUNDAY", "MONDAY", "TUESDAY", "WEDNESDAY", "THURSDAY", "FRIDAY",
+    "SATURDAY"};
+  private static final String[] ROMAN_MONTHS = {"I", "II", "III", "IV", "V", "VI", "VII", "VIII", "IX", "X",
+    "XI", "XII"};
+  private static final int NAME_WIDTH = 9;
+
+  private final String pattern;
+  private final int[] ops;
+  private final int[] flags;
+  private final byte[][] literals;
+  // true if the pattern is handled by DateTimeFormat
+  private final boolean delegated;
+
+  private DateFormatProgram(String pattern, int[] ops, int[] flags, byte[][] literals, boolean delegated) {
+    this.pattern = pattern;
+    this.ops = ops;
+    this.flags = flags;
+    this.literals = literals;
+    this.delegated = delegated;
+  }
+
+  /**
+   * Returns the compiled program of a pattern from a bounded cache shared by all functions.
+   * It does not lock, so a pattern may be compiled more than once by concurrent callers.
+   */
+  static DateFormatProgram of(String pattern) {
+    DateFormatProgram program = CACHE.get(pattern);
+    if (program == null) {
+      program = compile(pattern);
+      if (CACHE.size() >= CACHE_SIZE) {
+        // patterns are usually constants, so the cache is simply started over when it is full
+        CACHE.clear();
+      }
+      CACHE.put(pattern, program);
+    }
+    return program;
+  }
+
+  static DateFormatProgram compile(String pattern) {
+    List<Integer> ops = new ArrayList<Integer>();
+    List<Integer> flags = new ArrayList<Integer>();
+    List<byte[]> literals = new ArrayList<byte[]>();
+    StringBuilder literal = new StringBuilder();
+
+    int pos = 0;
+    while (pos < pattern.length()) {
+      char c = pattern.charAt(pos);
+      if (c == '"') {
+        // quoted text, in which \" is a double quote
+        pos++;
+        while (pos < pattern.length() && pattern.charAt(pos) != '"') {
+          if (pattern.charAt(pos) == '\\' && pos + 1 < pattern.length()) {
+            pos++;
+          }
+          literal.append(pattern.charAt(pos++));
+        }
+        pos++;
+        continue;
+      }
+      if (c == '\\' && pos + 1 < pattern.length()) {
+        literal.append(pattern.charAt(pos + 1));
+        pos += 2;
+        continue;
+      }
+
+      int flag = 0;
+      int keywordStart = pos;
+      if (pattern.startsWith("FM", pos) || pattern.startsWith("fm", pos)) {
+        flag = FILL_MODE;
+        keywordStart += 2;
+      } else if (matchAny(pattern, pos, UNSUPPORTED_PREFIXES) || pattern.regionMatches(true, pos, "FM", 0, 2)) {
+        return delegate(pattern);
+      }
+      int keyword = matchKeyword(pattern, keywordStart);
+      if (keyword < 0) {
+        if (keywordStart > pos) {
+          return delegate(pattern);
+        }
+        literal.append(c);
+        pos++;
+        continue;
+      }
+      int keywordEnd = keywordStart + KEYWORDS[keyword].length();
+      if (KEYWORD_OPS[keyword] == UNSUPPORTED || matchAny(pattern, keywordEnd, UNSUPPORTED_SUFFIXES)) {
+        return delegate(pattern);
+      }
+
+      if (literal.length() > 0) {
+        ops.add(LITERAL);
+        flags.add(literals.size());
+        literals.add(literal.toString().getBytes(StandardCharsets.UTF_8));
+        literal.setLength(0);
+      }
+      int caseFlag = caseOf(pattern, keywordStart, KEYWORDS[keyword], KEYWORD_OPS[keyword]);
+      if (caseFlag < 0) {
+        return delegate(pattern);
+      }
+      ops.add(KEYWORD_OPS[keyword]);
+      flags.add(flag | caseFlag);
+      pos = keywordEnd;
+    }
+    if (literal.length() > 0) {
+      ops.add(LITERAL);
+      flags.add(literals.size());
+      literals.add(literal.toString().getBytes(StandardCharsets.UTF_8));
+    }
+
+    int[] opArray = new int[ops.size()];
+    int[] flagArray = new int[ops.size()];
+    for (int i = 0; i < opArray.length; i++) {
+      opArray[i] = ops.get(i);
+      flagArray[i] = flags.get(i);
+    }
+    return new DateFormatProgram(pattern, opArray, flagArray, literals.toArray(new byte[literals.size()][]), false);
+  }
+
+  private static DateFormatProgram delegate(String pattern) {
+    return new DateFormatProgram(pattern, new int[0], new int[0], new byte[0][], true);
+  }
+
+  // Keywords are matched case-insensitively, so that a keyword in mixed case is delegated instead of
+  // being taken as literals.
+  private static int matchKeyword(String pattern, int pos) {
+    for (int i = 0; i < KEYWORDS.length; i++) {
+      if (pattern.regionMatches(true, pos, KEYWORDS[i], 0, KEYWORDS[i].length())) {
+        return i;
+      }
+    }
+    return -1;
+  }
+
+  private static boolean matchAny(String pattern, int pos, String[] candidates) {
+    for (String candidate : candidates) {
+      if (pattern.regionMatches(true, pos, candidate, 0, candidate.length())) {
+        return true;
+      }
+    }
+    return false;
+  }
+
+  /**
+   * Returns the case flag of a keyword as it is written in the pattern, or -1 if DateTimeFormat does not
+   * know it in that case.
+   */
+  private static int caseOf(String pattern, int pos, String keyword, int op) {
+    String written = pattern.substring(pos, pos + keyword.length());
+    if (written.equals(keyword)) {
+      return UPPER_CASE;
+    }
+    if (written.equals(keyword.toLowerCase())) {
+      return LOWER_CASE;
+    }
+    boolean name = op == MONTH_NAME || op == MONTH_ABBR || op == DAY_NAME || op == DAY_ABBR;
+    if (name && written.equals(keyword.charAt(0) + keyword.substring(1).toLowerCase())) {
+      return 0;
+    }
+    return -1;
+  }
+
+  String pattern() {
+    return pattern;
+  }
+
+  /**
+   * Formats the date and time fields of <code>tm</code> into the end of the buffer. The day of week and
+   * the day of year are derived from the date, so they need not be set.
+   */
+  void format(TimeMeta tm, Buffer out) {
+    int julianDay = DateArithmetic.date2j(tm.years, tm.monthOfYear, tm.dayOfMonth);
+    if (delegated) {
+      tm.dayOfWeek = DateArithmetic.dayOfWeek(julianDay);
+      tm.dayOfYear = dayOfYear(julianDay, tm.years);
+      out.append(DateTimeFormat.to_char(tm, pattern).getBytes(StandardCharsets.UTF_8));
+      return;
+    }
+
+    for (int i = 0; i < ops.length; i++) {
+      int flag = flags[i];
+      boolean fill = (flag & FILL_MODE) == 0;
+      switch (ops[i]) {
+      case LITERAL:
+        out.append(literals[flag]);
+        break;
+      case YEAR:
+        out.appendInt(tm.years, fill ? 4 : 1);
+        break;
+      case YEAR_COMMA:
+        out.appendInt(tm.years / 1000, 1);
+        out.append((byte) ',');
+        out.appendInt(tm.years % 1000, 3);
+        break;
+      case YEAR_3:
+        out.appendInt(tm.years % 1000, fill ? 3 : 1);
+        break;
+      case YEAR_2:
+        out.appendInt(tm.years % 100, fill ? 2 : 1);
+        break;
+      case YEAR_1:
+        out.appendInt(tm.years % 10, 1);
+        break;
+      case CENTURY:
+        out.appendInt((tm.years + 99) / 100, fill ? 2 : 1);
+        break;
+      case QUARTER:
+        out.appendInt((tm.monthOfYear + 2) / 3, 1);
+        break;
+      case MONTH:
+        out.appendInt(tm.monthOfYear, fill ? 2 : 1);
+        break;
+      case MONTH_NAME:
+        out.appendName(MONTH_NAMES[tm.monthOfYear - 1], flag, fill ? NAME_WIDTH : 0);
+        break;
+      case MONTH_ABBR:
+        out.appendName(MONTH_NAMES[tm.monthOfYear - 1].substring(0, 3), flag, 0);
+        break;
+      case ROMAN_MONTH:
+        out.appendName(ROMAN_MONTHS[tm.monthOfYear - 1], flag, fill ? 4 : 0);
+        break;
+      case WEEK_OF_YEAR:
+        out.appendInt((dayOfYear(julianDay, tm.years) - 1) / 7 + 1, fill ? 2 : 1);
+        break;
+      case WEEK_OF_MONTH:
+        out.appendInt((tm.dayOfMonth - 1) / 7 + 1, 1);
+        break;
+      case DAY_OF_YEAR:
+        out.appendInt(dayOfYear(julianDay, tm.years), fill ? 3 : 1);
+        break;
+      case DAY:
+        out.appendInt(tm.dayOfMonth, fill ? 2 : 1);
+        break;
+      case DAY_OF_WEEK:
+        out.appendInt(DateArithmetic.dayOfWeek(julianDay) + 1, 1);
+        break;
+      case DAY_NAME:
+        out.appendName(DAY_NAMES[DateArithmetic.dayOfWeek(julianDay)], flag, fill ? NAME_WIDTH : 0);
+        break;
+      case DAY_ABBR:
+        out.appendName(DAY_NAMES[DateArithmetic.dayOfWeek(julianDay)].substring(0, 3), flag, 0);
+        break;
+      case JULIAN_DAY:
+        out.appendInt(julianDay, 1);
+        break;
+      case HOUR_12:
+        out.appendInt(tm.hours % 12 == 0 ? 12 : tm.hours % 12, fill ? 2 : 1);
+        break;
+      case HOUR_24:
+        out.appendInt(tm.hours, fill ? 2 : 1);
+        break;
+      case MINUTE:
+        out.appendInt(tm.minutes, fill ? 2 : 1);
+        break;
+      case SECOND:
+        out.appendInt(tm.secs, fill ? 2 : 1);
+        break;
+      case SECOND_OF_DAY:
+        out.appendInt(tm.hours * 3600 + tm.minutes * 60 + tm.secs, 1);
+        break;
+      case MILLISECOND:
+        out.appendInt(tm.fsecs / 1000, fill ? 3 : 1);
+        break;
+      case MICROSECOND:
+        out.appendInt(tm.fsecs, fill ? 6 : 1);
+        break;
+      case MERIDIEM:
+        out.appendName(tm.hours >= 12 ? "PM" : "AM", flag, 0);
+        break;
+      case MERIDIEM_DOTS:
+        out.appendName(tm.hours >= 12 ? "P.M." : "A.M.", flag, 0);
+        break;
+      default:
+        throw new IllegalStateException("Unknown opcode: " + ops[i]);
+      }
+    }
+  }
+
+  /**
+   * Parses a text into the date and time fields of <code>tm</code>. Fields which are not in the pattern
+   * are January 1st of the current year for the date and 0 for the time. A delegated pattern is parsed by
+   * {@link DateTimeFormat#parseDateTime(String, String)}, which has its own defaults and errors.
+   *
+   * @throws IllegalArgumentException if the text does not match the pattern
+   */
+  void parse(String text, TimeMeta tm, int currentYear) {
+    if (delegated) {
+      TimeMeta parsed = DateTimeFormat.parseDateTime(text, pattern);
+      DateArithmetic.toTimeMeta(DateArithmetic.date2j(parsed.years, parsed.monthOfYear, parsed.dayOfMonth), tm);
+      tm.hours = parsed.hours;
+      tm.minutes = parsed.minutes;
+      tm.secs = parsed.secs;
+      tm.fsecs = parsed.fsecs;
+      return;
+    }
+
+    int year = currentYear;
+    int month = 1;
+    int day = 1;
+    int dayOfYear = -1;
+    int julianDay = -1;
+    int hours = 0;
+    int minutes = 0;
+    int secs = 0;
+    int fsecs = 0;
+    boolean twelveHour = false;
+    boolean pm = false;
+
+    Parser parser = new Parser(text, this);
+    for (int i = 0; i < ops.length; i++) {
+      switch (ops[i]) {
+      case LITERAL:
+        // like PostgreSQL, each literal character skips one character
+        parser.skip(literals[flags[i]].length);
+        break;
+      case YEAR:
+        year = parser.readInt(4);
+        break;
+      case YEAR_COMMA:
+        year = parser.readInt(1) * 1000;
+        parser.expect(',');
+        year += parser.readInt(3);
+        break;
+      case YEAR_3:
+        year = adjustYear(parser.readInt(3), 1000, currentYear);
+        break;
+      case YEAR_2:
+        year = adjustYear(parser.readInt(2), 100, currentYear);
+        break;
+      case YEAR_1:
+        year = adjustYear(parser.readInt(1), 10, currentYear);
+        break;
+      case MONTH:
+        month = parser.readInt(2);
+        break;
+      case MONTH_NAME:
+        month = parser.readName(MONTH_NAMES, false) + 1;
+        break;
+      case MONTH_ABBR:
+        month = parser.readName(MONTH_NAMES, true) + 1;
+        break;
+      case ROMAN_MONTH:
+        month = parser.readRomanMonth();
+        break;
+      case DAY_OF_YEAR:
+        dayOfYear = parser.readInt(3);
+        break;
+      case DAY:
+        day = parser.readInt(2);
+        break;
+      case DAY_NAME:
+        parser.readName(DAY_NAMES, false);
+        break;
+      case DAY_ABBR:
+        parser.readName(DAY_NAMES, true);
+        break;
+      case DAY_OF_WEEK:
+      case QUARTER:
+      case WEEK_OF_MONTH:
+        // they do not determine a date
+        parser.readInt(1);
+        break;
+      case WEEK_OF_YEAR:
+      case CENTURY:
+        parser.readInt(2);
+        break;
+      case JULIAN_DAY:
+        julianDay = parser.readInt(9);
+        break;
+      case HOUR_12:
+        hours = parser.readInt(2);
+        twelveHour = true;
+        break;
+      case HOUR_24:
+        hours = parser.readInt(2);
+        break;
+      case MINUTE:
+        minutes = parser.readInt(2);
+        break;
+      case SECOND:
+        secs = parser.readInt(2);
+        break;
+      case SECOND_OF_DAY: {
+        int seconds = parser.readInt(5);
+        hours = seconds / 3600;
+        minutes = seconds / 60 % 60;
+        secs = seconds % 60;
+        break;
+      }
+      case MILLISECOND:
+        fsecs = parser.readFraction(3) * 1000;
+        break;
+      case MICROSECOND:
+        fsecs = parser.readFraction(6);
+        break;
+      case MERIDIEM:
+      case MERIDIEM_DOTS:
+        pm = parser.readMeridiem(ops[i] == MERIDIEM_DOTS);
+        twelveHour = true;
+        break;
+      default:
+        throw new IllegalStateException("Unknown opcode: " + ops[i]);
+      }
+    }
+    parser.expectEnd();
+
+    if (twelveHour) {
+      if (hours < 1 || hours > 12) {
+        throw parser.error();
+      }
+      hours = hours % 12 + (pm ? 12 : 0);
+    }
+    if (julianDay < 0) {
+      if (month < 1 || month > 12) {
+        throw parser.error();
+      }
+      if (dayOfYear > 0) {
+        julianDay = DateArithmetic.date2j(year, 1, 1) + dayOfYear - 1;
+      } else {
+        if (day < 1 || day > DateArithmetic.daysInMonth(year, month)) {
+          throw parser.error();
+        }
+        julianDay = DateArithmetic.date2j(year, month, day);
+      }
+    }
+    if (hours > 23 || minutes > 59 || secs > 59) {
+      throw parser.error();
+    }
+
+    DateArithmetic.toTimeMeta(julianDay, tm);
+    tm.hours = hours;
+    tm.minutes = minutes;
+    tm.secs = secs;
+    tm.fsecs = fsecs;
+  }
+
+  private static int dayOfYear(int julianDay, int year) {
+    return julianDay - DateArithmetic.date2j(year, 1, 1) + 1;
+  }
+
+  // Completes the omitted leading digits of a year with those of the current year.
+  private static int adjustYear(int year, int modulus, int currentYear) {
+    return currentYear - currentYear % modulus + year;
+  }
+
+  /**
+   * A reusable output buffer of {@link #format(TimeMeta, Buffer)}. It is not thread-safe.
+   */
+  static class Buffer {
+    private byte[] bytes = new byte[32];
+    private int length;
+
+    void clear() {
+      length = 0;
+    }
+
+    int length() {
+      return length;
+    }
+
+    byte[] toByteArray() {
+      return Arrays.copyOf(bytes, length);
+    }
+
+    private void ensure(int extra) {
+      if (length + extra > bytes.length) {
+        bytes = Arrays.copyOf(bytes, Math.max(bytes.length * 2, length + extra));
+      }
+    }
+
+    void append(byte b) {
+      ensure(1);
+      bytes[length++] = b;
+    }
+
+    void append(byte[] literal) {
+      ensure(literal.length);
+      System.arraycopy(literal, 0, bytes, length, literal.length);
+      length += literal.length;
+    }
+
+    /**
+     * Appends a decimal number padded with zeros to <code>width</code> digits.
+     */
+    void appendInt(int value, int width) {
+      if (value < 0) {
+        append((byte) '-');
+        value = -value;
+      }
+      int digits = 1;
+      for (int v = value / 10; v > 0; v /= 10) {
+        digits++;
+      }
+      int size = Math.max(digits, width);
+      ensure(size);
+      for (int i = length + size - 1; i >= length; i--) {
+        bytes[i] = (byte) ('0' + value % 10);
+        value /= 10;
+      }
+      length += size;
+    }
+
+    /**
+     * Appends an upper case ASCII name in the case given by the flags, padded with spaces to <code>width</code>.
+     */
+    void appendName(String name, int flag, int width) {
+      int size = Math.max(name.length(), width);
+      ensure(size);
+      for (int i = 0; i < name.length(); i++) {
+        char c = name.charAt(i);
+        if ((flag & LOWER_CASE) != 0 || ((flag & UPPER_CASE) == 0 && i > 0)) {
+          c = Character.toLowerCase(c);
+        }
+        bytes[length + i] = (byte) c;
+      }
+      for (int i = name.length(); i < size; i++) {
+        bytes[length + i] = ' ';
+      }
+      length += size;
+    }
+  }
+
+  private static class Parser {
+    private final String text;
+    private final DateFormatProgram program;
+    private int pos;
+
+    Parser(String text, DateFormatProgram program) {
+      this.text = text;
+      this.program = program;
+    }
+
+    IllegalArgumentException error() {
+      return new IllegalArgumentException(
+        "Invalid date/time '" + text + "' for the format '" + program.pattern + "'");
+    }
+
+    void skip(int count) {
+      pos = Math.min(text.length(), pos + count);
+    }
+
+    void expect(char c) {
+      if (pos >= text.length() || text.charAt(pos) != c) {
+        throw error();
+      }
+      pos++;
+    }
+
+    void expectEnd() {
+      while (pos < text.length() && text.charAt(pos) == ' ') {
+        pos++;
+      }
+      if (pos < text.length()) {
+        throw error();
+      }
+    }
+
+    /**
+     * Reads a number of at most <code>maxDigits</code> digits, after skipping leading spaces.
+     */
+    int readInt(int maxDigits) {
+      while (pos < text.length() && text.charAt(pos) == ' ') {
+        pos++;
+      }
+      int start = pos;
+      int value = 0;
+      while (pos < text.length() && pos - start < maxDigits && isDigit(text.charAt(pos))) {
+        value = value * 10 + (text.charAt(pos++) - '0');
+      }
+      if (pos == start) {
+        throw error();
+      }
+      return value;
+    }
+
+    /**
+     * Reads the digits of a fraction, scaled to <code>scale</code> digits.
+     */
+    int readFraction(int scale) {
+      int start = pos;
+      int value = readInt(scale);
+      for (int i = pos - start; i < scale; i++) {
+        value *= 10;
+      }
+      return value;
+    }
+
+    /**
+     * Reads a name or its three-letter abbreviation case-insensitively, and returns its index.
+     */
+    int readName(String[] names, boolean abbreviation) {
+      for (int i = 0; i < names.length; i++) {
+        int length = abbreviation ? 3 : names[i].length();
+        if (text.regionMatches(true, pos, names[i], 0, length)) {
+          pos += length;
+          return i;
+        }
+      }
+      throw error();
+    }
+
+    int readRomanMonth() {
+      // longer numerals first, e.g., VIII before VII
+      for (int length = 4; length > 0; length--) {
+        for (int i = 0; i < ROMAN_MONTHS.length; i++) {
+          if (ROMAN_MONTHS[i].length() == length && text.regionMatches(true, pos, ROMAN_MONTHS[i], 0, length)) {
+            pos += length;
+            return i + 1;
+          }
+        }
+      }
+      throw error();
+    }
+
+    boolean readMeridiem(boolean dots) {
+      String[] candidates = dots ? new String[]{"A.M.", "P.M."} : new String[]{"AM", "PM"};
+      for (int i = 0; i < candidates.length; i++) {
+        if (text.regionMatches(true, pos, candidates[i], 0, candidates[i].length())) {
+          pos += candidates[i].length();
+          return i == 1;
+        }
+      }
+      throw error();
+    }
+
+    private static boolean isDigit(char c) {
+      return c >= '0' && c <= '9';
+    }
+  }
+}
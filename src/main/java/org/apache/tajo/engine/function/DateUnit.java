@@ -0,0 +1,73 @@
+/**
+ * Licensed to the Apache Software Foundation (ASF) under one
+ * or more contributor license agreements.  See the NOTICE file
+ * distributed with this work for additional information
+ * regarding copyright ownership.  The ASF licenses this file
+ * to you under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance
+ * with the License.  You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+
+package org.apache.tajo.engine.function;
+
+import java.util.HashMap;
+import java.util.Locale;
+import java.util.Map;
+
+/**
+ * Units of the Oracle format models accepted by <code>TRUNC(date, fmt)</code> and <code>ROUND(date, fmt)</code>.
+ */
+enum DateUnit {
+  CENTURY("CC", "SCC"),
+  YEAR("SYYYY", "YYYY", "YEAR", "SYEAR", "YYY", "YY", "Y"),
+  ISO_YEAR("IYYY", "IYY", "IY", "I"),
+  QUARTER("Q"),
+  MONTH("MONTH", "MON", "MM", "RM"),
+  // weeks beginning on the same day of week as January 1st
+  WEEK_OF_YEAR("WW"),
+  // weeks beginning on Monday
+  ISO_WEEK("IW"),
+  // weeks beginning on the same day of week as the first day of the month
+  WEEK_OF_MONTH("W"),
+  DAY("DDD", "DD", "J"),
+  // weeks beginning on Sunday
+  DAY_OF_WEEK("DAY", "DY", "D");
+
+  private static final Map<String, DateUnit> FORMATS = new HashMap<String, DateUnit>();
+
+  static {
+    for (DateUnit unit : values()) {
+      for (String format : unit.formats) {
+        FORMATS.put(format, unit);
+      }
+    }
+  }
+
+  private final String[] formats;
+
+  DateUnit(String... formats) {
+    this.formats = formats;
+  }
+
+  /**
+   * Returns the unit of a format model, which is case-insensitive.
+   *
+   * @throws IllegalArgumentException if the format is not supported
+   */
+  static DateUnit of(String format) {
+    DateUnit unit = FORMATS.get(format.trim().toUpperCase(Locale.ENGLISH));
+    if (unit == null) {
+      throw new IllegalArgumentException("Invalid date format: " + format);
+    }
+    return unit;
+  }
+}
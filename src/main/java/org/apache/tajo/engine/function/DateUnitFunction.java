@@ -0,0 +1,110 @@
+/**
+ * Licensed to the Apache Software Foundation (ASF) under one
+ * or more contributor license agreements.  See the NOTICE file
+ * distributed with this work for additional information
+ * regarding copyright ownership.  The ASF licenses this file
+ * to you under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance
+ * with the License.  You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+
+package org.apache.tajo.engine.function;
+
+import org.apache.tajo.catalog.Column;
+import org.apache.tajo.datum.Datum;
+import org.apache.tajo.datum.DatumFactory;
+import org.apache.tajo.datum.NullDatum;
+import org.apache.tajo.engine.function.metrics.InstrumentedVectorizedFunction;
+import org.apache.tajo.engine.function.vector.ColumnVector;
+import org.apache.tajo.storage.Tuple;
+
+import java.nio.charset.StandardCharsets;
+import java.util.Arrays;
+
+import static org.apache.tajo.common.TajoDataTypes.Type.DATE;
+import static org.apache.tajo.common.TajoDataTypes.Type.TEXT;
+
+/**
+ * Base class of functions which move a date to the start of a {@link DateUnit}, given by an optional
+ * format model. Without a format model, the unit is a day.
+ * <p>
+ * The unit of the last format model is kept, so that a constant format model is parsed only once.
+ */
+abstract class DateUnitFunction extends InstrumentedVectorizedFunction {
+  private Datum lastFormat;
+  private byte[] lastFormatBytes;
+  private DateUnit lastUnit;
+
+  public DateUnitFunction() {
+    super(new Column[] {
+      new Column("date", DATE),
+      new Column("fmt", TEXT)
+    });
+  }
+
+  /**
+   * Returns the julian day of the start of the unit, which the julian day is moved to.
+   */
+  abstract int apply(int julianDay, DateUnit unit);
+
+  @Override
+  protected Datum doEval(Tuple params) {
+    if (params.isBlankOrNull(0)) {
+      return NullDatum.get();
+    }
+
+    DateUnit unit = DateUnit.DAY;
+    if (params.size() > 1) {
+      if (params.isBlankOrNull(1)) {
+        return NullDatum.get();
+      }
+      Datum format = params.asDatum(1);
+      if (format != lastFormat) {
+        lastUnit = DateUnit.of(format.asChars());
+        lastFormat = format;
+        lastFormatBytes = null;
+      }
+      unit = lastUnit;
+    }
+    return DatumFactory.createDate(apply(params.getInt4(0), unit));
+  }
+
+  @Override
+  protected void doEvalBatch(ColumnVector[] args, int[] selected, int count, ColumnVector out) {
+    long[] dates = args[0].longs;
+    long[] result = out.longs;
+
+    out.copyNulls(args[0], selected, count);
+    if (args.length == 1) {
+      for (int i = 0; i < count; i++) {
+        int row = selected == null ? i : selected[i];
+        result[row] = apply((int) dates[row], DateUnit.DAY);
+      }
+      return;
+    }
+
+    byte[][] formats = args[1].bytes;
+    out.orNulls(args[1], selected, count);
+    for (int i = 0; i < count; i++) {
+      int row = selected == null ? i : selected[i];
+      if (out.isNull(row)) {
+        continue;
+      }
+      if (!Arrays.equals(formats[row], lastFormatBytes)) {
+        lastUnit = DateUnit.of(new String(formats[row], StandardCharsets.UTF_8));
+        lastFormatBytes = formats[row].clone();
+        lastFormat = null;
+      }
+      result[row] = apply((int) dates[row], lastUnit);
+    }
+  }
+}
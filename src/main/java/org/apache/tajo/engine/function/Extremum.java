@@ -0,0 +1,114 @@
+/**
+ * Licensed to the Apache Software Foundation (ASF) under one
+ * or more contributor license agreements.  See the NOTICE file
+ * distributed with this work for additional information
+ * regarding copyright ownership.  The ASF licenses this file
+ * to you under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance
+ * with the License.  You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package org.apache.tajo.engine.function;
+
+import org.apache.tajo.OverridableConf;
+import org.apache.tajo.catalog.Column;
+import org.apache.tajo.datum.Datum;
+import org.apache.tajo.datum.NullDatum;
+import org.apache.tajo.engine.function.metrics.InstrumentedVectorizedFunction;
+import org.apache.tajo.plan.expr.FunctionEval;
+import org.apache.tajo.storage.Tuple;
+
+import java.util.Comparator;
+
+/**
+ * Abstract UDF Class which finds the greatest or the least value of its arguments.
+ * <p>
+ * {@link Greatest} and {@link Least} share this class, so that both families behave the same except for
+ * the direction of comparison. The generic {@link #eval(Tuple)} compares datums. The typed subclasses are
+ * generated with kernels which compare primitive values or UTF-8 bytes in place and return the datum of
+ * the winner as it is.
+ * <p>
+ * Null arguments are handled according to {@link FunctionSessionVars#GREATEST_LEAST_NULLS}.
+ * By default, the first null argument makes the result null without reading the rest.
+ * <p>
+ * In batches, arguments are processed one column at a time. For primitive values without a selection vector,
+ * null flags are propagated word by word and values are compared without branching on them.
+ */
+abstract class Extremum extends InstrumentedVectorizedFunction {
+  // compares UTF-8 bytes as unsigned values, which orders them by code point like the text datums
+  static final Comparator<byte[]> UNSIGNED_BYTES = new Comparator<byte[]>() {
+    @Override
+    public int compare(byte[] left, byte[] right) {
+      int length = Math.min(left.length, right.length);
+      int i = 0;
+      // compares eight bytes at a time as big-endian longs, unsigned by flipping their sign bits
+      for (; i + 8 <= length; i += 8) {
+        long l = getLong(left, i);
+        long r = getLong(right, i);
+        if (l != r) {
+          return (l ^ Long.MIN_VALUE) < (r ^ Long.MIN_VALUE) ? -1 : 1;
+        }
+      }
+      for (; i < length; i++) {
+        int diff = (left[i] & 0xff) - (right[i] & 0xff);
+        if (diff != 0) {
+          return diff;
+        }
+      }
+      return left.length - right.length;
+    }
+
+    private long getLong(byte[] bytes, int offset) {
+      return (bytes[offset] & 0xffL) << 56
+        | (bytes[offset + 1] & 0xffL) << 48
+        | (bytes[offset + 2] & 0xffL) << 40
+        | (bytes[offset + 3] & 0xffL) << 32
+        | (bytes[offset + 4] & 0xffL) << 24
+        | (bytes[offset + 5] & 0xffL) << 16
+        | (bytes[offset + 6] & 0xffL) << 8
+        | (bytes[offset + 7] & 0xffL);
+    }
+  };
+
+  // true for greatest(), false for least()
+  private final boolean greatest;
+  protected boolean ignoreNulls;
+
+  public Extremum(Column[] definedArgs, boolean greatest) {
+    super(definedArgs);
+    this.greatest = greatest;
+  }
+
+  @Override
+  public void init(OverridableConf context, FunctionEval.ParamType[] types) {
+    super.init(context, types);
+    ignoreNulls = context != null && FunctionSessionVars.NULLS_IGNORE.equalsIgnoreCase(
+      context.get(FunctionSessionVars.GREATEST_LEAST_NULLS, FunctionSessionVars.NULLS_PROPAGATE));
+  }
+
+  @Override
+  protected Datum doEval(Tuple params) {
+    Datum winner = null;
+    for (int i = 0; i < params.size(); i++) {
+      if (params.isBlankOrNull(i)) {
+        if (ignoreNulls) {
+          continue;
+        }
+        return NullDatum.get();
+      }
+      Datum datum = params.asDatum(i);
+      if (winner == null || (greatest ? datum.compareTo(winner) > 0 : datum.compareTo(winner) < 0)) {
+        winner = datum;
+      }
+    }
+    return winner == null ? NullDatum.get() : winner;
+  }
+}
@@ -16,27 +16,33 @@
  * limitations under the License.
  */
 
+
 package org.apache.tajo.engine.function;
 
-import org.apache.tajo.catalog.Column;
-import org.apache.tajo.common.TajoDataTypes;
 import org.apache.tajo.engine.function.annotation.Description;
 import org.apache.tajo.engine.function.annotation.ParamTypes;
 
+import static org.apache.tajo.common.TajoDataTypes.Type.TEXT;
+import static org.apache.tajo.common.TajoDataTypes.Type.TIMESTAMP;
+
+/**
+ * UDF for Hive function <code>FROM_UTC_TIMESTAMP()</code>.
+ */
 @Description(
-  functionName = "nvl",
-  description = "If expr1 is null, then NVL returns expr2. If expr1 is not null, then NVL returns expr1.",
-  example = "> SELECT nvl(dept, 'Not Applicable') FROM src;\n" +
-    " 'Not Applicable' if dept is null\n",
-  returnType = TajoDataTypes.Type.DATE,
-  paramTypes = {@ParamTypes(paramTypes = {TajoDataTypes.Type.DATE, TajoDataTypes.Type.DATE})}
+  functionName = "from_utc_timestamp",
+  description = "interprets a timestamp as UTC and converts it to the given time zone",
+  detail = "The time zone is an ID of java.util.TimeZone, e.g., 'Asia/Seoul' or 'GMT+9'. " +
+    "An unknown ID is taken as GMT.",
+  example = "> SELECT from_utc_timestamp(cast('2016-03-09 12:00:00' as timestamp), 'Asia/Seoul');\n"
+    + "2016-03-09 21:00:00",
+  returnType = TIMESTAMP,
+  paramTypes = {
+    @ParamTypes(paramTypes = {TIMESTAMP, TEXT})
+  }
 )
-public class NvlDate extends Nvl {
-  public NvlDate() {
-    super(new Column[] {
-      new Column("expr1", TajoDataTypes.Type.DATE),
-      new Column("expr2", TajoDataTypes.Type.DATE)
-    });
+public class FromUtcTimestamp extends TimeZoneConversion {
+  @Override
+  long convert(long timestamp, TimeZoneOffsets offsets) {
+    return offsets.toLocal(timestamp);
   }
 }
-
@@ -0,0 +1,55 @@
+/**
+ * Licensed to the Apache Software Foundation (ASF) under one
+ * or more contributor license agreements.  See the NOTICE file
+ * distributed with this work for additional information
+ * regarding copyright ownership.  The ASF licenses this file
+ * to you under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance
+ * with the License.  You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package org.apache.tajo.engine.function;
+
+/**
+ * Names of the session variables which change the behavior of the functions in this project.
+ * They can be set in tsql like <code>\set GREATEST_LEAST_NULLS ignore</code>.
+ */
+public final class FunctionSessionVars {
+  /**
+   * How <code>greatest()</code> and <code>least()</code> handle null arguments.
+   * {@link #NULLS_PROPAGATE} (default) returns null if any argument is null, like Oracle.
+   * {@link #NULLS_IGNORE} skips null arguments, and returns null only if all arguments are null.
+   */
+  public static final String GREATEST_LEAST_NULLS = "GREATEST_LEAST_NULLS";
+  public static final String NULLS_PROPAGATE = "propagate";
+  public static final String NULLS_IGNORE = "ignore";
+
+  /**
+   * The current time of <code>sysdate()</code> in milliseconds since the epoch. If it is not set,
+   * {@link org.apache.tajo.engine.function.rewrite.SysDateRewriteRule} sets it to the time when the query is
+   * planned. Without the rule, each function instance uses the time when it is initialized.
+   */
+  public static final String SYSDATE_TIMESTAMP = "SYSDATE_TIMESTAMP";
+
+  /**
+   * If it is <code>true</code>, functions which extend
+   * {@link org.apache.tajo.engine.function.metrics.InstrumentedFunction} record their runtime metrics.
+   */
+  public static final String UDF_METRICS = "UDF_METRICS";
+
+  /**
+   * The tag which groups the runtime metrics of functions, e.g. a query id. It is <code>default</code> if not set.
+   */
+  public static final String UDF_METRICS_TAG = "UDF_METRICS_TAG";
+
+  private FunctionSessionVars() {
+  }
+}
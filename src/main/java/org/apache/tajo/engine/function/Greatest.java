@@ -19,36 +19,46 @@
 package org.apache.tajo.engine.function;
 
 import org.apache.tajo.catalog.Column;
-import org.apache.tajo.datum.Datum;
-import org.apache.tajo.plan.function.GeneralFunction;
-import org.apache.tajo.storage.Tuple;
+import org.apache.tajo.engine.function.specialize.Kernel;
+import org.apache.tajo.engine.function.specialize.Specialize;
+import org.apache.tajo.engine.function.specialize.Variant;
+
+import static org.apache.tajo.common.TajoDataTypes.Type.DATE;
+import static org.apache.tajo.common.TajoDataTypes.Type.FLOAT4;
+import static org.apache.tajo.common.TajoDataTypes.Type.FLOAT8;
+import static org.apache.tajo.common.TajoDataTypes.Type.INT4;
+import static org.apache.tajo.common.TajoDataTypes.Type.INT8;
+import static org.apache.tajo.common.TajoDataTypes.Type.TEXT;
+import static org.apache.tajo.common.TajoDataTypes.Type.TIME;
+import static org.apache.tajo.common.TajoDataTypes.Type.TIMESTAMP;
 
 /**
  * Abstract UDF Class for SQL construct "greatest(value1, value2, value3, ....)".
  * Oracle's <a href="http://docs.oracle.com/cd/B28359_01/server.111/b28286/functions062.htm#SQLRF00645">GREATEST</a>
  * returns the greatest of the list of one or more expressions.
- *
+ * <p>
+ * The typed classes are generated by {@link org.apache.tajo.engine.function.specialize.SpecializationProcessor}.
  */
-abstract class Greatest extends GeneralFunction {
-  public Greatest(Column[] definedArgs) {
-    super(definedArgs);
+@Specialize(
+  kernel = Kernel.GREATEST,
+  functionName = "greatest",
+  description = "Returns the greatest value in the list.",
+  example = "> SELECT greatest(2, 5, 12, 3) FROM src;\n 12",
+  variants = {
+    @Variant(name = "GreatestInt", type = INT4),
+    @Variant(name = "GreatestLong", type = INT8),
+    @Variant(name = "GreatestFloat", type = FLOAT4, example = "> SELECT greatest(2.0, 5.0, 12.0, 3.0) FROM src;\n 12.0"),
+    @Variant(name = "GreatestDouble", type = FLOAT8, example = "> SELECT greatest(2.0, 5.0, 12.0, 3.0) FROM src;\n 12.0"),
+    @Variant(name = "GreatestText", type = TEXT,
+      example = "> SELECT greatest('apples', 'oranges', 'bananas') FROM src;\n 'oranges'"),
+    @Variant(name = "GreatestDate", type = DATE,
+      example = "> SELECT greatest(date '2016-01-01', date '2016-02-29') FROM src;\n 2016-02-29"),
+    @Variant(name = "GreatestTime", type = TIME),
+    @Variant(name = "GreatestTimestamp", type = TIMESTAMP)
   }
-
-  @Override
-  public Datum eval(Tuple params) {
-    Datum greatestDatum = params.asDatum(0);
-
-    if (params.size() == 1) {
-      return greatestDatum;
-    }
-
-    for (int i = 1; i < params.size(); i++) {
-      Datum datum = params.asDatum(i);
-      if (datum.compareTo(greatestDatum) > 0) {
-        greatestDatum = datum;
-      }
-    }
-
-    return greatestDatum;
+)
+abstract class Greatest extends Extremum {
+  public Greatest(Column[] definedArgs) {
+    super(definedArgs, true);
   }
 }
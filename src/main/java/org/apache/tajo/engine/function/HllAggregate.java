@@ -0,0 +1,116 @@
+/**
+ * Licensed to the Apache Software Foundation (ASF) under one
+ * or more contributor license agreements.  See the NOTICE file
+ * distributed with this work for additional information
+ * regarding copyright ownership.  The ASF licenses this file
+ * to you under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance
+ * with the License.  You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package org.apache.tajo.engine.function;
+
+import org.apache.tajo.catalog.CatalogUtil;
+import org.apache.tajo.catalog.Column;
+import org.apache.tajo.common.TajoDataTypes.DataType;
+import org.apache.tajo.common.TajoDataTypes.Type;
+import org.apache.tajo.datum.Datum;
+import org.apache.tajo.datum.DatumFactory;
+import org.apache.tajo.datum.NullDatum;
+import org.apache.tajo.engine.function.hll.HyperLogLog;
+import org.apache.tajo.plan.function.AggFunction;
+import org.apache.tajo.plan.function.FunctionContext;
+import org.apache.tajo.storage.Tuple;
+
+/**
+ * Abstract aggregate UDF Class which builds a {@link HyperLogLog} sketch.
+ * <p>
+ * The partial result of a task is the serialized sketch in a BLOB, which takes at most 12 KB for the default
+ * precision whatever the number of distinct values, so only the sketches are shuffled to be merged.
+ * The sketch of a group is created on its first non-null value, and the partial result is null until then.
+ */
+abstract class HllAggregate<T extends Datum> extends AggFunction<T> {
+  public HllAggregate(Column[] definedArgs) {
+    super(definedArgs);
+  }
+
+  @Override
+  public FunctionContext newContext() {
+    return new HllContext();
+  }
+
+  @Override
+  public void merge(FunctionContext ctx, Tuple part) {
+    if (part.isBlankOrNull(0)) {
+      return;
+    }
+    HllContext context = (HllContext) ctx;
+    HyperLogLog sketch = HyperLogLog.fromBytes(part.getBytes(0));
+    if (context.sketch == null) {
+      context.sketch = sketch;
+    } else {
+      context.sketch.merge(sketch);
+    }
+  }
+
+  @Override
+  public Datum getPartialResult(FunctionContext ctx) {
+    HyperLogLog sketch = ((HllContext) ctx).sketch;
+    return sketch == null ? NullDatum.get() : DatumFactory.createBlob(sketch.toBytes());
+  }
+
+  @Override
+  public DataType getPartialResultType() {
+    return CatalogUtil.newSimpleDataType(Type.BLOB);
+  }
+
+  /**
+   * Adds the first argument to the sketch, which is created with the precision of the optional second argument.
+   */
+  protected static void add(HllContext context, Tuple params) {
+    if (params.isBlankOrNull(0)) {
+      return;
+    }
+    if (context.sketch == null) {
+      context.sketch = new HyperLogLog(params.size() > 1 && !params.isBlankOrNull(1)
+        ? params.getInt4(1) : HyperLogLog.DEFAULT_PRECISION);
+    }
+
+    // integers of different widths, and floating point numbers of different widths, are hashed alike
+    HyperLogLog sketch = context.sketch;
+    switch (params.type(0)) {
+    case BOOLEAN:
+      sketch.addLong(params.getBool(0) ? 1 : 0);
+      break;
+    case INT1:
+    case INT2:
+    case INT4:
+    case DATE:
+      sketch.addLong(params.getInt4(0));
+      break;
+    case INT8:
+    case TIME:
+    case TIMESTAMP:
+      sketch.addLong(params.getInt8(0));
+      break;
+    case FLOAT4:
+    case FLOAT8:
+      sketch.addDouble(params.getFloat8(0));
+      break;
+    default:
+      sketch.addBytes(params.getBytes(0));
+    }
+  }
+
+  protected static class HllContext implements FunctionContext {
+    HyperLogLog sketch;
+  }
+}
@@ -0,0 +1,61 @@
+/**
+ * Licensed to the Apache Software Foundation (ASF) under one
+ * or more contributor license agreements.  See the NOTICE file
+ * distributed with this work for additional information
+ * regarding copyright ownership.  The ASF licenses this file
+ * to you under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance
+ * with the License.  You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package org.apache.tajo.engine.function;
+
+import org.apache.tajo.catalog.Column;
+import org.apache.tajo.datum.Datum;
+import org.apache.tajo.datum.DatumFactory;
+import org.apache.tajo.datum.NullDatum;
+import org.apache.tajo.engine.function.annotation.Description;
+import org.apache.tajo.engine.function.annotation.ParamTypes;
+import org.apache.tajo.engine.function.hll.HyperLogLog;
+import org.apache.tajo.engine.function.metrics.InstrumentedFunction;
+import org.apache.tajo.storage.Tuple;
+
+import static org.apache.tajo.common.TajoDataTypes.Type.BLOB;
+import static org.apache.tajo.common.TajoDataTypes.Type.INT8;
+
+/**
+ * UDF which estimates the number of distinct values of a sketch returned by {@link HllSketch} or {@link HllMerge}.
+ */
+@Description(
+  functionName = "hll_estimate",
+  description = "returns the approximate number of distinct values of a HyperLogLog++ sketch",
+  example = "> SELECT dt, hll_estimate(sketch) FROM daily_users;\n"
+    + "2016-03-01, 1032442",
+  returnType = INT8,
+  paramTypes = {
+    @ParamTypes(paramTypes = {BLOB})
+  }
+)
+public class HllEstimate extends InstrumentedFunction {
+  public HllEstimate() {
+    super(new Column[] {
+      new Column("sketch", BLOB)
+    });
+  }
+
+  @Override
+  protected Datum doEval(Tuple params) {
+    if (params.isBlankOrNull(0)) {
+      return NullDatum.get();
+    }
+    return DatumFactory.createInt8(HyperLogLog.fromBytes(params.getBytes(0)).estimate());
+  }
+}
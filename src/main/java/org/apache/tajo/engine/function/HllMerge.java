@@ -19,24 +19,42 @@
 package org.apache.tajo.engine.function;
 
 import org.apache.tajo.catalog.Column;
-import org.apache.tajo.common.TajoDataTypes;
+import org.apache.tajo.datum.Datum;
 import org.apache.tajo.engine.function.annotation.Description;
 import org.apache.tajo.engine.function.annotation.ParamTypes;
+import org.apache.tajo.plan.function.FunctionContext;
+import org.apache.tajo.storage.Tuple;
 
+import static org.apache.tajo.common.TajoDataTypes.Type.BLOB;
+
+/**
+ * Aggregate UDF which merges sketches returned by {@link HllSketch}.
+ */
 @Description(
-  functionName = "nvl",
-  description = "If expr1 is null, then NVL returns expr2. If expr1 is not null, then NVL returns expr1.",
-  example = "> SELECT nvl(dept, 'Not Applicable') FROM src;\n" +
-    " 'Not Applicable' if dept is null\n",
-  returnType = TajoDataTypes.Type.FLOAT8,
-  paramTypes = {@ParamTypes(paramTypes = {TajoDataTypes.Type.FLOAT8, TajoDataTypes.Type.FLOAT8})}
+  functionName = "hll_merge",
+  description = "returns the union of HyperLogLog++ sketches",
+  detail = "Sketches of different precisions are merged into the lowest one. Null sketches are ignored.",
+  example = "> SELECT hll_estimate(hll_merge(sketch)) FROM daily_users WHERE dt >= '2016-03-01';\n"
+    + "3120448",
+  returnType = BLOB,
+  paramTypes = {
+    @ParamTypes(paramTypes = {BLOB})
+  }
 )
-public class NvlDouble extends Nvl {
-  public NvlDouble() {
+public class HllMerge extends HllAggregate<Datum> {
+  public HllMerge() {
     super(new Column[] {
-      new Column("expr1", TajoDataTypes.Type.FLOAT8),
-      new Column("expr2", TajoDataTypes.Type.FLOAT8)
+      new Column("sketch", BLOB)
     });
   }
-}
 
+  @Override
+  public void eval(FunctionContext ctx, Tuple params) {
+    merge(ctx, params);
+  }
+
+  @Override
+  public Datum terminate(FunctionContext ctx) {
+    return getPartialResult(ctx);
+  }
+}
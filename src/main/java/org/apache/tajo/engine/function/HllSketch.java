@@ -0,0 +1,64 @@
+/**
+ * Licensed to the Apache Software Foundation (ASF) under one
+ * or more contributor license agreements.  See the NOTICE file
+ * distributed with this work for additional information
+ * regarding copyright ownership.  The ASF licenses this file
+ * to you under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance
+ * with the License.  You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package org.apache.tajo.engine.function;
+
+import org.apache.tajo.catalog.Column;
+import org.apache.tajo.datum.Datum;
+import org.apache.tajo.engine.function.annotation.Description;
+import org.apache.tajo.engine.function.annotation.ParamTypes;
+import org.apache.tajo.plan.function.FunctionContext;
+import org.apache.tajo.storage.Tuple;
+
+import static org.apache.tajo.common.TajoDataTypes.Type.ANY;
+import static org.apache.tajo.common.TajoDataTypes.Type.BLOB;
+import static org.apache.tajo.common.TajoDataTypes.Type.INT4;
+
+/**
+ * Aggregate UDF which returns the serialized {@link org.apache.tajo.engine.function.hll.HyperLogLog} sketch
+ * of the values, which can be stored and combined later by {@link HllMerge} and {@link HllEstimate}.
+ */
+@Description(
+  functionName = "hll_sketch",
+  description = "returns the HyperLogLog++ sketch of the non-null values",
+  detail = "The optional precision is between 4 and 18, 14 by default. It returns null if all values are null.",
+  example = "> SELECT dt, hll_sketch(user_id) FROM logs GROUP BY dt;",
+  returnType = BLOB,
+  paramTypes = {
+    @ParamTypes(paramTypes = {ANY}),
+    @ParamTypes(paramTypes = {ANY, INT4})
+  }
+)
+public class HllSketch extends HllAggregate<Datum> {
+  public HllSketch() {
+    super(new Column[] {
+      new Column("expr", ANY),
+      new Column("precision", INT4)
+    });
+  }
+
+  @Override
+  public void eval(FunctionContext ctx, Tuple params) {
+    add((HllContext) ctx, params);
+  }
+
+  @Override
+  public Datum terminate(FunctionContext ctx) {
+    return getPartialResult(ctx);
+  }
+}
@@ -18,26 +18,18 @@
 
 package org.apache.tajo.engine.function;
 
-import com.google.gson.annotations.Expose;
-import org.apache.tajo.OverridableConf;
-import org.apache.tajo.SessionVars;
 import org.apache.tajo.catalog.Column;
 import org.apache.tajo.common.TajoDataTypes;
-import org.apache.tajo.datum.*;
+import org.apache.tajo.datum.DateDatum;
+import org.apache.tajo.datum.Datum;
+import org.apache.tajo.datum.DatumFactory;
+import org.apache.tajo.datum.NullDatum;
 import org.apache.tajo.engine.function.annotation.Description;
 import org.apache.tajo.engine.function.annotation.ParamTypes;
-import org.apache.tajo.plan.expr.FunctionEval;
-import org.apache.tajo.plan.function.GeneralFunction;
+import org.apache.tajo.engine.function.codegen.StaticEntryPoint;
+import org.apache.tajo.engine.function.metrics.InstrumentedVectorizedFunction;
+import org.apache.tajo.engine.function.vector.ColumnVector;
 import org.apache.tajo.storage.Tuple;
-import org.apache.tajo.util.datetime.DateTimeFormat;
-import org.apache.tajo.util.datetime.DateTimeUtil;
-import org.apache.tajo.util.datetime.TimeMeta;
-
-import java.text.ParseException;
-import java.text.SimpleDateFormat;
-import java.util.Calendar;
-import java.util.TimeZone;
-
 
 /**
  * UDF for string function <code>LAST_DAY()</code>,
@@ -55,11 +47,20 @@ import java.util.TimeZone;
   }
 )
 
-public class LastDay extends GeneralFunction {
-  private final SimpleDateFormat standardFormatter = new SimpleDateFormat("yyyy-MM-dd");
+public class LastDay extends InstrumentedVectorizedFunction {
+  // Month ends in [MIN_YEAR, MAX_YEAR] are shared, indexed by the months since January of MIN_YEAR.
+  static final int MIN_YEAR = 1900;
+  static final int MAX_YEAR = 2100;
+  private static final DateDatum[] MONTH_ENDS = new DateDatum[(MAX_YEAR - MIN_YEAR + 1) * 12];
 
-  @Expose
-  private TimeZone timezone;
+  static {
+    for (int i = 0; i < MONTH_ENDS.length; i++) {
+      int year = MIN_YEAR + i / 12;
+      int month = i % 12 + 1;
+      MONTH_ENDS[i] = DatumFactory.createDate(
+        DateArithmetic.date2j(year, month, DateArithmetic.daysInMonth(year, month)));
+    }
+  }
 
   public LastDay() {
     super(new Column[]{
@@ -68,30 +69,37 @@ public class LastDay extends GeneralFunction {
   }
 
   @Override
-  public void init(OverridableConf context, FunctionEval.ParamType[] types) {
-    String timezoneId = context.get(SessionVars.TIMEZONE, "GMT");
-    this.timezone = TimeZone.getTimeZone(timezoneId);
-  }
-
-  @Override
-  public Datum eval(Tuple params) {
+  protected Datum doEval(Tuple params) {
     if (params.isBlankOrNull(0)) {
       return NullDatum.get();
     }
 
-    TimeMeta tm = params.getTimeDate(0);
-    DateTimeUtil.toUserTimezone(tm, this.timezone);
+    // a date is stored as a julian day, which has no time zone
+    return lastDayOfMonth(params.getInt4(0));
+  }
+
+  @Override
+  protected void doEvalBatch(ColumnVector[] args, int[] selected, int count, ColumnVector out) {
+    long[] dates = args[0].longs;
+    long[] result = out.longs;
 
-    Calendar calendar = Calendar.getInstance(this.timezone);
-    try {
-      calendar.setTime(standardFormatter.parse(
-        DatumFactory.createText(DateTimeFormat.to_char(tm, "YYYY-MM-DD")).asChars()));
-    } catch (ParseException e) {
-      e.printStackTrace();
+    out.copyNulls(args[0], selected, count);
+    for (int i = 0; i < count; i++) {
+      int row = selected == null ? i : selected[i];
+      result[row] = DateArithmetic.lastDayOfMonth((int) dates[row]);
     }
+  }
 
-    int lastDate = calendar.getActualMaximum(Calendar.DATE);
+  @StaticEntryPoint
+  public static int lastDay(int julianDay) {
+    return DateArithmetic.lastDayOfMonth(julianDay);
+  }
 
-    return DatumFactory.createDate(tm.years, tm.monthOfYear, lastDate);
+  static DateDatum lastDayOfMonth(int julianDay) {
+    int index = DateArithmetic.j2months(julianDay) - MIN_YEAR * 12;
+    if (index >= 0 && index < MONTH_ENDS.length) {
+      return MONTH_ENDS[index];
+    }
+    return DatumFactory.createDate(DateArithmetic.lastDayOfMonth(julianDay));
   }
-}
\ No newline at end of file
+}
@@ -0,0 +1,64 @@
+/**
+ * Licensed to the Apache Software Foundation (ASF) under one
+ * or more contributor license agreements.  See the NOTICE file
+ * distributed with this work for additional information
+ * regarding copyright ownership.  The ASF licenses this file
+ * to you under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance
+ * with the License.  You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package org.apache.tajo.engine.function;
+
+import org.apache.tajo.catalog.Column;
+import org.apache.tajo.engine.function.specialize.Kernel;
+import org.apache.tajo.engine.function.specialize.Specialize;
+import org.apache.tajo.engine.function.specialize.Variant;
+
+import static org.apache.tajo.common.TajoDataTypes.Type.DATE;
+import static org.apache.tajo.common.TajoDataTypes.Type.FLOAT4;
+import static org.apache.tajo.common.TajoDataTypes.Type.FLOAT8;
+import static org.apache.tajo.common.TajoDataTypes.Type.INT4;
+import static org.apache.tajo.common.TajoDataTypes.Type.INT8;
+import static org.apache.tajo.common.TajoDataTypes.Type.TEXT;
+import static org.apache.tajo.common.TajoDataTypes.Type.TIME;
+import static org.apache.tajo.common.TajoDataTypes.Type.TIMESTAMP;
+
+/**
+ * Abstract UDF Class for SQL construct "least(value1, value2, value3, ....)".
+ * Oracle's <a href="http://docs.oracle.com/cd/B28359_01/server.111/b28286/functions075.htm">LEAST</a>
+ * returns the least of the list of one or more expressions.
+ * <p>
+ * The typed classes are generated by {@link org.apache.tajo.engine.function.specialize.SpecializationProcessor}.
+ */
+@Specialize(
+  kernel = Kernel.LEAST,
+  functionName = "least",
+  description = "Returns the least value in the list.",
+  example = "> SELECT least(2, 5, 12, 3) FROM src;\n 2",
+  variants = {
+    @Variant(name = "LeastInt", type = INT4),
+    @Variant(name = "LeastLong", type = INT8),
+    @Variant(name = "LeastFloat", type = FLOAT4, example = "> SELECT least(2.0, 5.0, 12.0, 3.0) FROM src;\n 2.0"),
+    @Variant(name = "LeastDouble", type = FLOAT8, example = "> SELECT least(2.0, 5.0, 12.0, 3.0) FROM src;\n 2.0"),
+    @Variant(name = "LeastText", type = TEXT,
+      example = "> SELECT least('apples', 'oranges', 'bananas') FROM src;\n 'apples'"),
+    @Variant(name = "LeastDate", type = DATE,
+      example = "> SELECT least(date '2016-01-01', date '2016-02-29') FROM src;\n 2016-01-01"),
+    @Variant(name = "LeastTime", type = TIME),
+    @Variant(name = "LeastTimestamp", type = TIMESTAMP)
+  }
+)
+abstract class Least extends Extremum {
+  public Least(Column[] definedArgs) {
+    super(definedArgs, false);
+  }
+}
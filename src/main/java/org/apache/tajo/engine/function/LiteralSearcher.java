@@ -0,0 +1,78 @@
+/**
+ * Licensed to the Apache Software Foundation (ASF) under one
+ * or more contributor license agreements.  See the NOTICE file
+ * distributed with this work for additional information
+ * regarding copyright ownership.  The ASF licenses this file
+ * to you under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance
+ * with the License.  You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package org.apache.tajo.engine.function;
+
+import java.util.Arrays;
+
+/**
+ * Boyer-Moore-Horspool substring search over raw bytes.
+ * <p>
+ * Since UTF-8 is self-synchronizing, a match of a valid UTF-8 pattern in a valid UTF-8 text
+ * always starts at a character boundary. So the text does not need to be decoded.
+ */
+class LiteralSearcher {
+  private final byte[] pattern;
+  private final int[] shift = new int[256];
+
+  public LiteralSearcher(byte[] pattern) {
+    if (pattern.length == 0) {
+      throw new IllegalArgumentException("pattern must not be empty");
+    }
+    this.pattern = pattern;
+
+    int last = pattern.length - 1;
+    Arrays.fill(shift, pattern.length);
+    for (int i = 0; i < last; i++) {
+      shift[pattern[i] & 0xff] = last - i;
+    }
+  }
+
+  public int length() {
+    return pattern.length;
+  }
+
+  public boolean isSamePattern(byte[] other) {
+    return Arrays.equals(pattern, other);
+  }
+
+  /**
+   * Returns the offset of the first occurrence of the pattern in <code>text[from, end)</code>,
+   * or -1 if there is no occurrence.
+   */
+  public int indexOf(byte[] text, int from, int end) {
+    int last = pattern.length - 1;
+    byte lastByte = pattern[last];
+
+    int i = from;
+    while (i <= end - pattern.length) {
+      byte b = text[i + last];
+      if (b == lastByte) {
+        int j = last - 1;
+        while (j >= 0 && text[i + j] == pattern[j]) {
+          j--;
+        }
+        if (j < 0) {
+          return i;
+        }
+      }
+      i += shift[b & 0xff];
+    }
+    return -1;
+  }
+}
@@ -0,0 +1,88 @@
+/**
+ * Licensed to the Apache Software Foundation (ASF) under one
+ * or more contributor license agreements.  See the NOTICE file
+ * distributed with this work for additional information
+ * regarding copyright ownership.  The ASF licenses this file
+ * to you under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance
+ * with the License.  You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+
+package org.apache.tajo.engine.function;
+
+import org.apache.tajo.catalog.Column;
+import org.apache.tajo.datum.Datum;
+import org.apache.tajo.datum.DatumFactory;
+import org.apache.tajo.datum.NullDatum;
+import org.apache.tajo.engine.function.annotation.Description;
+import org.apache.tajo.engine.function.annotation.ParamTypes;
+import org.apache.tajo.engine.function.codegen.StaticEntryPoint;
+import org.apache.tajo.engine.function.metrics.InstrumentedVectorizedFunction;
+import org.apache.tajo.engine.function.vector.ColumnVector;
+import org.apache.tajo.storage.Tuple;
+
+import static org.apache.tajo.common.TajoDataTypes.Type.DATE;
+import static org.apache.tajo.common.TajoDataTypes.Type.FLOAT8;
+
+/**
+ * UDF for Oracle function <code>MONTHS_BETWEEN()</code>,
+ * <a href="http://docs.oracle.com/cd/B28359_01/server.111/b28286/functions094.htm">MONTHS_BETWEEN</a>.
+ */
+@Description(
+  functionName = "months_between",
+  description = "returns the number of months between date1 and date2",
+  detail = "The result is positive if date1 is later than date2. It is an integer if both dates have the same " +
+    "day of month or both are the last days of their months. Otherwise, the fractional part is based on " +
+    "31-day months.",
+  example = "> SELECT months_between(cast('2016-03-15' as date), cast('2016-01-31' as date));\n"
+    + "1.4838709677419355",
+  returnType = FLOAT8,
+  paramTypes = {
+    @ParamTypes(paramTypes = {DATE, DATE})
+  }
+)
+public class MonthsBetween extends InstrumentedVectorizedFunction {
+  public MonthsBetween() {
+    super(new Column[] {
+      new Column("date1", DATE),
+      new Column("date2", DATE)
+    });
+  }
+
+  @Override
+  protected Datum doEval(Tuple params) {
+    if (params.isBlankOrNull(0) || params.isBlankOrNull(1)) {
+      return NullDatum.get();
+    }
+
+    return DatumFactory.createFloat8(monthsBetween(params.getInt4(0), params.getInt4(1)));
+  }
+
+  @Override
+  protected void doEvalBatch(ColumnVector[] args, int[] selected, int count, ColumnVector out) {
+    long[] dates1 = args[0].longs;
+    long[] dates2 = args[1].longs;
+    double[] result = out.doubles;
+
+    out.copyNulls(args[0], selected, count);
+    out.orNulls(args[1], selected, count);
+    for (int i = 0; i < count; i++) {
+      int row = selected == null ? i : selected[i];
+      result[row] = DateArithmetic.monthsBetween((int) dates1[row], (int) dates2[row]);
+    }
+  }
+
+  @StaticEntryPoint
+  public static double monthsBetween(int julianDay1, int julianDay2) {
+    return DateArithmetic.monthsBetween(julianDay1, julianDay2);
+  }
+}
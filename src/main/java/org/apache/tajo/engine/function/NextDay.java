@@ -0,0 +1,124 @@
+/**
+ * Licensed to the Apache Software Foundation (ASF) under one
+ * or more contributor license agreements.  See the NOTICE file
+ * distributed with this work for additional information
+ * regarding copyright ownership.  The ASF licenses this file
+ * to you under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance
+ * with the License.  You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+
+package org.apache.tajo.engine.function;
+
+import org.apache.tajo.catalog.Column;
+import org.apache.tajo.datum.Datum;
+import org.apache.tajo.datum.DatumFactory;
+import org.apache.tajo.datum.NullDatum;
+import org.apache.tajo.engine.function.annotation.Description;
+import org.apache.tajo.engine.function.annotation.ParamTypes;
+import org.apache.tajo.engine.function.metrics.InstrumentedVectorizedFunction;
+import org.apache.tajo.engine.function.vector.ColumnVector;
+import org.apache.tajo.storage.Tuple;
+
+import java.nio.charset.StandardCharsets;
+import java.util.Arrays;
+import java.util.Locale;
+
+import static org.apache.tajo.common.TajoDataTypes.Type.DATE;
+import static org.apache.tajo.common.TajoDataTypes.Type.TEXT;
+
+/**
+ * UDF for Oracle function <code>NEXT_DAY()</code>,
+ * <a href="http://docs.oracle.com/cd/B28359_01/server.111/b28286/functions102.htm">NEXT_DAY</a>.
+ */
+@Description(
+  functionName = "next_day",
+  description = "returns the date of the first weekday named by char that is later than the date",
+  detail = "The weekday is an English day name or its abbreviation of at least three letters, " +
+    "which is case-insensitive.",
+  example = "> SELECT next_day(cast('2016-03-29' as date), 'FRIDAY');\n"
+    + "2016-04-01",
+  returnType = DATE,
+  paramTypes = {
+    @ParamTypes(paramTypes = {DATE, TEXT})
+  }
+)
+public class NextDay extends InstrumentedVectorizedFunction {
+  private static final String[] DAY_NAMES =
+    {"SUNDAY", "MONDAY", "TUESDAY", "WEDNESDAY", "THURSDAY", "FRIDAY", "SATURDAY"};
+
+  // the day of week of the last weekday argument, which is usually a constant
+  private Datum lastDayName;
+  private byte[] lastDayNameBytes;
+  private int lastDayOfWeek;
+
+  public NextDay() {
+    super(new Column[] {
+      new Column("date", DATE),
+      new Column("char", TEXT)
+    });
+  }
+
+  @Override
+  protected Datum doEval(Tuple params) {
+    if (params.isBlankOrNull(0) || params.isBlankOrNull(1)) {
+      return NullDatum.get();
+    }
+
+    Datum dayName = params.asDatum(1);
+    if (dayName != lastDayName) {
+      lastDayOfWeek = dayOfWeek(dayName.asChars());
+      lastDayName = dayName;
+      lastDayNameBytes = null;
+    }
+    return DatumFactory.createDate(DateArithmetic.nextDay(params.getInt4(0), lastDayOfWeek));
+  }
+
+  @Override
+  protected void doEvalBatch(ColumnVector[] args, int[] selected, int count, ColumnVector out) {
+    long[] dates = args[0].longs;
+    byte[][] dayNames = args[1].bytes;
+    long[] result = out.longs;
+
+    out.copyNulls(args[0], selected, count);
+    out.orNulls(args[1], selected, count);
+    for (int i = 0; i < count; i++) {
+      int row = selected == null ? i : selected[i];
+      if (out.isNull(row)) {
+        continue;
+      }
+      if (!Arrays.equals(dayNames[row], lastDayNameBytes)) {
+        lastDayOfWeek = dayOfWeek(new String(dayNames[row], StandardCharsets.UTF_8));
+        lastDayNameBytes = dayNames[row].clone();
+        lastDayName = null;
+      }
+      result[row] = DateArithmetic.nextDay((int) dates[row], lastDayOfWeek);
+    }
+  }
+
+  /**
+   * Returns the day of week of a day name, from 0 for Sunday to 6 for Saturday.
+   *
+   * @throws IllegalArgumentException if it is not a day name
+   */
+  static int dayOfWeek(String dayName) {
+    String name = dayName.trim().toUpperCase(Locale.ENGLISH);
+    if (name.length() >= 3) {
+      for (int i = 0; i < DAY_NAMES.length; i++) {
+        if (DAY_NAMES[i].startsWith(name)) {
+          return i;
+        }
+      }
+    }
+    throw new IllegalArgumentException("Invalid day of the week: " + dayName);
+  }
+}
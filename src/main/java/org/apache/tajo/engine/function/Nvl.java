@@ -20,9 +20,23 @@ package org.apache.tajo.engine.function;
 
 import org.apache.tajo.catalog.Column;
 import org.apache.tajo.datum.Datum;
-import org.apache.tajo.plan.function.GeneralFunction;
+import org.apache.tajo.engine.function.metrics.InstrumentedVectorizedFunction;
+import org.apache.tajo.engine.function.specialize.Kernel;
+import org.apache.tajo.engine.function.specialize.Specialize;
+import org.apache.tajo.engine.function.specialize.Variant;
+import org.apache.tajo.engine.function.vector.ColumnVector;
 import org.apache.tajo.storage.Tuple;
 
+import static org.apache.tajo.common.TajoDataTypes.Type.BOOLEAN;
+import static org.apache.tajo.common.TajoDataTypes.Type.DATE;
+import static org.apache.tajo.common.TajoDataTypes.Type.FLOAT4;
+import static org.apache.tajo.common.TajoDataTypes.Type.FLOAT8;
+import static org.apache.tajo.common.TajoDataTypes.Type.INT4;
+import static org.apache.tajo.common.TajoDataTypes.Type.INT8;
+import static org.apache.tajo.common.TajoDataTypes.Type.TEXT;
+import static org.apache.tajo.common.TajoDataTypes.Type.TIME;
+import static org.apache.tajo.common.TajoDataTypes.Type.TIMESTAMP;
+
 /**
  * Abstract UDF Class for SQL construct "nvl(expr1, expr2)". see <a href=
  * "http://docs.oracle.com/cd/B28359_01/server.111/b28286/functions110.htm" >NVL</a>.
@@ -31,20 +45,45 @@ import org.apache.tajo.storage.Tuple;
  * but it is convenient to convert from Oracle SQL to Tajo SQL without query
  * changes.
  * <p>
- *
+ * The typed classes are generated by {@link org.apache.tajo.engine.function.specialize.SpecializationProcessor}.
+ * They share the evaluation of this class, which returns an argument without reading its value.
  */
-abstract class Nvl extends GeneralFunction {
+@Specialize(
+  kernel = Kernel.NVL,
+  functionName = "nvl",
+  description = "If expr1 is null, then NVL returns expr2. If expr1 is not null, then NVL returns expr1.",
+  example = "> SELECT nvl(dept, 'Not Applicable') FROM src;\n 'Not Applicable' if dept is null\n",
+  variants = {
+    @Variant(name = "NvlBoolean", type = BOOLEAN),
+    @Variant(name = "NvlInt", type = INT4),
+    @Variant(name = "NvlLong", type = INT8),
+    @Variant(name = "NvlFloat", type = FLOAT4),
+    @Variant(name = "NvlDouble", type = FLOAT8),
+    @Variant(name = "NvlText", type = TEXT),
+    @Variant(name = "NvlDate", type = DATE),
+    @Variant(name = "NvlTime", type = TIME),
+    @Variant(name = "NvlTimestamp", type = TIMESTAMP)
+  }
+)
+abstract class Nvl extends InstrumentedVectorizedFunction {
   public Nvl(Column[] definedArgs) {
     super(definedArgs);
   }
 
   @Override
-  public Datum eval(Tuple params) {
+  protected Datum doEval(Tuple params) {
     if (params.isBlankOrNull(0)) {
       return params.asDatum(1);
     } else {
       return params.asDatum(0);
     }
   }
-}
 
+  @Override
+  protected void doEvalBatch(ColumnVector[] args, int[] selected, int count, ColumnVector out) {
+    out.copyFrom(args[0], selected, count);
+    for (int arg = 1; arg < args.length; arg++) {
+      out.fillNulls(args[arg], selected, count);
+    }
+  }
+}
@@ -21,9 +21,21 @@ package org.apache.tajo.engine.function;
 import org.apache.tajo.catalog.Column;
 import org.apache.tajo.datum.Datum;
 import org.apache.tajo.datum.NullDatum;
-import org.apache.tajo.plan.function.GeneralFunction;
+import org.apache.tajo.engine.function.metrics.InstrumentedVectorizedFunction;
+import org.apache.tajo.engine.function.specialize.Kernel;
+import org.apache.tajo.engine.function.specialize.Specialize;
+import org.apache.tajo.engine.function.specialize.Variant;
+import org.apache.tajo.engine.function.vector.ColumnVector;
 import org.apache.tajo.storage.Tuple;
 
+import static org.apache.tajo.common.TajoDataTypes.Type.BOOLEAN;
+import static org.apache.tajo.common.TajoDataTypes.Type.DATE;
+import static org.apache.tajo.common.TajoDataTypes.Type.FLOAT8;
+import static org.apache.tajo.common.TajoDataTypes.Type.INT8;
+import static org.apache.tajo.common.TajoDataTypes.Type.TEXT;
+import static org.apache.tajo.common.TajoDataTypes.Type.TIME;
+import static org.apache.tajo.common.TajoDataTypes.Type.TIMESTAMP;
+
 /**
  * Abstract UDF Class for SQL construct "nvl2(expr1, expr2, expr3)". see <a href=
  * "http://docs.oracle.com/cd/B28359_01/server.111/b28286/functions111.htm" >NVL2</a>.
@@ -32,15 +44,33 @@ import org.apache.tajo.storage.Tuple;
  * but it is convenient to convert from Oracle SQL to Tajo SQL without query
  * changes.
  * <p>
- *
+ * The typed classes are generated by {@link org.apache.tajo.engine.function.specialize.SpecializationProcessor}.
+ * They share the evaluation of this class, which returns an argument without reading its value.
  */
-abstract class Nvl2 extends GeneralFunction {
+@Specialize(
+  kernel = Kernel.NVL2,
+  functionName = "nvl2",
+  description = "Returns the first of its arguments that is not null.",
+  detail = "If UdfLogicalPlanRewriteRuleProvider is enabled, NVL2 is planned as a CASE expression; " +
+    "that is, arguments to the right of the first non-null argument are not evaluated",
+  variants = {
+    @Variant(name = "Nvl2Boolean", type = BOOLEAN, example = "> SELECT nvl2(null, null, true);\ntrue"),
+    @Variant(name = "Nvl2Long", type = INT8, example = "> SELECT nvl2(null, null, 10);\n10"),
+    @Variant(name = "Nvl2Double", type = FLOAT8, example = "> SELECT nvl2(null, null, 10.0);\n10.0"),
+    @Variant(name = "Nvl2Text", type = TEXT, example = "> SELECT nvl2(null, null, 'default');\ndefault"),
+    @Variant(name = "Nvl2Date", type = DATE, example = "> SELECT nvl2(null, null, date '2014-01-01');\n2014-01-01"),
+    @Variant(name = "Nvl2Time", type = TIME, example = "> SELECT nvl2(null, null, time '12:10:00');\n12:10:00"),
+    @Variant(name = "Nvl2Timestamp", type = TIMESTAMP,
+      example = "> SELECT nvl2(null, null, timestamp '2014-01-01');\n2014-01-01 00:00:00")
+  }
+)
+abstract class Nvl2 extends InstrumentedVectorizedFunction {
   public Nvl2(Column[] definedArgs) {
     super(definedArgs);
   }
 
   @Override
-  public Datum eval(Tuple params) {
+  protected Datum doEval(Tuple params) {
     int paramSize = params.size();
     for (int i = 0; i < paramSize; i++) {
       if (params.isBlankOrNull(i)) {
@@ -50,5 +80,12 @@ abstract class Nvl2 extends GeneralFunction {
     }
     return NullDatum.get();
   }
-}
 
+  @Override
+  protected void doEvalBatch(ColumnVector[] args, int[] selected, int count, ColumnVector out) {
+    out.copyFrom(args[0], selected, count);
+    for (int arg = 1; arg < args.length; arg++) {
+      out.fillNulls(args[arg], selected, count);
+    }
+  }
+}
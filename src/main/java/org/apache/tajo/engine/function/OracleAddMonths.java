@@ -0,0 +1,90 @@
+/**
+ * Licensed to the Apache Software Foundation (ASF) under one
+ * or more contributor license agreements.  See the NOTICE file
+ * distributed with this work for additional information
+ * regarding copyright ownership.  The ASF licenses this file
+ * to you under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance
+ * with the License.  You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+
+package org.apache.tajo.engine.function;
+
+import org.apache.tajo.catalog.Column;
+import org.apache.tajo.datum.Datum;
+import org.apache.tajo.datum.DatumFactory;
+import org.apache.tajo.datum.NullDatum;
+import org.apache.tajo.engine.function.annotation.Description;
+import org.apache.tajo.engine.function.annotation.ParamTypes;
+import org.apache.tajo.engine.function.codegen.StaticEntryPoint;
+import org.apache.tajo.engine.function.metrics.InstrumentedVectorizedFunction;
+import org.apache.tajo.engine.function.vector.ColumnVector;
+import org.apache.tajo.storage.Tuple;
+
+import static org.apache.tajo.common.TajoDataTypes.Type.DATE;
+import static org.apache.tajo.common.TajoDataTypes.Type.INT4;
+
+/**
+ * UDF for Oracle function <code>ADD_MONTHS()</code>,
+ * <a href="http://docs.oracle.com/cd/B28359_01/server.111/b28286/functions004.htm">ADD_MONTHS</a>.
+ * <p>
+ * It is named <code>oracle_add_months</code> because Tajo has a built-in <code>add_months</code>,
+ * which does not move the last day of a month to the last day of the resulting month.
+ */
+@Description(
+  functionName = "oracle_add_months",
+  description = "returns the date plus n months",
+  detail = "If the date is the last day of its month, or the resulting month has fewer days than the day " +
+    "of the date, the result is the last day of the resulting month.",
+  example = "> SELECT oracle_add_months(cast('2016-01-31' as date), 1);\n"
+    + "2016-02-29",
+  returnType = DATE,
+  paramTypes = {
+    @ParamTypes(paramTypes = {DATE, INT4})
+  }
+)
+public class OracleAddMonths extends InstrumentedVectorizedFunction {
+  public OracleAddMonths() {
+    super(new Column[] {
+      new Column("date", DATE),
+      new Column("n", INT4)
+    });
+  }
+
+  @Override
+  protected Datum doEval(Tuple params) {
+    if (params.isBlankOrNull(0) || params.isBlankOrNull(1)) {
+      return NullDatum.get();
+    }
+
+    return DatumFactory.createDate(addMonths(params.getInt4(0), params.getInt4(1)));
+  }
+
+  @Override
+  protected void doEvalBatch(ColumnVector[] args, int[] selected, int count, ColumnVector out) {
+    long[] dates = args[0].longs;
+    long[] monthNums = args[1].longs;
+    long[] result = out.longs;
+
+    out.copyNulls(args[0], selected, count);
+    out.orNulls(args[1], selected, count);
+    for (int i = 0; i < count; i++) {
+      int row = selected == null ? i : selected[i];
+      result[row] = DateArithmetic.addMonths((int) dates[row], (int) monthNums[row]);
+    }
+  }
+
+  @StaticEntryPoint
+  public static int addMonths(int julianDay, int monthNum) {
+    return DateArithmetic.addMonths(julianDay, monthNum);
+  }
+}
@@ -0,0 +1,90 @@
+/**
+ * Licensed to the Apache Software Foundation (ASF) under one
+ * or more contributor license agreements.  See the NOTICE file
+ * distributed with this work for additional information
+ * regarding copyright ownership.  The ASF licenses this file
+ * to you under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance
+ * with the License.  You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+
+package org.apache.tajo.engine.function;
+
+import org.apache.tajo.catalog.Column;
+import org.apache.tajo.common.TajoDataTypes;
+import org.apache.tajo.datum.Datum;
+import org.apache.tajo.datum.DatumFactory;
+import org.apache.tajo.datum.NullDatum;
+import org.apache.tajo.engine.function.annotation.Description;
+import org.apache.tajo.engine.function.annotation.ParamTypes;
+import org.apache.tajo.storage.Tuple;
+import org.apache.tajo.util.datetime.DateTimeUtil;
+import org.apache.tajo.util.datetime.TimeMeta;
+
+import static org.apache.tajo.common.TajoDataTypes.Type.DATE;
+import static org.apache.tajo.common.TajoDataTypes.Type.TEXT;
+import static org.apache.tajo.common.TajoDataTypes.Type.TIMESTAMP;
+
+/**
+ * UDF for Oracle function <code>TO_CHAR(datetime)</code>,
+ * <a href="http://docs.oracle.com/cd/B28359_01/server.111/b28286/functions193.htm">TO_CHAR (datetime)</a>.
+ * <p>
+ * It is named <code>oracle_to_char</code> because Tajo has a built-in <code>to_char</code>.
+ * Unlike it, the pattern is compiled once, and the result is rendered into a reusable buffer.
+ */
+@Description(
+  functionName = "oracle_to_char",
+  description = "converts a timestamp or a date to a string in the format fmt",
+  detail = "The format accepts the patterns of to_char, e.g., YYYY, MM, DD, HH24, MI, SS, MONTH, DY and AM. " +
+    "A timestamp is converted to the session time zone.",
+  example = "> SELECT oracle_to_char(cast('2016-03-09 17:05:07' as timestamp), 'YYYYMMDD HH24');\n"
+    + "20160309 17",
+  returnType = TEXT,
+  paramTypes = {
+    @ParamTypes(paramTypes = {TIMESTAMP, TEXT}),
+    @ParamTypes(paramTypes = {DATE, TEXT})
+  }
+)
+public class OracleToChar extends DateFormatFunction {
+  private final TimeMeta tm = new TimeMeta();
+  private final DateFormatProgram.Buffer buffer = new DateFormatProgram.Buffer();
+
+  public OracleToChar() {
+    super(new Column[] {
+      new Column("datetime", TIMESTAMP),
+      new Column("fmt", TEXT)
+    });
+  }
+
+  @Override
+  protected Datum doEval(Tuple params) {
+    if (params.isBlankOrNull(0) || params.isBlankOrNull(1)) {
+      return NullDatum.get();
+    }
+
+    DateFormatProgram program = getProgram(params.asDatum(1));
+    Datum datetime = params.asDatum(0);
+    if (datetime.type() == TajoDataTypes.Type.DATE) {
+      DateArithmetic.toTimeMeta(datetime.asInt4(), tm);
+      tm.hours = 0;
+      tm.minutes = 0;
+      tm.secs = 0;
+      tm.fsecs = 0;
+    } else {
+      DateTimeUtil.toJulianTimeMeta(offsets.toLocal(datetime.asInt8()), tm);
+    }
+
+    buffer.clear();
+    program.format(tm, buffer);
+    return DatumFactory.createText(buffer.toByteArray());
+  }
+}
@@ -0,0 +1,86 @@
+/**
+ * Licensed to the Apache Software Foundation (ASF) under one
+ * or more contributor license agreements.  See the NOTICE file
+ * distributed with this work for additional information
+ * regarding copyright ownership.  The ASF licenses this file
+ * to you under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance
+ * with the License.  You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+
+package org.apache.tajo.engine.function;
+
+import org.apache.tajo.OverridableConf;
+import org.apache.tajo.catalog.Column;
+import org.apache.tajo.datum.Datum;
+import org.apache.tajo.datum.DatumFactory;
+import org.apache.tajo.datum.NullDatum;
+import org.apache.tajo.engine.function.annotation.Description;
+import org.apache.tajo.engine.function.annotation.ParamTypes;
+import org.apache.tajo.plan.expr.FunctionEval;
+import org.apache.tajo.storage.Tuple;
+import org.apache.tajo.util.datetime.DateTimeUtil;
+import org.apache.tajo.util.datetime.TimeMeta;
+
+import static org.apache.tajo.common.TajoDataTypes.Type.TEXT;
+import static org.apache.tajo.common.TajoDataTypes.Type.TIMESTAMP;
+
+/**
+ * UDF for Oracle function <code>TO_DATE()</code>,
+ * <a href="http://docs.oracle.com/cd/B28359_01/server.111/b28286/functions197.htm">TO_DATE</a>.
+ * <p>
+ * It is named <code>oracle_to_date</code> because Tajo has a built-in <code>to_date</code>, which
+ * returns a date without the time of day. Like an Oracle DATE, the result of this function keeps the
+ * time of day, so it is a timestamp.
+ */
+@Description(
+  functionName = "oracle_to_date",
+  description = "converts a string in the format fmt to a timestamp in the session time zone",
+  detail = "The format accepts the patterns of oracle_to_char. Omitted date fields are January 1st " +
+    "of the current year, and omitted time fields are 0. YY, YYY and Y take the omitted digits " +
+    "from the current year.",
+  example = "> SELECT oracle_to_date('09-MAR-2016 17:05', 'DD-MON-YYYY HH24:MI');\n"
+    + "2016-03-09 17:05:00",
+  returnType = TIMESTAMP,
+  paramTypes = {
+    @ParamTypes(paramTypes = {TEXT, TEXT})
+  }
+)
+public class OracleToDate extends DateFormatFunction {
+  private final TimeMeta tm = new TimeMeta();
+  private int currentYear;
+
+  public OracleToDate() {
+    super(new Column[] {
+      new Column("char", TEXT),
+      new Column("fmt", TEXT)
+    });
+  }
+
+  @Override
+  public void init(OverridableConf context, FunctionEval.ParamType[] types) {
+    super.init(context, types);
+    TimeMeta now = new TimeMeta();
+    DateTimeUtil.toJulianTimeMeta(offsets.toLocal(DateTimeUtil.javaTimeToJulianTime(System.currentTimeMillis())), now);
+    currentYear = now.years;
+  }
+
+  @Override
+  protected Datum doEval(Tuple params) {
+    if (params.isBlankOrNull(0) || params.isBlankOrNull(1)) {
+      return NullDatum.get();
+    }
+
+    getProgram(params.asDatum(1)).parse(params.getText(0), tm, currentYear);
+    return DatumFactory.createTimestamp(offsets.toUtc(DateTimeUtil.toJulianTimestamp(tm)));
+  }
+}
@@ -0,0 +1,71 @@
+/**
+ * Licensed to the Apache Software Foundation (ASF) under one
+ * or more contributor license agreements.  See the NOTICE file
+ * distributed with this work for additional information
+ * regarding copyright ownership.  The ASF licenses this file
+ * to you under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance
+ * with the License.  You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package org.apache.tajo.engine.function;
+
+import org.apache.tajo.catalog.Column;
+import org.apache.tajo.common.TajoDataTypes;
+import org.apache.tajo.datum.Datum;
+import org.apache.tajo.datum.DatumFactory;
+import org.apache.tajo.datum.NullDatum;
+import org.apache.tajo.engine.function.annotation.Description;
+import org.apache.tajo.engine.function.annotation.ParamTypes;
+import org.apache.tajo.storage.Tuple;
+
+/**
+ * UDF for string function <code>REGEXP_EXTRACT()</code>. It returns the given group of the first match,
+ * or the whole match if the group is omitted. If there is no match, it returns null.
+ */
+@Description(
+  functionName = "regexp_extract",
+  description = "returns the group of the first substring which matches the regular expression pattern",
+  example = "> SELECT regexp_extract('tajo-1234', '([a-z]+)-([0-9]+)', 2) FROM src;\n",
+  returnType = TajoDataTypes.Type.TEXT,
+  paramTypes = {
+    @ParamTypes(paramTypes = {TajoDataTypes.Type.TEXT, TajoDataTypes.Type.TEXT}),
+    @ParamTypes(paramTypes = {TajoDataTypes.Type.TEXT, TajoDataTypes.Type.TEXT, TajoDataTypes.Type.INT4})
+  }
+)
+public class RegexpExtract extends RegexpFunction {
+
+  public RegexpExtract() {
+    super(new Column[]{
+      new Column("source_char", TajoDataTypes.Type.TEXT),
+      new Column("pattern", TajoDataTypes.Type.TEXT),
+      new Column("group", TajoDataTypes.Type.INT4)
+    });
+  }
+
+  @Override
+  protected Datum doEval(Tuple params) {
+    if (params.isBlankOrNull(0) || params.isBlankOrNull(1)) {
+      return NullDatum.get();
+    }
+
+    int group = 0;
+    if (params.size() > 2) {
+      if (params.isBlankOrNull(2)) {
+        return NullDatum.get();
+      }
+      group = params.getInt4(2);
+    }
+
+    byte[] extracted = getRegex(params.getText(1)).extract(params.getBytes(0), group);
+    return extracted == null ? NullDatum.get() : DatumFactory.createText(extracted);
+  }
+}
@@ -0,0 +1,69 @@
+/**
+ * Licensed to the Apache Software Foundation (ASF) under one
+ * or more contributor license agreements.  See the NOTICE file
+ * distributed with this work for additional information
+ * regarding copyright ownership.  The ASF licenses this file
+ * to you under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance
+ * with the License.  You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package org.apache.tajo.engine.function;
+
+import org.apache.tajo.OverridableConf;
+import org.apache.tajo.catalog.Column;
+import org.apache.tajo.engine.function.metrics.InstrumentedFunction;
+import org.apache.tajo.engine.function.regex.Regex;
+import org.apache.tajo.plan.expr.FunctionEval;
+
+/**
+ * Base class of regular expression functions whose second parameter is a pattern.
+ * <p>
+ * Patterns are compiled by {@link Regex}, which matches UTF-8 bytes in linear time.
+ * A constant pattern is compiled only once, and the others are compiled through a bounded
+ * LRU cache per function instance.
+ */
+abstract class RegexpFunction extends InstrumentedFunction {
+  private static final int PATTERN_CACHE_SIZE = 64;
+
+  private boolean constantPattern;
+  private Regex constantRegex;
+  private BoundedCache<String, Regex> regexCache;
+
+  public RegexpFunction(Column[] definedArgs) {
+    super(definedArgs);
+  }
+
+  @Override
+  public void init(OverridableConf context, FunctionEval.ParamType[] types) {
+    super.init(context, types);
+    constantPattern = types != null && types.length > 1 && types[1] == FunctionEval.ParamType.CONSTANT;
+  }
+
+  protected Regex getRegex(String pattern) {
+    if (constantPattern) {
+      if (constantRegex == null) {
+        constantRegex = Regex.compile(pattern);
+      }
+      return constantRegex;
+    }
+
+    if (regexCache == null) {
+      regexCache = new BoundedCache<String, Regex>(PATTERN_CACHE_SIZE);
+    }
+    Regex regex = regexCache.get(pattern);
+    if (regex == null) {
+      regex = Regex.compile(pattern);
+      regexCache.put(pattern, regex);
+    }
+    return regex;
+  }
+}
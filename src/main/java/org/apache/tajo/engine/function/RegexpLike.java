@@ -20,22 +20,40 @@ package org.apache.tajo.engine.function;
 
 import org.apache.tajo.catalog.Column;
 import org.apache.tajo.common.TajoDataTypes;
+import org.apache.tajo.datum.Datum;
+import org.apache.tajo.datum.DatumFactory;
+import org.apache.tajo.datum.NullDatum;
 import org.apache.tajo.engine.function.annotation.Description;
 import org.apache.tajo.engine.function.annotation.ParamTypes;
+import org.apache.tajo.storage.Tuple;
 
+/**
+ * UDF for string function <code>REGEXP_LIKE()</code>,
+ * <a href="http://docs.oracle.com/cd/B28359_01/server.111/b28286/conditions007.htm">REGEXP_LIKE</a>.
+ * <p>
+ * Unlike Oracle, it takes no match parameter. Use inline flags like <code>(?i)</code> instead.
+ */
 @Description(
-  functionName = "nvl",
-  description = "If expr1 is null, then NVL returns expr2. If expr1 is not null, then NVL returns expr1.",
-  example = "> SELECT nvl(dept, 'Not Applicable') FROM src;\n" +
-    " 'Not Applicable' if dept is null\n",
-  returnType = TajoDataTypes.Type.TEXT,
+  functionName = "regexp_like",
+  description = "returns true if source_char matches the regular expression pattern",
+  example = "> SELECT regexp_like('tajo1234', '[0-9]+$') FROM src;\n",
+  returnType = TajoDataTypes.Type.BOOLEAN,
   paramTypes = {@ParamTypes(paramTypes = {TajoDataTypes.Type.TEXT, TajoDataTypes.Type.TEXT})}
 )
-public class NvlText extends Nvl {
-  public NvlText() {
-    super(new Column[] {
-      new Column("expr1", TajoDataTypes.Type.TEXT),
-      new Column("expr2", TajoDataTypes.Type.TEXT)
+public class RegexpLike extends RegexpFunction {
+
+  public RegexpLike() {
+    super(new Column[]{
+      new Column("source_char", TajoDataTypes.Type.TEXT),
+      new Column("pattern", TajoDataTypes.Type.TEXT)
     });
   }
+
+  @Override
+  protected Datum doEval(Tuple params) {
+    if (params.isBlankOrNull(0) || params.isBlankOrNull(1)) {
+      return NullDatum.get();
+    }
+    return DatumFactory.createBool(getRegex(params.getText(1)).find(params.getBytes(0)));
+  }
 }
@@ -18,18 +18,31 @@
 
 package org.apache.tajo.engine.function;
 
+import org.apache.tajo.OverridableConf;
 import org.apache.tajo.catalog.Column;
 import org.apache.tajo.common.TajoDataTypes;
 import org.apache.tajo.datum.Datum;
 import org.apache.tajo.datum.DatumFactory;
 import org.apache.tajo.engine.function.annotation.Description;
 import org.apache.tajo.engine.function.annotation.ParamTypes;
-import org.apache.tajo.plan.function.GeneralFunction;
+import org.apache.tajo.engine.function.metrics.InstrumentedFunction;
+import org.apache.tajo.plan.expr.FunctionEval;
 import org.apache.tajo.storage.Tuple;
 
+import java.util.Arrays;
+import java.util.regex.Pattern;
+
 /**
  * UDF for string function <code>REPLACE()</code>,
  * <a href="http://docs.oracle.com/cd/B28359_01/server.111/b28286/functions141.htm">REPLACE</a>.
+ * <p>
+ * If neither the search string contains regular expression meta characters nor the replacement
+ * string contains group references, both are handled as literals. In this case, the UTF-8 bytes
+ * of the input are searched and spliced directly without decoding them, and the input datum is
+ * returned as it is if there is no match.
+ * <p>
+ * Otherwise, the search string is compiled into a {@link Pattern} only once if it is a constant.
+ * Non-constant search strings are compiled through a bounded LRU cache per function instance.
  *
  */
 @Description(
@@ -40,7 +53,21 @@ import org.apache.tajo.storage.Tuple;
   paramTypes = {@ParamTypes(paramTypes
     = {TajoDataTypes.Type.TEXT, TajoDataTypes.Type.TEXT, TajoDataTypes.Type.TEXT})}
 )
-public class Replace extends GeneralFunction {
+public class Replace extends InstrumentedFunction {
+  private static final int PATTERN_CACHE_SIZE = 64;
+
+  private boolean constantSearch;
+  private boolean constantReplacement;
+  private Pattern constantPattern;
+  private BoundedCache<String, Pattern> patternCache;
+
+  // Literal search state. For a constant search string, it is decided only once.
+  private boolean literalChecked;
+  private LiteralSearcher literalSearcher;
+  private boolean literalReplacementChecked;
+  private boolean literalReplacement;
+  private byte[] buffer = new byte[128];
+
   public Replace() {
     super(new Column[]{
       new Column("char", TajoDataTypes.Type.TEXT),
@@ -50,10 +77,130 @@ public class Replace extends GeneralFunction {
   }
 
   @Override
-  public Datum eval(Tuple params) {
+  public void init(OverridableConf context, FunctionEval.ParamType[] types) {
+    super.init(context, types);
+    constantSearch = types != null && types.length > 1 && types[1] == FunctionEval.ParamType.CONSTANT;
+    constantReplacement = types != null && types.length > 2 && types[2] == FunctionEval.ParamType.CONSTANT;
+  }
+
+  @Override
+  protected Datum doEval(Tuple params) {
     if (params.isBlankOrNull(1)) {
       return DatumFactory.createText(params.getText(0));
     }
-    return DatumFactory.createText(params.getText(0).replaceAll(params.getText(1), params.getText(2)));
+
+    if (!params.isBlankOrNull(0) && !params.isBlankOrNull(2)) {
+      LiteralSearcher searcher = getLiteralSearcher(params.getBytes(1));
+      if (searcher != null && isLiteralReplacement(params.getBytes(2))) {
+        return replaceLiteral(params, searcher, params.getBytes(2));
+      }
+    }
+
+    Pattern pattern = getPattern(params.getText(1));
+    return DatumFactory.createText(pattern.matcher(params.getText(0)).replaceAll(params.getText(2)));
+  }
+
+  private Datum replaceLiteral(Tuple params, LiteralSearcher searcher, byte[] replacement) {
+    byte[] text = params.getBytes(0);
+    int found = searcher.indexOf(text, 0, text.length);
+    if (found < 0) {
+      return params.asDatum(0);
+    }
+
+    int length = 0;
+    int from = 0;
+    while (found >= 0) {
+      length = append(length, text, from, found - from);
+      length = append(length, replacement, 0, replacement.length);
+      from = found + searcher.length();
+      found = searcher.indexOf(text, from, text.length);
+    }
+    length = append(length, text, from, text.length - from);
+
+    return DatumFactory.createText(Arrays.copyOf(buffer, length));
+  }
+
+  private int append(int position, byte[] src, int offset, int length) {
+    if (position + length > buffer.length) {
+      buffer = Arrays.copyOf(buffer, Math.max(buffer.length * 2, position + length));
+    }
+    System.arraycopy(src, offset, buffer, position, length);
+    return position + length;
+  }
+
+  /**
+   * Returns a searcher if the search string has no regular expression meta characters.
+   * Otherwise, it returns null.
+   */
+  private LiteralSearcher getLiteralSearcher(byte[] search) {
+    if (constantSearch) {
+      if (!literalChecked) {
+        literalSearcher = isLiteralSearch(search) ? new LiteralSearcher(search.clone()) : null;
+        literalChecked = true;
+      }
+      return literalSearcher;
+    }
+
+    if (!isLiteralSearch(search)) {
+      return null;
+    }
+    if (literalSearcher == null || !literalSearcher.isSamePattern(search)) {
+      literalSearcher = new LiteralSearcher(search.clone());
+    }
+    return literalSearcher;
+  }
+
+  private boolean isLiteralReplacement(byte[] replacement) {
+    if (constantReplacement) {
+      if (!literalReplacementChecked) {
+        literalReplacement = isLiteralReplacementBytes(replacement);
+        literalReplacementChecked = true;
+      }
+      return literalReplacement;
+    }
+    return isLiteralReplacementBytes(replacement);
+  }
+
+  private static boolean isLiteralSearch(byte[] search) {
+    if (search.length == 0) {
+      return false;
+    }
+    for (byte b : search) {
+      switch (b) {
+      case '\\': case '^': case '$': case '.': case '|': case '?': case '*': case '+':
+      case '(': case ')': case '[': case ']': case '{': case '}':
+        return false;
+      default:
+      }
+    }
+    return true;
+  }
+
+  private static boolean isLiteralReplacementBytes(byte[] replacement) {
+    for (byte b : replacement) {
+      if (b == '$' || b == '\\') {
+        return false;
+      }
+    }
+    return true;
+  }
+
+  private Pattern getPattern(String regex) {
+    if (constantSearch) {
+      if (constantPattern == null) {
+        constantPattern = Pattern.compile(regex);
+      }
+      return constantPattern;
+    }
+
+    if (patternCache == null) {
+      patternCache = new BoundedCache<String, Pattern>(PATTERN_CACHE_SIZE);
+    }
+    Pattern pattern = patternCache.get(regex);
+    if (pattern == null) {
+      pattern = Pattern.compile(regex);
+      patternCache.put(regex, pattern);
+    }
+    return pattern;
   }
 }
\ No newline at end of file
@@ -0,0 +1,175 @@
+/**
+ * Licensed to the Apache Software Foundation (ASF) under one
+ * or more contributor license agreements.  See the NOTICE file
+ * distributed with this work for additional information
+ * regarding copyright ownership.  The ASF licenses this file
+ * to you under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance
+ * with the License.  You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package org.apache.tajo.engine.function;
+
+import org.apache.tajo.OverridableConf;
+import org.apache.tajo.catalog.Column;
+import org.apache.tajo.common.TajoDataTypes;
+import org.apache.tajo.datum.Datum;
+import org.apache.tajo.datum.DatumFactory;
+import org.apache.tajo.datum.NullDatum;
+import org.apache.tajo.engine.function.annotation.Description;
+import org.apache.tajo.engine.function.annotation.ParamTypes;
+import org.apache.tajo.engine.function.metrics.InstrumentedFunction;
+import org.apache.tajo.plan.expr.FunctionEval;
+import org.apache.tajo.storage.Tuple;
+
+import java.util.Arrays;
+
+/**
+ * UDF for string function <code>REPLACE_MANY()</code>.
+ * <p>
+ * It replaces every occurrence of each search string with its replacement string in a single pass,
+ * instead of nesting <code>REPLACE()</code> calls. All search strings are compiled into an
+ * {@link AhoCorasick} automaton, which is built only once if the search and replacement strings
+ * are constants.
+ * <p>
+ * Search strings are handled as literals. At each position, the longest matched search string is replaced,
+ * and scanning continues after it. A null replacement string or a missing last replacement string
+ * removes the search string. Null search strings are ignored.
+ *
+ */
+@Description(
+  functionName = "replace_many",
+  description = "returns char with every occurrence of each search_string replaced with its replacement_string",
+  example = "> SELECT replace_many('JACK and JUE', 'J', 'BL', 'and', '&') FROM src;\n" +
+    " BLACK & BLUE\n",
+  returnType = TajoDataTypes.Type.TEXT,
+  paramTypes = {@ParamTypes(paramTypes = {TajoDataTypes.Type.TEXT, TajoDataTypes.Type.TEXT_ARRAY})}
+)
+public class ReplaceMany extends InstrumentedFunction {
+  private static final byte[] EMPTY = new byte[0];
+
+  private boolean constantPairs;
+
+  private byte[][] searches;
+  private byte[][] replacements;
+  private AhoCorasick automaton;
+
+  private int[] longestAt = new int[128];
+  private byte[] buffer = new byte[128];
+
+  public ReplaceMany() {
+    super(new Column[]{
+      new Column("char", TajoDataTypes.Type.TEXT),
+      new Column("search_replacement_pairs", TajoDataTypes.Type.TEXT_ARRAY)
+    });
+  }
+
+  @Override
+  public void init(OverridableConf context, FunctionEval.ParamType[] types) {
+    super.init(context, types);
+    constantPairs = types != null;
+    if (types != null) {
+      for (int i = 1; i < types.length; i++) {
+        if (types[i] == FunctionEval.ParamType.VARIABLE) {
+          constantPairs = false;
+        }
+      }
+    }
+  }
+
+  @Override
+  protected Datum doEval(Tuple params) {
+    if (params.isBlankOrNull(0)) {
+      return NullDatum.get();
+    }
+
+    if (automaton == null || (!constantPairs && !isSamePairs(params))) {
+      buildAutomaton(params);
+    }
+
+    byte[] text = params.getBytes(0);
+    if (longestAt.length < text.length) {
+      longestAt = new int[Math.max(longestAt.length * 2, text.length)];
+    }
+    if (!automaton.findLongestMatches(text, longestAt)) {
+      return params.asDatum(0);
+    }
+
+    int length = 0;
+    int copyFrom = 0;
+    int i = 0;
+    while (i < text.length) {
+      int pattern = longestAt[i];
+      if (pattern < 0) {
+        i++;
+        continue;
+      }
+      length = append(length, text, copyFrom, i - copyFrom);
+      length = append(length, replacements[pattern], 0, replacements[pattern].length);
+      i += automaton.patternLength(pattern);
+      copyFrom = i;
+    }
+    length = append(length, text, copyFrom, text.length - copyFrom);
+
+    return DatumFactory.createText(Arrays.copyOf(buffer, length));
+  }
+
+  private int append(int position, byte[] src, int offset, int length) {
+    if (position + length > buffer.length) {
+      buffer = Arrays.copyOf(buffer, Math.max(buffer.length * 2, position + length));
+    }
+    System.arraycopy(src, offset, buffer, position, length);
+    return position + length;
+  }
+
+  private static int pairNum(Tuple params) {
+    return params.size() / 2;
+  }
+
+  private static byte[] searchOf(Tuple params, int pair) {
+    int index = 1 + pair * 2;
+    return params.isBlankOrNull(index) ? null : params.getBytes(index);
+  }
+
+  private static byte[] replacementOf(Tuple params, int pair) {
+    int index = 2 + pair * 2;
+    return index >= params.size() || params.isBlankOrNull(index) ? null : params.getBytes(index);
+  }
+
+  private boolean isSamePairs(Tuple params) {
+    int pairNum = pairNum(params);
+    if (pairNum != searches.length) {
+      return false;
+    }
+    for (int i = 0; i < pairNum; i++) {
+      byte[] search = searchOf(params, i);
+      byte[] replacement = replacementOf(params, i);
+      if (!Arrays.equals(searches[i], search == null ? EMPTY : search)
+        || !Arrays.equals(replacements[i], replacement == null ? EMPTY : replacement)) {
+        return false;
+      }
+    }
+    return true;
+  }
+
+  private void buildAutomaton(Tuple params) {
+    int pairNum = pairNum(params);
+    searches = new byte[pairNum][];
+    replacements = new byte[pairNum][];
+    for (int i = 0; i < pairNum; i++) {
+      byte[] search = searchOf(params, i);
+      byte[] replacement = replacementOf(params, i);
+      searches[i] = search == null ? EMPTY : search.clone();
+      replacements[i] = replacement == null ? EMPTY : replacement.clone();
+    }
+    automaton = new AhoCorasick(searches);
+  }
+}
@@ -0,0 +1,51 @@
+/**
+ * Licensed to the Apache Software Foundation (ASF) under one
+ * or more contributor license agreements.  See the NOTICE file
+ * distributed with this work for additional information
+ * regarding copyright ownership.  The ASF licenses this file
+ * to you under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance
+ * with the License.  You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+
+package org.apache.tajo.engine.function;
+
+import org.apache.tajo.engine.function.annotation.Description;
+import org.apache.tajo.engine.function.annotation.ParamTypes;
+
+import static org.apache.tajo.common.TajoDataTypes.Type.DATE;
+import static org.apache.tajo.common.TajoDataTypes.Type.TEXT;
+
+/**
+ * UDF for Oracle function <code>ROUND(date)</code>,
+ * <a href="http://docs.oracle.com/cd/B28359_01/server.111/b28286/functions136.htm">ROUND (date)</a>.
+ */
+@Description(
+  functionName = "round",
+  description = "returns the date rounded to the unit specified by the format model fmt",
+  detail = "It accepts the format models of trunc(date, fmt). Years round up on July 1st, quarters on " +
+    "the 16th day of their second month, months on the 16th day, and weeks on their 4th day. " +
+    "Without fmt, the date is returned as it is.",
+  example = "> SELECT round(cast('2016-07-01' as date), 'YEAR');\n"
+    + "2017-01-01",
+  returnType = DATE,
+  paramTypes = {
+    @ParamTypes(paramTypes = {DATE}),
+    @ParamTypes(paramTypes = {DATE, TEXT})
+  }
+)
+public class RoundDate extends DateUnitFunction {
+  @Override
+  int apply(int julianDay, DateUnit unit) {
+    return DateArithmetic.round(julianDay, unit);
+  }
+}
@@ -0,0 +1,68 @@
+/**
+ * Licensed to the Apache Software Foundation (ASF) under one
+ * or more contributor license agreements.  See the NOTICE file
+ * distributed with this work for additional information
+ * regarding copyright ownership.  The ASF licenses this file
+ * to you under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance
+ * with the License.  You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package org.apache.tajo.engine.function;
+
+import org.apache.tajo.catalog.Column;
+import org.apache.tajo.common.TajoDataTypes;
+import org.apache.tajo.datum.Datum;
+import org.apache.tajo.datum.DatumFactory;
+import org.apache.tajo.datum.NullDatum;
+import org.apache.tajo.engine.function.annotation.Description;
+import org.apache.tajo.engine.function.annotation.ParamTypes;
+import org.apache.tajo.storage.Tuple;
+
+/**
+ * UDF for string function <code>SAFE_REGEXP_REPLACE()</code>. It replaces the same matches as the built-in
+ * <code>REGEXP_REPLACE()</code>, which uses {@link java.util.regex.Pattern}, but matches in linear time, so that
+ * a pattern cannot cause catastrophic backtracking. The replacement string can refer to groups like
+ * {@link java.util.regex.Matcher#replaceAll(String)}, whose values can differ in a few corner cases
+ * (see {@link org.apache.tajo.engine.function.regex.Regex}).
+ * <p>
+ * It has its own name because a function with the same signature as a built-in one would be
+ * ambiguous in the catalog.
+ */
+@Description(
+  functionName = "safe_regexp_replace",
+  description = "returns source_char with every substring which matches pattern replaced with replace_string",
+  example = "> SELECT safe_regexp_replace('tajo-1234', '([a-z]+)-([0-9]+)', '$2-$1') FROM src;\n",
+  returnType = TajoDataTypes.Type.TEXT,
+  paramTypes = {@ParamTypes(paramTypes
+    = {TajoDataTypes.Type.TEXT, TajoDataTypes.Type.TEXT, TajoDataTypes.Type.TEXT})}
+)
+public class SafeRegexpReplace extends RegexpFunction {
+
+  public SafeRegexpReplace() {
+    super(new Column[]{
+      new Column("source_char", TajoDataTypes.Type.TEXT),
+      new Column("pattern", TajoDataTypes.Type.TEXT),
+      new Column("replace_string", TajoDataTypes.Type.TEXT)
+    });
+  }
+
+  @Override
+  protected Datum doEval(Tuple params) {
+    if (params.isBlankOrNull(0) || params.isBlankOrNull(1) || params.isBlankOrNull(2)) {
+      return NullDatum.get();
+    }
+
+    byte[] text = params.getBytes(0);
+    byte[] replaced = getRegex(params.getText(1)).replaceAll(text, params.getText(2));
+    return replaced == text ? params.asDatum(0) : DatumFactory.createText(replaced);
+  }
+}
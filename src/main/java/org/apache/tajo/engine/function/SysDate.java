@@ -18,7 +18,6 @@
 
 package org.apache.tajo.engine.function;
 
-import com.google.gson.annotations.Expose;
 import org.apache.tajo.OverridableConf;
 import org.apache.tajo.SessionVars;
 import org.apache.tajo.catalog.Column;
@@ -26,10 +25,9 @@ import org.apache.tajo.common.TajoDataTypes;
 import org.apache.tajo.datum.*;
 import org.apache.tajo.engine.function.annotation.Description;
 import org.apache.tajo.engine.function.annotation.ParamTypes;
+import org.apache.tajo.engine.function.metrics.InstrumentedFunction;
 import org.apache.tajo.plan.expr.FunctionEval;
-import org.apache.tajo.plan.function.GeneralFunction;
 import org.apache.tajo.storage.Tuple;
-import org.apache.tajo.util.datetime.DateTimeFormat;
 import org.apache.tajo.util.datetime.DateTimeUtil;
 import org.apache.tajo.util.datetime.TimeMeta;
 
@@ -45,6 +43,10 @@ import java.util.TimeZone;
  * SYSDATE()
  * </pre>
  * <p>
+ * The current time is read from the session variable {@link FunctionSessionVars#SYSDATE_TIMESTAMP}.
+ * If it is not set by the session, {@link org.apache.tajo.engine.function.rewrite.SysDateRewriteRule} sets it
+ * when the query is planned, so that all tasks of a query see the same time. Without the rule, each instance
+ * takes the time when it is initialized.
  */
 @Description(
   functionName = "sysdate",
@@ -61,12 +63,22 @@ import java.util.TimeZone;
     @ParamTypes(paramTypes = {TajoDataTypes.Type.TEXT, TajoDataTypes.Type.INT8})
   }
 )
-public class SysDate extends GeneralFunction {
+public class SysDate extends InstrumentedFunction {
+  private static final int MEMO_SIZE = 64;
   private final String DEFAULT_FORMAT = "YYYY-MM-DD HH24:MI:SS";
 
-  @Expose
   private TimeZone timezone;
-  private TextDatum datum;
+  private long currentTime;
+  // the current time in the time zone of the session
+  private TimeMeta now;
+  private TextDatum defaultDatum;
+
+  // results by (pattern, num_days), and the last result for constant arguments
+  private BoundedCache<MemoKey, TextDatum> memo;
+  private Datum lastPattern;
+  private long lastNumDays;
+  private TextDatum lastResult;
+  private DateFormatProgram.Buffer buffer;
 
   public SysDate() {
     super(new Column[]{
@@ -77,53 +89,105 @@ public class SysDate extends GeneralFunction {
 
   @Override
   public void init(OverridableConf context, FunctionEval.ParamType[] types) {
+    super.init(context, types);
     String timezoneId = context.get(SessionVars.TIMEZONE, "GMT");
     this.timezone = TimeZone.getTimeZone(timezoneId);
+
+    if (context.containsKey(FunctionSessionVars.SYSDATE_TIMESTAMP)) {
+      currentTime = Long.parseLong(context.get(FunctionSessionVars.SYSDATE_TIMESTAMP).trim());
+    } else {
+      currentTime = System.currentTimeMillis();
+    }
+    now = new TimeMeta();
+    long julianTime = DateTimeUtil.javaTimeToJulianTime(currentTime);
+    DateTimeUtil.toJulianTimeMeta(TimeZoneOffsets.of(timezone).toLocal(julianTime), now);
   }
 
   @Override
-  public Datum eval(Tuple params) {
+  protected Datum doEval(Tuple params) {
     int paramsSize = params.size();
-
-    if (this.datum == null) {
-      long julianTimestamp = DateTimeUtil.javaTimeToJulianTime(System.currentTimeMillis());
-      TimeMeta tm = new TimeMeta();
-      DateTimeUtil.toJulianTimeMeta(julianTimestamp, tm);
-      DateTimeUtil.toUserTimezone(tm, this.timezone);
-
-      if (paramsSize == 0) {
-        this.datum = DatumFactory.createText(DateTimeFormat.to_char(tm, DEFAULT_FORMAT));
-      } else if (paramsSize == 1){
-        String pattern = params.getText(0);
-        this.datum = DatumFactory.createText(DateTimeFormat.to_char(tm, pattern));
-      } else if (paramsSize == 2){
-        String pattern = params.getText(0);
-        long numDays = params.getInt8(1);
-        TimeMeta finalTm = null;
-
-        // Get current date
-        DateDatum dateDatum = DatumFactory.createDate(DateTimeFormat.to_char(tm, pattern));
-
-        // Add days
-        Datum resultDatum = null;
-        if (numDays >= 0) {
-          resultDatum = dateDatum.plus(new IntervalDatum(numDays * IntervalDatum.DAY_MILLIS));
-        } else {
-          resultDatum = dateDatum.minus(new IntervalDatum(0 - numDays * IntervalDatum.DAY_MILLIS));
-        }
-
-        // Create final value
-        if (resultDatum instanceof DateDatum) {
-          finalTm = DatumFactory.createDate(resultDatum).asTimeMeta();
-        } else if (resultDatum instanceof TimestampDatum) {
-          finalTm = new TimeMeta();
-          julianTimestamp = ((TimestampDatum) resultDatum).getTimestamp();
-          DateTimeUtil.toJulianTimeMeta(julianTimestamp, finalTm);
-        }
-        this.datum = DatumFactory.createText(DateTimeFormat.to_char(finalTm, pattern));
+    if (paramsSize == 0) {
+      if (defaultDatum == null) {
+        defaultDatum = format(now, DEFAULT_FORMAT);
       }
+      return defaultDatum;
+    }
+    if (params.isBlankOrNull(0) || (paramsSize > 1 && params.isBlankOrNull(1))) {
+      return NullDatum.get();
+    }
+
+    // Constant arguments are the same datums for every row, so the last result is probed without allocation.
+    Datum pattern = params.asDatum(0);
+    long numDays = paramsSize > 1 ? params.getInt8(1) : 0;
+    if (lastResult != null && pattern == lastPattern && numDays == lastNumDays) {
+      return lastResult;
+    }
+
+    MemoKey key = new MemoKey(pattern.asChars(), numDays);
+    if (memo == null) {
+      memo = new BoundedCache<MemoKey, TextDatum>(MEMO_SIZE);
+    }
+    TextDatum result = memo.get(key);
+    if (result == null) {
+      result = format(plusDays(numDays), key.pattern);
+      memo.put(key, result);
+    }
+
+    lastPattern = pattern;
+    lastNumDays = numDays;
+    lastResult = result;
+    return result;
+  }
+
+  private TextDatum format(TimeMeta tm, String pattern) {
+    if (buffer == null) {
+      buffer = new DateFormatProgram.Buffer();
+    }
+    buffer.clear();
+    DateFormatProgram.of(pattern).format(tm, buffer);
+    return DatumFactory.createText(buffer.toByteArray());
+  }
+
+  /**
+   * Returns the current time in the session time zone plus the given days, keeping the time of day.
+   */
+  private TimeMeta plusDays(long numDays) {
+    if (numDays == 0) {
+      return now;
     }
 
-    return this.datum;
+    int julianDay = (int) (DateArithmetic.date2j(now.years, now.monthOfYear, now.dayOfMonth) + numDays);
+    TimeMeta tm = new TimeMeta();
+    DateArithmetic.toTimeMeta(julianDay, tm);
+    tm.hours = now.hours;
+    tm.minutes = now.minutes;
+    tm.secs = now.secs;
+    tm.fsecs = now.fsecs;
+    tm.timeZone = now.timeZone;
+    return tm;
+  }
+
+  private static class MemoKey {
+    private final String pattern;
+    private final long numDays;
+
+    MemoKey(String pattern, long numDays) {
+      this.pattern = pattern;
+      this.numDays = numDays;
+    }
+
+    @Override
+    public int hashCode() {
+      return pattern.hashCode() * 31 + (int) (numDays ^ (numDays >>> 32));
+    }
+
+    @Override
+    public boolean equals(Object obj) {
+      if (!(obj instanceof MemoKey)) {
+        return false;
+      }
+      MemoKey other = (MemoKey) obj;
+      return numDays == other.numDays && pattern.equals(other.pattern);
+    }
   }
-}
\ No newline at end of file
+}
@@ -0,0 +1,63 @@
+/**
+ * Licensed to the Apache Software Foundation (ASF) under one
+ * or more contributor license agreements.  See the NOTICE file
+ * distributed with this work for additional information
+ * regarding copyright ownership.  The ASF licenses this file
+ * to you under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance
+ * with the License.  You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+
+package org.apache.tajo.engine.function;
+
+import org.apache.tajo.catalog.Column;
+import org.apache.tajo.datum.Datum;
+import org.apache.tajo.datum.DatumFactory;
+import org.apache.tajo.datum.NullDatum;
+import org.apache.tajo.engine.function.metrics.InstrumentedFunction;
+import org.apache.tajo.storage.Tuple;
+
+import static org.apache.tajo.common.TajoDataTypes.Type.TEXT;
+import static org.apache.tajo.common.TajoDataTypes.Type.TIMESTAMP;
+
+/**
+ * Base class of functions which shift a timestamp by the UTC offset of a time zone given as the second
+ * parameter. Offsets are looked up in the shared {@link TimeZoneOffsets} tables, and the table of
+ * the last time zone is kept, so that a constant time zone is looked up only once.
+ */
+abstract class TimeZoneConversion extends InstrumentedFunction {
+  private Datum lastTimezone;
+  private TimeZoneOffsets lastOffsets;
+
+  public TimeZoneConversion() {
+    super(new Column[] {
+      new Column("timestamp", TIMESTAMP),
+      new Column("timezone", TEXT)
+    });
+  }
+
+  abstract long convert(long timestamp, TimeZoneOffsets offsets);
+
+  @Override
+  protected Datum doEval(Tuple params) {
+    if (params.isBlankOrNull(0) || params.isBlankOrNull(1)) {
+      return NullDatum.get();
+    }
+
+    Datum timezone = params.asDatum(1);
+    if (timezone != lastTimezone) {
+      lastOffsets = TimeZoneOffsets.of(timezone.asChars());
+      lastTimezone = timezone;
+    }
+    return DatumFactory.createTimestamp(convert(params.getInt8(0), lastOffsets));
+  }
+}
@@ -0,0 +1,166 @@
+/**
+ * Licensed to the Apache Software Foundation (ASF) under one
+ * or more contributor license agreements.  See the NOTICE file
+ * distributed with this work for additional information
+ * regarding copyright ownership.  The ASF licenses this file
+ * to you under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance
+ * with the License.  You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+
+package org.apache.tajo.engine.function;
+
+import org.apache.tajo.util.datetime.DateTimeUtil;
+
+import java.util.Arrays;
+import java.util.TimeZone;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
+
+/**
+ * UTC offsets of a time zone, precomputed as a table of transitions, so that converting a timestamp
+ * is a binary search and an addition instead of a calendar computation.
+ * <p>
+ * Timestamps are microseconds in Tajo's julian time, like {@link org.apache.tajo.datum.TimestampDatum}.
+ * The table covers 1900 to 2100, and {@link TimeZone#getOffset(long)} is used outside of it.
+ * Tables are immutable and shared by all functions through {@link #of(TimeZone)}.
+ */
+final class TimeZoneOffsets {
+  private static final long DAY_MILLIS = 24L * 60 * 60 * 1000;
+  private static final long DAY_MICROS = DAY_MILLIS * 1000;
+  // 1900-01-01 and 2100-01-01 in UTC
+  private static final long MIN_MILLIS = -2208988800000L;
+  private static final long MAX_MILLIS = 4102444800000L;
+
+  private static final ConcurrentMap<String, TimeZoneOffsets> CACHE =
+    new ConcurrentHashMap<String, TimeZoneOffsets>();
+
+  private final TimeZone timezone;
+  private final long minTime;
+  private final long maxTime;
+  // offsets[i + 1] is in effect from transitions[i], and offsets[0] before transitions[0]. Both are in microseconds.
+  private final long[] transitions;
+  private final long[] offsets;
+
+  private TimeZoneOffsets(TimeZone timezone, long[] transitions, long[] offsets) {
+    this.timezone = timezone;
+    this.minTime = DateTimeUtil.javaTimeToJulianTime(MIN_MILLIS);
+    this.maxTime = DateTimeUtil.javaTimeToJulianTime(MAX_MILLIS);
+    this.transitions = transitions;
+    this.offsets = offsets;
+  }
+
+  static TimeZoneOffsets of(TimeZone timezone) {
+    TimeZoneOffsets offsets = CACHE.get(timezone.getID());
+    if (offsets == null) {
+      offsets = build(timezone);
+      TimeZoneOffsets previous = CACHE.putIfAbsent(timezone.getID(), offsets);
+      if (previous != null) {
+        offsets = previous;
+      }
+    }
+    return offsets;
+  }
+
+  /**
+   * Returns the table of a time zone ID as it is given, e.g., from a session variable. An ID like "GMT+9"
+   * resolves to a time zone with another ID, so the table is also cached under the given one.
+   */
+  static TimeZoneOffsets of(String timezoneId) {
+    TimeZoneOffsets offsets = CACHE.get(timezoneId);
+    if (offsets == null) {
+      offsets = of(TimeZone.getTimeZone(timezoneId));
+      CACHE.putIfAbsent(timezoneId, offsets);
+    }
+    return offsets;
+  }
+
+  private static TimeZoneOffsets build(TimeZone timezone) {
+    long[] transitions = new long[16];
+    long[] offsets = new long[17];
+    int size = 0;
+
+    long time = MIN_MILLIS;
+    int offset = timezone.getOffset(time);
+    offsets[0] = offset * 1000L;
+    // Offsets change at most a few times a year, so days are scanned and each change is searched
+    // to the millisecond.
+    while (time < MAX_MILLIS) {
+      long next = time + DAY_MILLIS;
+      if (timezone.getOffset(next) == offset) {
+        time = next;
+        continue;
+      }
+
+      long low = time;
+      long high = next;
+      while (high - low > 1) {
+        long middle = low + (high - low) / 2;
+        if (timezone.getOffset(middle) == offset) {
+          low = middle;
+        } else {
+          high = middle;
+        }
+      }
+      time = high;
+      offset = timezone.getOffset(high);
+
+      if (size == transitions.length) {
+        transitions = Arrays.copyOf(transitions, size * 2);
+        offsets = Arrays.copyOf(offsets, size * 2 + 1);
+      }
+      transitions[size] = DateTimeUtil.javaTimeToJulianTime(high);
+      offsets[++size] = offset * 1000L;
+    }
+    return new TimeZoneOffsets(timezone, Arrays.copyOf(transitions, size), Arrays.copyOf(offsets, size + 1));
+  }
+
+  /**
+   * Returns the offset in microseconds at a UTC timestamp.
+   */
+  long offsetAt(long utcTime) {
+    if (utcTime < minTime || utcTime >= maxTime) {
+      return timezone.getOffset(DateTimeUtil.julianTimeToJavaTime(utcTime)) * 1000L;
+    }
+    int index = Arrays.binarySearch(transitions, utcTime);
+    // the number of transitions at or before utcTime
+    return offsets[index >= 0 ? index + 1 : -index - 1];
+  }
+
+  /**
+   * Converts a UTC timestamp to the local time of the time zone.
+   */
+  long toLocal(long utcTime) {
+    return utcTime + offsetAt(utcTime);
+  }
+
+  /**
+   * Converts a local time of the time zone to a UTC timestamp. Like {@link java.util.Calendar}, a local time
+   * skipped by a transition is taken with the offset before the transition, and a repeated local time
+   * is taken as the earlier of the two instants.
+   */
+  long toUtc(long localTime) {
+    // the offsets before and after a possible transition around the local time
+    long earlier = offsetAt(localTime - DAY_MICROS);
+    long later = offsetAt(localTime + DAY_MICROS);
+    if (earlier == later) {
+      return localTime - earlier;
+    }
+
+    boolean earlierValid = offsetAt(localTime - earlier) == earlier;
+    boolean laterValid = offsetAt(localTime - later) == later;
+    if (earlierValid && laterValid) {
+      return localTime - Math.max(earlier, later);
+    }
+    return localTime - (laterValid ? later : earlier);
+  }
+}
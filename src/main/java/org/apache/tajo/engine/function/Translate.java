@@ -0,0 +1,206 @@
+/**
+ * Licensed to the Apache Software Foundation (ASF) under one
+ * or more contributor license agreements.  See the NOTICE file
+ * distributed with this work for additional information
+ * regarding copyright ownership.  The ASF licenses this file
+ * to you under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance
+ * with the License.  You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package org.apache.tajo.engine.function;
+
+import org.apache.tajo.OverridableConf;
+import org.apache.tajo.catalog.Column;
+import org.apache.tajo.common.TajoDataTypes;
+import org.apache.tajo.datum.Datum;
+import org.apache.tajo.datum.DatumFactory;
+import org.apache.tajo.datum.NullDatum;
+import org.apache.tajo.engine.function.annotation.Description;
+import org.apache.tajo.engine.function.annotation.ParamTypes;
+import org.apache.tajo.engine.function.metrics.InstrumentedFunction;
+import org.apache.tajo.plan.expr.FunctionEval;
+import org.apache.tajo.storage.Tuple;
+
+import java.nio.charset.StandardCharsets;
+import java.util.Arrays;
+import java.util.Map;
+import java.util.TreeMap;
+
+/**
+ * UDF for string function <code>TRANSLATE()</code>,
+ * <a href="http://docs.oracle.com/cd/B28359_01/server.111/b28286/functions196.htm">TRANSLATE</a>.
+ * <p>
+ * If all characters of from_string and to_string are ASCII, the UTF-8 bytes of the input are
+ * translated through a 256-entry byte table. Otherwise, the input is translated per code point.
+ * The translation table is built only once if from_string and to_string are constants.
+ *
+ */
+@Description(
+  functionName = "translate",
+  description = "returns char with all occurrences of each character in from_string replaced by " +
+    "its corresponding character in to_string",
+  detail = "Characters in from_string without a corresponding character in to_string are removed.",
+  example = "> SELECT translate('SQL*Plus Users Guide', ' */', '__') FROM src;\n" +
+    " SQL_Plus_Users_Guide\n",
+  returnType = TajoDataTypes.Type.TEXT,
+  paramTypes = {@ParamTypes(paramTypes
+    = {TajoDataTypes.Type.TEXT, TajoDataTypes.Type.TEXT, TajoDataTypes.Type.TEXT})}
+)
+public class Translate extends InstrumentedFunction {
+  private static final int DELETE = -1;
+
+  private boolean constantMapping;
+  private byte[] from;
+  private byte[] to;
+
+  // for ASCII mapping. It is null if from_string or to_string has non-ASCII characters.
+  private int[] byteTable;
+  // for code point mapping, sorted by fromCodePoints
+  private int[] fromCodePoints;
+  private int[] toCodePoints;
+
+  private byte[] buffer = new byte[128];
+
+  public Translate() {
+    super(new Column[]{
+      new Column("char", TajoDataTypes.Type.TEXT),
+      new Column("from_string", TajoDataTypes.Type.TEXT),
+      new Column("to_string", TajoDataTypes.Type.TEXT)
+    });
+  }
+
+  @Override
+  public void init(OverridableConf context, FunctionEval.ParamType[] types) {
+    super.init(context, types);
+    constantMapping = types != null && types.length > 2
+      && types[1] == FunctionEval.ParamType.CONSTANT && types[2] == FunctionEval.ParamType.CONSTANT;
+  }
+
+  @Override
+  protected Datum doEval(Tuple params) {
+    if (params.isBlankOrNull(0) || params.isBlankOrNull(1) || params.isBlankOrNull(2)) {
+      return NullDatum.get();
+    }
+
+    if (from == null || (!constantMapping &&
+      (!Arrays.equals(from, params.getBytes(1)) || !Arrays.equals(to, params.getBytes(2))))) {
+      buildMapping(params.getBytes(1).clone(), params.getBytes(2).clone());
+    }
+
+    if (byteTable != null) {
+      return translateBytes(params);
+    } else {
+      return translateCodePoints(params);
+    }
+  }
+
+  private Datum translateBytes(Tuple params) {
+    byte[] text = params.getBytes(0);
+    if (buffer.length < text.length) {
+      buffer = new byte[Math.max(buffer.length * 2, text.length)];
+    }
+
+    boolean changed = false;
+    int length = 0;
+    for (byte b : text) {
+      int mapped = byteTable[b & 0xff];
+      if (mapped != (b & 0xff)) {
+        changed = true;
+      }
+      if (mapped != DELETE) {
+        buffer[length++] = (byte) mapped;
+      }
+    }
+
+    if (!changed) {
+      return params.asDatum(0);
+    }
+    return DatumFactory.createText(Arrays.copyOf(buffer, length));
+  }
+
+  private Datum translateCodePoints(Tuple params) {
+    String text = params.getText(0);
+    StringBuilder builder = new StringBuilder(text.length());
+
+    boolean changed = false;
+    for (int i = 0; i < text.length(); ) {
+      int codePoint = text.codePointAt(i);
+      i += Character.charCount(codePoint);
+
+      int found = Arrays.binarySearch(fromCodePoints, codePoint);
+      if (found < 0) {
+        builder.appendCodePoint(codePoint);
+      } else {
+        changed = true;
+        if (toCodePoints[found] != DELETE) {
+          builder.appendCodePoint(toCodePoints[found]);
+        }
+      }
+    }
+
+    if (!changed) {
+      return params.asDatum(0);
+    }
+    return DatumFactory.createText(builder.toString());
+  }
+
+  private void buildMapping(byte[] fromBytes, byte[] toBytes) {
+    this.from = fromBytes;
+    this.to = toBytes;
+
+    int[] fromChars = toCodePoints(fromBytes);
+    int[] toChars = toCodePoints(toBytes);
+
+    // The first occurrence wins if a character appears more than once in from_string.
+    Map<Integer, Integer> mapping = new TreeMap<Integer, Integer>();
+    boolean ascii = true;
+    for (int i = 0; i < fromChars.length; i++) {
+      if (!mapping.containsKey(fromChars[i])) {
+        int mapped = i < toChars.length ? toChars[i] : DELETE;
+        mapping.put(fromChars[i], mapped);
+        ascii &= fromChars[i] < 0x80 && mapped < 0x80;
+      }
+    }
+
+    if (ascii) {
+      byteTable = new int[256];
+      for (int i = 0; i < byteTable.length; i++) {
+        byteTable[i] = i;
+      }
+      for (Map.Entry<Integer, Integer> entry : mapping.entrySet()) {
+        byteTable[entry.getKey()] = entry.getValue();
+      }
+      fromCodePoints = null;
+      toCodePoints = null;
+    } else {
+      byteTable = null;
+      fromCodePoints = new int[mapping.size()];
+      toCodePoints = new int[mapping.size()];
+      int i = 0;
+      for (Map.Entry<Integer, Integer> entry : mapping.entrySet()) {
+        fromCodePoints[i] = entry.getKey();
+        toCodePoints[i] = entry.getValue();
+        i++;
+      }
+    }
+  }
+
+  private static int[] toCodePoints(byte[] bytes) {
+    String str = new String(bytes, StandardCharsets.UTF_8);
+    int[] codePoints = new int[str.codePointCount(0, str.length())];
+    for (int i = 0, j = 0; i < str.length(); j++) {
+      codePoints[j] = str.codePointAt(i);
+      i += Character.charCount(codePoints[j]);
+    }
+    return codePoints;
+  }
+}
@@ -16,27 +16,35 @@
  * limitations under the License.
  */
 
+
 package org.apache.tajo.engine.function;
 
-import org.apache.tajo.catalog.Column;
-import org.apache.tajo.common.TajoDataTypes;
 import org.apache.tajo.engine.function.annotation.Description;
 import org.apache.tajo.engine.function.annotation.ParamTypes;
 
+import static org.apache.tajo.common.TajoDataTypes.Type.DATE;
+import static org.apache.tajo.common.TajoDataTypes.Type.TEXT;
+
+/**
+ * UDF for Oracle function <code>TRUNC(date)</code>,
+ * <a href="http://docs.oracle.com/cd/B28359_01/server.111/b28286/functions201.htm">TRUNC (date)</a>.
+ */
 @Description(
-  functionName = "nvl",
-  description = "If expr1 is null, then NVL returns expr2. If expr1 is not null, then NVL returns expr1.",
-  example = "> SELECT nvl(dept, 'Not Applicable') FROM src;\n" +
-    " 'Not Applicable' if dept is null\n",
-  returnType = TajoDataTypes.Type.BOOLEAN,
-  paramTypes = {@ParamTypes(paramTypes = {TajoDataTypes.Type.BOOLEAN, TajoDataTypes.Type.BOOLEAN})}
+  functionName = "trunc",
+  description = "returns the date truncated to the unit specified by the format model fmt",
+  detail = "Supported format models are CC, SCC, SYYYY, YYYY, YEAR, SYEAR, YYY, YY, Y, IYYY, IYY, IY, I, Q, " +
+    "MONTH, MON, MM, RM, WW, IW, W, DDD, DD, J, DAY, DY and D. Without fmt, the date is returned as it is.",
+  example = "> SELECT trunc(cast('2016-03-29' as date), 'YEAR');\n"
+    + "2016-01-01",
+  returnType = DATE,
+  paramTypes = {
+    @ParamTypes(paramTypes = {DATE}),
+    @ParamTypes(paramTypes = {DATE, TEXT})
+  }
 )
-public class NvlBoolean extends Nvl {
-  public NvlBoolean() {
-    super(new Column[] {
-      new Column("expr1", TajoDataTypes.Type.BOOLEAN),
-      new Column("expr2", TajoDataTypes.Type.BOOLEAN)
-    });
+public class TruncDate extends DateUnitFunction {
+  @Override
+  int apply(int julianDay, DateUnit unit) {
+    return DateArithmetic.trunc(julianDay, unit);
   }
 }
-
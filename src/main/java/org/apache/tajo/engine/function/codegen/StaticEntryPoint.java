@@ -0,0 +1,48 @@
+/**
+ * Licensed to the Apache Software Foundation (ASF) under one
+ * or more contributor license agreements.  See the NOTICE file
+ * distributed with this work for additional information
+ * regarding copyright ownership.  The ASF licenses this file
+ * to you under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance
+ * with the License.  You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package org.apache.tajo.engine.function.codegen;
+
+import java.lang.annotation.ElementType;
+import java.lang.annotation.Retention;
+import java.lang.annotation.RetentionPolicy;
+import java.lang.annotation.Target;
+
+/**
+ * Marks a public static method of a function class which computes the same result as
+ * <code>eval(Tuple)</code> from primitive values, so that generated code can call it directly
+ * instead of building a tuple and a datum for every row.
+ * <p>
+ * Parameters and the return value are primitives, in the storage form of their SQL types:
+ * <code>int</code> for INT4 and DATE (julian days), <code>long</code> for INT8, TIME and TIMESTAMP
+ * (microseconds), <code>float</code> for FLOAT4 and <code>double</code> for FLOAT8.
+ * A function of variable arguments takes a single array. The method is called only if no argument is null,
+ * and the caller handles null arguments as the function does.
+ * <p>
+ * The method does not see the session, so it cannot follow session variables which change how nulls are
+ * handled. In particular, the entry points of GREATEST and LEAST, like {@link StaticEntryPoints#invoke},
+ * return null as soon as any argument is null, while <code>eval(Tuple)</code> skips null arguments if
+ * {@link org.apache.tajo.engine.function.FunctionSessionVars#GREATEST_LEAST_NULLS} is <code>ignore</code>.
+ * A caller must evaluate a row with a null argument through <code>eval(Tuple)</code> in that case.
+ *
+ * @see StaticEntryPoints
+ */
+@Retention(RetentionPolicy.RUNTIME)
+@Target(ElementType.METHOD)
+public @interface StaticEntryPoint {
+}
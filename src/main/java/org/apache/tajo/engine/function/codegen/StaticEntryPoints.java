@@ -0,0 +1,185 @@
+/**
+ * Licensed to the Apache Software Foundation (ASF) under one
+ * or more contributor license agreements.  See the NOTICE file
+ * distributed with this work for additional information
+ * regarding copyright ownership.  The ASF licenses this file
+ * to you under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance
+ * with the License.  You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package org.apache.tajo.engine.function.codegen;
+
+import org.apache.tajo.common.TajoDataTypes.Type;
+import org.apache.tajo.datum.Datum;
+import org.apache.tajo.datum.DatumFactory;
+import org.apache.tajo.datum.NullDatum;
+import org.apache.tajo.storage.Tuple;
+
+import java.lang.reflect.InvocationTargetException;
+import java.lang.reflect.Method;
+import java.lang.reflect.Modifier;
+
+/**
+ * Finds and calls the methods annotated with {@link StaticEntryPoint}.
+ * <p>
+ * A code generator looks up the entry point of a function class once with {@link #find(Class)}, and emits
+ * a direct call of it guarded by null checks of the arguments. {@link #invoke(Method, Type, Tuple)} calls it
+ * through reflection in the same way, for tests and for callers which do not generate code.
+ */
+public final class StaticEntryPoints {
+  private StaticEntryPoints() {
+  }
+
+  /**
+   * Returns the entry point of a function class, or null if it has none.
+   *
+   * @throws IllegalArgumentException if the annotated method is not a valid entry point
+   */
+  public static Method find(Class<?> functionClass) {
+    Method found = null;
+    for (Method method : functionClass.getMethods()) {
+      if (!method.isAnnotationPresent(StaticEntryPoint.class)) {
+        continue;
+      }
+      if (found != null) {
+        throw new IllegalArgumentException(functionClass.getName() + " has more than one static entry point");
+      }
+      validate(method);
+      found = method;
+    }
+    return found;
+  }
+
+  private static void validate(Method method) {
+    if (!Modifier.isStatic(method.getModifiers())) {
+      throw new IllegalArgumentException(method + " is not static");
+    }
+    if (!method.getReturnType().isPrimitive() || method.getReturnType() == void.class) {
+      throw new IllegalArgumentException(method + " does not return a primitive value");
+    }
+
+    Class<?>[] paramTypes = method.getParameterTypes();
+    if (paramTypes.length == 1 && paramTypes[0].isArray()) {
+      if (!paramTypes[0].getComponentType().isPrimitive()) {
+        throw new IllegalArgumentException(method + " takes an array of objects");
+      }
+      return;
+    }
+    for (Class<?> paramType : paramTypes) {
+      if (!paramType.isPrimitive()) {
+        throw new IllegalArgumentException(method + " takes an object");
+      }
+    }
+  }
+
+  /**
+   * Calls an entry point with the values of a tuple, and returns the result as a datum of the given type.
+   * The result is null if any argument is null.
+   */
+  public static Datum invoke(Method entryPoint, Type returnType, Tuple params) {
+    for (int i = 0; i < params.size(); i++) {
+      if (params.isBlankOrNull(i)) {
+        return NullDatum.get();
+      }
+    }
+
+    Class<?>[] paramTypes = entryPoint.getParameterTypes();
+    Object[] args;
+    if (paramTypes.length == 1 && paramTypes[0].isArray()) {
+      args = new Object[] {toArray(paramTypes[0].getComponentType(), params)};
+    } else {
+      args = new Object[paramTypes.length];
+      for (int i = 0; i < paramTypes.length; i++) {
+        args[i] = valueOf(paramTypes[i], params, i);
+      }
+    }
+
+    try {
+      return toDatum(returnType, entryPoint.invoke(null, args));
+    } catch (IllegalAccessException e) {
+      throw new IllegalStateException(e);
+    } catch (InvocationTargetException e) {
+      if (e.getCause() instanceof RuntimeException) {
+        throw (RuntimeException) e.getCause();
+      }
+      throw new IllegalStateException(e.getCause());
+    }
+  }
+
+  private static Object toArray(Class<?> componentType, Tuple params) {
+    int size = params.size();
+    if (componentType == int.class) {
+      int[] values = new int[size];
+      for (int i = 0; i < size; i++) {
+        values[i] = params.getInt4(i);
+      }
+      return values;
+    } else if (componentType == long.class) {
+      long[] values = new long[size];
+      for (int i = 0; i < size; i++) {
+        values[i] = params.getInt8(i);
+      }
+      return values;
+    } else if (componentType == float.class) {
+      float[] values = new float[size];
+      for (int i = 0; i < size; i++) {
+        values[i] = params.getFloat4(i);
+      }
+      return values;
+    } else if (componentType == double.class) {
+      double[] values = new double[size];
+      for (int i = 0; i < size; i++) {
+        values[i] = params.getFloat8(i);
+      }
+      return values;
+    }
+    throw new IllegalArgumentException("unsupported array of " + componentType);
+  }
+
+  private static Object valueOf(Class<?> type, Tuple params, int i) {
+    if (type == int.class) {
+      return params.getInt4(i);
+    } else if (type == long.class) {
+      return params.getInt8(i);
+    } else if (type == float.class) {
+      return params.getFloat4(i);
+    } else if (type == double.class) {
+      return params.getFloat8(i);
+    } else if (type == boolean.class) {
+      return params.getBool(i);
+    }
+    throw new IllegalArgumentException("unsupported parameter type " + type);
+  }
+
+  private static Datum toDatum(Type type, Object value) {
+    switch (type) {
+    case BOOLEAN:
+      return DatumFactory.createBool((Boolean) value);
+    case INT4:
+      return DatumFactory.createInt4((Integer) value);
+    case INT8:
+      return DatumFactory.createInt8((Long) value);
+    case FLOAT4:
+      return DatumFactory.createFloat4((Float) value);
+    case FLOAT8:
+      return DatumFactory.createFloat8((Double) value);
+    case DATE:
+      return DatumFactory.createDate((Integer) value);
+    case TIME:
+      return DatumFactory.createTime((Long) value);
+    case TIMESTAMP:
+      return DatumFactory.createTimestamp((Long) value);
+    default:
+      throw new IllegalArgumentException("unsupported return type " + type);
+    }
+  }
+}
@@ -0,0 +1,138 @@
+/**
+ * Licensed to the Apache Software Foundation (ASF) under one
+ * or more contributor license agreements.  See the NOTICE file
+ * distributed with this work for additional information
+ * regarding copyright ownership.  The ASF licenses this file
+ * to you under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance
+ * with the License.  You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+
+package org.apache.tajo.engine.function.example;
+
+import org.apache.tajo.OverridableConf;
+import org.apache.tajo.catalog.Column;
+import org.apache.tajo.datum.Datum;
+import org.apache.tajo.datum.DatumFactory;
+import org.apache.tajo.datum.NullDatum;
+import org.apache.tajo.engine.function.metrics.InstrumentedVectorizedFunction;
+import org.apache.tajo.engine.function.vector.ColumnVector;
+import org.apache.tajo.plan.expr.FunctionEval;
+import org.apache.tajo.storage.Tuple;
+
+import static org.apache.tajo.common.TajoDataTypes.Type.FLOAT8;
+
+/**
+ * Base class of math functions of two FLOAT8 arguments, which pick a specialized kernel when one
+ * of the arguments is a constant.
+ * <p>
+ * {@link #init(OverridableConf, FunctionEval.ParamType[])} tells whether the argument is a constant,
+ * and the kernel is chosen by {@link #kernelFor(double)} on the first row which is not null.
+ * Otherwise, every row is evaluated by {@link #genericKernel()}. The kernel is bound once, so rows
+ * call it directly without dispatching on the constant again.
+ */
+abstract class ConstantSpecializedFunction extends InstrumentedVectorizedFunction {
+  /**
+   * A computation of the function, which may be specialized for the constant argument.
+   */
+  protected interface Kernel {
+    double apply(double x, double y);
+  }
+
+  // the index of the argument which kernels are specialized for
+  private final int constantArg;
+  private boolean constant;
+  private Kernel kernel;
+
+  public ConstantSpecializedFunction(Column[] definedArgs, int constantArg) {
+    super(definedArgs);
+    this.constantArg = constantArg;
+  }
+
+  protected static Column[] float8Args(String first, String second) {
+    return new Column[] {
+      new Column(first, FLOAT8),
+      new Column(second, FLOAT8)
+    };
+  }
+
+  @Override
+  public void init(OverridableConf context, FunctionEval.ParamType[] types) {
+    super.init(context, types);
+    constant = types != null && types.length > constantArg
+      && types[constantArg] == FunctionEval.ParamType.CONSTANT;
+    kernel = constant ? null : genericKernel();
+  }
+
+  /**
+   * Returns the kernel for any arguments.
+   */
+  protected abstract Kernel genericKernel();
+
+  /**
+   * Returns the kernel for a constant argument. It may keep values derived from the constant.
+   */
+  protected abstract Kernel kernelFor(double constant);
+
+  private Kernel kernel(double x, double y) {
+    if (kernel == null) {
+      kernel = constant ? kernelFor(constantArg == 0 ? x : y) : genericKernel();
+    }
+    return kernel;
+  }
+
+  @Override
+  protected Datum doEval(Tuple params) {
+    if (params.isBlankOrNull(0) || params.isBlankOrNull(1)) {
+      return NullDatum.get();
+    }
+
+    double x = params.getFloat8(0);
+    double y = params.getFloat8(1);
+    return DatumFactory.createFloat8(kernel(x, y).apply(x, y));
+  }
+
+  @Override
+  protected void doEvalBatch(ColumnVector[] args, int[] selected, int count, ColumnVector out) {
+    double[] x = args[0].doubles;
+    double[] y = args[1].doubles;
+    double[] result = out.doubles;
+
+    out.copyNulls(args[0], selected, count);
+    out.orNulls(args[1], selected, count);
+    if (kernel == null) {
+      for (int i = 0; i < count; i++) {
+        int row = selected == null ? i : selected[i];
+        if (!out.isNull(row)) {
+          kernel(x[row], y[row]);
+          break;
+        }
+      }
+      if (kernel == null) {
+        // all rows are null
+        return;
+      }
+    }
+
+    Kernel rowKernel = kernel;
+    if (selected == null) {
+      for (int row = 0; row < count; row++) {
+        result[row] = rowKernel.apply(x[row], y[row]);
+      }
+    } else {
+      for (int i = 0; i < count; i++) {
+        int row = selected[i];
+        result[row] = rowKernel.apply(x[row], y[row]);
+      }
+    }
+  }
+}
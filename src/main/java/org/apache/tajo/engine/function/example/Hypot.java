@@ -0,0 +1,85 @@
+/**
+ * Licensed to the Apache Software Foundation (ASF) under one
+ * or more contributor license agreements.  See the NOTICE file
+ * distributed with this work for additional information
+ * regarding copyright ownership.  The ASF licenses this file
+ * to you under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance
+ * with the License.  You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+
+package org.apache.tajo.engine.function.example;
+
+import org.apache.tajo.engine.function.annotation.Description;
+import org.apache.tajo.engine.function.annotation.ParamTypes;
+import org.apache.tajo.engine.function.codegen.StaticEntryPoint;
+
+import static org.apache.tajo.common.TajoDataTypes.Type.FLOAT8;
+
+/**
+ * Returns <code>sqrt(x<sup>2</sup> + y<sup>2</sup>)</code> without intermediate overflow or underflow.
+ * <p>
+ * {@link Math#hypot(double, double)} is slow, so <code>Math.sqrt(x * x + y * y)</code> is used when
+ * the squares can neither overflow nor underflow. If y is a constant 0, the result is <code>|x|</code>.
+ */
+@Description(
+  functionName = "hypot",
+  description = "sqrt(x^2 + y^2) without intermediate overflow or underflow",
+  example = "> SELECT hypot(3.0, 4.0)\n"
+    + "5.0",
+  returnType = FLOAT8,
+  paramTypes = {
+    @ParamTypes(paramTypes = {FLOAT8, FLOAT8})
+  }
+)
+public class Hypot extends ConstantSpecializedFunction {
+  // the squares of values in [2^-500, 2^500] are normal numbers, and so is their sum
+  private static final double MIN_SAFE = 0x1.0p-500;
+  private static final double MAX_SAFE = 0x1.0p500;
+
+  private static final Kernel GENERIC = new Kernel() {
+    @Override
+    public double apply(double x, double y) {
+      return hypot(x, y);
+    }
+  };
+  private static final Kernel ABS = new Kernel() {
+    @Override
+    public double apply(double x, double y) {
+      return Math.abs(x);
+    }
+  };
+
+  public Hypot() {
+    super(float8Args("x", "y"), 1);
+  }
+
+  @Override
+  protected Kernel genericKernel() {
+    return GENERIC;
+  }
+
+  @Override
+  protected Kernel kernelFor(double y) {
+    return y == 0 ? ABS : GENERIC;
+  }
+
+  @StaticEntryPoint
+  public static double hypot(double x, double y) {
+    double absX = Math.abs(x);
+    double absY = Math.abs(y);
+    if (absX >= MIN_SAFE && absX <= MAX_SAFE && absY >= MIN_SAFE && absY <= MAX_SAFE) {
+      return Math.sqrt(x * x + y * y);
+    }
+    return Math.hypot(x, y);
+  }
+}
@@ -0,0 +1,94 @@
+/**
+ * Licensed to the Apache Software Foundation (ASF) under one
+ * or more contributor license agreements.  See the NOTICE file
+ * distributed with this work for additional information
+ * regarding copyright ownership.  The ASF licenses this file
+ * to you under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance
+ * with the License.  You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+
+package org.apache.tajo.engine.function.example;
+
+import org.apache.tajo.engine.function.annotation.Description;
+import org.apache.tajo.engine.function.annotation.ParamTypes;
+import org.apache.tajo.engine.function.codegen.StaticEntryPoint;
+
+import static org.apache.tajo.common.TajoDataTypes.Type.FLOAT8;
+
+/**
+ * Returns the logarithm of x to the given base, like Oracle <code>LOG(n2, n1)</code>.
+ * <p>
+ * If the base is a constant, <code>ln(base)</code> is computed once, and the bases e and 10
+ * use {@link Math#log(double)} and {@link Math#log10(double)} directly.
+ */
+@Description(
+  functionName = "log",
+  description = "the logarithm of x to the given base",
+  example = "> SELECT log(2.0, 8.0)\n"
+    + "3.0",
+  returnType = FLOAT8,
+  paramTypes = {
+    @ParamTypes(paramTypes = {FLOAT8, FLOAT8})
+  }
+)
+public class Log extends ConstantSpecializedFunction {
+  private static final Kernel GENERIC = new Kernel() {
+    @Override
+    public double apply(double base, double x) {
+      return log(base, x);
+    }
+  };
+  private static final Kernel NATURAL = new Kernel() {
+    @Override
+    public double apply(double base, double x) {
+      return Math.log(x);
+    }
+  };
+  private static final Kernel COMMON = new Kernel() {
+    @Override
+    public double apply(double base, double x) {
+      return Math.log10(x);
+    }
+  };
+
+  public Log() {
+    super(float8Args("base", "x"), 0);
+  }
+
+  @Override
+  protected Kernel genericKernel() {
+    return GENERIC;
+  }
+
+  @Override
+  protected Kernel kernelFor(double base) {
+    if (base == Math.E) {
+      return NATURAL;
+    }
+    if (base == 10) {
+      return COMMON;
+    }
+    final double logBase = Math.log(base);
+    return new Kernel() {
+      @Override
+      public double apply(double base, double x) {
+        return Math.log(x) / logBase;
+      }
+    };
+  }
+
+  @StaticEntryPoint
+  public static double log(double base, double x) {
+    return Math.log(x) / Math.log(base);
+  }
+}
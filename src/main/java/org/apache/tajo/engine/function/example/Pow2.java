@@ -18,19 +18,22 @@
 
 package org.apache.tajo.engine.function.example;
 
-import org.apache.tajo.catalog.Column;
-import org.apache.tajo.datum.Datum;
-import org.apache.tajo.datum.DatumFactory;
-import org.apache.tajo.datum.NullDatum;
-import org.apache.tajo.plan.function.GeneralFunction;
 import org.apache.tajo.engine.function.annotation.Description;
 import org.apache.tajo.engine.function.annotation.ParamTypes;
-import org.apache.tajo.storage.Tuple;
+import org.apache.tajo.engine.function.codegen.StaticEntryPoint;
 
 import static org.apache.tajo.common.TajoDataTypes.Type.FLOAT8;
 
 /**
  * This is simple example for newbies and it returns x raised to the power of y.
+ * <p>
+ * If y is a constant, a kernel is chosen once: multiplications for the integers 0 to
+ * {@link #MAX_MULTIPLY_EXPONENT}, a reciprocal for -1 and a square root for 0.5. Otherwise,
+ * {@link Math#pow(double, double)} is used.
+ * <p>
+ * A square is correctly rounded. The cube and the fourth power are rounded twice, so they are within
+ * 2 and 3 ulps of the correctly rounded result, while {@link Math#pow(double, double)} is within 1 ulp.
+ * Larger exponents would round more times, so they are left to {@link Math#pow(double, double)}.
  */
 @Description(
   functionName = "pow2",
@@ -42,20 +45,88 @@ import static org.apache.tajo.common.TajoDataTypes.Type.FLOAT8;
     @ParamTypes(paramTypes = {FLOAT8, FLOAT8})
   }
 )
-public class Pow2 extends GeneralFunction {
+public class Pow2 extends ConstantSpecializedFunction {
+  static final int MAX_MULTIPLY_EXPONENT = 4;
+
+  private static final Kernel GENERIC = new Kernel() {
+    @Override
+    public double apply(double x, double y) {
+      return pow2(x, y);
+    }
+  };
+  // by the exponent
+  static final Kernel[] MULTIPLY = {
+    new Kernel() {
+      @Override
+      public double apply(double x, double y) {
+        return 1.0;
+      }
+    },
+    new Kernel() {
+      @Override
+      public double apply(double x, double y) {
+        return x;
+      }
+    },
+    new Kernel() {
+      @Override
+      public double apply(double x, double y) {
+        return x * x;
+      }
+    },
+    new Kernel() {
+      @Override
+      public double apply(double x, double y) {
+        return x * x * x;
+      }
+    },
+    new Kernel() {
+      @Override
+      public double apply(double x, double y) {
+        double square = x * x;
+        return square * square;
+      }
+    }
+  };
+  private static final Kernel SQRT = new Kernel() {
+    @Override
+    public double apply(double x, double y) {
+      // Math.pow differs from Math.sqrt for -0.0 and negative infinity
+      return x > 0 ? Math.sqrt(x) : Math.pow(x, 0.5);
+    }
+  };
+  private static final Kernel RECIPROCAL = new Kernel() {
+    @Override
+    public double apply(double x, double y) {
+      return 1 / x;
+    }
+  };
+
   public Pow2() {
-    super(new Column[] {
-      new Column("x", FLOAT8),
-      new Column("y", FLOAT8)
-    });
+    super(float8Args("x", "y"), 1);
   }
 
   @Override
-  public Datum eval(Tuple params) {
-    if (params.isBlankOrNull(0) || params.isBlankOrNull(1)) {
-      return NullDatum.get();
+  protected Kernel genericKernel() {
+    return GENERIC;
+  }
+
+  @Override
+  protected Kernel kernelFor(double y) {
+    if (y == 0.5) {
+      return SQRT;
     }
+    if (y == -1) {
+      return RECIPROCAL;
+    }
+    if (y < 0 || y > MAX_MULTIPLY_EXPONENT || y != Math.rint(y)) {
+      return GENERIC;
+    }
+    return MULTIPLY[(int) y];
+  }
 
-    return DatumFactory.createFloat8(Math.pow(params.getFloat8(0), params.getFloat8(1)));
+  @StaticEntryPoint
+  public static double pow2(double x, double y) {
+    return Math.pow(x, y);
   }
 }
@@ -0,0 +1,573 @@
+/**
+ * Licensed to the Apache Software Foundation (ASF) under one
+ * or more contributor license agreements.  See the NOTICE file
+ * distributed with this work for additional information
+ * regarding copyright ownership.  The ASF licenses this file
+ * to you under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance
+ * with the License.  You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package org.apache.tajo.engine.function.hll;
+
+import java.nio.charset.StandardCharsets;
+import java.util.Arrays;
+
+/**
+ * A HyperLogLog++ sketch, which estimates the number of distinct values added to it
+ * (Heule et al., <i>HyperLogLog in Practice</i>, 2013).
+ * <p>
+ * Values are hashed to 64 bits. The first <code>p</code> bits of a hash choose one of <code>m = 2^p</code>
+ * registers, which keeps the largest position of the first 1-bit in the rest of the hashes. The standard error
+ * is about <code>1.04 / sqrt(m)</code>, e.g. 0.81% for the default precision 14.
+ * <p>
+ * A small sketch is sparse. It keeps a sorted list of the hashes truncated to the sparse precision 25, which is
+ * exact enough for linear counting, and becomes dense once the list would take more memory than the registers.
+ * The registers of a dense sketch are estimated by the improved estimator of Ertl
+ * (<i>New cardinality estimation algorithms for HyperLogLog sketches</i>, 2017), which needs no empirical
+ * bias correction over the whole range.
+ * <p>
+ * {@link #toBytes()} serializes a sparse sketch as varint deltas of its list, and a dense sketch as
+ * registers packed in 6 bits each, i.e. <code>3m/4</code> bytes. Sketches of different precisions can be merged
+ * into the lower precision.
+ * <p>
+ * A sketch is not thread-safe.
+ */
+public final class HyperLogLog {
+  public static final int MIN_PRECISION = 4;
+  public static final int MAX_PRECISION = 18;
+  public static final int DEFAULT_PRECISION = 14;
+
+  static final int SPARSE_PRECISION = 25;
+  // the number of bits of the hash after the sparse index
+  private static final int SPARSE_RHO_BITS = 6;
+  private static final int SPARSE_RHO_MASK = (1 << SPARSE_RHO_BITS) - 1;
+  private static final int BUFFER_SIZE = 1024;
+
+  private static final byte SPARSE = 1;
+  private static final byte DENSE = 2;
+
+  private int precision;
+  // the registers of a dense sketch, or null if sparse
+  private byte[] registers;
+  // the sorted entries of a sparse sketch, one per sparse index: (index << SPARSE_RHO_BITS) | rho
+  private int[] sparse;
+  private int sparseSize;
+  // entries added after the last compaction, in any order
+  private int[] buffer;
+  private int bufferSize;
+
+  public HyperLogLog() {
+    this(DEFAULT_PRECISION);
+  }
+
+  /**
+   * @throws IllegalArgumentException if the precision is not between {@link #MIN_PRECISION}
+   * and {@link #MAX_PRECISION}
+   */
+  public HyperLogLog(int precision) {
+    checkPrecision(precision);
+    this.precision = precision;
+    this.sparse = new int[16];
+    this.buffer = new int[Math.min(BUFFER_SIZE, sparseLimit())];
+  }
+
+  private HyperLogLog(int precision, byte[] registers) {
+    this.precision = precision;
+    this.registers = registers;
+  }
+
+  private static void checkPrecision(int precision) {
+    if (precision < MIN_PRECISION || precision > MAX_PRECISION) {
+      throw new IllegalArgumentException("Precision must be between " + MIN_PRECISION + " and " + MAX_PRECISION +
+        ": " + precision);
+    }
+  }
+
+  public int precision() {
+    return precision;
+  }
+
+  public boolean isSparse() {
+    compact();
+    return registers == null;
+  }
+
+  public void addLong(long value) {
+    addHash(hashLong(value));
+  }
+
+  public void addDouble(double value) {
+    // +0.0 and -0.0 are the same value
+    addHash(hashLong(Double.doubleToLongBits(value == 0.0 ? 0.0 : value)));
+  }
+
+  public void addBytes(byte[] value) {
+    addHash(hashBytes(value, 0, value.length));
+  }
+
+  public void addString(String value) {
+    addBytes(value.getBytes(StandardCharsets.UTF_8));
+  }
+
+  /**
+   * Adds a 64-bit hash of a value.
+   */
+  public void addHash(long hash) {
+    if (registers != null) {
+      int index = (int) (hash >>> (64 - precision));
+      byte rho = (byte) rho(hash << precision, 64 - precision);
+      if (registers[index] < rho) {
+        registers[index] = rho;
+      }
+      return;
+    }
+
+    buffer[bufferSize++] = sparseEntry(hash);
+    if (bufferSize == buffer.length) {
+      compact();
+    }
+  }
+
+  /**
+   * Adds all values of another sketch. If the other sketch has a lower precision, this sketch is reduced to it.
+   */
+  public void merge(HyperLogLog other) {
+    if (other.precision < precision) {
+      reduce(other.precision);
+    } else if (other.precision > precision) {
+      other = other.copy();
+      other.reduce(precision);
+    }
+
+    compact();
+    other.compact();
+    if (other.registers == null) {
+      if (registers == null) {
+        mergeSparse(other.sparse, other.sparseSize);
+      } else {
+        for (int i = 0; i < other.sparseSize; i++) {
+          addToRegisters(registers, precision, other.sparse[i]);
+        }
+      }
+      return;
+    }
+
+    if (registers == null) {
+      toDense();
+    }
+    for (int i = 0; i < registers.length; i++) {
+      if (registers[i] < other.registers[i]) {
+        registers[i] = other.registers[i];
+      }
+    }
+  }
+
+  /**
+   * Returns the estimated number of distinct values.
+   */
+  public long estimate() {
+    // compaction can turn a sparse sketch dense
+    compact();
+    if (registers == null) {
+      // linear counting over the sparse indexes
+      double m = 1 << SPARSE_PRECISION;
+      return Math.round(m * Math.log(m / (m - sparseSize)));
+    }
+
+    int q = 64 - precision;
+    int[] counts = new int[q + 2];
+    for (byte register : registers) {
+      counts[register]++;
+    }
+    double m = registers.length;
+    double z = m * tau(1 - counts[q + 1] / m);
+    for (int k = q; k >= 1; k--) {
+      z = 0.5 * (z + counts[k]);
+    }
+    z += m * sigma(counts[0] / m);
+    return Math.round(m * m / (2 * Math.log(2) * z));
+  }
+
+  public HyperLogLog copy() {
+    compact();
+    if (registers != null) {
+      return new HyperLogLog(precision, registers.clone());
+    }
+    HyperLogLog copy = new HyperLogLog(precision);
+    copy.sparse = Arrays.copyOf(sparse, Math.max(sparseSize, 16));
+    copy.sparseSize = sparseSize;
+    return copy;
+  }
+
+  /**
+   * Serializes this sketch. The first byte is the format, and the second one is the precision.
+   */
+  public byte[] toBytes() {
+    compact();
+    if (registers != null) {
+      byte[] bytes = new byte[2 + registers.length * 6 / 8];
+      bytes[0] = DENSE;
+      bytes[1] = (byte) precision;
+      // 4 registers in 3 bytes
+      for (int i = 0, j = 2; i < registers.length; i += 4, j += 3) {
+        int packed = registers[i] << 18 | registers[i + 1] << 12 | registers[i + 2] << 6 | registers[i + 3];
+        bytes[j] = (byte) (packed >>> 16);
+        bytes[j + 1] = (byte) (packed >>> 8);
+        bytes[j + 2] = (byte) packed;
+      }
+      return bytes;
+    }
+
+    byte[] bytes = new byte[2 + 5 + sparseSize * 5];
+    bytes[0] = SPARSE;
+    bytes[1] = (byte) precision;
+    int position = writeVarint(bytes, 2, sparseSize);
+    int last = 0;
+    for (int i = 0; i < sparseSize; i++) {
+      position = writeVarint(bytes, position, sparse[i] - last);
+      last = sparse[i];
+    }
+    return Arrays.copyOf(bytes, position);
+  }
+
+  /**
+   * Deserializes a sketch serialized by {@link #toBytes()}.
+   *
+   * @throws IllegalArgumentException if the bytes are not a sketch
+   */
+  public static HyperLogLog fromBytes(byte[] bytes) {
+    if (bytes.length < 2) {
+      throw new IllegalArgumentException("Invalid HyperLogLog sketch: too short");
+    }
+    int precision = bytes[1];
+    checkPrecision(precision);
+
+    if (bytes[0] == DENSE) {
+      byte[] registers = new byte[1 << precision];
+      if (bytes.length != 2 + registers.length * 6 / 8) {
+        throw new IllegalArgumentException("Invalid HyperLogLog sketch: " + bytes.length + " bytes for precision " +
+          precision);
+      }
+      for (int i = 0, j = 2; i < registers.length; i += 4, j += 3) {
+        int packed = (bytes[j] & 0xff) << 16 | (bytes[j + 1] & 0xff) << 8 | (bytes[j + 2] & 0xff);
+        registers[i] = (byte) (packed >>> 18);
+        registers[i + 1] = (byte) (packed >>> 12 & 0x3f);
+        registers[i + 2] = (byte) (packed >>> 6 & 0x3f);
+        registers[i + 3] = (byte) (packed & 0x3f);
+        if (Math.max(Math.max(registers[i], registers[i + 1]), Math.max(registers[i + 2], registers[i + 3]))
+          > 65 - precision) {
+          throw new IllegalArgumentException("Invalid HyperLogLog sketch: register out of range");
+        }
+      }
+      return new HyperLogLog(precision, registers);
+    } else if (bytes[0] == SPARSE) {
+      HyperLogLog sketch = new HyperLogLog(precision);
+      int[] position = {2};
+      int size = readVarint(bytes, position);
+      if (size < 0 || size > bytes.length) {
+        throw new IllegalArgumentException("Invalid HyperLogLog sketch: " + size + " entries");
+      }
+      sketch.sparse = new int[Math.max(size, 16)];
+      int last = 0;
+      for (int i = 0; i < size; i++) {
+        int entry = last + readVarint(bytes, position);
+        int rho = entry & SPARSE_RHO_MASK;
+        if (entry < 0 || rho == 0 || rho > 65 - SPARSE_PRECISION
+          || (i > 0 && entry >>> SPARSE_RHO_BITS <= last >>> SPARSE_RHO_BITS)) {
+          throw new IllegalArgumentException("Invalid HyperLogLog sketch: invalid sparse entry");
+        }
+        sketch.sparse[i] = entry;
+        last = entry;
+      }
+      if (position[0] != bytes.length) {
+        throw new IllegalArgumentException("Invalid HyperLogLog sketch: trailing bytes");
+      }
+      sketch.sparseSize = size;
+      if (size > sketch.sparseLimit()) {
+        sketch.toDense();
+      }
+      return sketch;
+    }
+    throw new IllegalArgumentException("Invalid HyperLogLog sketch: unknown format " + bytes[0]);
+  }
+
+  /**
+   * Returns the maximum number of sparse entries, which take as much memory as the registers.
+   */
+  private int sparseLimit() {
+    return Math.max(4, (1 << precision) / 4);
+  }
+
+  private static int sparseEntry(long hash) {
+    int index = (int) (hash >>> (64 - SPARSE_PRECISION));
+    int rho = rho(hash << SPARSE_PRECISION, 64 - SPARSE_PRECISION);
+    return index << SPARSE_RHO_BITS | rho;
+  }
+
+  /**
+   * Returns the position of the first 1-bit in the first bits of a word, or bits + 1 if they are all zero.
+   */
+  private static int rho(long word, int bits) {
+    return Math.min(Long.numberOfLeadingZeros(word), bits) + 1;
+  }
+
+  /**
+   * Puts a sparse entry into the registers of the given precision.
+   */
+  private static void addToRegisters(byte[] registers, int precision, int entry) {
+    int sparseIndex = entry >>> SPARSE_RHO_BITS;
+    int extraBits = SPARSE_PRECISION - precision;
+    int index = sparseIndex >>> extraBits;
+    int extra = sparseIndex & ((1 << extraBits) - 1);
+    // the bits of the sparse index after the register index are the first bits of the rest of the hash
+    int rho = extra != 0
+      ? Integer.numberOfLeadingZeros(extra) - (32 - extraBits) + 1
+      : extraBits + (entry & SPARSE_RHO_MASK);
+    if (registers[index] < rho) {
+      registers[index] = (byte) rho;
+    }
+  }
+
+  /**
+   * Sorts the buffer into the sparse entries, and turns this sketch dense if they are too many.
+   */
+  private void compact() {
+    if (registers != null || bufferSize == 0) {
+      return;
+    }
+    Arrays.sort(buffer, 0, bufferSize);
+    int size = bufferSize;
+    bufferSize = 0;
+    mergeSparse(buffer, size);
+  }
+
+  /**
+   * Merges sorted entries into the sparse entries, keeping the largest rho of each sparse index.
+   */
+  private void mergeSparse(int[] entries, int size) {
+    int[] merged = new int[Math.max(16, sparseSize + size)];
+    int count = 0;
+    int i = 0;
+    int j = 0;
+    while (i < sparseSize || j < size) {
+      int entry = j == size || (i < sparseSize && sparse[i] <= entries[j]) ? sparse[i++] : entries[j++];
+      // entries of the same index are adjacent in ascending order of rho
+      if (count > 0 && merged[count - 1] >>> SPARSE_RHO_BITS == entry >>> SPARSE_RHO_BITS) {
+        merged[count - 1] = entry;
+      } else {
+        merged[count++] = entry;
+      }
+    }
+    sparse = merged;
+    sparseSize = count;
+
+    if (sparseSize > sparseLimit()) {
+      toDense();
+    }
+  }
+
+  private void toDense() {
+    // compacting the buffer may already turn this sketch dense
+    compact();
+    if (registers != null) {
+      return;
+    }
+    byte[] dense = new byte[1 << precision];
+    for (int i = 0; i < sparseSize; i++) {
+      addToRegisters(dense, precision, sparse[i]);
+    }
+    registers = dense;
+    sparse = null;
+    sparseSize = 0;
+    buffer = null;
+    bufferSize = 0;
+  }
+
+  /**
+   * Reduces the precision of this sketch, as if its values were added at the lower precision.
+   */
+  private void reduce(int lower) {
+    compact();
+    if (registers == null) {
+      // sparse entries do not depend on the precision
+      precision = lower;
+      buffer = new int[Math.min(BUFFER_SIZE, sparseLimit())];
+      if (sparseSize > sparseLimit()) {
+        toDense();
+      }
+      return;
+    }
+
+    int extraBits = precision - lower;
+    byte[] reduced = new byte[1 << lower];
+    for (int i = 0; i < registers.length; i++) {
+      if (registers[i] == 0) {
+        continue;
+      }
+      int extra = i & ((1 << extraBits) - 1);
+      int rho = extra != 0 ? Integer.numberOfLeadingZeros(extra) - (32 - extraBits) + 1 : extraBits + registers[i];
+      if (reduced[i >>> extraBits] < rho) {
+        reduced[i >>> extraBits] = (byte) rho;
+      }
+    }
+    precision = lower;
+    registers = reduced;
+  }
+
+  private static double sigma(double x) {
+    if (x == 1) {
+      return Double.POSITIVE_INFINITY;
+    }
+    double y = 1;
+    double z = x;
+    double previous;
+    do {
+      x *= x;
+      previous = z;
+      z += x * y;
+      y += y;
+    } while (z != previous);
+    return z;
+  }
+
+  private static double tau(double x) {
+    if (x == 0 || x == 1) {
+      return 0;
+    }
+    double y = 1;
+    double z = 1 - x;
+    double previous;
+    do {
+      x = Math.sqrt(x);
+      previous = z;
+      y *= 0.5;
+      z -= (1 - x) * (1 - x) * y;
+    } while (z != previous);
+    return z / 3;
+  }
+
+  private static int writeVarint(byte[] bytes, int position, int value) {
+    while ((value & ~0x7f) != 0) {
+      bytes[position++] = (byte) (value & 0x7f | 0x80);
+      value >>>= 7;
+    }
+    bytes[position++] = (byte) value;
+    return position;
+  }
+
+  private static int readVarint(byte[] bytes, int[] position) {
+    int value = 0;
+    for (int shift = 0; shift < 32; shift += 7) {
+      if (position[0] == bytes.length) {
+        throw new IllegalArgumentException("Invalid HyperLogLog sketch: truncated");
+      }
+      byte b = bytes[position[0]++];
+      value |= (b & 0x7f) << shift;
+      if (b >= 0) {
+        return value;
+      }
+    }
+    throw new IllegalArgumentException("Invalid HyperLogLog sketch: malformed varint");
+  }
+
+  /**
+   * Returns a 64-bit hash of a long value, by the finalizer of SplitMix64.
+   */
+  public static long hashLong(long value) {
+    long z = value + 0x9e3779b97f4a7c15L;
+    z = (z ^ (z >>> 30)) * 0xbf58476d1ce4e5b9L;
+    z = (z ^ (z >>> 27)) * 0x94d049bb133111ebL;
+    return z ^ (z >>> 31);
+  }
+
+  /**
+   * Returns the first 64 bits of MurmurHash3 x64 128-bit of bytes, with seed 0.
+   */
+  public static long hashBytes(byte[] bytes, int offset, int length) {
+    final long c1 = 0x87c37b91114253d5L;
+    final long c2 = 0x4cf5ad432745937fL;
+    long h1 = 0;
+    long h2 = 0;
+
+    int blocks = length / 16;
+    for (int i = 0; i < blocks; i++) {
+      int position = offset + i * 16;
+      long k1 = getLongLittleEndian(bytes, position);
+      long k2 = getLongLittleEndian(bytes, position + 8);
+
+      k1 *= c1;
+      k1 = Long.rotateLeft(k1, 31);
+      k1 *= c2;
+      h1 ^= k1;
+      h1 = Long.rotateLeft(h1, 27);
+      h1 += h2;
+      h1 = h1 * 5 + 0x52dce729;
+
+      k2 *= c2;
+      k2 = Long.rotateLeft(k2, 33);
+      k2 *= c1;
+      h2 ^= k2;
+      h2 = Long.rotateLeft(h2, 31);
+      h2 += h1;
+      h2 = h2 * 5 + 0x38495ab5;
+    }
+
+    int tail = offset + blocks * 16;
+    int remaining = length & 15;
+    long k1 = 0;
+    long k2 = 0;
+    for (int i = remaining - 1; i >= 8; i--) {
+      k2 = k2 << 8 | (bytes[tail + i] & 0xffL);
+    }
+    for (int i = Math.min(remaining, 8) - 1; i >= 0; i--) {
+      k1 = k1 << 8 | (bytes[tail + i] & 0xffL);
+    }
+    if (remaining > 8) {
+      k2 *= c2;
+      k2 = Long.rotateLeft(k2, 33);
+      k2 *= c1;
+      h2 ^= k2;
+    }
+    if (remaining > 0) {
+      k1 *= c1;
+      k1 = Long.rotateLeft(k1, 31);
+      k1 *= c2;
+      h1 ^= k1;
+    }
+
+    h1 ^= length;
+    h2 ^= length;
+    h1 += h2;
+    h2 += h1;
+    h1 = fmix64(h1);
+    h2 = fmix64(h2);
+    h1 += h2;
+    return h1;
+  }
+
+  private static long getLongLittleEndian(byte[] bytes, int position) {
+    long value = 0;
+    for (int i = 7; i >= 0; i--) {
+      value = value << 8 | (bytes[position + i] & 0xffL);
+    }
+    return value;
+  }
+
+  private static long fmix64(long k) {
+    k ^= k >>> 33;
+    k *= 0xff51afd7ed558ccdL;
+    k ^= k >>> 33;
+    k *= 0xc4ceb9fe1a85ec53L;
+    k ^= k >>> 33;
+    return k;
+  }
+}
@@ -0,0 +1,122 @@
+/**
+ * Licensed to the Apache Software Foundation (ASF) under one
+ * or more contributor license agreements.  See the NOTICE file
+ * distributed with this work for additional information
+ * regarding copyright ownership.  The ASF licenses this file
+ * to you under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance
+ * with the License.  You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package org.apache.tajo.engine.function.index;
+
+import com.google.gson.Gson;
+import com.google.gson.JsonParseException;
+import org.apache.tajo.catalog.CatalogUtil;
+import org.apache.tajo.catalog.FunctionDesc;
+import org.apache.tajo.catalog.proto.CatalogProtos.FunctionType;
+import org.apache.tajo.common.TajoDataTypes;
+import org.apache.tajo.function.Function;
+
+import java.io.IOException;
+import java.io.InputStreamReader;
+import java.io.Reader;
+import java.net.URL;
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayList;
+import java.util.Enumeration;
+import java.util.List;
+
+/**
+ * Loads the functions listed in the index which {@link FunctionIndexProcessor} writes into the jar at build time.
+ * <p>
+ * Tajo's <code>FunctionLoader</code> finds functions by scanning every class on the classpath under
+ * <code>org.apache.tajo.engine.function</code>, and instantiates each of them to read its description.
+ * The index already holds the descriptions and the signatures, so {@link #load(ClassLoader)} only reads a resource
+ * and loads the function classes without initializing them. Functions in the index can be in any package.
+ */
+public final class FunctionIndex {
+  public static final String RESOURCE = "META-INF/tajo-udf/functions.json";
+
+  private FunctionIndex() {
+  }
+
+  /**
+   * Returns the functions in the indexes of all jars visible to the class loader of this class.
+   */
+  public static List<FunctionDesc> load() throws IOException {
+    return load(FunctionIndex.class.getClassLoader());
+  }
+
+  /**
+   * Returns the functions in the indexes of all jars visible to the given class loader,
+   * one for each name and signature of a function class.
+   */
+  public static List<FunctionDesc> load(ClassLoader classLoader) throws IOException {
+    List<FunctionDesc> descs = new ArrayList<FunctionDesc>();
+    Enumeration<URL> indexes = classLoader.getResources(RESOURCE);
+    while (indexes.hasMoreElements()) {
+      URL index = indexes.nextElement();
+      for (IndexedFunction function : read(index)) {
+        addDescs(function, classLoader, descs);
+      }
+    }
+    return descs;
+  }
+
+  private static IndexedFunction[] read(URL index) throws IOException {
+    Reader reader = new InputStreamReader(index.openStream(), StandardCharsets.UTF_8);
+    try {
+      IndexedFunction[] functions = new Gson().fromJson(reader, IndexedFunction[].class);
+      return functions == null ? new IndexedFunction[0] : functions;
+    } catch (JsonParseException e) {
+      throw new IOException("invalid function index " + index, e);
+    } finally {
+      reader.close();
+    }
+  }
+
+  private static void addDescs(IndexedFunction function, ClassLoader classLoader, List<FunctionDesc> descs)
+    throws IOException {
+    Class<? extends Function> clazz;
+    try {
+      clazz = Class.forName(function.className, false, classLoader).asSubclass(Function.class);
+    } catch (ClassNotFoundException e) {
+      throw new IOException("function " + function.className + " in the index is not found", e);
+    }
+
+    FunctionType functionType = FunctionType.valueOf(function.functionType);
+    TajoDataTypes.Type returnType = TajoDataTypes.Type.valueOf(function.returnType);
+    List<String> names = new ArrayList<String>();
+    names.add(function.functionName);
+    if (function.synonyms != null) {
+      for (String synonym : function.synonyms) {
+        names.add(synonym);
+      }
+    }
+
+    for (String name : names) {
+      for (String[] signature : function.signatures) {
+        TajoDataTypes.Type[] paramTypes = new TajoDataTypes.Type[signature.length];
+        for (int i = 0; i < signature.length; i++) {
+          paramTypes[i] = TajoDataTypes.Type.valueOf(signature[i]);
+        }
+
+        FunctionDesc desc = new FunctionDesc(name, clazz, functionType,
+          CatalogUtil.newSimpleDataType(returnType), CatalogUtil.newSimpleDataTypeArray(paramTypes));
+        desc.setDescription(function.description);
+        desc.setExample(function.example);
+        desc.setDetail(function.detail);
+        descs.add(desc);
+      }
+    }
+  }
+}
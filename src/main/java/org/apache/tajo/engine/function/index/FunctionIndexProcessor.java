@@ -0,0 +1,163 @@
+/**
+ * Licensed to the Apache Software Foundation (ASF) under one
+ * or more contributor license agreements.  See the NOTICE file
+ * distributed with this work for additional information
+ * regarding copyright ownership.  The ASF licenses this file
+ * to you under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance
+ * with the License.  You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package org.apache.tajo.engine.function.index;
+
+import com.google.gson.Gson;
+import com.google.gson.GsonBuilder;
+import org.apache.tajo.common.TajoDataTypes;
+import org.apache.tajo.engine.function.annotation.Description;
+import org.apache.tajo.engine.function.annotation.ParamOptionTypes;
+import org.apache.tajo.engine.function.annotation.ParamTypes;
+
+import javax.annotation.processing.AbstractProcessor;
+import javax.annotation.processing.RoundEnvironment;
+import javax.annotation.processing.SupportedAnnotationTypes;
+import javax.lang.model.SourceVersion;
+import javax.lang.model.element.Element;
+import javax.lang.model.element.ElementKind;
+import javax.lang.model.element.Modifier;
+import javax.lang.model.element.TypeElement;
+import javax.lang.model.type.DeclaredType;
+import javax.lang.model.type.TypeKind;
+import javax.lang.model.type.TypeMirror;
+import javax.tools.Diagnostic;
+import javax.tools.FileObject;
+import javax.tools.StandardLocation;
+import java.io.IOException;
+import java.io.OutputStreamWriter;
+import java.io.Writer;
+import java.nio.charset.StandardCharsets;
+import java.util.Set;
+import java.util.TreeMap;
+
+/**
+ * Writes the function index {@link FunctionIndex#RESOURCE} of the classes annotated with <code>@Description</code>
+ * at compile time, so that the functions can be registered without scanning the classpath.
+ * <p>
+ * Classes generated by other processors are indexed in the round where they are compiled, and the index is
+ * written in the last round. It runs in the <code>default-compile</code> execution in pom.xml.
+ */
+@SupportedAnnotationTypes("org.apache.tajo.engine.function.annotation.Description")
+public class FunctionIndexProcessor extends AbstractProcessor {
+  private static final String GENERAL_FUNCTION = "org.apache.tajo.plan.function.GeneralFunction";
+  private static final String AGG_FUNCTION = "org.apache.tajo.plan.function.AggFunction";
+
+  // sorted by class names, so that the index does not depend on the order of compilation
+  private final TreeMap<String, IndexedFunction> functions = new TreeMap<String, IndexedFunction>();
+
+  @Override
+  public SourceVersion getSupportedSourceVersion() {
+    return SourceVersion.latestSupported();
+  }
+
+  @Override
+  public boolean process(Set<? extends TypeElement> annotations, RoundEnvironment roundEnv) {
+    for (Element element : roundEnv.getElementsAnnotatedWith(Description.class)) {
+      if (element.getKind() != ElementKind.CLASS || element.getModifiers().contains(Modifier.ABSTRACT)) {
+        continue;
+      }
+      TypeElement type = (TypeElement) element;
+      String functionType = functionTypeOf(type);
+      if (functionType == null) {
+        processingEnv.getMessager().printMessage(Diagnostic.Kind.ERROR,
+          "a function must extend GeneralFunction or AggFunction", type);
+        continue;
+      }
+      IndexedFunction function = toIndexed(type, functionType);
+      functions.put(function.className, function);
+    }
+
+    if (roundEnv.processingOver() && !functions.isEmpty()) {
+      write();
+    }
+    return false;
+  }
+
+  private IndexedFunction toIndexed(TypeElement type, String functionType) {
+    Description description = type.getAnnotation(Description.class);
+    IndexedFunction function = new IndexedFunction();
+    function.className = processingEnv.getElementUtils().getBinaryName(type).toString();
+    function.functionType = functionType;
+    function.functionName = description.functionName();
+    function.synonyms = description.synonyms();
+    function.description = description.description();
+    function.detail = description.detail();
+    function.example = description.example();
+    function.returnType = description.returnType().name();
+
+    for (ParamTypes paramTypes : description.paramTypes()) {
+      TajoDataTypes.Type[] types = paramTypes.paramTypes();
+      function.signatures.add(names(types));
+      // optional parameters are appended to the required ones
+      for (ParamOptionTypes option : paramTypes.paramOptionTypes()) {
+        if (option.paramOptionTypes().length == 0) {
+          continue;
+        }
+        TajoDataTypes.Type[] extended = new TajoDataTypes.Type[types.length + option.paramOptionTypes().length];
+        System.arraycopy(types, 0, extended, 0, types.length);
+        System.arraycopy(option.paramOptionTypes(), 0, extended, types.length, option.paramOptionTypes().length);
+        function.signatures.add(names(extended));
+      }
+    }
+    return function;
+  }
+
+  private static String[] names(TajoDataTypes.Type[] types) {
+    String[] names = new String[types.length];
+    for (int i = 0; i < types.length; i++) {
+      names[i] = types[i].name();
+    }
+    return names;
+  }
+
+  /**
+   * Returns the name of the function type which Tajo gives to instances of the class, or null if it is not a function.
+   */
+  private static String functionTypeOf(TypeElement type) {
+    TypeMirror superclass = type.getSuperclass();
+    while (superclass.getKind() == TypeKind.DECLARED) {
+      TypeElement element = (TypeElement) ((DeclaredType) superclass).asElement();
+      String name = element.getQualifiedName().toString();
+      if (GENERAL_FUNCTION.equals(name)) {
+        return "GENERAL";
+      } else if (AGG_FUNCTION.equals(name)) {
+        return "AGGREGATION";
+      }
+      superclass = element.getSuperclass();
+    }
+    return null;
+  }
+
+  private void write() {
+    Gson gson = new GsonBuilder().setPrettyPrinting().disableHtmlEscaping().create();
+    try {
+      FileObject file = processingEnv.getFiler().createResource(StandardLocation.CLASS_OUTPUT, "",
+        FunctionIndex.RESOURCE);
+      Writer writer = new OutputStreamWriter(file.openOutputStream(), StandardCharsets.UTF_8);
+      try {
+        gson.toJson(functions.values(), writer);
+      } finally {
+        writer.close();
+      }
+    } catch (IOException e) {
+      processingEnv.getMessager().printMessage(Diagnostic.Kind.ERROR,
+        "cannot write " + FunctionIndex.RESOURCE + ": " + e.getMessage());
+    }
+  }
+}
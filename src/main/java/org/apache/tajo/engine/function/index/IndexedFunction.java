@@ -16,24 +16,25 @@
  * limitations under the License.
  */
 
-package org.apache.tajo.engine.function;
+package org.apache.tajo.engine.function.index;
 
-import org.apache.tajo.catalog.Column;
-import org.apache.tajo.common.TajoDataTypes;
-import org.apache.tajo.engine.function.annotation.Description;
-import org.apache.tajo.engine.function.annotation.ParamTypes;
+import java.util.ArrayList;
+import java.util.List;
 
-@Description(
-  functionName = "greatest",
-  description = "Returns the greatest value in the list.",
-  example = "> SELECT greatest(2, 5, 12, 3) FROM src;\n 12",
-  returnType = TajoDataTypes.Type.INT8,
-  paramTypes = {@ParamTypes(paramTypes = {TajoDataTypes.Type.INT8_ARRAY})}
-)
-public class GreatestLong extends Greatest {
-  public GreatestLong() {
-    super(new Column[] {
-      new Column("values", TajoDataTypes.Type.INT8_ARRAY)
-    });
-  }
-}
\ No newline at end of file
+/**
+ * An entry of the function index, which holds the <code>@Description</code> of a function class.
+ * It is written by {@link FunctionIndexProcessor} and read by {@link FunctionIndex} through Gson.
+ */
+class IndexedFunction {
+  String className;
+  // the name of CatalogProtos.FunctionType
+  String functionType;
+  String functionName;
+  String[] synonyms;
+  String description;
+  String detail;
+  String example;
+  String returnType;
+  // the names of the parameter types of each signature
+  List<String[]> signatures = new ArrayList<String[]>();
+}
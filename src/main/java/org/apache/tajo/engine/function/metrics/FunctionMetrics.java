@@ -0,0 +1,121 @@
+/**
+ * Licensed to the Apache Software Foundation (ASF) under one
+ * or more contributor license agreements.  See the NOTICE file
+ * distributed with this work for additional information
+ * regarding copyright ownership.  The ASF licenses this file
+ * to you under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance
+ * with the License.  You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+
+package org.apache.tajo.engine.function.metrics;
+
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * Runtime metrics of a function for a tag, which are shared by all instances of the function.
+ */
+public class FunctionMetrics implements FunctionMetricsMXBean {
+  private final String functionName;
+  private final String tag;
+
+  private final AtomicLong invocations = new AtomicLong();
+  private final AtomicLong nullInputs = new AtomicLong();
+  private final LatencyHistogram latency = new LatencyHistogram();
+  private final AtomicLong allocationSamples = new AtomicLong();
+  private final AtomicLong allocatedBytes = new AtomicLong();
+
+  FunctionMetrics(String functionName, String tag) {
+    this.functionName = functionName;
+    this.tag = tag;
+  }
+
+  void addInvocations(long calls, long nullCalls) {
+    invocations.addAndGet(calls);
+    if (nullCalls > 0) {
+      nullInputs.addAndGet(nullCalls);
+    }
+  }
+
+  /**
+   * Records a sampled call, or a sampled batch divided by its rows.
+   *
+   * @param bytes allocated bytes, or a negative value if it is not measured
+   */
+  void addSample(long nanos, long bytes) {
+    latency.record(nanos);
+    if (bytes >= 0) {
+      allocationSamples.incrementAndGet();
+      allocatedBytes.addAndGet(bytes);
+    }
+  }
+
+  @Override
+  public String getFunctionName() {
+    return functionName;
+  }
+
+  @Override
+  public String getTag() {
+    return tag;
+  }
+
+  @Override
+  public long getInvocations() {
+    return invocations.get();
+  }
+
+  @Override
+  public long getNullInputs() {
+    return nullInputs.get();
+  }
+
+  @Override
+  public long getSampledCalls() {
+    return latency.getCount();
+  }
+
+  @Override
+  public double getMeanLatencyNanos() {
+    return latency.getMean();
+  }
+
+  @Override
+  public long getMedianLatencyNanos() {
+    return latency.getPercentile(50);
+  }
+
+  @Override
+  public long getP99LatencyNanos() {
+    return latency.getPercentile(99);
+  }
+
+  @Override
+  public long getMaxLatencyNanos() {
+    return latency.getMax();
+  }
+
+  @Override
+  public double getMeanAllocatedBytes() {
+    long samples = allocationSamples.get();
+    return samples == 0 ? 0 : (double) allocatedBytes.get() / samples;
+  }
+
+  @Override
+  public void reset() {
+    invocations.set(0);
+    nullInputs.set(0);
+    latency.reset();
+    allocationSamples.set(0);
+    allocatedBytes.set(0);
+  }
+}
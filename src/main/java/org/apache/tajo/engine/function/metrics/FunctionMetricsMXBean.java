@@ -16,24 +16,32 @@
  * limitations under the License.
  */
 
-package org.apache.tajo.engine.function;
-
-import org.apache.tajo.catalog.Column;
-import org.apache.tajo.common.TajoDataTypes;
-import org.apache.tajo.engine.function.annotation.Description;
-import org.apache.tajo.engine.function.annotation.ParamTypes;
-
-@Description(
-  functionName = "greatest",
-  description = "Returns the greatest value in the list.",
-  example = "> SELECT greatest(2, 5, 12, 3) FROM src;\n 12",
-  returnType = TajoDataTypes.Type.TIME,
-  paramTypes = {@ParamTypes(paramTypes = {TajoDataTypes.Type.TIME_ARRAY})}
-)
-public class GreatestTime extends Greatest {
-  public GreatestTime() {
-    super(new Column[] {
-      new Column("values", TajoDataTypes.Type.TIME_ARRAY)
-    });
-  }
-}
\ No newline at end of file
+
+package org.apache.tajo.engine.function.metrics;
+
+/**
+ * JMX view of {@link FunctionMetrics}. Latencies and allocations are measured only for sampled calls.
+ */
+public interface FunctionMetricsMXBean {
+  String getFunctionName();
+
+  String getTag();
+
+  long getInvocations();
+
+  long getNullInputs();
+
+  long getSampledCalls();
+
+  double getMeanLatencyNanos();
+
+  long getMedianLatencyNanos();
+
+  long getP99LatencyNanos();
+
+  long getMaxLatencyNanos();
+
+  double getMeanAllocatedBytes();
+
+  void reset();
+}
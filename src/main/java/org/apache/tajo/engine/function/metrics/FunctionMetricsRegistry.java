@@ -0,0 +1,137 @@
+/**
+ * Licensed to the Apache Software Foundation (ASF) under one
+ * or more contributor license agreements.  See the NOTICE file
+ * distributed with this work for additional information
+ * regarding copyright ownership.  The ASF licenses this file
+ * to you under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance
+ * with the License.  You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+
+package org.apache.tajo.engine.function.metrics;
+
+import javax.management.JMException;
+import javax.management.MBeanServer;
+import javax.management.ObjectName;
+import java.lang.management.ManagementFactory;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.Comparator;
+import java.util.List;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
+
+/**
+ * Holds {@link FunctionMetrics} by function names and tags, and registers them as MBeans named
+ * <code>org.apache.tajo.engine.function:type=FunctionMetrics,tag=&lt;tag&gt;,name=&lt;function&gt;</code>.
+ */
+public final class FunctionMetricsRegistry {
+  static final String DOMAIN = "org.apache.tajo.engine.function";
+
+  private static final ConcurrentMap<String, FunctionMetrics> METRICS =
+    new ConcurrentHashMap<String, FunctionMetrics>();
+
+  private FunctionMetricsRegistry() {
+  }
+
+  public static FunctionMetrics get(String functionName, String tag) {
+    String key = tag + '\u0000' + functionName;
+    FunctionMetrics metrics = METRICS.get(key);
+    if (metrics == null) {
+      FunctionMetrics created = new FunctionMetrics(functionName, tag);
+      metrics = METRICS.putIfAbsent(key, created);
+      if (metrics == null) {
+        metrics = created;
+        register(created);
+      }
+    }
+    return metrics;
+  }
+
+  /**
+   * Returns the metrics of the given tag sorted by function names.
+   */
+  public static List<FunctionMetrics> getMetrics(String tag) {
+    List<FunctionMetrics> found = new ArrayList<FunctionMetrics>();
+    for (FunctionMetrics metrics : METRICS.values()) {
+      if (metrics.getTag().equals(tag)) {
+        found.add(metrics);
+      }
+    }
+    Collections.sort(found, new Comparator<FunctionMetrics>() {
+      @Override
+      public int compare(FunctionMetrics o1, FunctionMetrics o2) {
+        return o1.getFunctionName().compareTo(o2.getFunctionName());
+      }
+    });
+    return found;
+  }
+
+  /**
+   * Returns a table of the metrics of the given tag, e.g. for the summary of a query.
+   */
+  public static String summary(String tag) {
+    StringBuilder summary = new StringBuilder(String.format("%-24s %12s %12s %10s %10s %10s %12s%n",
+      "function", "calls", "null inputs", "mean ns", "p99 ns", "max ns", "bytes/call"));
+    for (FunctionMetrics metrics : getMetrics(tag)) {
+      summary.append(String.format("%-24s %12d %12d %10.1f %10d %10d %12.1f%n",
+        metrics.getFunctionName(), metrics.getInvocations(), metrics.getNullInputs(),
+        metrics.getMeanLatencyNanos(), metrics.getP99LatencyNanos(), metrics.getMaxLatencyNanos(),
+        metrics.getMeanAllocatedBytes()));
+    }
+    return summary.toString();
+  }
+
+  /**
+   * Removes the metrics of the given tag, e.g. when a query is finished.
+   */
+  public static void remove(String tag) {
+    for (FunctionMetrics metrics : getMetrics(tag)) {
+      METRICS.remove(tag + '\u0000' + metrics.getFunctionName());
+      unregister(metrics);
+    }
+  }
+
+  static ObjectName objectName(FunctionMetrics metrics) throws JMException {
+    return new ObjectName(DOMAIN + ":type=FunctionMetrics,tag=" + ObjectName.quote(metrics.getTag())
+      + ",name=" + ObjectName.quote(metrics.getFunctionName()));
+  }
+
+  // Metrics are still collected if JMX is not available.
+  private static void register(FunctionMetrics metrics) {
+    try {
+      MBeanServer server = ManagementFactory.getPlatformMBeanServer();
+      ObjectName name = objectName(metrics);
+      if (!server.isRegistered(name)) {
+        server.registerMBean(metrics, name);
+      }
+    } catch (JMException e) {
+      // ignore
+    } catch (SecurityException e) {
+      // ignore
+    }
+  }
+
+  private static void unregister(FunctionMetrics metrics) {
+    try {
+      MBeanServer server = ManagementFactory.getPlatformMBeanServer();
+      ObjectName name = objectName(metrics);
+      if (server.isRegistered(name)) {
+        server.unregisterMBean(name);
+      }
+    } catch (JMException e) {
+      // ignore
+    } catch (SecurityException e) {
+      // ignore
+    }
+  }
+}
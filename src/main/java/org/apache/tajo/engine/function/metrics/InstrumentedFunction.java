@@ -0,0 +1,137 @@
+/**
+ * Licensed to the Apache Software Foundation (ASF) under one
+ * or more contributor license agreements.  See the NOTICE file
+ * distributed with this work for additional information
+ * regarding copyright ownership.  The ASF licenses this file
+ * to you under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance
+ * with the License.  You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package org.apache.tajo.engine.function.metrics;
+
+import org.apache.tajo.OverridableConf;
+import org.apache.tajo.catalog.Column;
+import org.apache.tajo.datum.Datum;
+import org.apache.tajo.engine.function.FunctionSessionVars;
+import org.apache.tajo.engine.function.annotation.Description;
+import org.apache.tajo.plan.expr.FunctionEval;
+import org.apache.tajo.plan.function.GeneralFunction;
+import org.apache.tajo.storage.Tuple;
+
+import java.lang.management.ManagementFactory;
+import java.lang.management.ThreadMXBean;
+
+/**
+ * Base class of functions which record their {@link FunctionMetrics}: invocations, calls with a null
+ * argument, and the latency and the allocated bytes of sampled calls.
+ * <p>
+ * Subclasses implement {@link #doEval(Tuple)}, and call <code>super.init()</code> if they override {@link #init}.
+ * Vectorized functions extend {@link InstrumentedVectorizedFunction} instead, which records batches too.
+ * {@link #init} looks up the metrics of the function if {@link FunctionSessionVars#UDF_METRICS} is
+ * enabled. Otherwise {@link #eval(Tuple)} calls the subclass directly, so there is no overhead but a null
+ * check when it is disabled. Every {@link #SAMPLE_INTERVAL}th call is timed, and its allocations are measured
+ * with {@link com.sun.management.ThreadMXBean#getThreadAllocatedBytes(long)} if the JVM supports it.
+ */
+public abstract class InstrumentedFunction extends GeneralFunction {
+  static final int SAMPLE_INTERVAL = 64;
+  static final String DEFAULT_TAG = "default";
+
+  private static final com.sun.management.ThreadMXBean THREADS = allocationMXBean();
+
+  private FunctionMetrics metrics;
+  private long calls;
+
+  public InstrumentedFunction(Column[] definedArgs) {
+    super(definedArgs);
+  }
+
+  static boolean isEnabled(OverridableConf context) {
+    return context != null && context.containsKey(FunctionSessionVars.UDF_METRICS)
+      && Boolean.parseBoolean(context.get(FunctionSessionVars.UDF_METRICS).trim());
+  }
+
+  static String nameOf(GeneralFunction function) {
+    Description description = function.getClass().getAnnotation(Description.class);
+    return description != null ? description.functionName() : function.getClass().getSimpleName();
+  }
+
+  private static com.sun.management.ThreadMXBean allocationMXBean() {
+    ThreadMXBean threads = ManagementFactory.getThreadMXBean();
+    if (threads instanceof com.sun.management.ThreadMXBean) {
+      com.sun.management.ThreadMXBean allocations = (com.sun.management.ThreadMXBean) threads;
+      if (allocations.isThreadAllocatedMemorySupported() && allocations.isThreadAllocatedMemoryEnabled()) {
+        return allocations;
+      }
+    }
+    return null;
+  }
+
+  static long allocatedBytes() {
+    return THREADS == null ? -1 : THREADS.getThreadAllocatedBytes(Thread.currentThread().getId());
+  }
+
+  /**
+   * Returns the metrics this function records into, or null if {@link FunctionSessionVars#UDF_METRICS}
+   * was not enabled when it was initialized.
+   */
+  public FunctionMetrics getMetrics() {
+    return metrics;
+  }
+
+  @Override
+  public void init(OverridableConf context, FunctionEval.ParamType[] types) {
+    if (isEnabled(context)) {
+      String tag = context.containsKey(FunctionSessionVars.UDF_METRICS_TAG)
+        ? context.get(FunctionSessionVars.UDF_METRICS_TAG) : DEFAULT_TAG;
+      metrics = FunctionMetricsRegistry.get(nameOf(this), tag);
+    } else {
+      metrics = null;
+    }
+    calls = 0;
+  }
+
+  @Override
+  public final Datum eval(Tuple params) {
+    if (metrics == null) {
+      return doEval(params);
+    }
+
+    long nullCalls = hasNull(params) ? 1 : 0;
+    if ((++calls & (SAMPLE_INTERVAL - 1)) != 0) {
+      metrics.addInvocations(1, nullCalls);
+      return doEval(params);
+    }
+
+    long bytes = allocatedBytes();
+    long start = System.nanoTime();
+    Datum result = doEval(params);
+    long nanos = System.nanoTime() - start;
+    if (bytes >= 0) {
+      bytes = allocatedBytes() - bytes;
+    }
+
+    metrics.addInvocations(1, nullCalls);
+    metrics.addSample(nanos, bytes);
+    return result;
+  }
+
+  private static boolean hasNull(Tuple params) {
+    for (int i = 0; i < params.size(); i++) {
+      if (params.isBlankOrNull(i)) {
+        return true;
+      }
+    }
+    return false;
+  }
+
+  protected abstract Datum doEval(Tuple params);
+}
@@ -0,0 +1,71 @@
+/**
+ * Licensed to the Apache Software Foundation (ASF) under one
+ * or more contributor license agreements.  See the NOTICE file
+ * distributed with this work for additional information
+ * regarding copyright ownership.  The ASF licenses this file
+ * to you under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance
+ * with the License.  You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package org.apache.tajo.engine.function.metrics;
+
+import org.apache.tajo.catalog.Column;
+import org.apache.tajo.engine.function.vector.ColumnVector;
+import org.apache.tajo.engine.function.vector.VectorizedFunction;
+
+/**
+ * Base class of vectorized functions which record their {@link FunctionMetrics} for batches as well as rows.
+ * <p>
+ * Subclasses implement {@link #doEvalBatch(ColumnVector[], int[], int, ColumnVector)} in addition to
+ * {@link #doEval(org.apache.tajo.storage.Tuple)}. A batch counts all of its rows and null inputs, and is always
+ * timed, so the sampled latency and allocated bytes are the averages per row.
+ */
+public abstract class InstrumentedVectorizedFunction extends InstrumentedFunction implements VectorizedFunction {
+  public InstrumentedVectorizedFunction(Column[] definedArgs) {
+    super(definedArgs);
+  }
+
+  @Override
+  public final void evalBatch(ColumnVector[] args, int[] selected, int count, ColumnVector out) {
+    FunctionMetrics metrics = getMetrics();
+    if (metrics == null) {
+      doEvalBatch(args, selected, count, out);
+      return;
+    }
+
+    long nullCalls = 0;
+    for (int i = 0; i < count; i++) {
+      int row = selected == null ? i : selected[i];
+      for (ColumnVector arg : args) {
+        if (arg.isNull(row)) {
+          nullCalls++;
+          break;
+        }
+      }
+    }
+
+    long bytes = allocatedBytes();
+    long start = System.nanoTime();
+    doEvalBatch(args, selected, count, out);
+    long nanos = System.nanoTime() - start;
+    if (bytes >= 0) {
+      bytes = allocatedBytes() - bytes;
+    }
+
+    metrics.addInvocations(count, nullCalls);
+    if (count > 0) {
+      metrics.addSample(nanos / count, bytes < 0 ? bytes : bytes / count);
+    }
+  }
+
+  protected abstract void doEvalBatch(ColumnVector[] args, int[] selected, int count, ColumnVector out);
+}
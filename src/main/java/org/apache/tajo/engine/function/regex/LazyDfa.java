@@ -0,0 +1,243 @@
+/**
+ * Licensed to the Apache Software Foundation (ASF) under one
+ * or more contributor license agreements.  See the NOTICE file
+ * distributed with this work for additional information
+ * regarding copyright ownership.  The ASF licenses this file
+ * to you under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance
+ * with the License.  You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package org.apache.tajo.engine.function.regex;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * DFA which is built lazily from a {@link RegexProgram} while searching, to test whether a text
+ * has any match.
+ * <p>
+ * Each DFA state is a set of NFA threads, and each transition is computed at most once until the cache is
+ * flushed. The cache is bounded by a memory limit. If it is full, all states are dropped and built again
+ * on demand, so a search is still linear in the text length.
+ * The program must not have assertions other than the start of text (see
+ * {@link RegexProgram#hasContextAssertion}). An instance is not thread-safe.
+ */
+class LazyDfa {
+  private static final int ALPHABET = 256;
+  private static final int UNKNOWN = -1;
+
+  private final RegexProgram program;
+  private final int maxStates;
+
+  private final Map<StateKey, Integer> stateIndexes = new HashMap<StateKey, Integer>();
+  private final List<int[]> states = new ArrayList<int[]>();
+  private boolean[] matchStates = new boolean[16];
+  private int[] transitions = new int[16 * ALPHABET];
+
+  // NFA threads at the start of text, and at other positions
+  private final int[] startAtBegin;
+  private final int[] startInMiddle;
+
+  // scratch space for closures
+  private final int[] marks;
+  private int generation;
+  private final int[] stack;
+  private final int[] closure;
+  private int flushCount;
+
+  LazyDfa(RegexProgram program, long memoryLimit) {
+    this.program = program;
+    this.marks = new int[program.size()];
+    // Each instruction pushes at most two others when it is visited first.
+    this.stack = new int[program.size() * 3 + 2];
+    this.closure = new int[program.size()];
+    long stateSize = ALPHABET * 4L + program.size() * 4L + 64;
+    this.maxStates = (int) Math.max(16, Math.min(Integer.MAX_VALUE / ALPHABET, memoryLimit / stateSize));
+    Arrays.fill(transitions, UNKNOWN);
+
+    int size = closure(new int[]{0}, 1, true);
+    this.startAtBegin = Arrays.copyOf(closure, size);
+    size = closure(new int[]{0}, 1, false);
+    this.startInMiddle = Arrays.copyOf(closure, size);
+  }
+
+  /**
+   * Returns the number of times the state cache was flushed because of the memory limit.
+   */
+  int flushCount() {
+    return flushCount;
+  }
+
+  /**
+   * Returns true if any substring of <code>text</code> matches.
+   */
+  boolean matches(byte[] text) {
+    int state = intern(startAtBegin, startAtBegin.length);
+    if (matchStates[state]) {
+      return true;
+    }
+
+    for (byte b : text) {
+      int c = b & 0xff;
+      int nextState = transitions[state * ALPHABET + c];
+      if (nextState == UNKNOWN) {
+        nextState = step(state, c);
+      }
+      state = nextState;
+      if (matchStates[state]) {
+        return true;
+      }
+    }
+    return false;
+  }
+
+  private int step(int state, int c) {
+    int[] threads = states.get(state);
+
+    // Threads which consume c, followed by a new thread starting at the next position
+    int[] targets = new int[threads.length + 1];
+    int targetNum = 0;
+    for (int pc : threads) {
+      if (program.ops[pc] == RegexProgram.BYTE_RANGE && c >= program.xs[pc] && c <= program.ys[pc]) {
+        targets[targetNum++] = pc + 1;
+      }
+    }
+    int size = closure(targets, targetNum, false);
+    int[] nextThreads = new int[size + startInMiddle.length];
+    System.arraycopy(closure, 0, nextThreads, 0, size);
+    System.arraycopy(startInMiddle, 0, nextThreads, size, startInMiddle.length);
+    nextThreads = sortedUnique(nextThreads);
+
+    boolean flushed = false;
+    if (!stateIndexes.containsKey(new StateKey(nextThreads)) && states.size() >= maxStates) {
+      flush();
+      flushed = true;
+    }
+    int nextState = intern(nextThreads, nextThreads.length);
+    if (!flushed) {
+      transitions[state * ALPHABET + c] = nextState;
+    }
+    return nextState;
+  }
+
+  private void flush() {
+    stateIndexes.clear();
+    states.clear();
+    Arrays.fill(transitions, UNKNOWN);
+    flushCount++;
+  }
+
+  private int intern(int[] threads, int length) {
+    int[] key = length == threads.length ? threads : Arrays.copyOf(threads, length);
+    StateKey stateKey = new StateKey(key);
+    Integer index = stateIndexes.get(stateKey);
+    if (index != null) {
+      return index;
+    }
+
+    int newIndex = states.size();
+    states.add(key);
+    stateIndexes.put(stateKey, newIndex);
+
+    if (newIndex == matchStates.length) {
+      matchStates = Arrays.copyOf(matchStates, newIndex * 2);
+      int oldLength = transitions.length;
+      transitions = Arrays.copyOf(transitions, newIndex * 2 * ALPHABET);
+      Arrays.fill(transitions, oldLength, transitions.length, UNKNOWN);
+    }
+    boolean match = false;
+    for (int pc : key) {
+      if (program.ops[pc] == RegexProgram.MATCH) {
+        match = true;
+      }
+    }
+    matchStates[newIndex] = match;
+    return newIndex;
+  }
+
+  /**
+   * Computes the sorted set of BYTE_RANGE and MATCH instructions reachable from the given
+   * instructions without consuming input. The result is stored in {@link #closure}.
+   */
+  private int closure(int[] pcs, int pcNum, boolean atBegin) {
+    generation++;
+    int top = 0;
+    for (int i = pcNum - 1; i >= 0; i--) {
+      stack[top++] = pcs[i];
+    }
+
+    int size = 0;
+    while (top > 0) {
+      int pc = stack[--top];
+      if (marks[pc] == generation) {
+        continue;
+      }
+      marks[pc] = generation;
+
+      switch (program.ops[pc]) {
+      case RegexProgram.JUMP:
+        stack[top++] = program.xs[pc];
+        break;
+      case RegexProgram.SPLIT:
+        stack[top++] = program.ys[pc];
+        stack[top++] = program.xs[pc];
+        break;
+      case RegexProgram.SAVE:
+        stack[top++] = pc + 1;
+        break;
+      case RegexProgram.ASSERT:
+        if (atBegin) {
+          stack[top++] = pc + 1;
+        }
+        break;
+      default:
+        closure[size++] = pc;
+      }
+    }
+    Arrays.sort(closure, 0, size);
+    return size;
+  }
+
+  private static int[] sortedUnique(int[] values) {
+    Arrays.sort(values);
+    int size = 0;
+    for (int i = 0; i < values.length; i++) {
+      if (i == 0 || values[i] != values[i - 1]) {
+        values[size++] = values[i];
+      }
+    }
+    return size == values.length ? values : Arrays.copyOf(values, size);
+  }
+
+  private static class StateKey {
+    private final int[] threads;
+    private final int hash;
+
+    StateKey(int[] threads) {
+      this.threads = threads;
+      this.hash = Arrays.hashCode(threads);
+    }
+
+    @Override
+    public int hashCode() {
+      return hash;
+    }
+
+    @Override
+    public boolean equals(Object obj) {
+      return obj instanceof StateKey && Arrays.equals(threads, ((StateKey) obj).threads);
+    }
+  }
+}
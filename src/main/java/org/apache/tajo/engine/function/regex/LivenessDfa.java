@@ -0,0 +1,237 @@
+/**
+ * Licensed to the Apache Software Foundation (ASF) under one
+ * or more contributor license agreements.  See the NOTICE file
+ * distributed with this work for additional information
+ * regarding copyright ownership.  The ASF licenses this file
+ * to you under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance
+ * with the License.  You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package org.apache.tajo.engine.function.regex;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * DFA which runs backward over a text to find, at each position, the instructions of a {@link RegexProgram}
+ * from which a match can still be reached.
+ * <p>
+ * {@link PikeVm} uses it to drop threads which cannot match. Then a search ends as soon as its match is
+ * decided, instead of running the threads of the other alternatives to the end of the text, and finding
+ * all matches of patterns like <code>a*b|a</code> takes linear time instead of quadratic time. Assertions are
+ * assumed to hold, so a thread which is kept may still fail.
+ * <p>
+ * Each state is the set of live BYTE_RANGE and MATCH instructions at a position. States are built lazily
+ * and kept up to a memory limit. If a text needs more states, {@link #scan(byte[])} gives up.
+ * An instance is not thread-safe.
+ */
+class LivenessDfa {
+  private static final int ALPHABET = 256;
+  private static final int UNKNOWN = -1;
+
+  private final RegexProgram program;
+  private final int words;
+  private final int maxStates;
+  // instructions which reach each instruction without consuming input
+  private final int[][] predecessors;
+
+  private final Map<StateKey, Integer> stateIndexes = new HashMap<StateKey, Integer>();
+  private final List<long[]> states = new ArrayList<long[]>();
+  private int[] transitions = new int[16 * ALPHABET];
+  private final int endState;
+
+  // scratch space for the reverse closure
+  private final int[] marks;
+  private int generation;
+  private final int[] stack;
+
+  LivenessDfa(RegexProgram program, long memoryLimit) {
+    this.program = program;
+    int size = program.size();
+    this.words = (size + 63) >>> 6;
+    long stateSize = ALPHABET * 4L + words * 8L + 64;
+    this.maxStates = (int) Math.max(16, Math.min(Integer.MAX_VALUE / ALPHABET, memoryLimit / stateSize));
+    this.marks = new int[size];
+    this.stack = new int[size];
+    Arrays.fill(transitions, UNKNOWN);
+
+    int[] counts = new int[size];
+    for (int pc = 0; pc < size; pc++) {
+      for (int next : successors(pc)) {
+        counts[next]++;
+      }
+    }
+    this.predecessors = new int[size][];
+    for (int pc = 0; pc < size; pc++) {
+      predecessors[pc] = new int[counts[pc]];
+      counts[pc] = 0;
+    }
+    for (int pc = 0; pc < size; pc++) {
+      for (int next : successors(pc)) {
+        predecessors[next][counts[next]++] = pc;
+      }
+    }
+
+    this.endState = intern(matchSet());
+  }
+
+  /**
+   * Returns the instructions which follow <code>pc</code> without consuming input.
+   */
+  private int[] successors(int pc) {
+    switch (program.ops[pc]) {
+    case RegexProgram.JUMP:
+      return new int[] {program.xs[pc]};
+    case RegexProgram.SPLIT:
+      return new int[] {program.xs[pc], program.ys[pc]};
+    case RegexProgram.SAVE:
+    case RegexProgram.ASSERT:
+    case RegexProgram.NOT_FOLLOWED_BY:
+      return new int[] {pc + 1};
+    default:
+      return new int[0];
+    }
+  }
+
+  private long[] matchSet() {
+    long[] set = new long[words];
+    for (int pc = 0; pc < program.size(); pc++) {
+      if (program.ops[pc] == RegexProgram.MATCH) {
+        set[pc >>> 6] |= 1L << pc;
+      }
+    }
+    return set;
+  }
+
+  /**
+   * Computes the states at all positions of a text, or returns null if it needs too many states.
+   */
+  Scan scan(byte[] text) {
+    int[] positions = new int[text.length + 1];
+    int state = endState;
+    positions[text.length] = state;
+    for (int pos = text.length - 1; pos >= 0; pos--) {
+      int c = text[pos] & 0xff;
+      int previous = transitions[state * ALPHABET + c];
+      if (previous == UNKNOWN) {
+        previous = step(state, c);
+        if (previous == UNKNOWN) {
+          return null;
+        }
+      }
+      state = previous;
+      positions[pos] = state;
+    }
+    return new Scan(positions);
+  }
+
+  /**
+   * Computes the state before the byte <code>c</code> from the state after it.
+   */
+  private int step(int state, int c) {
+    long[] live = states.get(state);
+    int size = program.size();
+
+    // Instructions which reach a live instruction after c without consuming input
+    generation++;
+    int top = 0;
+    for (int pc = 0; pc < size; pc++) {
+      if ((live[pc >>> 6] & (1L << pc)) != 0) {
+        marks[pc] = generation;
+        stack[top++] = pc;
+      }
+    }
+    while (top > 0) {
+      for (int pc : predecessors[stack[--top]]) {
+        if (marks[pc] != generation) {
+          marks[pc] = generation;
+          stack[top++] = pc;
+        }
+      }
+    }
+
+    long[] previous = matchSet();
+    for (int pc = 0; pc < size - 1; pc++) {
+      if (program.ops[pc] == RegexProgram.BYTE_RANGE && c >= program.xs[pc] && c <= program.ys[pc]
+        && marks[pc + 1] == generation) {
+        previous[pc >>> 6] |= 1L << pc;
+      }
+    }
+
+    if (!stateIndexes.containsKey(new StateKey(previous)) && states.size() >= maxStates) {
+      return UNKNOWN;
+    }
+    int previousState = intern(previous);
+    transitions[state * ALPHABET + c] = previousState;
+    return previousState;
+  }
+
+  private int intern(long[] set) {
+    StateKey key = new StateKey(set);
+    Integer index = stateIndexes.get(key);
+    if (index != null) {
+      return index;
+    }
+
+    int newIndex = states.size();
+    states.add(set);
+    stateIndexes.put(key, newIndex);
+    if ((newIndex + 1) * ALPHABET > transitions.length) {
+      int oldLength = transitions.length;
+      transitions = Arrays.copyOf(transitions, oldLength * 2);
+      Arrays.fill(transitions, oldLength, transitions.length, UNKNOWN);
+    }
+    return newIndex;
+  }
+
+  /**
+   * The states at the positions of a text.
+   */
+  class Scan {
+    private final int[] positions;
+
+    private Scan(int[] positions) {
+      this.positions = positions;
+    }
+
+    /**
+     * Returns true if a match can be reached from the BYTE_RANGE or MATCH instruction <code>pc</code>
+     * at <code>pos</code>.
+     */
+    boolean isLive(int pos, int pc) {
+      return (states.get(positions[pos])[pc >>> 6] & (1L << pc)) != 0;
+    }
+  }
+
+  private static class StateKey {
+    private final long[] set;
+    private final int hash;
+
+    StateKey(long[] set) {
+      this.set = set;
+      this.hash = Arrays.hashCode(set);
+    }
+
+    @Override
+    public int hashCode() {
+      return hash;
+    }
+
+    @Override
+    public boolean equals(Object obj) {
+      return obj instanceof StateKey && Arrays.equals(set, ((StateKey) obj).set);
+    }
+  }
+}
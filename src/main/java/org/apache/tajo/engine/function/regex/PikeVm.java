@@ -0,0 +1,225 @@
+/**
+ * Licensed to the Apache Software Foundation (ASF) under one
+ * or more contributor license agreements.  See the NOTICE file
+ * distributed with this work for additional information
+ * regarding copyright ownership.  The ASF licenses this file
+ * to you under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance
+ * with the License.  You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package org.apache.tajo.engine.function.regex;
+
+import java.util.Arrays;
+
+/**
+ * Pike VM which simulates a {@link RegexProgram} on all threads in lockstep.
+ * <p>
+ * It runs in O(text length * program size) time, tracks capture groups, and finds the same
+ * leftmost-first match as a backtracking matcher by keeping threads in priority order.
+ * An instance keeps reusable buffers, so it is not thread-safe.
+ */
+class PikeVm {
+  private static final int EXPLORE = 0;
+  private static final int RESTORE = 1;
+
+  private final RegexProgram program;
+  private final int slotNum;
+
+  private ThreadList current;
+  private ThreadList next;
+  private final int[] scratch;
+
+  // the current search
+  private int lastMatch;
+  private LivenessDfa.Scan live;
+
+  // explicit stack for the epsilon closure
+  private int[] stackKinds;
+  private int[] stackValues1;
+  private int[] stackValues2;
+
+  PikeVm(RegexProgram program) {
+    this.program = program;
+    this.slotNum = program.captureSlots();
+    this.current = new ThreadList(program.size(), slotNum);
+    this.next = new ThreadList(program.size(), slotNum);
+    this.scratch = new int[slotNum];
+    this.stackKinds = new int[64];
+    this.stackValues1 = new int[64];
+    this.stackValues2 = new int[64];
+  }
+
+  /**
+   * Finds the leftmost-first match in <code>text</code> starting from <code>from</code>.
+   *
+   * @param captures output array of length {@link RegexProgram#captureSlots()}. Group i spans
+   *                 [captures[2i], captures[2i+1]), or both are -1 if the group did not participate.
+   * @return true if a match is found
+   */
+  boolean find(byte[] text, int from, int[] captures) {
+    return find(text, from, from, captures, null);
+  }
+
+  /**
+   * Finds the leftmost-first match like {@link #find(byte[], int, int[])}, after a match which ended at
+   * <code>lastMatch</code>. If <code>live</code> is given, threads which cannot match are dropped.
+   */
+  boolean find(byte[] text, int from, int lastMatch, int[] captures, LivenessDfa.Scan live) {
+    this.lastMatch = lastMatch;
+    this.live = live;
+    int end = text.length;
+    boolean matched = false;
+    current.clear();
+
+    for (int pos = from; ; pos++) {
+      // A match starts only at a character boundary.
+      if (!matched && (pos >= end || (text[pos] & 0xc0) != 0x80)) {
+        Arrays.fill(scratch, -1);
+        addThread(current, 0, text, pos, end, scratch);
+      }
+      if (current.size == 0) {
+        if (matched || pos >= end) {
+          break;
+        }
+        continue;
+      }
+
+      next.clear();
+      for (int i = 0; i < current.size; i++) {
+        int pc = current.pcs[i];
+        int op = program.ops[pc];
+        if (op == RegexProgram.BYTE_RANGE) {
+          if (pos < end) {
+            int b = text[pos] & 0xff;
+            if (b >= program.xs[pc] && b <= program.ys[pc]) {
+              System.arraycopy(current.slots, i * slotNum, scratch, 0, slotNum);
+              addThread(next, pc + 1, text, pos + 1, end, scratch);
+            }
+          }
+        } else if (op == RegexProgram.MATCH) {
+          matched = true;
+          System.arraycopy(current.slots, i * slotNum, captures, 0, slotNum);
+          // Threads with lower priority are cut off.
+          break;
+        }
+      }
+
+      ThreadList swap = current;
+      current = next;
+      next = swap;
+
+      if (pos >= end) {
+        break;
+      }
+    }
+    return matched;
+  }
+
+  /**
+   * Adds the thread at <code>pc0</code> and all threads reachable from it without consuming input.
+   * Only BYTE_RANGE and MATCH threads are kept in the list with their capture slots.
+   */
+  private void addThread(ThreadList list, int pc0, byte[] text, int pos, int end, int[] slots) {
+    int top = 0;
+    top = push(top, EXPLORE, pc0, 0);
+
+    while (top > 0) {
+      top--;
+      int kind = stackKinds[top];
+      if (kind == RESTORE) {
+        slots[stackValues1[top]] = stackValues2[top];
+        continue;
+      }
+
+      int pc = stackValues1[top];
+      switch (program.ops[pc]) {
+      // Instructions with a single successor are not marked as visited. Every cycle goes through a SPLIT,
+      // which is.
+      case RegexProgram.JUMP:
+        top = push(top, EXPLORE, program.xs[pc], 0);
+        break;
+      case RegexProgram.SAVE:
+        int slot = program.xs[pc];
+        top = push(top, RESTORE, slot, slots[slot]);
+        slots[slot] = pos;
+        top = push(top, EXPLORE, pc + 1, 0);
+        break;
+      case RegexProgram.ASSERT:
+        if (RegexProgram.checkAssertion(program.xs[pc], text, pos, end, lastMatch)) {
+          top = push(top, EXPLORE, pc + 1, 0);
+        }
+        break;
+      case RegexProgram.NOT_FOLLOWED_BY:
+        if (program.isNotFollowedBy(pc, text, pos, end)) {
+          top = push(top, EXPLORE, pc + 1, 0);
+        }
+        break;
+      case RegexProgram.SPLIT:
+        if (!list.contains(pc)) {
+          list.add(pc);
+          // The preferred branch is explored first.
+          top = push(top, EXPLORE, program.ys[pc], 0);
+          top = push(top, EXPLORE, program.xs[pc], 0);
+        }
+        break;
+      default:
+        if (!list.contains(pc) && (live == null || live.isLive(pos, pc))) {
+          int index = list.add(pc);
+          System.arraycopy(slots, 0, list.slots, index * slotNum, slotNum);
+        }
+      }
+    }
+  }
+
+  private int push(int top, int kind, int value1, int value2) {
+    if (top == stackKinds.length) {
+      stackKinds = Arrays.copyOf(stackKinds, top * 2);
+      stackValues1 = Arrays.copyOf(stackValues1, top * 2);
+      stackValues2 = Arrays.copyOf(stackValues2, top * 2);
+    }
+    stackKinds[top] = kind;
+    stackValues1[top] = value1;
+    stackValues2[top] = value2;
+    return top + 1;
+  }
+
+  /**
+   * An ordered sparse set of program counters with capture slots.
+   */
+  private static class ThreadList {
+    final int[] pcs;
+    final int[] sparse;
+    final int[] slots;
+    int size;
+
+    ThreadList(int programSize, int slotNum) {
+      pcs = new int[programSize];
+      sparse = new int[programSize];
+      slots = new int[programSize * slotNum];
+    }
+
+    boolean contains(int pc) {
+      int index = sparse[pc];
+      return index < size && pcs[index] == pc;
+    }
+
+    int add(int pc) {
+      sparse[pc] = size;
+      pcs[size] = pc;
+      return size++;
+    }
+
+    void clear() {
+      size = 0;
+    }
+  }
+}
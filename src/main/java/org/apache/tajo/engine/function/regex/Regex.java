@@ -0,0 +1,340 @@
+/**
+ * Licensed to the Apache Software Foundation (ASF) under one
+ * or more contributor license agreements.  See the NOTICE file
+ * distributed with this work for additional information
+ * regarding copyright ownership.  The ASF licenses this file
+ * to you under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance
+ * with the License.  You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package org.apache.tajo.engine.function.regex;
+
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.regex.Matcher;
+import java.util.regex.Pattern;
+
+/**
+ * A regular expression which runs on UTF-8 bytes in time linear to the text length.
+ * <p>
+ * Patterns are written in the {@link Pattern} syntax, including inline flags. A pattern is compiled into an
+ * automaton, so matching cannot suffer from catastrophic backtracking. Existence tests run on a lazily built DFA,
+ * while matches with positions and groups are found by a Pike VM with the same leftmost-first semantics
+ * as {@link Pattern}, including loops which end after an iteration that matched an empty string. Captured groups
+ * can still differ from {@link Pattern} where it keeps groups captured by failed attempts, or drops those of
+ * a repeated group which matches only empty strings. Only patterns with constructs which need
+ * backtracking, that is, backreferences, lookaround, atomic groups and possessive quantifiers on more than a
+ * single character class, are handled by {@link Pattern} (see {@link RegexParser}).
+ * <p>
+ * An instance keeps reusable buffers, so it is not thread-safe.
+ */
+public abstract class Regex {
+  /** The memory limit of the lazy DFA cache per regular expression */
+  public static final long DFA_MEMORY_LIMIT = 2L * 1024 * 1024;
+
+  private final String pattern;
+
+  protected Regex(String pattern) {
+    this.pattern = pattern;
+  }
+
+  /**
+   * Compiles a pattern.
+   *
+   * @throws java.util.regex.PatternSyntaxException if the pattern is invalid
+   */
+  public static Regex compile(String pattern) {
+    RegexProgram program;
+    try {
+      program = RegexProgram.compile(pattern);
+    } catch (UnsupportedRegexException e) {
+      return new JdkRegex(pattern);
+    }
+    return new AutomatonRegex(pattern, program);
+  }
+
+  public String pattern() {
+    return pattern;
+  }
+
+  /**
+   * Returns true if the pattern is matched by automata, that is, in linear time.
+   */
+  public abstract boolean isLinear();
+
+  public abstract int groupCount();
+
+  /**
+   * Returns true if any substring of the text matches.
+   */
+  public abstract boolean find(byte[] text);
+
+  /**
+   * Returns the given group of the first match, or null if there is no match or the group did not participate.
+   *
+   * @throws IndexOutOfBoundsException if there is no such group in the pattern
+   */
+  public abstract byte[] extract(byte[] text, int group);
+
+  /**
+   * Replaces every match with the replacement string, which can refer to groups like
+   * {@link Matcher#replaceAll(String)}. It returns the given text itself if there is no match.
+   */
+  public abstract byte[] replaceAll(byte[] text, String replacement);
+
+  @Override
+  public String toString() {
+    return pattern;
+  }
+
+  private static class AutomatonRegex extends Regex {
+    private final RegexProgram program;
+    private final PikeVm pikeVm;
+    private final LazyDfa dfa;
+    private LivenessDfa liveness;
+    private final int[] captures;
+
+    private String lastReplacement;
+    private Object[] replacementParts;
+    private byte[] buffer = new byte[128];
+
+    AutomatonRegex(String pattern, RegexProgram program) {
+      super(pattern);
+      this.program = program;
+      this.pikeVm = new PikeVm(program);
+      this.dfa = program.hasContextAssertion ? null : new LazyDfa(program, DFA_MEMORY_LIMIT);
+      this.captures = new int[program.captureSlots()];
+    }
+
+    @Override
+    public boolean isLinear() {
+      return true;
+    }
+
+    @Override
+    public int groupCount() {
+      return program.groupCount;
+    }
+
+    @Override
+    public boolean find(byte[] text) {
+      if (dfa != null) {
+        return dfa.matches(text);
+      }
+      return pikeVm.find(text, 0, captures);
+    }
+
+    @Override
+    public byte[] extract(byte[] text, int group) {
+      if (group < 0 || group > program.groupCount) {
+        throw new IndexOutOfBoundsException("No group " + group);
+      }
+      if (!mayMatch(text) || !pikeVm.find(text, 0, captures) || captures[group * 2] < 0) {
+        return null;
+      }
+      return Arrays.copyOfRange(text, captures[group * 2], captures[group * 2 + 1]);
+    }
+
+    @Override
+    public byte[] replaceAll(byte[] text, String replacement) {
+      if (!mayMatch(text)) {
+        return text;
+      }
+      if (liveness == null) {
+        liveness = new LivenessDfa(program, DFA_MEMORY_LIMIT);
+      }
+      LivenessDfa.Scan live = liveness.scan(text);
+      if (!pikeVm.find(text, 0, 0, captures, live)) {
+        return text;
+      }
+      Object[] parts = parseReplacement(replacement);
+
+      int length = 0;
+      int appendFrom = 0;
+      while (true) {
+        int start = captures[0];
+        int end = captures[1];
+        length = append(length, text, appendFrom, start - appendFrom);
+        for (Object part : parts) {
+          if (part instanceof byte[]) {
+            byte[] literal = (byte[]) part;
+            length = append(length, literal, 0, literal.length);
+          } else {
+            int group = (Integer) part;
+            if (captures[group * 2] >= 0) {
+              length = append(length, text, captures[group * 2], captures[group * 2 + 1] - captures[group * 2]);
+            }
+          }
+        }
+        appendFrom = end;
+
+        // Like Matcher.find(), the next search starts after an empty match.
+        int searchFrom = end;
+        if (end == start) {
+          if (end >= text.length) {
+            break;
+          }
+          searchFrom = Utf8Sequences.nextCharStart(text, end, text.length);
+        }
+        if (!pikeVm.find(text, searchFrom, end, captures, live)) {
+          break;
+        }
+      }
+      length = append(length, text, appendFrom, text.length - appendFrom);
+
+      return Arrays.copyOf(buffer, length);
+    }
+
+    /**
+     * Rejects texts without any match on the DFA, which is much faster than the Pike VM.
+     */
+    private boolean mayMatch(byte[] text) {
+      return dfa == null || dfa.matches(text);
+    }
+
+    private int append(int position, byte[] src, int offset, int length) {
+      if (position + length > buffer.length) {
+        buffer = Arrays.copyOf(buffer, Math.max(buffer.length * 2, position + length));
+      }
+      System.arraycopy(src, offset, buffer, position, length);
+      return position + length;
+    }
+
+    /**
+     * Parses a replacement string into literal byte arrays and group indexes, in the same way as
+     * {@link Matcher#appendReplacement(StringBuffer, String)}.
+     */
+    private Object[] parseReplacement(String replacement) {
+      if (replacement.equals(lastReplacement)) {
+        return replacementParts;
+      }
+
+      List<Object> parts = new ArrayList<Object>();
+      StringBuilder literal = new StringBuilder();
+      int i = 0;
+      while (i < replacement.length()) {
+        char c = replacement.charAt(i++);
+        if (c == '\\') {
+          if (i == replacement.length()) {
+            throw new IllegalArgumentException("character to be escaped is missing");
+          }
+          literal.append(replacement.charAt(i++));
+        } else if (c == '$') {
+          if (i == replacement.length()) {
+            throw new IllegalArgumentException("Illegal group reference: group index is missing");
+          }
+          int group;
+          if (replacement.charAt(i) == '{') {
+            int end = replacement.indexOf('}', i);
+            if (end < 0) {
+              throw new IllegalArgumentException("named capturing group is missing trailing '}'");
+            }
+            String name = replacement.substring(i + 1, end);
+            Integer index = program.groupNames.get(name);
+            if (index == null) {
+              throw new IllegalArgumentException("No group with name {" + name + "}");
+            }
+            group = index;
+            i = end + 1;
+          } else {
+            group = replacement.charAt(i) - '0';
+            if (group < 0 || group > 9) {
+              throw new IllegalArgumentException("Illegal group reference");
+            }
+            i++;
+            // The longest group number which exists in the pattern is taken.
+            while (i < replacement.length()) {
+              int digit = replacement.charAt(i) - '0';
+              if (digit < 0 || digit > 9 || group * 10 + digit > program.groupCount) {
+                break;
+              }
+              group = group * 10 + digit;
+              i++;
+            }
+            if (group > program.groupCount) {
+              throw new IndexOutOfBoundsException("No group " + group);
+            }
+          }
+          if (literal.length() > 0) {
+            parts.add(literal.toString().getBytes(StandardCharsets.UTF_8));
+            literal.setLength(0);
+          }
+          parts.add(group);
+        } else {
+          literal.append(c);
+        }
+      }
+      if (literal.length() > 0) {
+        parts.add(literal.toString().getBytes(StandardCharsets.UTF_8));
+      }
+
+      lastReplacement = replacement;
+      replacementParts = parts.toArray();
+      return replacementParts;
+    }
+  }
+
+  /**
+   * Falls back to {@link Pattern} for patterns which cannot be matched by automata.
+   */
+  private static class JdkRegex extends Regex {
+    private final Pattern compiled;
+
+    JdkRegex(String pattern) {
+      super(pattern);
+      this.compiled = Pattern.compile(pattern);
+    }
+
+    @Override
+    public boolean isLinear() {
+      return false;
+    }
+
+    @Override
+    public int groupCount() {
+      return compiled.matcher("").groupCount();
+    }
+
+    @Override
+    public boolean find(byte[] text) {
+      return compiled.matcher(decode(text)).find();
+    }
+
+    @Override
+    public byte[] extract(byte[] text, int group) {
+      Matcher matcher = compiled.matcher(decode(text));
+      if (!matcher.find()) {
+        if (group > matcher.groupCount()) {
+          throw new IndexOutOfBoundsException("No group " + group);
+        }
+        return null;
+      }
+      String value = matcher.group(group);
+      return value == null ? null : value.getBytes(StandardCharsets.UTF_8);
+    }
+
+    @Override
+    public byte[] replaceAll(byte[] text, String replacement) {
+      Matcher matcher = compiled.matcher(decode(text));
+      if (!matcher.find()) {
+        return text;
+      }
+      return matcher.replaceAll(replacement).getBytes(StandardCharsets.UTF_8);
+    }
+
+    private static String decode(byte[] text) {
+      return new String(text, StandardCharsets.UTF_8);
+    }
+  }
+}
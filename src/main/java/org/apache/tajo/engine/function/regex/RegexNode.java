@@ -0,0 +1,235 @@
+/**
+ * Licensed to the Apache Software Foundation (ASF) under one
+ * or more contributor license agreements.  See the NOTICE file
+ * distributed with this work for additional information
+ * regarding copyright ownership.  The ASF licenses this file
+ * to you under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance
+ * with the License.  You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package org.apache.tajo.engine.function.regex;
+
+import java.util.Arrays;
+import java.util.List;
+
+/**
+ * Abstract syntax tree of a regular expression.
+ */
+abstract class RegexNode {
+
+  static class Empty extends RegexNode {
+  }
+
+  /**
+   * Matches a single character in a set of code points.
+   */
+  static class CharClass extends RegexNode {
+    final CodePointSet set;
+
+    CharClass(CodePointSet set) {
+      this.set = set;
+    }
+  }
+
+  static class Concat extends RegexNode {
+    final List<RegexNode> children;
+
+    Concat(List<RegexNode> children) {
+      this.children = children;
+    }
+  }
+
+  static class Alternate extends RegexNode {
+    final List<RegexNode> children;
+
+    Alternate(List<RegexNode> children) {
+      this.children = children;
+    }
+  }
+
+  /**
+   * Repeats the child from min to max times. max is -1 if it is unbounded.
+   */
+  static class Repeat extends RegexNode {
+    final RegexNode child;
+    final int min;
+    final int max;
+    final boolean greedy;
+
+    Repeat(RegexNode child, int min, int max, boolean greedy) {
+      this.child = child;
+      this.min = min;
+      this.max = max;
+      this.greedy = greedy;
+    }
+  }
+
+  static class Group extends RegexNode {
+    final RegexNode child;
+    final int index;
+
+    Group(RegexNode child, int index) {
+      this.child = child;
+      this.index = index;
+    }
+  }
+
+  static class Assert extends RegexNode {
+    final int kind;
+
+    Assert(int kind) {
+      this.kind = kind;
+    }
+  }
+
+  /**
+   * Matches an empty string which is not followed by a code point in the set.
+   */
+  static class NotFollowedBy extends RegexNode {
+    final CodePointSet set;
+
+    NotFollowedBy(CodePointSet set) {
+      this.set = set;
+    }
+  }
+
+  /**
+   * A set of code points represented as sorted, non-overlapping and non-adjacent ranges.
+   */
+  static class CodePointSet {
+    static final int MAX_CODE_POINT = 0x10FFFF;
+
+    // lo0, hi0, lo1, hi1, ...
+    private int[] ranges = new int[8];
+    private int size;
+    private boolean normalized = true;
+
+    static CodePointSet of(int lo, int hi) {
+      CodePointSet set = new CodePointSet();
+      set.add(lo, hi);
+      return set;
+    }
+
+    /**
+     * Creates a set from ranges as lo0, hi0, lo1, hi1, ...
+     */
+    static CodePointSet ofRanges(int[] ranges) {
+      CodePointSet set = new CodePointSet();
+      set.ranges = Arrays.copyOf(ranges, Math.max(8, ranges.length));
+      set.size = ranges.length;
+      set.normalized = false;
+      return set;
+    }
+
+    /**
+     * Returns true if the set has a single code point.
+     */
+    boolean isSingle() {
+      int[] current = ranges();
+      return current.length == 2 && current[0] == current[1];
+    }
+
+    void add(int lo, int hi) {
+      if (size + 2 > ranges.length) {
+        ranges = Arrays.copyOf(ranges, ranges.length * 2);
+      }
+      ranges[size++] = lo;
+      ranges[size++] = hi;
+      normalized = false;
+    }
+
+    void addAll(CodePointSet other) {
+      int[] otherRanges = other.ranges();
+      for (int i = 0; i < otherRanges.length; i += 2) {
+        add(otherRanges[i], otherRanges[i + 1]);
+      }
+    }
+
+    CodePointSet union(CodePointSet other) {
+      CodePointSet union = ofRanges(ranges());
+      union.addAll(other);
+      return union;
+    }
+
+    CodePointSet intersect(CodePointSet other) {
+      return negate().union(other.negate()).negate();
+    }
+
+    CodePointSet negate() {
+      int[] current = ranges();
+      CodePointSet negated = new CodePointSet();
+      int next = 0;
+      for (int i = 0; i < current.length; i += 2) {
+        if (current[i] > next) {
+          negated.add(next, current[i] - 1);
+        }
+        next = current[i + 1] + 1;
+      }
+      if (next <= MAX_CODE_POINT) {
+        negated.add(next, MAX_CODE_POINT);
+      }
+      return negated;
+    }
+
+    /**
+     * Returns true if the normalized ranges contain the code point.
+     */
+    static boolean contains(int[] ranges, int codePoint) {
+      int lo = 0;
+      int hi = ranges.length / 2 - 1;
+      while (lo <= hi) {
+        int mid = (lo + hi) >>> 1;
+        if (codePoint < ranges[mid * 2]) {
+          hi = mid - 1;
+        } else if (codePoint > ranges[mid * 2 + 1]) {
+          lo = mid + 1;
+        } else {
+          return true;
+        }
+      }
+      return false;
+    }
+
+    /**
+     * Returns the normalized ranges as lo0, hi0, lo1, hi1, ...
+     */
+    int[] ranges() {
+      if (!normalized) {
+        normalize();
+      }
+      return Arrays.copyOf(ranges, size);
+    }
+
+    private void normalize() {
+      int pairNum = size / 2;
+      long[] pairs = new long[pairNum];
+      for (int i = 0; i < pairNum; i++) {
+        pairs[i] = ((long) ranges[i * 2] << 32) | ranges[i * 2 + 1];
+      }
+      Arrays.sort(pairs);
+
+      int newSize = 0;
+      for (long pair : pairs) {
+        int lo = (int) (pair >>> 32);
+        int hi = (int) pair;
+        if (newSize > 0 && lo <= ranges[newSize - 1] + 1) {
+          ranges[newSize - 1] = Math.max(ranges[newSize - 1], hi);
+        } else {
+          ranges[newSize++] = lo;
+          ranges[newSize++] = hi;
+        }
+      }
+      size = newSize;
+      normalized = true;
+    }
+  }
+}
@@ -0,0 +1,1027 @@
+/**
+ * Licensed to the Apache Software Foundation (ASF) under one
+ * or more contributor license agreements.  See the NOTICE file
+ * distributed with this work for additional information
+ * regarding copyright ownership.  The ASF licenses this file
+ * to you under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance
+ * with the License.  You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package org.apache.tajo.engine.function.regex;
+
+import org.apache.tajo.engine.function.regex.RegexNode.CodePointSet;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
+import java.util.regex.Matcher;
+import java.util.regex.Pattern;
+import java.util.regex.PatternSyntaxException;
+
+/**
+ * Parses the {@link Pattern} syntax into a tree which can be matched by automata.
+ * <p>
+ * All of the syntax is supported except backreferences, lookaround, atomic groups, possessive quantifiers on
+ * anything but a single character or class, and the CANON_EQ flag, which throw {@link UnsupportedRegexException}.
+ * Syntax errors throw it as well, so that {@link Pattern} reports them in the same way as before.
+ * <p>
+ * Inline flags are applied while parsing. CASE_INSENSITIVE widens each character and range to its case variants
+ * with the same rules as {@link Pattern}, and the other flags choose the code points of <code>.</code> and
+ * predefined classes, and the kinds of <code>^ $ \b</code>. Unicode properties are taken from {@link Pattern}
+ * itself (see {@link #property(String)}). Nested classes in a negated class are negated as well, as in Java 9
+ * and later, while <code>\R</code> and <code>\b</code> behave like those of the running JDK.
+ */
+class RegexParser {
+  private static final int MAX_POSSESSIVE_REPEAT = 1000;
+
+  // Before Java 9, \R never matches \r alone if \r\n follows.
+  private static final boolean POSSESSIVE_LINE_BREAK = !Pattern.matches("\\R\\n", "\r\n");
+
+  // code point sets of Unicode properties by flags and property
+  private static final ConcurrentMap<String, int[]> PROPERTIES = new ConcurrentHashMap<String, int[]>();
+
+  private final String pattern;
+  private int pos;
+  private int flags;
+  private int groupCount;
+  private final Map<String, Integer> groupNames = new HashMap<String, Integer>();
+
+  // the predefined class of the last escape sequence, if it did not stand for a character
+  private CodePointSet escapedClass;
+
+  RegexParser(String pattern) {
+    this.pattern = removeQuoting(pattern);
+  }
+
+  RegexNode parse() {
+    RegexNode root = parseAlternation();
+    if (more()) {
+      throw unsupported("unmatched ')'");
+    }
+    return root;
+  }
+
+  /**
+   * Returns the number of capturing groups. It is valid after {@link #parse()}.
+   */
+  int groupCount() {
+    return groupCount;
+  }
+
+  /**
+   * Returns the indexes of named groups. It is valid after {@link #parse()}.
+   */
+  Map<String, Integer> groupNames() {
+    return groupNames;
+  }
+
+  private UnsupportedRegexException unsupported(String reason) {
+    return new UnsupportedRegexException(reason + " near index " + pos + " in " + pattern);
+  }
+
+  private boolean has(int flag) {
+    return (flags & flag) != 0;
+  }
+
+  private boolean more() {
+    return pos < pattern.length();
+  }
+
+  private int peek() {
+    return pattern.codePointAt(pos);
+  }
+
+  private int next() {
+    int c = pattern.codePointAt(pos);
+    pos += Character.charCount(c);
+    return c;
+  }
+
+  private boolean lookingAt(String str) {
+    return pattern.startsWith(str, pos);
+  }
+
+  /**
+   * Skips white space and comments if COMMENTS is set.
+   */
+  private void skipComments() {
+    if (!has(Pattern.COMMENTS)) {
+      return;
+    }
+    while (more()) {
+      char c = pattern.charAt(pos);
+      if (c == ' ' || c == '\t' || c == '\n' || c == 0x0B || c == '\f' || c == '\r') {
+        pos++;
+      } else if (c == '#') {
+        // up to a line terminator, which is skipped only if it is white space
+        while (more() && !isLineTerminator(pattern.charAt(pos))) {
+          pos++;
+        }
+      } else {
+        break;
+      }
+    }
+  }
+
+  private boolean isLineTerminator(char c) {
+    if (has(Pattern.UNIX_LINES)) {
+      return c == '\n';
+    }
+    return c == '\n' || c == '\r' || c == 0x85 || c == 0x2028 || c == 0x2029;
+  }
+
+  private RegexNode parseAlternation() {
+    List<RegexNode> alternatives = new ArrayList<RegexNode>();
+    alternatives.add(parseConcat());
+    while (more() && peek() == '|') {
+      pos++;
+      alternatives.add(parseConcat());
+    }
+    return alternatives.size() == 1 ? alternatives.get(0) : new RegexNode.Alternate(alternatives);
+  }
+
+  private RegexNode parseConcat() {
+    List<RegexNode> items = new ArrayList<RegexNode>();
+    while (true) {
+      skipComments();
+      if (!more() || peek() == '|' || peek() == ')') {
+        break;
+      }
+      RegexNode item = parseRepeat();
+      if (item != null) {
+        items.add(item);
+      }
+    }
+    if (items.isEmpty()) {
+      return new RegexNode.Empty();
+    }
+    return items.size() == 1 ? items.get(0) : new RegexNode.Concat(items);
+  }
+
+  private RegexNode parseRepeat() {
+    RegexNode atom = parseAtom();
+    if (atom == null) {
+      // inline flags
+      return null;
+    }
+    skipComments();
+    if (!more()) {
+      return atom;
+    }
+
+    int min, max;
+    int c = peek();
+    if (c == '*') {
+      pos++;
+      min = 0;
+      max = -1;
+    } else if (c == '+') {
+      pos++;
+      min = 1;
+      max = -1;
+    } else if (c == '?') {
+      pos++;
+      min = 0;
+      max = 1;
+    } else if (c == '{') {
+      pos++;
+      min = parseNumber();
+      max = min;
+      if (more() && peek() == ',') {
+        pos++;
+        max = more() && peek() == '}' ? -1 : parseNumber();
+      }
+      if (!more() || next() != '}' || (max >= 0 && max < min)) {
+        throw unsupported("illegal repetition");
+      }
+    } else {
+      return atom;
+    }
+
+    skipComments();
+    boolean greedy = true;
+    boolean possessive = false;
+    if (more() && peek() == '?') {
+      pos++;
+      greedy = false;
+    } else if (more() && peek() == '+') {
+      pos++;
+      possessive = true;
+    }
+
+    if (atom instanceof RegexNode.Assert) {
+      // An assertion matches an empty string, so repeating it does not change anything.
+      return min == 0 ? new RegexNode.Empty() : atom;
+    }
+    if (possessive) {
+      return possessive(atom, min, max);
+    }
+    return new RegexNode.Repeat(atom, min, max, greedy);
+  }
+
+  /**
+   * A possessive quantifier never gives back what it matched. If it repeats a single character class, it is
+   * the same as the greedy quantifier which must not be followed by another character of the class, unless it
+   * reached its maximum.
+   */
+  private RegexNode possessive(RegexNode atom, int min, int max) {
+    if (!(atom instanceof RegexNode.CharClass) || (max >= 0 && max - min > MAX_POSSESSIVE_REPEAT)) {
+      throw unsupported("possessive quantifier");
+    }
+    CodePointSet set = ((RegexNode.CharClass) atom).set;
+    List<RegexNode> items = new ArrayList<RegexNode>();
+    if (max < 0) {
+      items.add(new RegexNode.Repeat(atom, min, -1, true));
+      items.add(new RegexNode.NotFollowedBy(set));
+    } else {
+      for (int i = 0; i < min; i++) {
+        items.add(atom);
+      }
+      // (atom(atom(...)|!atom)|!atom), where !atom means that atom does not follow
+      RegexNode optional = new RegexNode.Empty();
+      for (int i = min; i < max; i++) {
+        RegexNode more = new RegexNode.Concat(Arrays.asList(atom, optional));
+        optional = new RegexNode.Alternate(Arrays.<RegexNode>asList(more, new RegexNode.NotFollowedBy(set)));
+      }
+      items.add(optional);
+    }
+    return new RegexNode.Concat(items);
+  }
+
+  private int parseNumber() {
+    int start = pos;
+    while (more() && peek() >= '0' && peek() <= '9') {
+      pos++;
+    }
+    if (start == pos || pos - start > 6) {
+      throw unsupported("illegal repetition");
+    }
+    return Integer.parseInt(pattern.substring(start, pos));
+  }
+
+  private RegexNode parseAtom() {
+    int c = next();
+    switch (c) {
+    case '(':
+      return parseGroup();
+    case '[':
+      return new RegexNode.CharClass(parseClass(true));
+    case '.':
+      return new RegexNode.CharClass(dot());
+    case '^':
+      if (has(Pattern.MULTILINE)) {
+        return new RegexNode.Assert(has(Pattern.UNIX_LINES) ? RegexProgram.ASSERT_BEGIN_LINE_UNIX
+          : RegexProgram.ASSERT_BEGIN_LINE);
+      }
+      return new RegexNode.Assert(RegexProgram.ASSERT_BEGIN_TEXT);
+    case '$':
+      return new RegexNode.Assert(endOfLine(has(Pattern.MULTILINE)));
+    case '\\':
+      return parseEscape();
+    case '*':
+    case '+':
+    case '?':
+    case '{':
+      throw unsupported("dangling meta character");
+    default:
+      return new RegexNode.CharClass(single(c));
+    }
+  }
+
+  private int endOfLine(boolean multiline) {
+    if (has(Pattern.UNIX_LINES)) {
+      return multiline ? RegexProgram.ASSERT_END_LINE_MULTILINE_UNIX : RegexProgram.ASSERT_END_LINE_UNIX;
+    }
+    return multiline ? RegexProgram.ASSERT_END_LINE_MULTILINE : RegexProgram.ASSERT_END_LINE;
+  }
+
+  /**
+   * Parses a group after its opening parenthesis. It returns null for inline flags like <code>(?i)</code>,
+   * which hold until the end of the enclosing group. Flags of <code>(?i:X)</code> only apply to X.
+   */
+  private RegexNode parseGroup() {
+    int savedFlags = flags;
+    int index = -1;
+    if (more() && peek() == '?') {
+      pos++;
+      if (!more()) {
+        throw unsupported("unknown group type");
+      }
+      int c = next();
+      if (c == ':') {
+        // non-capturing group
+      } else if (c == '<' && more() && isAsciiLetter(peek())) {
+        String name = parseGroupName();
+        index = ++groupCount;
+        if (groupNames.put(name, index) != null) {
+          throw unsupported("duplicated group name");
+        }
+      } else if (c == '=' || c == '!' || c == '<') {
+        throw unsupported("lookaround");
+      } else if (c == '>') {
+        throw unsupported("atomic group");
+      } else {
+        pos--;
+        parseFlags();
+        c = more() ? next() : -1;
+        if (c == ')') {
+          return null;
+        }
+        if (c != ':') {
+          throw unsupported("unknown inline modifier");
+        }
+      }
+    } else {
+      index = ++groupCount;
+    }
+
+    RegexNode child = parseAlternation();
+    if (!more() || next() != ')') {
+      throw unsupported("unclosed group");
+    }
+    flags = savedFlags;
+    return index < 0 ? child : new RegexNode.Group(child, index);
+  }
+
+  private String parseGroupName() {
+    int start = pos;
+    while (more() && (isAsciiLetter(peek()) || (peek() >= '0' && peek() <= '9'))) {
+      pos++;
+    }
+    if (!more() || peek() != '>') {
+      throw unsupported("named group");
+    }
+    String name = pattern.substring(start, pos);
+    pos++;
+    return name;
+  }
+
+  private void parseFlags() {
+    boolean subtract = false;
+    while (more()) {
+      int flag;
+      switch (peek()) {
+      case 'i':
+        flag = Pattern.CASE_INSENSITIVE;
+        break;
+      case 'm':
+        flag = Pattern.MULTILINE;
+        break;
+      case 's':
+        flag = Pattern.DOTALL;
+        break;
+      case 'd':
+        flag = Pattern.UNIX_LINES;
+        break;
+      case 'u':
+        flag = Pattern.UNICODE_CASE;
+        break;
+      case 'x':
+        flag = Pattern.COMMENTS;
+        break;
+      case 'U':
+        flag = Pattern.UNICODE_CHARACTER_CLASS | Pattern.UNICODE_CASE;
+        break;
+      case 'c':
+        if (!subtract) {
+          throw unsupported("canonical equivalence");
+        }
+        flag = 0;
+        break;
+      case '-':
+        if (subtract) {
+          return;
+        }
+        subtract = true;
+        pos++;
+        continue;
+      default:
+        return;
+      }
+      pos++;
+      flags = subtract ? flags & ~flag : flags | flag;
+    }
+  }
+
+  /**
+   * Parses an escape sequence after the backslash outside of character classes.
+   */
+  private RegexNode parseEscape() {
+    if (!more()) {
+      throw unsupported("trailing backslash");
+    }
+    switch (peek()) {
+    case 'A':
+      pos++;
+      return new RegexNode.Assert(RegexProgram.ASSERT_BEGIN_TEXT);
+    case 'z':
+      pos++;
+      return new RegexNode.Assert(RegexProgram.ASSERT_END_TEXT);
+    case 'Z':
+      pos++;
+      return new RegexNode.Assert(endOfLine(false));
+    case 'b':
+      pos++;
+      if (more() && peek() == '{') {
+        throw unsupported("grapheme cluster boundary");
+      }
+      return new RegexNode.Assert(has(Pattern.UNICODE_CHARACTER_CLASS) ? RegexProgram.ASSERT_UNICODE_WORD_BOUNDARY
+        : RegexProgram.ASSERT_WORD_BOUNDARY);
+    case 'B':
+      pos++;
+      return new RegexNode.Assert(has(Pattern.UNICODE_CHARACTER_CLASS)
+        ? RegexProgram.ASSERT_NOT_UNICODE_WORD_BOUNDARY : RegexProgram.ASSERT_NOT_WORD_BOUNDARY);
+    case 'G':
+      pos++;
+      return new RegexNode.Assert(RegexProgram.ASSERT_LAST_MATCH);
+    case 'R':
+      pos++;
+      return lineBreak();
+    default:
+      int c = parseEscapedChar(false, false);
+      return new RegexNode.CharClass(c < 0 ? escapedClass : single(c));
+    }
+  }
+
+  /**
+   * Parses an escape sequence after the backslash, which is used both inside and outside character classes.
+   * It returns the character, or -1 for a predefined class, which is stored in {@link #escapedClass}.
+   *
+   * @param inClass true if it is in a character class
+   * @param rangeEnd true if it is the end of a character range, which must be a character
+   */
+  private int parseEscapedChar(boolean inClass, boolean rangeEnd) {
+    if (!more()) {
+      throw unsupported("trailing backslash");
+    }
+    int c = next();
+    boolean unicode = has(Pattern.UNICODE_CHARACTER_CLASS);
+    switch (c) {
+    case 'd':
+      escapedClass = unicode ? property("\\d") : digit();
+      break;
+    case 'D':
+      escapedClass = (unicode ? property("\\d") : digit()).negate();
+      break;
+    case 'w':
+      escapedClass = unicode ? property("\\w") : word();
+      break;
+    case 'W':
+      escapedClass = (unicode ? property("\\w") : word()).negate();
+      break;
+    case 's':
+      escapedClass = unicode ? property("\\s") : space();
+      break;
+    case 'S':
+      escapedClass = (unicode ? property("\\s") : space()).negate();
+      break;
+    case 'h':
+      escapedClass = horizontalSpace();
+      break;
+    case 'H':
+      escapedClass = horizontalSpace().negate();
+      break;
+    case 'v':
+      // Like Pattern, it stands for VT in a character range.
+      if (inClass && (rangeEnd || lookingAt("-"))) {
+        return 0x0B;
+      }
+      escapedClass = verticalSpace();
+      break;
+    case 'V':
+      escapedClass = verticalSpace().negate();
+      break;
+    case 'p':
+    case 'P':
+      escapedClass = parseProperty(c == 'P');
+      break;
+    case 't':
+      return '\t';
+    case 'n':
+      return '\n';
+    case 'r':
+      return '\r';
+    case 'f':
+      return '\f';
+    case 'a':
+      return 0x07;
+    case 'e':
+      return 0x1B;
+    case '0':
+      return parseOctal();
+    case 'c':
+      if (!more()) {
+        throw unsupported("illegal control escape sequence");
+      }
+      return next() ^ 64;
+    case 'x':
+      return parseHex();
+    case 'u':
+      return parseUnicodeEscape();
+    default:
+      if ((c >= 'a' && c <= 'z') || (c >= 'A' && c <= 'Z') || (c >= '0' && c <= '9')) {
+        // backreferences, assertions in character classes, etc.
+        throw unsupported("escape sequence \\" + (char) c);
+      }
+      return c;
+    }
+    if (rangeEnd) {
+      throw unsupported("illegal character range");
+    }
+    return -1;
+  }
+
+  private CodePointSet parseProperty(boolean negated) {
+    String name;
+    if (more() && peek() == '{') {
+      int end = pattern.indexOf('}', pos);
+      if (end < 0) {
+        throw unsupported("unclosed character family");
+      }
+      name = pattern.substring(pos, end + 1);
+      pos = end + 1;
+    } else if (more()) {
+      name = new String(Character.toChars(next()));
+    } else {
+      throw unsupported("illegal character family");
+    }
+    return property((negated ? "\\P" : "\\p") + name);
+  }
+
+  /**
+   * Returns the code points which a single character pattern like <code>\p{Lu}</code> matches with the current
+   * flags. They are found by running {@link Pattern} once on all code points, so that they agree with the
+   * Unicode tables of the running JDK, and cached.
+   */
+  private CodePointSet property(String source) {
+    int propertyFlags = flags & (Pattern.CASE_INSENSITIVE | Pattern.UNICODE_CASE | Pattern.UNICODE_CHARACTER_CLASS);
+    String key = propertyFlags + source;
+    int[] ranges = PROPERTIES.get(key);
+    if (ranges == null) {
+      Pattern property;
+      try {
+        property = Pattern.compile(source, propertyFlags);
+      } catch (PatternSyntaxException e) {
+        throw unsupported("unknown character property " + source);
+      }
+      ranges = matchingCodePoints(property);
+      PROPERTIES.put(key, ranges);
+    }
+    return CodePointSet.ofRanges(ranges);
+  }
+
+  private static int[] matchingCodePoints(Pattern property) {
+    StringBuilder all = new StringBuilder(0x110000 * 2);
+    for (int c = 0; c <= CodePointSet.MAX_CODE_POINT; c++) {
+      // Surrogates never appear in UTF-8 texts.
+      if (c < Character.MIN_SURROGATE || c > Character.MAX_SURROGATE) {
+        all.appendCodePoint(c);
+      }
+    }
+
+    CodePointSet set = new CodePointSet();
+    int lo = -1;
+    int hi = -2;
+    Matcher matcher = property.matcher(all);
+    while (matcher.find()) {
+      int c = all.codePointAt(matcher.start());
+      if (c != hi + 1) {
+        if (lo >= 0) {
+          set.add(lo, hi);
+        }
+        lo = c;
+      }
+      hi = c;
+    }
+    if (lo >= 0) {
+      set.add(lo, hi);
+    }
+    return set.ranges();
+  }
+
+  private int parseOctal() {
+    int value = 0;
+    int digits = 0;
+    while (digits < 3 && more() && peek() >= '0' && peek() <= '7' && value * 8 + (peek() - '0') <= 0377) {
+      value = value * 8 + (next() - '0');
+      digits++;
+    }
+    if (digits == 0) {
+      throw unsupported("illegal octal escape sequence");
+    }
+    return value;
+  }
+
+  private int parseHex() {
+    if (more() && peek() == '{') {
+      pos++;
+      int end = pattern.indexOf('}', pos);
+      if (end < 0 || end == pos || end - pos > 6) {
+        throw unsupported("illegal hexadecimal escape");
+      }
+      int codePoint = parseHexDigits(end - pos);
+      pos++;
+      if (codePoint > CodePointSet.MAX_CODE_POINT) {
+        throw unsupported("illegal hexadecimal escape");
+      }
+      return codePoint;
+    }
+    return parseHexDigits(2);
+  }
+
+  /**
+   * Parses the four hexadecimal digits of a UTF-16 escape sequence. A high surrogate is combined with the low
+   * surrogate of the next escape sequence.
+   */
+  private int parseUnicodeEscape() {
+    int c = parseHexDigits(4);
+    if (Character.isHighSurrogate((char) c) && lookingAt("\\u")) {
+      int saved = pos;
+      pos += 2;
+      int low = parseHexDigits(4);
+      if (Character.isLowSurrogate((char) low)) {
+        return Character.toCodePoint((char) c, (char) low);
+      }
+      pos = saved;
+    }
+    return c;
+  }
+
+  private int parseHexDigits(int length) {
+    if (pos + length > pattern.length()) {
+      throw unsupported("illegal hexadecimal escape");
+    }
+    int value = 0;
+    for (int i = 0; i < length; i++) {
+      int digit = Character.digit(pattern.charAt(pos++), 16);
+      if (digit < 0) {
+        throw unsupported("illegal hexadecimal escape");
+      }
+      value = value * 16 + digit;
+    }
+    return value;
+  }
+
+  /**
+   * Parses a character class after its opening bracket, in the same way as {@link Pattern}. Characters and
+   * ranges are unions, and <code>&&</code> intersects everything before it with everything after it.
+   *
+   * @param consume false for the right operand of <code>&&</code>, which leaves the closing bracket of the
+   *                enclosing class
+   */
+  private CodePointSet parseClass(boolean consume) {
+    CodePointSet prev = null;
+    CodePointSet curr = null;
+    CodePointSet chars = new CodePointSet();
+    boolean hasChars = false;
+    boolean negated = false;
+
+    skipComments();
+    if (more() && peek() == '^' && pattern.charAt(pos - 1) == '[') {
+      pos++;
+      negated = true;
+    }
+    while (true) {
+      skipComments();
+      if (!more()) {
+        throw unsupported("unclosed character class");
+      }
+      int c = peek();
+      if (c == '[') {
+        pos++;
+        curr = parseClass(true);
+        prev = prev == null ? curr : prev.union(curr);
+        continue;
+      }
+      if (c == '&') {
+        int saved = pos;
+        pos++;
+        skipComments();
+        if (more() && peek() == '&') {
+          pos++;
+          skipComments();
+          CodePointSet right = null;
+          while (more() && peek() != ']' && peek() != '&') {
+            if (peek() == '[') {
+              pos++;
+              CodePointSet nested = parseClass(true);
+              right = right == null ? nested : right.union(nested);
+            } else {
+              right = parseClass(false);
+            }
+            skipComments();
+          }
+          if (hasChars) {
+            prev = prev == null ? (curr = chars) : prev.union(chars);
+            hasChars = false;
+          }
+          if (right != null) {
+            curr = right;
+          }
+          if (prev == null) {
+            if (right == null) {
+              throw unsupported("bad class syntax");
+            }
+            prev = right;
+          } else {
+            prev = prev.intersect(curr);
+          }
+          continue;
+        }
+        // a literal '&'
+        pos = saved;
+      }
+      if (c == ']' && (prev != null || hasChars)) {
+        if (consume) {
+          pos++;
+        }
+        if (prev == null) {
+          prev = chars;
+        } else if (hasChars) {
+          prev = prev.union(chars);
+        }
+        return negated ? prev.negate() : prev;
+      }
+
+      // ']' right after the opening bracket is a literal.
+      curr = parseClassRange(chars);
+      if (curr == null) {
+        hasChars = true;
+      } else {
+        prev = prev == null ? curr : prev.union(curr);
+      }
+    }
+  }
+
+  /**
+   * Parses a character, a range or an escape sequence in a character class. A single character is added to
+   * <code>chars</code> and null is returned.
+   */
+  private CodePointSet parseClassRange(CodePointSet chars) {
+    int lo;
+    if (peek() == '\\') {
+      pos++;
+      lo = parseEscapedChar(true, false);
+      if (lo < 0) {
+        return escapedClass;
+      }
+    } else {
+      lo = next();
+    }
+
+    skipComments();
+    if (more() && peek() == '-') {
+      int endRange = pos + 1 < pattern.length() ? pattern.charAt(pos + 1) : -1;
+      if (endRange != '[' && endRange != ']') {
+        pos++;
+        skipComments();
+        if (!more()) {
+          throw unsupported("unclosed character class");
+        }
+        int hi;
+        if (peek() == '\\') {
+          pos++;
+          hi = parseEscapedChar(true, true);
+        } else {
+          hi = next();
+        }
+        if (hi < lo) {
+          throw unsupported("illegal character range");
+        }
+        return range(lo, hi);
+      }
+    }
+    chars.addAll(single(lo));
+    return null;
+  }
+
+  /**
+   * Returns the code points which match a character. With CASE_INSENSITIVE, they are the characters x with
+   * lower(upper(x)) == lower(upper(c)) if UNICODE_CASE is also set, or the other case of an ASCII letter.
+   */
+  private CodePointSet single(int c) {
+    CodePointSet set = CodePointSet.of(c, c);
+    if (!has(Pattern.CASE_INSENSITIVE)) {
+      return set;
+    }
+    if (has(Pattern.UNICODE_CASE)) {
+      int upper = Character.toUpperCase(c);
+      int lower = Character.toLowerCase(upper);
+      if (upper != lower) {
+        set.add(lower, lower);
+        for (int x : CasedCodePoints.VALUES) {
+          if (Character.toLowerCase(Character.toUpperCase(x)) == lower) {
+            set.add(x, x);
+          }
+        }
+      }
+    } else if (isAsciiLetter(c)) {
+      set.add(c ^ 0x20, c ^ 0x20);
+    }
+    return set;
+  }
+
+  /**
+   * Returns the code points which match a range. With CASE_INSENSITIVE, a character x also matches if upper(x)
+   * or lower(upper(x)) is in the range, with the ASCII case only unless UNICODE_CASE is set.
+   */
+  private CodePointSet range(int lo, int hi) {
+    CodePointSet set = CodePointSet.of(lo, hi);
+    if (!has(Pattern.CASE_INSENSITIVE)) {
+      return set;
+    }
+    if (has(Pattern.UNICODE_CASE)) {
+      for (int x : CasedCodePoints.VALUES) {
+        int upper = Character.toUpperCase(x);
+        int lower = Character.toLowerCase(upper);
+        if ((upper >= lo && upper <= hi) || (lower >= lo && lower <= hi)) {
+          set.add(x, x);
+        }
+      }
+    } else {
+      for (int x = 'A'; x <= 'z'; x++) {
+        if (isAsciiLetter(x) && (x ^ 0x20) >= lo && (x ^ 0x20) <= hi) {
+          set.add(x, x);
+        }
+      }
+    }
+    return set;
+  }
+
+  private static boolean isAsciiLetter(int c) {
+    return (c >= 'a' && c <= 'z') || (c >= 'A' && c <= 'Z');
+  }
+
+  private static CodePointSet digit() {
+    return CodePointSet.of('0', '9');
+  }
+
+  private static CodePointSet word() {
+    CodePointSet set = CodePointSet.of('a', 'z');
+    set.add('A', 'Z');
+    set.add('0', '9');
+    set.add('_', '_');
+    return set;
+  }
+
+  private static CodePointSet space() {
+    CodePointSet set = CodePointSet.of('\t', '\r');
+    set.add(' ', ' ');
+    return set;
+  }
+
+  private static CodePointSet horizontalSpace() {
+    CodePointSet set = CodePointSet.of('\t', '\t');
+    set.add(' ', ' ');
+    set.add(0xA0, 0xA0);
+    set.add(0x1680, 0x1680);
+    set.add(0x180E, 0x180E);
+    set.add(0x2000, 0x200A);
+    set.add(0x202F, 0x202F);
+    set.add(0x205F, 0x205F);
+    set.add(0x3000, 0x3000);
+    return set;
+  }
+
+  private static CodePointSet verticalSpace() {
+    CodePointSet set = CodePointSet.of('\n', '\r');
+    set.add(0x85, 0x85);
+    set.add(0x2028, 0x2029);
+    return set;
+  }
+
+  /**
+   * <code>\R</code> is the same as <code>\r\n|\v</code>, or <code>\r\n|\r(?!\n)|[\v&&[^\r]]</code> if it
+   * is possessive.
+   */
+  private static RegexNode lineBreak() {
+    RegexNode cr = new RegexNode.CharClass(CodePointSet.of('\r', '\r'));
+    RegexNode lf = new RegexNode.CharClass(CodePointSet.of('\n', '\n'));
+    List<RegexNode> alternatives = new ArrayList<RegexNode>();
+    alternatives.add(new RegexNode.Concat(Arrays.asList(cr, lf)));
+    if (POSSESSIVE_LINE_BREAK) {
+      alternatives.add(new RegexNode.Concat(Arrays.<RegexNode>asList(cr,
+        new RegexNode.NotFollowedBy(CodePointSet.of('\n', '\n')))));
+      alternatives.add(new RegexNode.CharClass(verticalSpace().intersect(CodePointSet.of('\r', '\r').negate())));
+    } else {
+      alternatives.add(new RegexNode.CharClass(verticalSpace()));
+    }
+    return new RegexNode.Alternate(alternatives);
+  }
+
+  /**
+   * <code>.</code> matches any character with DOTALL, any character except \n with UNIX_LINES, and any character
+   * except line terminators otherwise.
+   */
+  private CodePointSet dot() {
+    if (has(Pattern.DOTALL)) {
+      return CodePointSet.of(0, CodePointSet.MAX_CODE_POINT);
+    }
+    if (has(Pattern.UNIX_LINES)) {
+      return CodePointSet.of('\n', '\n').negate();
+    }
+    CodePointSet set = new CodePointSet();
+    set.add('\n', '\n');
+    set.add('\r', '\r');
+    set.add(0x85, 0x85);
+    set.add(0x2028, 0x2029);
+    return set.negate();
+  }
+
+  /**
+   * Replaces <code>\Q...\E</code> quotes with escaped characters in the same way as {@link Pattern}, so that
+   * they work in character classes as well.
+   */
+  static String removeQuoting(String pattern) {
+    int length = pattern.length();
+    int i = 0;
+    while (i < length - 1) {
+      if (pattern.charAt(i) != '\\') {
+        i += 1;
+      } else if (pattern.charAt(i + 1) != 'Q') {
+        i += 2;
+      } else {
+        break;
+      }
+    }
+    if (i >= length - 1) {
+      return pattern;
+    }
+
+    StringBuilder result = new StringBuilder(length * 2);
+    result.append(pattern, 0, i);
+    i += 2;
+    boolean inQuote = true;
+    boolean beginQuote = true;
+    while (i < length) {
+      char c = pattern.charAt(i++);
+      if (c >= 0x80 || isAsciiLetter(c)) {
+        result.append(c);
+      } else if (c >= '0' && c <= '9') {
+        if (beginQuote) {
+          // not to be taken as a part of an escape sequence before the quote
+          result.append("\\x3");
+        }
+        result.append(c);
+      } else if (c != '\\') {
+        if (inQuote) {
+          result.append('\\');
+        }
+        result.append(c);
+      } else if (inQuote) {
+        if (i < length && pattern.charAt(i) == 'E') {
+          i++;
+          inQuote = false;
+        } else {
+          result.append("\\\\");
+        }
+      } else if (i < length && pattern.charAt(i) == 'Q') {
+        i++;
+        inQuote = true;
+        beginQuote = true;
+        continue;
+      } else {
+        result.append(c);
+        if (i < length) {
+          result.append(pattern.charAt(i++));
+        }
+      }
+      beginQuote = false;
+    }
+    return result.toString();
+  }
+
+  /**
+   * Code points which have another case, to widen characters and ranges for CASE_INSENSITIVE.
+   */
+  private static class CasedCodePoints {
+    static final int[] VALUES;
+
+    static {
+      int[] values = new int[4096];
+      int size = 0;
+      for (int c = 0; c <= CodePointSet.MAX_CODE_POINT; c++) {
+        if (Character.toUpperCase(c) != c || Character.toLowerCase(c) != c) {
+          if (size == values.length) {
+            values = Arrays.copyOf(values, size * 2);
+          }
+          values[size++] = c;
+        }
+      }
+      VALUES = Arrays.copyOf(values, size);
+    }
+  }
+}
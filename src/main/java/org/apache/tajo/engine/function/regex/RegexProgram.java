@@ -0,0 +1,535 @@
+/**
+ * Licensed to the Apache Software Foundation (ASF) under one
+ * or more contributor license agreements.  See the NOTICE file
+ * distributed with this work for additional information
+ * regarding copyright ownership.  The ASF licenses this file
+ * to you under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance
+ * with the License.  You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package org.apache.tajo.engine.function.regex;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.Map;
+import java.util.regex.Pattern;
+
+/**
+ * A compiled regular expression as a program of a byte-level NFA.
+ * <p>
+ * Each instruction has an opcode and up to two operands. Character classes are compiled into
+ * sequences of UTF-8 byte ranges, so that the program runs on UTF-8 bytes directly.
+ */
+class RegexProgram {
+  // opcodes
+  static final int BYTE_RANGE = 0;  // x: lowest byte, y: highest byte
+  static final int SPLIT = 1;       // x: preferred next pc, y: the other next pc
+  static final int JUMP = 2;        // x: next pc
+  static final int SAVE = 3;        // x: capture slot
+  static final int ASSERT = 4;      // x: assertion kind
+  static final int MATCH = 5;
+  static final int NOT_FOLLOWED_BY = 6;  // x: index of the code point set which must not follow
+
+  // assertion kinds
+  static final int ASSERT_BEGIN_TEXT = 0;
+  static final int ASSERT_END_TEXT = 1;
+  static final int ASSERT_END_LINE = 2;
+  static final int ASSERT_WORD_BOUNDARY = 3;
+  static final int ASSERT_NOT_WORD_BOUNDARY = 4;
+  static final int ASSERT_BEGIN_LINE = 5;                 // ^ with MULTILINE
+  static final int ASSERT_BEGIN_LINE_UNIX = 6;            // ^ with MULTILINE and UNIX_LINES
+  static final int ASSERT_END_LINE_MULTILINE = 7;         // $ with MULTILINE
+  static final int ASSERT_END_LINE_UNIX = 8;              // $ with UNIX_LINES
+  static final int ASSERT_END_LINE_MULTILINE_UNIX = 9;    // $ with MULTILINE and UNIX_LINES
+  static final int ASSERT_UNICODE_WORD_BOUNDARY = 10;     // \b with UNICODE_CHARACTER_CLASS
+  static final int ASSERT_NOT_UNICODE_WORD_BOUNDARY = 11;
+  static final int ASSERT_LAST_MATCH = 12;                // \G
+
+  static final int MAX_INSTRUCTIONS = 100000;
+
+  // Since Java 19, \b without UNICODE_CHARACTER_CLASS is based on \w instead of letters and digits.
+  private static final boolean ASCII_WORD_BOUNDARY = !Pattern.compile("\\b").matcher("\u00e9").find();
+
+  final int[] ops;
+  final int[] xs;
+  final int[] ys;
+  // normalized ranges of the sets of NOT_FOLLOWED_BY
+  final int[][] sets;
+  final int groupCount;
+  final Map<String, Integer> groupNames;
+  // true if the program has assertions which depend on anything other than the start of text
+  final boolean hasContextAssertion;
+
+  private RegexProgram(int[] ops, int[] xs, int[] ys, int[][] sets, int groupCount,
+                       Map<String, Integer> groupNames) {
+    this.ops = ops;
+    this.xs = xs;
+    this.ys = ys;
+    this.sets = sets;
+    this.groupCount = groupCount;
+    this.groupNames = groupNames;
+
+    boolean contextAssertion = false;
+    for (int pc = 0; pc < ops.length; pc++) {
+      if ((ops[pc] == ASSERT && xs[pc] != ASSERT_BEGIN_TEXT) || ops[pc] == NOT_FOLLOWED_BY) {
+        contextAssertion = true;
+      }
+    }
+    this.hasContextAssertion = contextAssertion;
+  }
+
+  int size() {
+    return ops.length;
+  }
+
+  int captureSlots() {
+    return (groupCount + 1) * 2;
+  }
+
+  /**
+   * Returns true if the code point at <code>pos</code> of <code>text[0, end)</code> is not in the set of the
+   * NOT_FOLLOWED_BY instruction <code>pc</code>.
+   */
+  boolean isNotFollowedBy(int pc, byte[] text, int pos, int end) {
+    return pos >= end || !RegexNode.CodePointSet.contains(sets[xs[pc]], Utf8Sequences.decode(text, pos, end));
+  }
+
+  /**
+   * Checks an assertion at <code>pos</code> of <code>text[0, end)</code>. <code>lastMatch</code> is the end
+   * of the previous match, where <code>\G</code> matches.
+   */
+  static boolean checkAssertion(int kind, byte[] text, int pos, int end, int lastMatch) {
+    switch (kind) {
+    case ASSERT_BEGIN_TEXT:
+      return pos == 0;
+    case ASSERT_END_TEXT:
+      return pos == end;
+    case ASSERT_END_LINE:
+      return isEndOfLine(text, pos, end);
+    case ASSERT_WORD_BOUNDARY:
+      return isWordBoundary(text, pos, end, false);
+    case ASSERT_NOT_WORD_BOUNDARY:
+      return !isWordBoundary(text, pos, end, false);
+    case ASSERT_BEGIN_LINE:
+      return isBeginOfLine(text, pos, end);
+    case ASSERT_BEGIN_LINE_UNIX:
+      // Like Pattern, ^ does not match at the end of text even after a line terminator.
+      return pos < end && (pos == 0 || text[pos - 1] == '\n');
+    case ASSERT_END_LINE_MULTILINE:
+      return isEndOfAnyLine(text, pos, end);
+    case ASSERT_END_LINE_UNIX:
+      return pos == end || (pos == end - 1 && text[pos] == '\n');
+    case ASSERT_END_LINE_MULTILINE_UNIX:
+      return pos == end || text[pos] == '\n';
+    case ASSERT_UNICODE_WORD_BOUNDARY:
+      return isWordBoundary(text, pos, end, true);
+    case ASSERT_NOT_UNICODE_WORD_BOUNDARY:
+      return !isWordBoundary(text, pos, end, true);
+    case ASSERT_LAST_MATCH:
+      return pos == lastMatch;
+    default:
+      throw new IllegalStateException("Unknown assertion: " + kind);
+    }
+  }
+
+  /**
+   * <code>$</code> without MULTILINE matches at the end of text, or before a line terminator at the end of text.
+   */
+  private static boolean isEndOfLine(byte[] text, int pos, int end) {
+    switch (end - pos) {
+    case 0:
+      return true;
+    case 1:
+      if (text[pos] == '\n') {
+        // not between \r\n
+        return pos == 0 || text[pos - 1] != '\r';
+      }
+      return text[pos] == '\r';
+    case 2:
+      // \r\n or U+0085
+      return (text[pos] == '\r' && text[pos + 1] == '\n')
+        || ((text[pos] & 0xff) == 0xC2 && (text[pos + 1] & 0xff) == 0x85);
+    case 3:
+      // U+2028 or U+2029
+      return (text[pos] & 0xff) == 0xE2 && (text[pos + 1] & 0xff) == 0x80
+        && ((text[pos + 2] & 0xff) == 0xA8 || (text[pos + 2] & 0xff) == 0xA9);
+    default:
+      return false;
+    }
+  }
+
+  /**
+   * <code>^</code> with MULTILINE matches at the start of text and after a line terminator, but neither
+   * between \r\n nor at the end of text.
+   */
+  private static boolean isBeginOfLine(byte[] text, int pos, int end) {
+    if (pos == end) {
+      return false;
+    }
+    if (pos == 0) {
+      return true;
+    }
+    int b = text[pos - 1] & 0xff;
+    if (b == '\r') {
+      return text[pos] != '\n';
+    }
+    return b == '\n'
+      || (b == 0x85 && pos >= 2 && (text[pos - 2] & 0xff) == 0xC2)
+      || ((b == 0xA8 || b == 0xA9) && pos >= 3 && (text[pos - 3] & 0xff) == 0xE2 && (text[pos - 2] & 0xff) == 0x80);
+  }
+
+  /**
+   * <code>$</code> with MULTILINE matches at the end of text and before a line terminator, but not between \r\n.
+   */
+  private static boolean isEndOfAnyLine(byte[] text, int pos, int end) {
+    if (pos == end) {
+      return true;
+    }
+    int b = text[pos] & 0xff;
+    if (b == '\n') {
+      return pos == 0 || text[pos - 1] != '\r';
+    }
+    return b == '\r'
+      || (b == 0xC2 && pos + 1 < end && (text[pos + 1] & 0xff) == 0x85)
+      || (b == 0xE2 && pos + 2 < end && (text[pos + 1] & 0xff) == 0x80
+        && ((text[pos + 2] & 0xff) == 0xA8 || (text[pos + 2] & 0xff) == 0xA9));
+  }
+
+  private static boolean isWordBoundary(byte[] text, int pos, int end, boolean unicode) {
+    boolean before = pos > 0 && isWordAt(text, Utf8Sequences.previousCharStart(text, pos), end, unicode);
+    boolean after = pos < end && isWordAt(text, pos, end, unicode);
+    return before != after;
+  }
+
+  /**
+   * Like Pattern, a non-spacing mark also counts as a word character if it follows a letter or a digit.
+   */
+  private static boolean isWordAt(byte[] text, int pos, int end, boolean unicode) {
+    int codePoint = Utf8Sequences.decode(text, pos, end);
+    if (isWordChar(codePoint, unicode)) {
+      return true;
+    }
+    while (codePoint >= 0 && Character.getType(codePoint) == Character.NON_SPACING_MARK && pos > 0) {
+      pos = Utf8Sequences.previousCharStart(text, pos);
+      codePoint = Utf8Sequences.decode(text, pos, end);
+      if (codePoint >= 0 && Character.isLetterOrDigit(codePoint)) {
+        return true;
+      }
+    }
+    return false;
+  }
+
+  private static boolean isWordChar(int codePoint, boolean unicode) {
+    if (codePoint < 0) {
+      return false;
+    }
+    if (!unicode) {
+      if (ASCII_WORD_BOUNDARY) {
+        return codePoint < 0x80 && (codePoint == '_' || Character.isLetterOrDigit(codePoint));
+      }
+      return codePoint == '_' || Character.isLetterOrDigit(codePoint);
+    }
+    // \w with UNICODE_CHARACTER_CLASS
+    int type = Character.getType(codePoint);
+    return Character.isAlphabetic(codePoint) || type == Character.NON_SPACING_MARK
+      || type == Character.ENCLOSING_MARK || type == Character.COMBINING_SPACING_MARK
+      || type == Character.DECIMAL_DIGIT_NUMBER || type == Character.CONNECTOR_PUNCTUATION
+      || codePoint == 0x200C || codePoint == 0x200D;
+  }
+
+  static RegexProgram compile(String pattern) {
+    RegexParser parser = new RegexParser(pattern);
+    RegexNode root = parser.parse();
+
+    Compiler compiler = new Compiler(pattern);
+    compiler.emit(SAVE, 0, 0);
+    compiler.compile(root);
+    compiler.emit(SAVE, 1, 0);
+    compiler.emit(MATCH, 0, 0);
+    return compiler.build(parser.groupCount(), parser.groupNames());
+  }
+
+  private static class Compiler {
+    private final String pattern;
+    private int[] ops = new int[64];
+    private int[] xs = new int[64];
+    private int[] ys = new int[64];
+    private int size;
+    private final List<int[]> sets = new ArrayList<int[]>();
+
+    Compiler(String pattern) {
+      this.pattern = pattern;
+    }
+
+    RegexProgram build(int groupCount, Map<String, Integer> groupNames) {
+      return new RegexProgram(Arrays.copyOf(ops, size), Arrays.copyOf(xs, size), Arrays.copyOf(ys, size),
+        sets.toArray(new int[sets.size()][]), groupCount, groupNames);
+    }
+
+    int emit(int op, int x, int y) {
+      if (size == MAX_INSTRUCTIONS) {
+        // java.util.regex has no such limit
+        throw new UnsupportedRegexException("too many instructions for " + pattern);
+      }
+      if (size == ops.length) {
+        ops = Arrays.copyOf(ops, size * 2);
+        xs = Arrays.copyOf(xs, size * 2);
+        ys = Arrays.copyOf(ys, size * 2);
+      }
+      ops[size] = op;
+      xs[size] = x;
+      ys[size] = y;
+      return size++;
+    }
+
+    void compile(RegexNode node) {
+      if (node instanceof RegexNode.Empty) {
+        return;
+      } else if (node instanceof RegexNode.CharClass) {
+        compileCharClass((RegexNode.CharClass) node);
+      } else if (node instanceof RegexNode.Concat) {
+        for (RegexNode child : ((RegexNode.Concat) node).children) {
+          compile(child);
+        }
+      } else if (node instanceof RegexNode.Alternate) {
+        compileAlternate(((RegexNode.Alternate) node).children);
+      } else if (node instanceof RegexNode.Repeat) {
+        compileRepeat((RegexNode.Repeat) node);
+      } else if (node instanceof RegexNode.Group) {
+        RegexNode.Group group = (RegexNode.Group) node;
+        emit(SAVE, group.index * 2, 0);
+        compile(group.child);
+        emit(SAVE, group.index * 2 + 1, 0);
+      } else if (node instanceof RegexNode.Assert) {
+        emit(ASSERT, ((RegexNode.Assert) node).kind, 0);
+      } else if (node instanceof RegexNode.NotFollowedBy) {
+        emit(NOT_FOLLOWED_BY, sets.size(), 0);
+        sets.add(((RegexNode.NotFollowedBy) node).set.ranges());
+      } else {
+        throw new IllegalStateException("Unknown node: " + node.getClass().getSimpleName());
+      }
+    }
+
+    private void compileAlternate(List<RegexNode> alternatives) {
+      int[] jumps = new int[alternatives.size() - 1];
+      for (int i = 0; i < alternatives.size() - 1; i++) {
+        int split = emit(SPLIT, size + 1, 0);
+        compile(alternatives.get(i));
+        jumps[i] = emit(JUMP, 0, 0);
+        ys[split] = size;
+      }
+      compile(alternatives.get(alternatives.size() - 1));
+      for (int jump : jumps) {
+        xs[jump] = size;
+      }
+    }
+
+    private void compileRepeat(RegexNode.Repeat repeat) {
+      if (matchesEmpty(repeat.child)) {
+        compileNullableRepeat(repeat);
+      } else if (repeat.max < 0) {
+        for (int i = 0; i < repeat.min - 1; i++) {
+          compile(repeat.child);
+        }
+        // child* or child+
+        int entry = repeat.min > 0 ? emit(JUMP, 0, 0) : -1;
+        int split = emit(SPLIT, 0, 0);
+        compile(repeat.child);
+        emit(JUMP, split, 0);
+        setSplit(split, split + 1, size, repeat.greedy);
+        if (entry >= 0) {
+          xs[entry] = split + 1;
+        }
+      } else {
+        for (int i = 0; i < repeat.min; i++) {
+          compile(repeat.child);
+        }
+        // nested optional children, i.e., (child(child)?)?
+        int optionalNum = repeat.max - repeat.min;
+        int[] splits = new int[optionalNum];
+        for (int i = 0; i < optionalNum; i++) {
+          splits[i] = emit(SPLIT, 0, 0);
+          compile(repeat.child);
+        }
+        for (int split : splits) {
+          setSplit(split, split + 1, size, repeat.greedy);
+        }
+      }
+    }
+
+    /**
+     * Like Pattern, a loop ends once an iteration matches an empty string, even below its minimum count.
+     * Whether an iteration has consumed input is kept in the program counter: each iteration runs a copy of
+     * the child compiled by {@link #compileUnconsumed}, which continues at the loop exit if it matched an
+     * empty string, and at the next iteration otherwise.
+     */
+    private void compileNullableRepeat(RegexNode.Repeat repeat) {
+      int entry = emit(JUMP, 0, 0);
+      int exit = emit(JUMP, 0, 0);
+      int next;
+      if (repeat.max < 0) {
+        next = emit(SPLIT, 0, 0);
+        setSplit(next, compileUnconsumed(repeat.child, exit, next), exit, repeat.greedy);
+      } else {
+        next = exit;
+        for (int i = repeat.min; i < repeat.max; i++) {
+          int split = emit(SPLIT, 0, 0);
+          setSplit(split, compileUnconsumed(repeat.child, exit, next), exit, repeat.greedy);
+          next = split;
+        }
+      }
+      for (int i = 0; i < repeat.min; i++) {
+        next = compileUnconsumed(repeat.child, exit, next);
+      }
+      xs[entry] = next;
+      xs[exit] = size;
+    }
+
+    /**
+     * Compiles a node which is reached before the current loop iteration has consumed input. It continues at
+     * <code>empty</code> if it matched an empty string, and at <code>consumed</code> otherwise.
+     *
+     * @return the entry of the compiled node
+     */
+    private int compileUnconsumed(RegexNode node, int empty, int consumed) {
+      if (node instanceof RegexNode.Empty) {
+        return emit(JUMP, empty, 0);
+      } else if (node instanceof RegexNode.CharClass) {
+        return compileTo(node, consumed);
+      } else if (node instanceof RegexNode.Concat) {
+        // from the last child, so that each child knows where the rest starts in both cases
+        List<RegexNode> children = ((RegexNode.Concat) node).children;
+        for (int i = children.size() - 1; i >= 0; i--) {
+          int restConsumed = i > 0 ? compileTo(children.get(i), consumed) : -1;
+          empty = compileUnconsumed(children.get(i), empty, consumed);
+          consumed = restConsumed;
+        }
+        return empty;
+      } else if (node instanceof RegexNode.Alternate) {
+        List<RegexNode> alternatives = ((RegexNode.Alternate) node).children;
+        int next = compileUnconsumed(alternatives.get(alternatives.size() - 1), empty, consumed);
+        for (int i = alternatives.size() - 2; i >= 0; i--) {
+          int alternative = compileUnconsumed(alternatives.get(i), empty, consumed);
+          next = emit(SPLIT, alternative, next);
+        }
+        return next;
+      } else if (node instanceof RegexNode.Repeat) {
+        // after an iteration of a nested loop which consumed input, the rest of it runs as usual
+        RegexNode.Repeat repeat = (RegexNode.Repeat) node;
+        if (repeat.max == 0) {
+          return emit(JUMP, empty, 0);
+        }
+        RegexNode.Repeat rest = new RegexNode.Repeat(repeat.child, Math.max(0, repeat.min - 1),
+          repeat.max < 0 ? -1 : repeat.max - 1, repeat.greedy);
+        int iteration = compileUnconsumed(repeat.child, empty, compileTo(rest, consumed));
+        if (repeat.min > 0) {
+          return iteration;
+        }
+        int split = emit(SPLIT, 0, 0);
+        setSplit(split, iteration, empty, repeat.greedy);
+        return split;
+      } else if (node instanceof RegexNode.Group) {
+        RegexNode.Group group = (RegexNode.Group) node;
+        int emptyEnd = emit(SAVE, group.index * 2 + 1, 0);
+        emit(JUMP, empty, 0);
+        int consumedEnd = emit(SAVE, group.index * 2 + 1, 0);
+        emit(JUMP, consumed, 0);
+        int child = compileUnconsumed(group.child, emptyEnd, consumedEnd);
+        int start = emit(SAVE, group.index * 2, 0);
+        emit(JUMP, child, 0);
+        return start;
+      } else {
+        // assertions
+        int start = size;
+        compile(node);
+        emit(JUMP, empty, 0);
+        return start;
+      }
+    }
+
+    /**
+     * Compiles a node as usual, which continues at <code>next</code>.
+     *
+     * @return the entry of the compiled node
+     */
+    private int compileTo(RegexNode node, int next) {
+      int start = size;
+      compile(node);
+      emit(JUMP, next, 0);
+      return start;
+    }
+
+    /**
+     * Returns true if the node can match an empty string.
+     */
+    private static boolean matchesEmpty(RegexNode node) {
+      if (node instanceof RegexNode.CharClass) {
+        return false;
+      } else if (node instanceof RegexNode.Concat) {
+        for (RegexNode child : ((RegexNode.Concat) node).children) {
+          if (!matchesEmpty(child)) {
+            return false;
+          }
+        }
+        return true;
+      } else if (node instanceof RegexNode.Alternate) {
+        for (RegexNode child : ((RegexNode.Alternate) node).children) {
+          if (matchesEmpty(child)) {
+            return true;
+          }
+        }
+        return false;
+      } else if (node instanceof RegexNode.Repeat) {
+        RegexNode.Repeat repeat = (RegexNode.Repeat) node;
+        return repeat.min == 0 || matchesEmpty(repeat.child);
+      } else if (node instanceof RegexNode.Group) {
+        return matchesEmpty(((RegexNode.Group) node).child);
+      }
+      // empty strings and assertions
+      return true;
+    }
+
+    private void setSplit(int split, int body, int exit, boolean greedy) {
+      xs[split] = greedy ? body : exit;
+      ys[split] = greedy ? exit : body;
+    }
+
+    private void compileCharClass(RegexNode.CharClass charClass) {
+      List<int[]> sequences = Utf8Sequences.of(charClass.set.ranges());
+      if (sequences.isEmpty()) {
+        // never matches
+        emit(BYTE_RANGE, 1, 0);
+        return;
+      }
+
+      int[] jumps = new int[sequences.size() - 1];
+      for (int i = 0; i < sequences.size(); i++) {
+        int split = -1;
+        if (i < sequences.size() - 1) {
+          split = emit(SPLIT, size + 1, 0);
+        }
+        int[] sequence = sequences.get(i);
+        for (int j = 0; j < sequence.length; j += 2) {
+          emit(BYTE_RANGE, sequence[j], sequence[j + 1]);
+        }
+        if (split >= 0) {
+          jumps[i] = emit(JUMP, 0, 0);
+          ys[split] = size;
+        }
+      }
+      for (int jump : jumps) {
+        xs[jump] = size;
+      }
+    }
+  }
+}
@@ -16,24 +16,17 @@
  * limitations under the License.
  */
 
-package org.apache.tajo.engine.function;
+package org.apache.tajo.engine.function.regex;
 
-import org.apache.tajo.catalog.Column;
-import org.apache.tajo.common.TajoDataTypes;
-import org.apache.tajo.engine.function.annotation.Description;
-import org.apache.tajo.engine.function.annotation.ParamTypes;
+/**
+ * Thrown by {@link RegexParser} if a pattern uses a construct which cannot be matched by automata,
+ * such as backreferences or lookaround, or if its program is too large.
+ * Such patterns are handled by {@link java.util.regex.Pattern} instead.
+ */
+class UnsupportedRegexException extends RuntimeException {
+  private static final long serialVersionUID = 1L;
 
-@Description(
-  functionName = "greatest",
-  description = "Returns the greatest value in the list.",
-  example = "> SELECT greatest(2, 5, 12, 3) FROM src;\n 12",
-  returnType = TajoDataTypes.Type.INT8,
-  paramTypes = {@ParamTypes(paramTypes = {TajoDataTypes.Type.INT8_ARRAY})}
-)
-public class GreatestDate extends Greatest {
-  public GreatestDate() {
-    super(new Column[] {
-      new Column("values", TajoDataTypes.Type.INT8_ARRAY)
-    });
+  public UnsupportedRegexException(String message) {
+    super(message);
   }
-}
\ No newline at end of file
+}
@@ -0,0 +1,181 @@
+/**
+ * Licensed to the Apache Software Foundation (ASF) under one
+ * or more contributor license agreements.  See the NOTICE file
+ * distributed with this work for additional information
+ * regarding copyright ownership.  The ASF licenses this file
+ * to you under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance
+ * with the License.  You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package org.apache.tajo.engine.function.regex;
+
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * Converts code point ranges into sequences of UTF-8 byte ranges, so that a character class can be
+ * matched directly on UTF-8 bytes. For example, the range U+0080..U+07FF becomes [C2-DF][80-BF].
+ */
+final class Utf8Sequences {
+  private Utf8Sequences() {
+  }
+
+  /**
+   * @param ranges code point ranges as lo0, hi0, lo1, hi1, ...
+   * @return the list of sequences. Each sequence is an array of byte ranges as lo0, hi0, lo1, hi1, ...
+   */
+  static List<int[]> of(int[] ranges) {
+    List<int[]> sequences = new ArrayList<int[]>();
+    for (int i = 0; i < ranges.length; i += 2) {
+      split(ranges[i], ranges[i + 1], sequences);
+    }
+    return sequences;
+  }
+
+  private static void split(int lo, int hi, List<int[]> out) {
+    if (lo > hi) {
+      return;
+    }
+
+    // Surrogates cannot be encoded in UTF-8.
+    if (lo <= 0xDFFF && hi >= 0xD800) {
+      if (lo < 0xD800) {
+        split(lo, 0xD7FF, out);
+      }
+      if (hi > 0xDFFF) {
+        split(0xE000, hi, out);
+      }
+      return;
+    }
+
+    // Split the range at the boundaries of the encoded length.
+    for (int max : new int[]{0x7F, 0x7FF, 0xFFFF}) {
+      if (lo <= max && hi > max) {
+        split(lo, max, out);
+        split(max + 1, hi, out);
+        return;
+      }
+    }
+
+    if (hi <= 0x7F) {
+      out.add(new int[]{lo, hi});
+      return;
+    }
+
+    // Split the range until all continuation bytes of lo and hi span the full range.
+    int length = encodedLength(lo);
+    for (int i = 1; i < length; i++) {
+      int mask = (1 << (6 * i)) - 1;
+      if ((lo & ~mask) != (hi & ~mask)) {
+        if ((lo & mask) != 0) {
+          split(lo, lo | mask, out);
+          split((lo | mask) + 1, hi, out);
+          return;
+        }
+        if ((hi & mask) != mask) {
+          split(lo, (hi & ~mask) - 1, out);
+          split(hi & ~mask, hi, out);
+          return;
+        }
+      }
+    }
+
+    byte[] loBytes = encode(lo, length);
+    byte[] hiBytes = encode(hi, length);
+    int[] sequence = new int[length * 2];
+    for (int i = 0; i < length; i++) {
+      sequence[i * 2] = loBytes[i] & 0xff;
+      sequence[i * 2 + 1] = hiBytes[i] & 0xff;
+    }
+    out.add(sequence);
+  }
+
+  static int encodedLength(int codePoint) {
+    if (codePoint <= 0x7F) {
+      return 1;
+    } else if (codePoint <= 0x7FF) {
+      return 2;
+    } else if (codePoint <= 0xFFFF) {
+      return 3;
+    } else {
+      return 4;
+    }
+  }
+
+  static byte[] encode(int codePoint, int length) {
+    switch (length) {
+    case 1:
+      return new byte[]{(byte) codePoint};
+    case 2:
+      return new byte[]{(byte) (0xC0 | (codePoint >> 6)), (byte) (0x80 | (codePoint & 0x3F))};
+    case 3:
+      return new byte[]{(byte) (0xE0 | (codePoint >> 12)), (byte) (0x80 | ((codePoint >> 6) & 0x3F)),
+        (byte) (0x80 | (codePoint & 0x3F))};
+    default:
+      return new byte[]{(byte) (0xF0 | (codePoint >> 18)), (byte) (0x80 | ((codePoint >> 12) & 0x3F)),
+        (byte) (0x80 | ((codePoint >> 6) & 0x3F)), (byte) (0x80 | (codePoint & 0x3F))};
+    }
+  }
+
+  /**
+   * Decodes the code point starting at <code>pos</code>. It returns -1 for an invalid sequence.
+   */
+  static int decode(byte[] text, int pos, int end) {
+    int b = text[pos] & 0xff;
+    if (b < 0x80) {
+      return b;
+    }
+    int length;
+    int codePoint;
+    if (b >= 0xF0) {
+      length = 4;
+      codePoint = b & 0x07;
+    } else if (b >= 0xE0) {
+      length = 3;
+      codePoint = b & 0x0F;
+    } else if (b >= 0xC0) {
+      length = 2;
+      codePoint = b & 0x1F;
+    } else {
+      return -1;
+    }
+    if (pos + length > end) {
+      return -1;
+    }
+    for (int i = 1; i < length; i++) {
+      codePoint = (codePoint << 6) | (text[pos + i] & 0x3F);
+    }
+    return codePoint;
+  }
+
+  /**
+   * Returns the start position of the character ending right before <code>pos</code>.
+   */
+  static int previousCharStart(byte[] text, int pos) {
+    int start = pos - 1;
+    while (start > 0 && start > pos - 4 && (text[start] & 0xC0) == 0x80) {
+      start--;
+    }
+    return start;
+  }
+
+  /**
+   * Returns the position of the next character after the one starting at <code>pos</code>.
+   */
+  static int nextCharStart(byte[] text, int pos, int end) {
+    pos++;
+    while (pos < end && (text[pos] & 0xC0) == 0x80) {
+      pos++;
+    }
+    return pos;
+  }
+}
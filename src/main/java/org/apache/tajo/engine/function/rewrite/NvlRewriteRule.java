@@ -0,0 +1,207 @@
+/**
+ * Licensed to the Apache Software Foundation (ASF) under one
+ * or more contributor license agreements.  See the NOTICE file
+ * distributed with this work for additional information
+ * regarding copyright ownership.  The ASF licenses this file
+ * to you under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance
+ * with the License.  You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package org.apache.tajo.engine.function.rewrite;
+
+import org.apache.tajo.plan.LogicalPlan;
+import org.apache.tajo.plan.Target;
+import org.apache.tajo.plan.expr.CaseWhenEval;
+import org.apache.tajo.plan.expr.CastEval;
+import org.apache.tajo.plan.expr.EvalNode;
+import org.apache.tajo.plan.expr.EvalTreeUtil;
+import org.apache.tajo.plan.expr.EvalType;
+import org.apache.tajo.plan.expr.FunctionEval;
+import org.apache.tajo.plan.expr.IsNullEval;
+import org.apache.tajo.plan.logical.BinaryNode;
+import org.apache.tajo.plan.logical.JoinNode;
+import org.apache.tajo.plan.logical.LogicalNode;
+import org.apache.tajo.plan.logical.Projectable;
+import org.apache.tajo.plan.logical.SelectableNode;
+import org.apache.tajo.plan.logical.TableSubQueryNode;
+import org.apache.tajo.plan.logical.UnaryNode;
+import org.apache.tajo.plan.rewrite.LogicalPlanRewriteRule;
+import org.apache.tajo.plan.rewrite.LogicalPlanRewriteRuleContext;
+
+import java.util.Collection;
+
+/**
+ * Rewrites <code>nvl()</code> and <code>nvl2()</code> calls into CASE expressions, which evaluate
+ * their arguments lazily. A function call receives all of its arguments already evaluated,
+ * while <code>CASE WHEN a IS NOT NULL THEN a ELSE b END</code> evaluates <code>b</code> only if
+ * <code>a</code> is null.
+ * <p>
+ * A CASE expression evaluates the chosen argument twice, once for the null test and once for the result.
+ * So a call is rewritten only if every argument except the last one is a column reference or a constant,
+ * and the last one is more expensive than that.
+ */
+public class NvlRewriteRule implements LogicalPlanRewriteRule {
+  private static final String NAME = "NvlRewrite";
+
+  @Override
+  public String getName() {
+    return NAME;
+  }
+
+  @Override
+  public boolean isEligible(LogicalPlanRewriteRuleContext context) {
+    for (LogicalPlan.QueryBlock block : context.getPlan().getQueryBlocks()) {
+      if (block.getRoot() != null && visit(block.getRoot(), false)) {
+        return true;
+      }
+    }
+    return false;
+  }
+
+  @Override
+  public LogicalPlan rewrite(LogicalPlanRewriteRuleContext context) {
+    LogicalPlan plan = context.getPlan();
+    for (LogicalPlan.QueryBlock block : plan.getQueryBlocks()) {
+      if (block.getRoot() != null) {
+        visit(block.getRoot(), true);
+      }
+    }
+    return plan;
+  }
+
+  /**
+   * Visits the expressions of a node and its descendants.
+   *
+   * @param rewrite if false, it only checks whether there is any call to rewrite
+   * @return true if there is any call to rewrite
+   */
+  private static boolean visit(LogicalNode node, boolean rewrite) {
+    boolean found = false;
+
+    if (node instanceof Projectable && ((Projectable) node).hasTargets()) {
+      for (Target target : ((Projectable) node).getTargets()) {
+        if (hasRewritableCall(target.getEvalTree())) {
+          found = true;
+          if (rewrite) {
+            target.setExpr(rewrite(target.getEvalTree()));
+          }
+        }
+      }
+    }
+    if (node instanceof SelectableNode && ((SelectableNode) node).hasQual()) {
+      SelectableNode selectable = (SelectableNode) node;
+      if (hasRewritableCall(selectable.getQual())) {
+        found = true;
+        if (rewrite) {
+          selectable.setQual(rewrite(selectable.getQual()));
+        }
+      }
+    }
+    if (node instanceof JoinNode && ((JoinNode) node).hasJoinQual()) {
+      JoinNode join = (JoinNode) node;
+      if (hasRewritableCall(join.getJoinQual())) {
+        found = true;
+        if (rewrite) {
+          join.setJoinQual(rewrite(join.getJoinQual()));
+        }
+      }
+    }
+
+    if (found && !rewrite) {
+      return true;
+    }
+    if (node instanceof UnaryNode) {
+      found |= visit((LogicalNode) ((UnaryNode) node).getChild(), rewrite);
+    } else if (node instanceof BinaryNode) {
+      found |= visit((LogicalNode) ((BinaryNode) node).getLeftChild(), rewrite);
+      found |= visit((LogicalNode) ((BinaryNode) node).getRightChild(), rewrite);
+    } else if (node instanceof TableSubQueryNode) {
+      found |= visit((LogicalNode) ((TableSubQueryNode) node).getSubQuery(), rewrite);
+    }
+    return found;
+  }
+
+  private static boolean hasRewritableCall(EvalNode expr) {
+    if (isRewritable(expr)) {
+      return true;
+    }
+    Collection<FunctionEval> calls = EvalTreeUtil.findEvalsByType(expr, EvalType.FUNCTION);
+    for (FunctionEval call : calls) {
+      if (isRewritable(call)) {
+        return true;
+      }
+    }
+    return false;
+  }
+
+  /**
+   * Returns the expression with every rewritable call replaced by a CASE expression.
+   * The expression may be modified in place.
+   */
+  public static EvalNode rewrite(EvalNode expr) {
+    if (isRewritable(expr)) {
+      return toCaseWhen((FunctionEval) expr);
+    }
+
+    Collection<FunctionEval> calls = EvalTreeUtil.findEvalsByType(expr, EvalType.FUNCTION);
+    for (FunctionEval call : calls) {
+      if (isRewritable(call)) {
+        EvalTreeUtil.replace(expr, call, toCaseWhen(call));
+      }
+    }
+    return expr;
+  }
+
+  private static EvalNode toCaseWhen(FunctionEval call) {
+    EvalNode[] args = call.getArgs();
+    CaseWhenEval caseWhen = new CaseWhenEval();
+    for (int i = 0; i < args.length - 1; i++) {
+      caseWhen.addIfCond(new IsNullEval(true, args[i]), args[i]);
+    }
+    caseWhen.setElseResult(rewrite(args[args.length - 1]));
+    return caseWhen;
+  }
+
+  static boolean isRewritable(EvalNode expr) {
+    if (expr.getType() != EvalType.FUNCTION) {
+      return false;
+    }
+    FunctionEval call = (FunctionEval) expr;
+    String name = call.getFuncDesc().getFunctionName();
+    if (!"nvl".equalsIgnoreCase(name) && !"nvl2".equalsIgnoreCase(name)) {
+      return false;
+    }
+
+    EvalNode[] args = call.getArgs();
+    if (args == null || args.length < 2) {
+      return false;
+    }
+    for (int i = 0; i < args.length - 1; i++) {
+      if (!isCheap(args[i])) {
+        return false;
+      }
+    }
+    return !isCheap(args[args.length - 1]);
+  }
+
+  private static boolean isCheap(EvalNode expr) {
+    switch (expr.getType()) {
+    case FIELD:
+    case CONST:
+      return true;
+    case CAST:
+      return isCheap(((CastEval) expr).getOperand());
+    default:
+      return false;
+    }
+  }
+}
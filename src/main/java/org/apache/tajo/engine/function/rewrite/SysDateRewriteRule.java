@@ -0,0 +1,55 @@
+/**
+ * Licensed to the Apache Software Foundation (ASF) under one
+ * or more contributor license agreements.  See the NOTICE file
+ * distributed with this work for additional information
+ * regarding copyright ownership.  The ASF licenses this file
+ * to you under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance
+ * with the License.  You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package org.apache.tajo.engine.function.rewrite;
+
+import org.apache.tajo.OverridableConf;
+import org.apache.tajo.engine.function.FunctionSessionVars;
+import org.apache.tajo.plan.LogicalPlan;
+import org.apache.tajo.plan.rewrite.LogicalPlanRewriteRule;
+import org.apache.tajo.plan.rewrite.LogicalPlanRewriteRuleContext;
+
+/**
+ * Fixes the current time of <code>sysdate()</code> for a query.
+ * <p>
+ * Every task creates and initializes its own function instances, so a time taken in
+ * {@link org.apache.tajo.plan.function.GeneralFunction#init} differs from task to task. This rule runs on
+ * the master while the query is planned, and sets {@link FunctionSessionVars#SYSDATE_TIMESTAMP} in the query
+ * context unless the session has already set it. The query context is shipped with the query to every task,
+ * so that all of them see the same time. The plan itself is not changed.
+ */
+public class SysDateRewriteRule implements LogicalPlanRewriteRule {
+  private static final String NAME = "SysDateTimestamp";
+
+  @Override
+  public String getName() {
+    return NAME;
+  }
+
+  @Override
+  public boolean isEligible(LogicalPlanRewriteRuleContext context) {
+    OverridableConf queryContext = context.getQueryContext();
+    return queryContext != null && !queryContext.containsKey(FunctionSessionVars.SYSDATE_TIMESTAMP);
+  }
+
+  @Override
+  public LogicalPlan rewrite(LogicalPlanRewriteRuleContext context) {
+    context.getQueryContext().set(FunctionSessionVars.SYSDATE_TIMESTAMP, String.valueOf(System.currentTimeMillis()));
+    return context.getPlan();
+  }
+}
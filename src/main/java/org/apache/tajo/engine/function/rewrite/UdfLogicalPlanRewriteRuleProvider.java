@@ -0,0 +1,51 @@
+/**
+ * Licensed to the Apache Software Foundation (ASF) under one
+ * or more contributor license agreements.  See the NOTICE file
+ * distributed with this work for additional information
+ * regarding copyright ownership.  The ASF licenses this file
+ * to you under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance
+ * with the License.  You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package org.apache.tajo.engine.function.rewrite;
+
+import org.apache.tajo.conf.TajoConf;
+import org.apache.tajo.plan.rewrite.BaseLogicalPlanRewriteRuleProvider;
+import org.apache.tajo.plan.rewrite.LogicalPlanRewriteRule;
+
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.List;
+
+/**
+ * Adds the rewrite rules of this project to the default rules of Tajo. Besides rewriting expressions,
+ * {@link SysDateRewriteRule} fixes the time of <code>sysdate()</code> for all tasks of a query.
+ * <p>
+ * To enable it, set <code>tajo.plan.logical.rewriter.provider</code> in <code>tajo-site.xml</code>
+ * to the name of this class.
+ */
+public class UdfLogicalPlanRewriteRuleProvider extends BaseLogicalPlanRewriteRuleProvider {
+
+  public UdfLogicalPlanRewriteRuleProvider(TajoConf conf) {
+    super(conf);
+  }
+
+  @Override
+  public Collection<Class<? extends LogicalPlanRewriteRule>> getPreRules() {
+    List<Class<? extends LogicalPlanRewriteRule>> rules = new ArrayList<Class<? extends LogicalPlanRewriteRule>>();
+    // Expressions are rewritten before they are pushed down.
+    rules.add(NvlRewriteRule.class);
+    rules.add(SysDateRewriteRule.class);
+    rules.addAll(super.getPreRules());
+    return rules;
+  }
+}
@@ -16,24 +16,28 @@
  * limitations under the License.
  */
 
-package org.apache.tajo.engine.function;
+package org.apache.tajo.engine.function.specialize;
 
-import org.apache.tajo.catalog.Column;
-import org.apache.tajo.common.TajoDataTypes;
-import org.apache.tajo.engine.function.annotation.Description;
-import org.apache.tajo.engine.function.annotation.ParamTypes;
-
-@Description(
-  functionName = "greatest",
-  description = "Returns the greatest value in the list.",
-  example = "> SELECT greatest(2.0, 5.0, 12.0, 3.0) FROM src;\n 12.0",
-  returnType = TajoDataTypes.Type.FLOAT8,
-  paramTypes = {@ParamTypes(paramTypes = {TajoDataTypes.Type.FLOAT8_ARRAY})}
-)
-public class GreatestDouble extends Greatest {
-  public GreatestDouble() {
-    super(new Column[] {
-      new Column("values", TajoDataTypes.Type.FLOAT8_ARRAY)
-    });
-  }
-}
\ No newline at end of file
+/**
+ * The kernel which {@link SpecializationProcessor} generates for each type of a function family.
+ */
+public enum Kernel {
+  /**
+   * <code>greatest(values...)</code>: compares primitive values or UTF-8 bytes in place,
+   * and returns the datum of the greatest argument as it is.
+   */
+  GREATEST,
+  /**
+   * <code>least(values...)</code>: the same as {@link #GREATEST} in the other direction.
+   */
+  LEAST,
+  /**
+   * <code>nvl(expr1, expr2)</code>: the evaluation is inherited from the family,
+   * because it returns an argument without reading its value.
+   */
+  NVL,
+  /**
+   * <code>nvl2(params...)</code>: the same as {@link #NVL} for any number of arguments.
+   */
+  NVL2
+}
@@ -0,0 +1,331 @@
+/**
+ * Licensed to the Apache Software Foundation (ASF) under one
+ * or more contributor license agreements.  See the NOTICE file
+ * distributed with this work for additional information
+ * regarding copyright ownership.  The ASF licenses this file
+ * to you under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance
+ * with the License.  You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package org.apache.tajo.engine.function.specialize;
+
+import javax.annotation.processing.AbstractProcessor;
+import javax.annotation.processing.RoundEnvironment;
+import javax.annotation.processing.SupportedAnnotationTypes;
+import javax.lang.model.SourceVersion;
+import javax.lang.model.element.Element;
+import javax.lang.model.element.TypeElement;
+import javax.tools.Diagnostic;
+import java.io.IOException;
+import java.io.Writer;
+import java.util.Set;
+
+/**
+ * Generates the typed classes of the function families annotated with {@link Specialize}.
+ * <p>
+ * A kernel is written once here, and the type of each {@link Variant} fills in the primitive type,
+ * the getter of <code>Tuple</code> and the array of <code>ColumnVector</code>. So every generated class
+ * has its own <code>eval()</code> and <code>evalBatch()</code>, which compare values of one type
+ * instead of calling <code>Datum.compareTo()</code>, and each of them is a monomorphic call site for the JIT.
+ * <p>
+ * The processor is compiled before the functions by the <code>compile-processor</code> execution in pom.xml.
+ */
+@SupportedAnnotationTypes("org.apache.tajo.engine.function.specialize.Specialize")
+public class SpecializationProcessor extends AbstractProcessor {
+  /**
+   * How a SQL type is read from a tuple and stored in a column vector.
+   */
+  private enum ValueType {
+    BOOLEAN("boolean", "getBool", "long", "longs"),
+    INT4("int", "getInt4", "long", "longs"),
+    INT8("long", "getInt8", "long", "longs"),
+    FLOAT4("float", "getFloat4", "double", "doubles"),
+    FLOAT8("double", "getFloat8", "double", "doubles"),
+    TEXT("byte[]", "getBytes", "byte[]", "bytes"),
+    // julian days
+    DATE("int", "getInt4", "long", "longs"),
+    // microseconds of the day
+    TIME("long", "getInt8", "long", "longs"),
+    // microseconds since 2000-01-01
+    TIMESTAMP("long", "getInt8", "long", "longs");
+
+    final String javaType;
+    final String getter;
+    final String vectorType;
+    final String vectorArray;
+
+    ValueType(String javaType, String getter, String vectorType, String vectorArray) {
+      this.javaType = javaType;
+      this.getter = getter;
+      this.vectorType = vectorType;
+      this.vectorArray = vectorArray;
+    }
+
+    boolean isPrimitive() {
+      return this != TEXT;
+    }
+  }
+
+  @Override
+  public SourceVersion getSupportedSourceVersion() {
+    return SourceVersion.latestSupported();
+  }
+
+  @Override
+  public boolean process(Set<? extends TypeElement> annotations, RoundEnvironment roundEnv) {
+    for (Element element : roundEnv.getElementsAnnotatedWith(Specialize.class)) {
+      TypeElement family = (TypeElement) element;
+      Specialize spec = family.getAnnotation(Specialize.class);
+      String packageName = processingEnv.getElementUtils().getPackageOf(family).getQualifiedName().toString();
+
+      for (Variant variant : spec.variants()) {
+        try {
+          String source = generate(packageName, family.getSimpleName().toString(), spec, variant);
+          Writer writer = processingEnv.getFiler().createSourceFile(packageName + "." + variant.name(), family)
+            .openWriter();
+          try {
+            writer.write(source);
+          } finally {
+            writer.close();
+          }
+        } catch (IllegalArgumentException e) {
+          processingEnv.getMessager().printMessage(Diagnostic.Kind.ERROR, e.getMessage(), family);
+        } catch (IOException e) {
+          processingEnv.getMessager().printMessage(Diagnostic.Kind.ERROR,
+            "cannot write " + variant.name() + ": " + e.getMessage(), family);
+        }
+      }
+    }
+    return true;
+  }
+
+  private static ValueType valueTypeOf(Variant variant) {
+    for (ValueType type : ValueType.values()) {
+      if (type.name().equals(variant.type().name())) {
+        return type;
+      }
+    }
+    throw new IllegalArgumentException(variant.name() + ": unsupported type " + variant.type());
+  }
+
+  String generate(String packageName, String family, Specialize spec, Variant variant) {
+    ValueType type = valueTypeOf(variant);
+    boolean extremum = spec.kernel() == Kernel.GREATEST || spec.kernel() == Kernel.LEAST;
+    if (extremum && type == ValueType.BOOLEAN) {
+      throw new IllegalArgumentException(variant.name() + ": " + spec.kernel() + " cannot compare " + type);
+    }
+
+    Source out = new Source();
+    out.line("/*");
+    out.line(" * Generated by " + getClass().getSimpleName() + " from " + family + ". Do not edit.");
+    out.line(" */");
+    out.line("package " + packageName + ";");
+    out.line();
+    out.line("import org.apache.tajo.catalog.Column;");
+    out.line("import org.apache.tajo.common.TajoDataTypes;");
+    if (extremum) {
+      out.line("import org.apache.tajo.datum.Datum;");
+      out.line("import org.apache.tajo.datum.NullDatum;");
+    }
+    out.line("import org.apache.tajo.engine.function.annotation.Description;");
+    out.line("import org.apache.tajo.engine.function.annotation.ParamTypes;");
+    if (extremum) {
+      if (type.isPrimitive()) {
+        out.line("import org.apache.tajo.engine.function.codegen.StaticEntryPoint;");
+      }
+      out.line("import org.apache.tajo.engine.function.vector.ColumnVector;");
+      out.line("import org.apache.tajo.storage.Tuple;");
+    }
+    out.line();
+
+    String[] columns;
+    String[] paramTypes;
+    String typeName = "TajoDataTypes.Type." + type.name();
+    String arrayTypeName = typeName + "_ARRAY";
+    switch (spec.kernel()) {
+    case NVL:
+      columns = new String[] {"expr1", "expr2"};
+      paramTypes = new String[] {typeName, typeName};
+      break;
+    case NVL2:
+      columns = new String[] {"params"};
+      paramTypes = new String[] {arrayTypeName};
+      break;
+    default:
+      columns = new String[] {"values"};
+      paramTypes = new String[] {arrayTypeName};
+    }
+
+    out.line("@Description(");
+    out.line("  functionName = " + literal(spec.functionName()) + ",");
+    out.line("  description = " + literal(spec.description()) + ",");
+    if (!spec.detail().isEmpty()) {
+      out.line("  detail = " + literal(spec.detail()) + ",");
+    }
+    out.line("  example = " + literal(variant.example().isEmpty() ? spec.example() : variant.example()) + ",");
+    out.line("  returnType = " + typeName + ",");
+    out.line("  paramTypes = {@ParamTypes(paramTypes = {" + join(paramTypes) + "})}");
+    out.line(")");
+    out.line("public class " + variant.name() + " extends " + family + " {");
+    out.line("  public " + variant.name() + "() {");
+    out.line("    super(new Column[] {");
+    for (int i = 0; i < columns.length; i++) {
+      out.line("      new Column(\"" + columns[i] + "\", " + paramTypes[i] + ")" + (i < columns.length - 1 ? "," : ""));
+    }
+    out.line("    });");
+    out.line("  }");
+
+    if (extremum) {
+      String op = spec.kernel() == Kernel.GREATEST ? ">" : "<";
+      writeExtremumEval(out, type, op);
+      writeExtremumBatch(out, type, op);
+      if (type.isPrimitive()) {
+        writeExtremumEntryPoint(out, type, op, spec.functionName());
+      }
+    }
+    out.line("}");
+    return out.toString();
+  }
+
+  private static void writeExtremumEval(Source out, ValueType type, String op) {
+    out.line();
+    out.line("  @Override");
+    out.line("  protected Datum doEval(Tuple params) {");
+    out.line("    int winner = -1;");
+    out.line("    " + type.javaType + " winnerValue = " + (type.isPrimitive() ? "0" : "null") + ";");
+    out.line("    for (int i = 0; i < params.size(); i++) {");
+    out.line("      if (params.isBlankOrNull(i)) {");
+    out.line("        if (ignoreNulls) {");
+    out.line("          continue;");
+    out.line("        }");
+    out.line("        return NullDatum.get();");
+    out.line("      }");
+    out.line("      " + type.javaType + " value = params." + type.getter + "(i);");
+    out.line("      if (winner < 0 || " + better(type, op, "value", "winnerValue") + ") {");
+    out.line("        winner = i;");
+    out.line("        winnerValue = value;");
+    out.line("      }");
+    out.line("    }");
+    out.line("    return winner < 0 ? NullDatum.get() : params.asDatum(winner);");
+    out.line("  }");
+  }
+
+  private static void writeExtremumBatch(Source out, ValueType type, String op) {
+    String array = type.vectorType + "[]";
+    out.line();
+    out.line("  @Override");
+    out.line("  protected void doEvalBatch(ColumnVector[] args, int[] selected, int count, ColumnVector out) {");
+    out.line("    " + array + " result = out." + type.vectorArray + ";");
+    out.line("    out.copyFrom(args[0], selected, count);");
+    out.line("    for (int arg = 1; arg < args.length; arg++) {");
+    out.line("      ColumnVector vector = args[arg];");
+    out.line("      " + array + " values = vector." + type.vectorArray + ";");
+    if (type.isPrimitive()) {
+      out.line("      if (selected == null && !ignoreNulls) {");
+      out.line("        // null flags are propagated word by word, and values are compared without branching on them");
+      out.line("        out.orNulls(vector, null, count);");
+      out.line("        for (int row = 0; row < count; row++) {");
+      out.line("          result[row] = values[row] " + op + " result[row] ? values[row] : result[row];");
+      out.line("        }");
+      out.line("        continue;");
+      out.line("      }");
+    }
+    out.line("      for (int i = 0; i < count; i++) {");
+    out.line("        int row = selected == null ? i : selected[i];");
+    out.line("        if (vector.isNull(row)) {");
+    out.line("          if (!ignoreNulls) {");
+    out.line("            out.setNull(row);");
+    out.line("          }");
+    out.line("        } else if (out.isNull(row)) {");
+    out.line("          if (ignoreNulls) {");
+    out.line("            out.setNotNull(row);");
+    out.line("            result[row] = values[row];");
+    out.line("          }");
+    out.line("        } else if (" + better(type, op, "values[row]", "result[row]") + ") {");
+    out.line("          result[row] = values[row];");
+    out.line("        }");
+    out.line("      }");
+    out.line("    }");
+    out.line("  }");
+  }
+
+  private static void writeExtremumEntryPoint(Source out, ValueType type, String op, String functionName) {
+    out.line();
+    out.line("  @StaticEntryPoint");
+    out.line("  public static " + type.javaType + " " + functionName + "(" + type.javaType + "[] values) {");
+    out.line("    " + type.javaType + " winner = values[0];");
+    out.line("    for (int i = 1; i < values.length; i++) {");
+    out.line("      if (values[i] " + op + " winner) {");
+    out.line("        winner = values[i];");
+    out.line("      }");
+    out.line("    }");
+    out.line("    return winner;");
+    out.line("  }");
+  }
+
+  // the first of equal values wins, and NaN wins only if it comes first
+  private static String better(ValueType type, String op, String value, String winner) {
+    if (type.isPrimitive()) {
+      return value + " " + op + " " + winner;
+    }
+    // UTF-8 bytes compared as unsigned bytes are in the order of code points
+    return "UNSIGNED_BYTES.compare(" + value + ", " + winner + ") " + op + " 0";
+  }
+
+  private static String join(String[] values) {
+    StringBuilder sb = new StringBuilder();
+    for (String value : values) {
+      if (sb.length() > 0) {
+        sb.append(", ");
+      }
+      sb.append(value);
+    }
+    return sb.toString();
+  }
+
+  static String literal(String value) {
+    StringBuilder sb = new StringBuilder("\"");
+    for (char c : value.toCharArray()) {
+      switch (c) {
+      case '"':
+        sb.append("\\\"");
+        break;
+      case '\\':
+        sb.append("\\\\");
+        break;
+      case '\n':
+        sb.append("\\n");
+        break;
+      default:
+        sb.append(c);
+      }
+    }
+    return sb.append('"').toString();
+  }
+
+  private static class Source {
+    private final StringBuilder sb = new StringBuilder();
+
+    void line() {
+      sb.append('\n');
+    }
+
+    void line(String line) {
+      sb.append(line).append('\n');
+    }
+
+    @Override
+    public String toString() {
+      return sb.toString();
+    }
+  }
+}
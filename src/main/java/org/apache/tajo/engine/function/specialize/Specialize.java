@@ -0,0 +1,52 @@
+/**
+ * Licensed to the Apache Software Foundation (ASF) under one
+ * or more contributor license agreements.  See the NOTICE file
+ * distributed with this work for additional information
+ * regarding copyright ownership.  The ASF licenses this file
+ * to you under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance
+ * with the License.  You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package org.apache.tajo.engine.function.specialize;
+
+import java.lang.annotation.ElementType;
+import java.lang.annotation.Retention;
+import java.lang.annotation.RetentionPolicy;
+import java.lang.annotation.Target;
+
+/**
+ * Generates a function class for each of the given types from the abstract class of a function family.
+ * <p>
+ * The generated classes extend the annotated class, and have the <code>@Description</code> of their types,
+ * so that Tajo finds them like hand-written functions. The kernel decides their parameters and the code of
+ * <code>eval()</code> and <code>evalBatch()</code>.
+ *
+ * @see SpecializationProcessor
+ */
+@Retention(RetentionPolicy.SOURCE)
+@Target(ElementType.TYPE)
+public @interface Specialize {
+  Kernel kernel();
+
+  String functionName();
+
+  String description();
+
+  String detail() default "";
+
+  /**
+   * The example of the variants which do not have their own.
+   */
+  String example() default "";
+
+  Variant[] variants();
+}
@@ -0,0 +1,309 @@
+/**
+ * Licensed to the Apache Software Foundation (ASF) under one
+ * or more contributor license agreements.  See the NOTICE file
+ * distributed with this work for additional information
+ * regarding copyright ownership.  The ASF licenses this file
+ * to you under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance
+ * with the License.  You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package org.apache.tajo.engine.function.vector;
+
+import org.apache.tajo.common.TajoDataTypes;
+import org.apache.tajo.datum.Datum;
+import org.apache.tajo.datum.DatumFactory;
+import org.apache.tajo.datum.NullDatum;
+
+import java.util.Arrays;
+
+/**
+ * A batch of values of one column.
+ * <p>
+ * Values are kept in a primitive array chosen by {@link Storage}: integral, boolean and date/time
+ * values in {@link #longs}, floating point values in {@link #doubles}, and text and binary values in
+ * {@link #bytes}. DATE values are julian days, and TIME and TIMESTAMP values are microseconds.
+ * Null rows are marked in the bitmap {@link #nulls}; the value of a null row is undefined.
+ * <p>
+ * The arrays are exposed as fields, so that {@link VectorizedFunction} implementations can run tight loops on them.
+ */
+public class ColumnVector {
+  public enum Storage {
+    LONG,
+    DOUBLE,
+    BYTES
+  }
+
+  private final TajoDataTypes.Type type;
+  private final Storage storage;
+  private final int capacity;
+
+  public final long[] longs;
+  public final double[] doubles;
+  public final byte[][] bytes;
+  // bit (row % 64) of nulls[row / 64] is set if the row is null
+  public final long[] nulls;
+
+  public ColumnVector(TajoDataTypes.Type type, int capacity) {
+    this.type = type;
+    this.storage = storageOf(type);
+    this.capacity = capacity;
+    this.longs = storage == Storage.LONG ? new long[capacity] : null;
+    this.doubles = storage == Storage.DOUBLE ? new double[capacity] : null;
+    this.bytes = storage == Storage.BYTES ? new byte[capacity][] : null;
+    this.nulls = new long[(capacity + 63) >>> 6];
+  }
+
+  public static Storage storageOf(TajoDataTypes.Type type) {
+    switch (type) {
+    case BOOLEAN:
+    case INT2:
+    case INT4:
+    case INT8:
+    case DATE:
+    case TIME:
+    case TIMESTAMP:
+      return Storage.LONG;
+    case FLOAT4:
+    case FLOAT8:
+      return Storage.DOUBLE;
+    case TEXT:
+    case BLOB:
+      return Storage.BYTES;
+    default:
+      throw new IllegalArgumentException("Unsupported type for column vectors: " + type);
+    }
+  }
+
+  public TajoDataTypes.Type type() {
+    return type;
+  }
+
+  public Storage storage() {
+    return storage;
+  }
+
+  public int capacity() {
+    return capacity;
+  }
+
+  public boolean isNull(int row) {
+    return (nulls[row >>> 6] & (1L << row)) != 0;
+  }
+
+  public void setNull(int row) {
+    nulls[row >>> 6] |= 1L << row;
+  }
+
+  public void setNotNull(int row) {
+    nulls[row >>> 6] &= ~(1L << row);
+  }
+
+  public void setNull(int row, boolean isNull) {
+    if (isNull) {
+      setNull(row);
+    } else {
+      setNotNull(row);
+    }
+  }
+
+  /**
+   * Returns true if no row is null.
+   */
+  public boolean noNulls() {
+    for (long word : nulls) {
+      if (word != 0) {
+        return false;
+      }
+    }
+    return true;
+  }
+
+  public void clearNulls() {
+    Arrays.fill(nulls, 0);
+  }
+
+  /**
+   * Copies the value and the null flag of a row of <code>src</code>, which must have the same storage.
+   */
+  public void copyRow(ColumnVector src, int srcRow, int row) {
+    setNull(row, src.isNull(srcRow));
+    switch (storage) {
+    case LONG:
+      longs[row] = src.longs[srcRow];
+      break;
+    case DOUBLE:
+      doubles[row] = src.doubles[srcRow];
+      break;
+    default:
+      bytes[row] = src.bytes[srcRow];
+    }
+  }
+
+  public Datum getDatum(int row) {
+    if (isNull(row)) {
+      return NullDatum.get();
+    }
+
+    switch (type) {
+    case BOOLEAN:
+      return DatumFactory.createBool(longs[row] != 0);
+    case INT2:
+      return DatumFactory.createInt2((short) longs[row]);
+    case INT4:
+      return DatumFactory.createInt4((int) longs[row]);
+    case INT8:
+      return DatumFactory.createInt8(longs[row]);
+    case DATE:
+      return DatumFactory.createDate((int) longs[row]);
+    case TIME:
+      return DatumFactory.createTime(longs[row]);
+    case TIMESTAMP:
+      return DatumFactory.createTimestamp(longs[row]);
+    case FLOAT4:
+      return DatumFactory.createFloat4((float) doubles[row]);
+    case FLOAT8:
+      return DatumFactory.createFloat8(doubles[row]);
+    case TEXT:
+      return DatumFactory.createText(bytes[row]);
+    default:
+      return DatumFactory.createBlob(bytes[row]);
+    }
+  }
+
+  public void setDatum(int row, Datum datum) {
+    if (datum == null || datum.isNull()) {
+      setNull(row);
+      return;
+    }
+
+    setNotNull(row);
+    switch (type) {
+    case BOOLEAN:
+      longs[row] = datum.asBool() ? 1 : 0;
+      break;
+    case INT2:
+    case INT4:
+    case DATE:
+      longs[row] = datum.asInt4();
+      break;
+    case INT8:
+    case TIME:
+    case TIMESTAMP:
+      longs[row] = datum.asInt8();
+      break;
+    case FLOAT4:
+    case FLOAT8:
+      doubles[row] = datum.asFloat8();
+      break;
+    default:
+      bytes[row] = datum.asByteArray();
+    }
+  }
+
+  /**
+   * Copies the values and the null flags of the given rows of <code>src</code>, which must have the same storage.
+   */
+  public void copyFrom(ColumnVector src, int[] selected, int count) {
+    if (selected != null) {
+      for (int i = 0; i < count; i++) {
+        copyRow(src, selected[i], selected[i]);
+      }
+      return;
+    }
+
+    switch (storage) {
+    case LONG:
+      System.arraycopy(src.longs, 0, longs, 0, count);
+      break;
+    case DOUBLE:
+      System.arraycopy(src.doubles, 0, doubles, 0, count);
+      break;
+    default:
+      System.arraycopy(src.bytes, 0, bytes, 0, count);
+    }
+    copyNulls(src, null, count);
+  }
+
+  /**
+   * Copies the null flags of the given rows of <code>src</code>.
+   */
+  public void copyNulls(ColumnVector src, int[] selected, int count) {
+    if (selected != null) {
+      for (int i = 0; i < count; i++) {
+        setNull(selected[i], src.isNull(selected[i]));
+      }
+      return;
+    }
+
+    int words = count >>> 6;
+    System.arraycopy(src.nulls, 0, nulls, 0, words);
+    if ((count & 63) != 0) {
+      long mask = tailMask(count);
+      nulls[words] = (nulls[words] & ~mask) | (src.nulls[words] & mask);
+    }
+  }
+
+  /**
+   * Marks the given rows as null if they are null in <code>src</code>.
+   */
+  public void orNulls(ColumnVector src, int[] selected, int count) {
+    if (selected != null) {
+      for (int i = 0; i < count; i++) {
+        if (src.isNull(selected[i])) {
+          setNull(selected[i]);
+        }
+      }
+      return;
+    }
+
+    int words = count >>> 6;
+    for (int i = 0; i < words; i++) {
+      nulls[i] |= src.nulls[i];
+    }
+    if ((count & 63) != 0) {
+      nulls[words] |= src.nulls[words] & tailMask(count);
+    }
+  }
+
+  /**
+   * Replaces the given rows which are null with the rows of <code>src</code>, which must have the same storage.
+   */
+  public void fillNulls(ColumnVector src, int[] selected, int count) {
+    if (selected != null) {
+      for (int i = 0; i < count; i++) {
+        if (isNull(selected[i])) {
+          copyRow(src, selected[i], selected[i]);
+        }
+      }
+      return;
+    }
+
+    int words = (count + 63) >>> 6;
+    for (int i = 0; i < words; i++) {
+      long word = nulls[i];
+      if (i == words - 1 && (count & 63) != 0) {
+        word &= tailMask(count);
+      }
+      // only the null rows are visited, so that sparse nulls cost little
+      while (word != 0) {
+        int row = (i << 6) + Long.numberOfTrailingZeros(word);
+        copyRow(src, row, row);
+        word &= word - 1;
+      }
+    }
+  }
+
+  // the bits of the rows below count in the last word
+  private static long tailMask(int count) {
+    return (1L << count) - 1;
+  }
+}
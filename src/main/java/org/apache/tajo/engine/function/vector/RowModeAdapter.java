@@ -0,0 +1,60 @@
+/**
+ * Licensed to the Apache Software Foundation (ASF) under one
+ * or more contributor license agreements.  See the NOTICE file
+ * distributed with this work for additional information
+ * regarding copyright ownership.  The ASF licenses this file
+ * to you under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance
+ * with the License.  You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package org.apache.tajo.engine.function.vector;
+
+import org.apache.tajo.plan.function.GeneralFunction;
+import org.apache.tajo.storage.Tuple;
+import org.apache.tajo.storage.VTuple;
+
+/**
+ * Evaluates a function which does not implement {@link VectorizedFunction} row by row.
+ */
+public class RowModeAdapter implements VectorizedFunction {
+  private final GeneralFunction function;
+  private Tuple params;
+
+  public RowModeAdapter(GeneralFunction function) {
+    this.function = function;
+  }
+
+  /**
+   * Returns the function itself if it implements {@link VectorizedFunction}, or an adapter.
+   */
+  public static VectorizedFunction vectorize(GeneralFunction function) {
+    if (function instanceof VectorizedFunction) {
+      return (VectorizedFunction) function;
+    }
+    return new RowModeAdapter(function);
+  }
+
+  @Override
+  public void evalBatch(ColumnVector[] args, int[] selected, int count, ColumnVector out) {
+    if (params == null || params.size() != args.length) {
+      params = new VTuple(args.length);
+    }
+
+    for (int i = 0; i < count; i++) {
+      int row = selected == null ? i : selected[i];
+      for (int arg = 0; arg < args.length; arg++) {
+        params.put(arg, args[arg].getDatum(row));
+      }
+      out.setDatum(row, function.eval(params));
+    }
+  }
+}
@@ -0,0 +1,40 @@
+/**
+ * Licensed to the Apache Software Foundation (ASF) under one
+ * or more contributor license agreements.  See the NOTICE file
+ * distributed with this work for additional information
+ * regarding copyright ownership.  The ASF licenses this file
+ * to you under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance
+ * with the License.  You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package org.apache.tajo.engine.function.vector;
+
+/**
+ * A function which can evaluate a batch of rows at once, in addition to the row-at-a-time
+ * {@link org.apache.tajo.plan.function.GeneralFunction#eval(org.apache.tajo.storage.Tuple)}.
+ * <p>
+ * Implementations must produce the same results as their row-at-a-time evaluation.
+ * Use {@link RowModeAdapter#vectorize(org.apache.tajo.plan.function.GeneralFunction)} to evaluate
+ * any function in batches.
+ */
+public interface VectorizedFunction {
+  /**
+   * Evaluates rows of the arguments and writes each result into the same row of <code>out</code>.
+   *
+   * @param args a vector per argument
+   * @param selected indexes of the rows to evaluate in ascending order, or null to evaluate rows
+   *                 from 0 to <code>count - 1</code>
+   * @param count the number of rows to evaluate
+   * @param out the vector for results. Rows which are not evaluated are left as they are.
+   */
+  void evalBatch(ColumnVector[] args, int[] selected, int count, ColumnVector out);
+}
@@ -20,10 +20,9 @@ package org.apache.tajo.engine.function;
 
 import java.io.File;
 import java.io.IOException;
-import java.lang.reflect.Modifier;
 import java.util.*;
+import java.util.regex.Pattern;
 
-import com.google.common.collect.Lists;
 import org.apache.tajo.LocalTajoTestingUtility;
 import org.apache.tajo.OverridableConf;
 import org.apache.tajo.SessionVars;
@@ -38,7 +37,6 @@ import org.apache.tajo.catalog.TableDesc;
 import org.apache.tajo.cli.tsql.InvalidStatementException;
 import org.apache.tajo.cli.tsql.ParsedResult;
 import org.apache.tajo.cli.tsql.SimpleParser;
-import org.apache.tajo.common.TajoDataTypes;
 import org.apache.tajo.common.TajoDataTypes.Type;
 import org.apache.tajo.conf.TajoConf;
 import org.apache.tajo.datum.CharDatum;
@@ -50,14 +48,11 @@ import org.apache.tajo.datum.TimestampDatum;
 import org.apache.tajo.engine.codegen.EvalCodeGenerator;
 import org.apache.tajo.engine.codegen.TajoClassLoader;
 import org.apache.tajo.engine.function.FunctionLoader;
-import org.apache.tajo.engine.function.annotation.Description;
-import org.apache.tajo.engine.function.annotation.ParamOptionTypes;
-import org.apache.tajo.engine.function.annotation.ParamTypes;
+import org.apache.tajo.engine.function.index.FunctionIndex;
 import org.apache.tajo.engine.json.CoreGsonHelper;
 import org.apache.tajo.engine.query.QueryContext;
 import org.apache.tajo.exception.TajoException;
 import org.apache.tajo.exception.TajoInternalError;
-import org.apache.tajo.function.Function;
 import org.apache.tajo.function.FunctionSignature;
 import org.apache.tajo.master.exec.QueryExecutor;
 import org.apache.tajo.parser.sql.SQLAnalyzer;
@@ -75,9 +70,9 @@ import org.apache.tajo.plan.verifier.PreLogicalPlanVerifier;
 import org.apache.tajo.plan.verifier.VerificationState;
 import org.apache.tajo.storage.LazyTuple;
 import org.apache.tajo.storage.TablespaceManager;
+import org.apache.tajo.storage.Tuple;
 import org.apache.tajo.storage.VTuple;
 import org.apache.tajo.util.BytesUtils;
-import org.apache.tajo.util.ClassUtil;
 import org.apache.tajo.util.CommonTestingUtil;
 import org.apache.tajo.util.KeyValueSet;
 import org.apache.tajo.util.datetime.DateTimeUtil;
@@ -94,6 +89,7 @@ public class ExprTest {
   private static LogicalPlanner planner;
   private static LogicalOptimizer optimizer;
   private static LogicalPlanVerifier annotatedPlanVerifier;
+  private static final Pattern SYSDATE_CALL = Pattern.compile("\\bsysdate\\s*\\(", Pattern.CASE_INSENSITIVE);
 
   public static String getUserTimeZoneDisplay(TimeZone tz) {
     return DateTimeUtil.getTimeZoneDisplayTime(tz);
@@ -110,16 +106,25 @@ public class ExprTest {
     cat = util.getCatalogService();
     cat.createTablespace("default", "hdfs://localhost:1234/warehouse");
     cat.createDatabase("default", "default");
+    List<FunctionDesc> udfs = findUDFs();
+    Set<Class> indexed = new HashSet<Class>();
+    for (FunctionDesc funcDesc : udfs) {
+      indexed.add(funcDesc.getLegacyFuncClass());
+    }
+
     Map map = FunctionLoader.load();
     map = FunctionLoader.loadUserDefinedFunctions(conf, map);
     Iterator var1 = map.values().iterator();
 
     while(var1.hasNext()) {
       FunctionDesc funcDesc = (FunctionDesc)var1.next();
-      cat.createFunction(funcDesc);
+      // the functions of this project are registered from the index
+      if (!indexed.contains(funcDesc.getLegacyFuncClass())) {
+        cat.createFunction(funcDesc);
+      }
     }
 
-    for (FunctionDesc funcDesc : findUDFs()) {
+    for (FunctionDesc funcDesc : udfs) {
       cat.createFunction(funcDesc);
     }
 
@@ -136,81 +141,12 @@ public class ExprTest {
   }
 
   /**
-   * This method finds and build FunctionDesc for the legacy function and UD(A)F system.
+   * Returns the functions of this project listed in the index which is generated at build time.
    *
    * @return A list of FunctionDescs
    */
-  public static List<FunctionDesc> findUDFs() {
-    List<FunctionDesc> sqlFuncs = Lists.newArrayList();
-
-    Set<Class> functionClasses = ClassUtil.findClasses(Function.class, "com.blrunner.tajo.udf");
-
-    for (Class eachClass : functionClasses) {
-      if(eachClass.isInterface() || Modifier.isAbstract(eachClass.getModifiers())) {
-        continue;
-      }
-      Function function = null;
-      try {
-        function = (Function)eachClass.newInstance();
-      } catch (Exception e) {
-//        LOG.warn(eachClass + " cannot instantiate Function class because of " + e.getMessage(), e);
-        continue;
-      }
-      String functionName = function.getClass().getAnnotation(Description.class).functionName();
-      String[] synonyms = function.getClass().getAnnotation(Description.class).synonyms();
-      String description = function.getClass().getAnnotation(Description.class).description();
-      String detail = function.getClass().getAnnotation(Description.class).detail();
-      String example = function.getClass().getAnnotation(Description.class).example();
-      TajoDataTypes.Type returnType = function.getClass().getAnnotation(Description.class).returnType();
-      ParamTypes[] paramArray = function.getClass().getAnnotation(Description.class).paramTypes();
-
-      String[] allFunctionNames = null;
-      if(synonyms != null && synonyms.length > 0) {
-        allFunctionNames = new String[1 + synonyms.length];
-        allFunctionNames[0] = functionName;
-        System.arraycopy(synonyms, 0, allFunctionNames, 1, synonyms.length);
-      } else {
-        allFunctionNames = new String[]{functionName};
-      }
-
-      for(String eachFunctionName: allFunctionNames) {
-        for (ParamTypes params : paramArray) {
-          ParamOptionTypes[] paramOptionArray;
-          if(params.paramOptionTypes() == null ||
-            params.paramOptionTypes().getClass().getAnnotation(ParamTypes.class) == null) {
-            paramOptionArray = new ParamOptionTypes[0];
-          } else {
-            paramOptionArray = params.paramOptionTypes().getClass().getAnnotation(ParamTypes.class).paramOptionTypes();
-          }
-
-          TajoDataTypes.Type[] paramTypes = params.paramTypes();
-          if (paramOptionArray.length > 0)
-            paramTypes = params.paramTypes().clone();
-
-          for (int i=0; i < paramOptionArray.length + 1; i++) {
-            FunctionDesc functionDesc = new FunctionDesc(eachFunctionName,
-              function.getClass(), function.getFunctionType(),
-              CatalogUtil.newSimpleDataType(returnType),
-              paramTypes.length == 0 ? CatalogUtil.newSimpleDataTypeArray() : CatalogUtil.newSimpleDataTypeArray(paramTypes));
-
-            functionDesc.setDescription(description);
-            functionDesc.setExample(example);
-            functionDesc.setDetail(detail);
-            sqlFuncs.add(functionDesc);
-
-            if (i != paramOptionArray.length) {
-              paramTypes = new TajoDataTypes.Type[paramTypes.length +
-                paramOptionArray[i].paramOptionTypes().length];
-              System.arraycopy(params.paramTypes(), 0, paramTypes, 0, paramTypes.length);
-              System.arraycopy(paramOptionArray[i].paramOptionTypes(), 0, paramTypes, paramTypes.length,
-                paramOptionArray[i].paramOptionTypes().length);
-            }
-          }
-        }
-      }
-    }
-
-    return sqlFuncs;
+  public static List<FunctionDesc> findUDFs() throws IOException {
+    return FunctionIndex.load();
   }
 
   private static void assertJsonSerDer(EvalNode expr) {
@@ -223,6 +159,34 @@ public class ExprTest {
     return new TajoConf(conf);
   }
 
+  /**
+   * Plans a query over an empty table with the logical optimizer configured by the given configuration,
+   * so that the rewrite rules it provides are applied.
+   *
+   * @return The optimized plan
+   */
+  public static LogicalPlan createPlan(TajoConf conf, Schema schema, String tableName, String query)
+    throws TajoException {
+    QueryContext queryContext = LocalTajoTestingUtility.createDummyContext(conf);
+    String qualifiedTableName = CatalogUtil.buildFQName("default", CatalogUtil.normalizeIdentifier(tableName));
+    Schema inputSchema = SchemaUtil.clone(schema);
+    inputSchema.setQualifier(qualifiedTableName);
+    try {
+      cat.createTable(new TableDesc(qualifiedTableName, inputSchema, "TEXT", new KeyValueSet(),
+        CommonTestingUtil.getTestDir().toUri()));
+    } catch (IOException e) {
+      throw new TajoInternalError(e);
+    }
+
+    try {
+      LogicalPlan plan = planner.createPlan(queryContext, analyzer.parse(query), true);
+      new LogicalOptimizer(conf, cat, TablespaceManager.getInstance()).optimize(queryContext, plan);
+      return plan;
+    } finally {
+      cat.dropTable(qualifiedTableName);
+    }
+  }
+
   private static Target[] getRawTargets(QueryContext context, String query, boolean condition) throws TajoException, InvalidStatementException {
     List parsedResults = SimpleParser.parseScript(query);
     if(parsedResults.size() > 1) {
@@ -322,6 +286,11 @@ public class ExprTest {
       queryContext = LocalTajoTestingUtility.createDummyContext(conf);
       queryContext.putAll(context);
     }
+    if (!queryContext.containsKey(FunctionSessionVars.SYSDATE_TIMESTAMP) && SYSDATE_CALL.matcher(query).find()) {
+      // sysdate() otherwise takes the time when each copy of it is initialized, and the interpreted and
+      // the compiled evaluation below must see the same time
+      queryContext.set(FunctionSessionVars.SYSDATE_TIMESTAMP, String.valueOf(System.currentTimeMillis()));
+    }
 
     String timezoneId = queryContext.get(SessionVars.TIMEZONE);
     TimeZone timeZone = TimeZone.getTimeZone(timezoneId);
@@ -365,23 +334,22 @@ public class ExprTest {
 
     try {
       Target[] var36 = getRawTargets(queryContext, query, condition);
-      EvalCodeGenerator var41 = null;
-      if(queryContext.getBool(SessionVars.CODEGEN)) {
-        var41 = new EvalCodeGenerator(var37);
-      }
+      EvalCodeGenerator var41 = new EvalCodeGenerator(var37);
 
       QueryExecutor.startScriptExecutors(queryContext, var39, var36);
       VTuple var40 = new VTuple(var36.length);
+      VTuple compiledTuple = new VTuple(var36.length);
 
       int i;
       for(i = 0; i < var36.length; ++i) {
         EvalNode outTupleAsChars = var36[i].getEvalTree();
-        if(queryContext.getBool(SessionVars.CODEGEN)) {
-          outTupleAsChars = var41.compile(inputSchema, outTupleAsChars);
-        }
+        // every expression is also evaluated by compiled code, which must return the same result
+        EvalNode compiled = var41.compile(inputSchema, (EvalNode) outTupleAsChars.clone());
 
         outTupleAsChars.bind(var39, inputSchema);
         var40.put(i, outTupleAsChars.eval(vtuple));
+        compiled.bind(var39, inputSchema);
+        compiledTuple.put(i, compiled.eval(vtuple));
       }
 
       try {
@@ -390,20 +358,17 @@ public class ExprTest {
         var30.printStackTrace();
       }
 
-      for(i = 0; i < expected.length; ++i) {
-        String var42;
-        if(var40.type(i) == Type.TIMESTAMP) {
-          var42 = TimestampDatum.asChars(var40.getTimeDate(i), timeZone, false);
-        } else if(var40.type(i) == Type.TIME) {
-          var42 = TimeDatum.asChars(var40.getTimeDate(i), timeZone, false);
-        } else {
-          var42 = var40.getText(i);
-        }
+      for(i = 0; i < var36.length; ++i) {
+        Assert.assertEquals("codegen: " + query, toChars(var40, i, timeZone), toChars(compiledTuple, i, timeZone));
+      }
 
-        Assert.assertEquals(query, expected[i], var42);
+      for(i = 0; i < expected.length; ++i) {
+        Assert.assertEquals(query, expected[i], toChars(var40, i, timeZone));
       }
     } catch (IOException var32) {
       throw new TajoInternalError(var32);
+    } catch (CloneNotSupportedException e) {
+      throw new TajoInternalError(e);
     } catch (InvalidStatementException var33) {
       Assert.assertFalse(var33.getMessage(), true);
     } catch (TajoException var34) {
@@ -421,6 +386,16 @@ public class ExprTest {
     }
   }
 
+  private static String toChars(Tuple tuple, int i, TimeZone timeZone) {
+    if(tuple.type(i) == Type.TIMESTAMP) {
+      return TimestampDatum.asChars(tuple.getTimeDate(i), timeZone, false);
+    } else if(tuple.type(i) == Type.TIME) {
+      return TimeDatum.asChars(tuple.getTimeDate(i), timeZone, false);
+    } else {
+      return tuple.getText(i);
+    }
+  }
+
   public static void assertEvalTreeProtoSerDer(OverridableConf context, EvalNode evalNode) {
     EvalNodeTree converted = EvalNodeSerializer.serialize(evalNode);
     Assert.assertEquals(evalNode, EvalNodeDeserializer.deserialize(context, (EvalContext)null, converted));
@@ -0,0 +1,108 @@
+/**
+ * Licensed to the Apache Software Foundation (ASF) under one
+ * or more contributor license agreements.  See the NOTICE file
+ * distributed with this work for additional information
+ * regarding copyright ownership.  The ASF licenses this file
+ * to you under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance
+ * with the License.  You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package org.apache.tajo.engine.function;
+
+import org.apache.tajo.util.datetime.DateTimeFormat;
+import org.apache.tajo.util.datetime.TimeMeta;
+import org.junit.Test;
+
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayList;
+import java.util.List;
+
+import static org.junit.Assert.assertEquals;
+
+public class TestDateFormatProgram {
+  // all keywords of DateTimeFormat
+  private static final String[] KEYWORDS = {
+    "A.D.", "A.M.", "AD", "AM", "B.C.", "BC", "CC", "DAY", "DDD", "DD", "DY", "D", "FX", "HH24", "HH12", "HH",
+    "IDDD", "ID", "IW", "IYYY", "IYY", "IY", "I", "J", "MI", "MM", "MONTH", "MON", "MS", "P.M.", "PM", "Q", "RM",
+    "SSSS", "SS", "TZ", "US", "WW", "W", "Y,YYY", "YYYY", "YYY", "YY", "Y"
+  };
+
+  // year, month, day, hours, minutes, seconds, microseconds
+  private static final int[][] TIMES = {
+    {2016, 3, 9, 17, 5, 7, 123456},
+    {2016, 2, 29, 0, 0, 0, 0},
+    {2016, 1, 1, 11, 59, 59, 999999},
+    {2015, 12, 31, 12, 0, 1, 1000},
+    {2018, 12, 31, 23, 30, 0, 500},
+    {2009, 1, 4, 6, 7, 8, 90},
+    {1999, 9, 19, 21, 1, 2, 3}
+  };
+
+  @Test
+  public void testSameAsToChar() {
+    for (String pattern : patterns()) {
+      for (int[] time : TIMES) {
+        assertEquals(pattern + " at " + time[0] + "-" + time[1] + "-" + time[2],
+          DateTimeFormat.to_char(timeMeta(time), pattern), format(pattern, timeMeta(time)));
+      }
+    }
+  }
+
+  @Test
+  public void testCaseOfNames() {
+    TimeMeta tm = timeMeta(TIMES[0]);
+    assertEquals("PM pm P.M. p.m.", format("AM am A.M. a.m.", tm));
+    assertEquals("III iii", format("RM rm", tm));
+    assertEquals("MARCH March march MAR Mar mar", format("MONTH Month month MON Mon mon", tm));
+    assertEquals("WED Wed wed", format("DY Dy dy", tm));
+  }
+
+  private static List<String> patterns() {
+    List<String> patterns = new ArrayList<String>();
+    for (String keyword : KEYWORDS) {
+      String lower = keyword.toLowerCase();
+      String capitalized = keyword.charAt(0) + lower.substring(1);
+      for (String written : new String[]{keyword, lower, capitalized}) {
+        patterns.add(written);
+        patterns.add("FM" + written);
+        patterns.add("fm" + written);
+        patterns.add(written + "TH");
+        patterns.add(written + "th");
+        patterns.add("TM" + written);
+        patterns.add("[" + written + "]");
+      }
+    }
+    patterns.add("YYYY-MM-DD HH24:MI:SS.US");
+    patterns.add("FMDay, FMDD Month YYYY HH12:MI:SS AM");
+    patterns.add("yyyy-MM-dd");
+    patterns.add("\"Quarter\" Q, \"week\" WW");
+    patterns.add("IYYY-IW-ID");
+    patterns.add("Time: HH24");
+    return patterns;
+  }
+
+  private static TimeMeta timeMeta(int[] time) {
+    TimeMeta tm = new TimeMeta();
+    DateArithmetic.toTimeMeta(DateArithmetic.date2j(time[0], time[1], time[2]), tm);
+    tm.hours = time[3];
+    tm.minutes = time[4];
+    tm.secs = time[5];
+    tm.fsecs = time[6];
+    return tm;
+  }
+
+  private static String format(String pattern, TimeMeta tm) {
+    DateFormatProgram.Buffer buffer = new DateFormatProgram.Buffer();
+    DateFormatProgram.of(pattern).format(tm, buffer);
+    return new String(buffer.toByteArray(), StandardCharsets.UTF_8);
+  }
+}
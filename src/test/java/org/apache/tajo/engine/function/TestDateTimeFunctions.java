@@ -19,13 +19,29 @@
 package org.apache.tajo.engine.function;
 
 import org.apache.tajo.SessionVars;
+import org.apache.tajo.datum.Datum;
+import org.apache.tajo.datum.DatumFactory;
 import org.apache.tajo.engine.query.QueryContext;
 import org.apache.tajo.exception.TajoException;
+import org.apache.tajo.storage.VTuple;
 import org.junit.Test;
 
 import java.text.SimpleDateFormat;
+import java.util.ArrayList;
+import java.util.Calendar;
 import java.util.Date;
+import java.util.GregorianCalendar;
+import java.util.List;
+import java.util.Random;
 import java.util.TimeZone;
+import java.util.concurrent.Callable;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertSame;
+import static org.junit.Assert.assertTrue;
 
 public class TestDateTimeFunctions extends ExprTest {
 
@@ -55,6 +71,59 @@ public class TestDateTimeFunctions extends ExprTest {
     }
   }
 
+  @Test
+  public void testSysDateTimestamp() throws TajoException {
+    QueryContext context = new QueryContext(getConf());
+    context.put(SessionVars.TIMEZONE, "GMT-6");
+    // 2016-04-01 00:00:00 GMT
+    context.set(FunctionSessionVars.SYSDATE_TIMESTAMP, "1459468800000");
+
+    testSimpleEval(context, "select sysdate();", new String[]{"2016-03-31 18:00:00"});
+    testSimpleEval(context, "select sysdate('YYYY-MM-DD HH24:MI');", new String[]{"2016-03-31 18:00"});
+    testSimpleEval(context, "select sysdate('yyyy-MM-dd', 1);", new String[]{"2016-04-01"});
+  }
+
+  @Test
+  public void testSysDateWithoutTimestamp() throws Exception {
+    QueryContext context = new QueryContext(getConf());
+    context.put(SessionVars.TIMEZONE, "GMT");
+
+    // without SYSDATE_TIMESTAMP, sysdate() is the time when the function is initialized
+    long before = System.currentTimeMillis() / 1000 * 1000;
+    SysDate sysDate = new SysDate();
+    sysDate.init(context, null);
+    long after = System.currentTimeMillis();
+
+    String value = sysDate.eval(new VTuple(new Datum[0])).asChars();
+    SimpleDateFormat format = new SimpleDateFormat("yyyy-MM-dd HH:mm:ss");
+    format.setTimeZone(TimeZone.getTimeZone("GMT"));
+    long time = format.parse(value).getTime();
+    assertTrue(value, before <= time && time <= after);
+
+    Thread.sleep(1100);
+    assertEquals(value, sysDate.eval(new VTuple(new Datum[0])).asChars());
+  }
+
+  @Test
+  public void testSysDateWithVaryingArguments() {
+    QueryContext context = new QueryContext(getConf());
+    context.put(SessionVars.TIMEZONE, "GMT");
+    // 2016-04-01 10:20:30 GMT
+    context.set(FunctionSessionVars.SYSDATE_TIMESTAMP, "1459506030000");
+
+    SysDate sysDate = new SysDate();
+    sysDate.init(context, null);
+
+    Datum pattern = DatumFactory.createText("yyyy-MM-dd");
+    for (int round = 0; round < 2; round++) {
+      assertEquals("2016-04-01", sysDate.eval(new VTuple(new Datum[]{pattern})).asChars());
+      assertEquals("2016-04-02", sysDate.eval(new VTuple(new Datum[]{pattern, DatumFactory.createInt4(1)})).asChars());
+      assertEquals("2016-03-01", sysDate.eval(new VTuple(new Datum[]{pattern, DatumFactory.createInt4(-31)})).asChars());
+      assertEquals("2017-04-01 10:20", sysDate.eval(new VTuple(new Datum[]{
+        DatumFactory.createText("YYYY-MM-DD HH24:MI"), DatumFactory.createInt4(365)})).asChars());
+    }
+  }
+
   @Test
   public void testLastDay() throws TajoException {
     TimeZone originalTimezone = TimeZone.getDefault();
@@ -68,11 +137,201 @@ public class TestDateTimeFunctions extends ExprTest {
       testSimpleEval(context, "select last_day(cast('2009-02-18 15:45:53' as date));", new String[]{"2009-02-28"});
       testSimpleEval(context, "select last_day(cast('1997-06-15 15:45:53' as date));", new String[]{"1997-06-30"});
       testSimpleEval(context, "select last_day(cast('2016-10-15 17:10:00' as date));", new String[]{"2016-10-31"});
+      testSimpleEval(context, "select last_day(cast('2016-03-01' as date));", new String[]{"2016-03-31"});
+      testSimpleEval(context, "select last_day(cast('2016-02-01' as date));", new String[]{"2016-02-29"});
+      testSimpleEval(context, "select last_day(cast('2000-02-10' as date));", new String[]{"2000-02-29"});
+      testSimpleEval(context, "select last_day(cast('1900-02-10' as date));", new String[]{"1900-02-28"});
+      testSimpleEval(context, "select last_day(cast('2016-12-31' as date));", new String[]{"2016-12-31"});
+      testSimpleEval(context, "select last_day(cast(null as date));", new String[]{""});
     } finally {
       TimeZone.setDefault(originalTimezone);
     }
   }
 
+  @Test
+  public void testLastDayOutOfTable() throws TajoException {
+    testSimpleEval("select last_day(cast('1899-12-15' as date));", new String[]{"1899-12-31"});
+    testSimpleEval("select last_day(cast('1900-01-01' as date));", new String[]{"1900-01-31"});
+    testSimpleEval("select last_day(cast('2100-12-31' as date));", new String[]{"2100-12-31"});
+    testSimpleEval("select last_day(cast('2101-02-01' as date));", new String[]{"2101-02-28"});
+
+    int julianDay = DatumFactory.createDate(2016, 2, 3).asInt4();
+    assertSame(LastDay.lastDayOfMonth(julianDay), LastDay.lastDayOfMonth(julianDay + 10));
+  }
+
+  @Test
+  public void testLastDayConcurrently() throws Exception {
+    final LastDay lastDay = new LastDay();
+    lastDay.init(new QueryContext(getConf()), null);
+
+    ExecutorService executor = Executors.newFixedThreadPool(8);
+    try {
+      List<Future<Integer>> futures = new ArrayList<Future<Integer>>();
+      for (int i = 0; i < 8; i++) {
+        final long seed = i;
+        futures.add(executor.submit(new Callable<Integer>() {
+          @Override
+          public Integer call() {
+            Random random = new Random(seed);
+            Calendar calendar = new GregorianCalendar(TimeZone.getTimeZone("GMT"));
+            int mismatches = 0;
+            for (int j = 0; j < 20000; j++) {
+              int year = 1800 + random.nextInt(400);
+              int month = 1 + random.nextInt(12);
+              calendar.clear();
+              calendar.set(year, month - 1, 1);
+              int lastDate = calendar.getActualMaximum(Calendar.DATE);
+              int day = 1 + random.nextInt(lastDate);
+
+              Datum result = lastDay.eval(new VTuple(new Datum[]{DatumFactory.createDate(year, month, day)}));
+              if (!DatumFactory.createDate(year, month, lastDate).equals(result)) {
+                mismatches++;
+              }
+            }
+            return mismatches;
+          }
+        }));
+      }
+      for (Future<Integer> future : futures) {
+        assertEquals(0, future.get().intValue());
+      }
+    } finally {
+      executor.shutdownNow();
+    }
+  }
+
+  @Test
+  public void testOracleAddMonths() throws TajoException {
+    testSimpleEval("select oracle_add_months(cast('2016-01-15' as date), 1);", new String[]{"2016-02-15"});
+    testSimpleEval("select oracle_add_months(cast('2016-01-31' as date), 1);", new String[]{"2016-02-29"});
+    testSimpleEval("select oracle_add_months(cast('2016-02-29' as date), 1);", new String[]{"2016-03-31"});
+    testSimpleEval("select oracle_add_months(cast('2016-01-15' as date), -13);", new String[]{"2014-12-15"});
+    testSimpleEval("select oracle_add_months(cast('2016-01-15' as date), null);", new String[]{""});
+  }
+
+  @Test
+  public void testMonthsBetween() throws TajoException {
+    testSimpleEval("select months_between(cast('1995-02-02' as date), cast('1995-01-01' as date));",
+      new String[]{"1.032258064516129"});
+    testSimpleEval("select months_between(cast('2016-02-29' as date), cast('2016-01-31' as date));",
+      new String[]{"1.0"});
+    testSimpleEval("select months_between(cast('2016-01-15' as date), cast('2016-04-15' as date));",
+      new String[]{"-3.0"});
+    testSimpleEval("select months_between(null, cast('2016-04-15' as date));", new String[]{""});
+  }
+
+  @Test
+  public void testNextDay() throws TajoException {
+    testSimpleEval("select next_day(cast('2016-03-29' as date), 'FRIDAY');", new String[]{"2016-04-01"});
+    testSimpleEval("select next_day(cast('2016-04-01' as date), 'fri');", new String[]{"2016-04-08"});
+    testSimpleEval("select next_day(cast('2016-03-29' as date), 'Tuesday');", new String[]{"2016-04-05"});
+    testSimpleEval("select next_day(cast('2016-03-29' as date), null);", new String[]{""});
+  }
+
+  @Test
+  public void testTruncDate() throws TajoException {
+    testSimpleEval("select trunc(cast('2016-03-29' as date));", new String[]{"2016-03-29"});
+    testSimpleEval("select trunc(cast('2016-03-29' as date), 'CC');", new String[]{"2001-01-01"});
+    testSimpleEval("select trunc(cast('2016-03-29' as date), 'YEAR');", new String[]{"2016-01-01"});
+    testSimpleEval("select trunc(cast('2016-01-02' as date), 'IYYY');", new String[]{"2014-12-29"});
+    testSimpleEval("select trunc(cast('2016-05-16' as date), 'Q');", new String[]{"2016-04-01"});
+    testSimpleEval("select trunc(cast('2016-03-29' as date), 'mm');", new String[]{"2016-03-01"});
+    testSimpleEval("select trunc(cast('2016-03-29' as date), 'WW');", new String[]{"2016-03-25"});
+    testSimpleEval("select trunc(cast('2016-03-29' as date), 'IW');", new String[]{"2016-03-28"});
+    testSimpleEval("select trunc(cast('2016-08-14' as date), 'W');", new String[]{"2016-08-08"});
+    testSimpleEval("select trunc(cast('2016-03-29' as date), 'DAY');", new String[]{"2016-03-27"});
+  }
+
+  @Test
+  public void testRoundDate() throws TajoException {
+    testSimpleEval("select round(cast('2016-03-29' as date));", new String[]{"2016-03-29"});
+    testSimpleEval("select round(cast('1951-01-01' as date), 'CC');", new String[]{"2001-01-01"});
+    testSimpleEval("select round(cast('2016-06-30' as date), 'YEAR');", new String[]{"2016-01-01"});
+    testSimpleEval("select round(cast('2016-07-01' as date), 'YEAR');", new String[]{"2017-01-01"});
+    testSimpleEval("select round(cast('2016-05-16' as date), 'Q');", new String[]{"2016-07-01"});
+    testSimpleEval("select round(cast('2016-05-15' as date), 'Q');", new String[]{"2016-04-01"});
+    testSimpleEval("select round(cast('2016-05-16' as date), 'MONTH');", new String[]{"2016-06-01"});
+    testSimpleEval("select round(cast('2016-05-15' as date), 'IW');", new String[]{"2016-05-16"});
+    testSimpleEval("select round(cast('2016-03-29' as date), null);", new String[]{""});
+  }
+
+  @Test
+  public void testOracleToChar() throws TajoException {
+    QueryContext context = new QueryContext(getConf());
+    context.put(SessionVars.TIMEZONE, "GMT");
+
+    testSimpleEval(context, "select oracle_to_char(cast('2016-03-09 17:05:07' as timestamp), 'YYYY-MM-DD HH24:MI:SS');",
+      new String[]{"2016-03-09 17:05:07"});
+    testSimpleEval(context, "select oracle_to_char(cast('2016-03-09 17:05:07' as timestamp), 'yyyyMMdd');",
+      new String[]{"20160309"});
+    testSimpleEval(context, "select oracle_to_char(cast('2016-03-09 17:05:07' as timestamp), 'FMMonth DD, YYYY HH12 AM');",
+      new String[]{"March 09, 2016 05 PM"});
+    testSimpleEval(context, "select oracle_to_char(cast('2016-03-09' as date), 'Dy DD-MON-YY \"Q\"Q');",
+      new String[]{"Wed 09-MAR-16 Q1"});
+    testSimpleEval(context, "select oracle_to_char(cast('2016-03-09' as date), null);", new String[]{""});
+
+    context.put(SessionVars.TIMEZONE, "GMT+9");
+    testSimpleEval(context, "select oracle_to_char(cast('2016-03-09 20:00:00' as timestamp), 'YYYY-MM-DD HH24');",
+      new String[]{"2016-03-09 20"});
+  }
+
+  @Test
+  public void testOracleToDate() throws TajoException {
+    QueryContext context = new QueryContext(getConf());
+    context.put(SessionVars.TIMEZONE, "GMT");
+
+    testSimpleEval(context, "select oracle_to_date('2016-03-09 17:05:07', 'YYYY-MM-DD HH24:MI:SS');",
+      new String[]{"2016-03-09 17:05:07"});
+    testSimpleEval(context, "select oracle_to_date('20160309', 'YYYYMMDD');", new String[]{"2016-03-09 00:00:00"});
+    testSimpleEval(context, "select oracle_to_date('9 march 2016 5:05 pm', 'DD Month YYYY HH:MI AM');",
+      new String[]{"2016-03-09 17:05:00"});
+    testSimpleEval(context, "select oracle_to_date('2016 069', 'YYYY DDD');", new String[]{"2016-03-09 00:00:00"});
+    testSimpleEval(context, "select oracle_to_date(null, 'YYYYMMDD');", new String[]{""});
+  }
+
+  @Test(expected = IllegalArgumentException.class)
+  public void testOracleToDateWithInvalidDate() {
+    OracleToDate toDate = new OracleToDate();
+    toDate.init(new QueryContext(getConf()), null);
+    toDate.eval(new VTuple(new Datum[]{
+      DatumFactory.createText("2016-02-30"), DatumFactory.createText("YYYY-MM-DD")}));
+  }
+
+  @Test
+  public void testFromUtcTimestamp() throws TajoException {
+    QueryContext context = new QueryContext(getConf());
+    context.put(SessionVars.TIMEZONE, "GMT");
+
+    testSimpleEval(context, "select from_utc_timestamp(cast('2016-03-09 12:00:00' as timestamp), 'Asia/Seoul');",
+      new String[]{"2016-03-09 21:00:00"});
+    testSimpleEval(context, "select from_utc_timestamp(cast('2016-01-01 12:00:00' as timestamp), 'America/New_York');",
+      new String[]{"2016-01-01 07:00:00"});
+    testSimpleEval(context, "select from_utc_timestamp(cast('2016-07-01 12:00:00' as timestamp), 'America/New_York');",
+      new String[]{"2016-07-01 08:00:00"});
+    testSimpleEval(context, "select from_utc_timestamp(cast('1850-07-01 12:00:00' as timestamp), 'GMT+9');",
+      new String[]{"1850-07-01 21:00:00"});
+    testSimpleEval(context, "select from_utc_timestamp(cast('2016-07-01 12:00:00' as timestamp), null);",
+      new String[]{""});
+  }
+
+  @Test
+  public void testToUtcTimestamp() throws TajoException {
+    QueryContext context = new QueryContext(getConf());
+    context.put(SessionVars.TIMEZONE, "GMT");
+
+    testSimpleEval(context, "select to_utc_timestamp(cast('2016-03-09 21:00:00' as timestamp), 'Asia/Seoul');",
+      new String[]{"2016-03-09 12:00:00"});
+    testSimpleEval(context, "select to_utc_timestamp(cast('2016-07-01 08:00:00' as timestamp), 'America/New_York');",
+      new String[]{"2016-07-01 12:00:00"});
+    // skipped and repeated local times at daylight saving time transitions
+    testSimpleEval(context, "select to_utc_timestamp(cast('2016-03-13 02:30:00' as timestamp), 'America/New_York');",
+      new String[]{"2016-03-13 07:30:00"});
+    testSimpleEval(context, "select to_utc_timestamp(cast('2016-11-06 01:30:00' as timestamp), 'America/New_York');",
+      new String[]{"2016-11-06 05:30:00"});
+    testSimpleEval(context, "select to_utc_timestamp(cast('2016-10-30 02:30:00' as timestamp), 'Europe/Berlin');",
+      new String[]{"2016-10-30 00:30:00"});
+  }
+
   private String dateFormat(Date date, String format) {
     SimpleDateFormat df = new SimpleDateFormat(format);
     return df.format(date);
@@ -18,6 +18,7 @@
 
 package org.apache.tajo.engine.function;
 
+import org.apache.tajo.engine.query.QueryContext;
 import org.junit.Test;
 
 public class TestGreatest extends ExprTest {
@@ -57,5 +58,33 @@ public class TestGreatest extends ExprTest {
     testSimpleEval("select greatest('2', '5', '12', '3')", new String[]{"5"});
     testSimpleEval("select greatest('tajo');", new String[]{"tajo"});
     testSimpleEval("select greatest('apples', 'oranges', 'bananas');", new String[]{"oranges"});
+    testSimpleEval("select greatest('z', '가', 'ä');", new String[]{"가"});
+    testSimpleEval("select greatest('tajo', 'tajo2');", new String[]{"tajo2"});
+    testSimpleEval("select greatest('apache tajo', 'apache tajo udf', 'apache taj');", new String[]{"apache tajo udf"});
+    testSimpleEval("select greatest('z database', '가 database', 'ä database');", new String[]{"가 database"});
+  }
+
+  @Test
+  public void testGreatestDate() throws Exception {
+    testSimpleEval("select greatest(date '2016-01-01', date '2016-02-29', date '2015-12-31');",
+      new String[]{"2016-02-29"});
+    testSimpleEval("select greatest(date '1999-12-31');", new String[]{"1999-12-31"});
+  }
+
+  @Test
+  public void testGreatestTime() throws Exception {
+    testSimpleEval("select greatest(time '10:20:30', time '23:59:59', time '00:00:01');",
+      new String[]{"23:59:59"});
+  }
+
+  @Test
+  public void testGreatestNulls() throws Exception {
+    testSimpleEval("select greatest(2, null, 1);", new String[]{""});
+    testSimpleEval("select greatest('a', null);", new String[]{""});
+
+    QueryContext context = new QueryContext(getConf());
+    context.set(FunctionSessionVars.GREATEST_LEAST_NULLS, FunctionSessionVars.NULLS_IGNORE);
+    testSimpleEval(context, "select greatest(2, null, 1);", new String[]{"2"});
+    testSimpleEval(context, "select greatest(null, 'a', 'b');", new String[]{"b"});
   }
 }
@@ -0,0 +1,115 @@
+/**
+ * Licensed to the Apache Software Foundation (ASF) under one
+ * or more contributor license agreements.  See the NOTICE file
+ * distributed with this work for additional information
+ * regarding copyright ownership.  The ASF licenses this file
+ * to you under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance
+ * with the License.  You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package org.apache.tajo.engine.function;
+
+import org.apache.tajo.datum.Datum;
+import org.apache.tajo.datum.DatumFactory;
+import org.apache.tajo.datum.NullDatum;
+import org.apache.tajo.plan.function.AggFunction;
+import org.apache.tajo.plan.function.FunctionContext;
+import org.apache.tajo.storage.VTuple;
+import org.junit.Test;
+
+import java.util.ArrayList;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Set;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertTrue;
+
+public class TestHllFunctions {
+  @Test
+  public void testApproxCountDistinct() {
+    List<Datum[]> rows = new ArrayList<Datum[]>();
+    Set<String> distinct = new HashSet<String>();
+    for (int i = 0; i < 5000; i++) {
+      if (i % 7 == 0) {
+        rows.add(new Datum[] {NullDatum.get()});
+      } else {
+        rows.add(new Datum[] {DatumFactory.createText("user" + i % 1200)});
+        distinct.add("user" + i % 1200);
+      }
+    }
+    // a sparse sketch is nearly exact
+    assertEquals(distinct.size(), aggregate(new ApproxCountDistinct(), rows, 3).asInt8());
+  }
+
+  @Test
+  public void testPrecision() {
+    List<Datum[]> rows = new ArrayList<Datum[]>();
+    for (int i = 0; i < 100000; i++) {
+      rows.add(new Datum[] {DatumFactory.createInt8(i), DatumFactory.createInt4(10)});
+    }
+    Datum sketch = aggregate(new HllSketch(), rows, 4);
+    assertEquals(2 + 1024 * 6 / 8, sketch.asByteArray().length);
+
+    long estimate = new HllEstimate().eval(new VTuple(new Datum[] {sketch})).asInt8();
+    assertTrue(String.valueOf(estimate), Math.abs(estimate - 100000) < 100000 * 4 * 1.04 / 32);
+  }
+
+  @Test
+  public void testIntegerWidths() {
+    List<Datum[]> rows = new ArrayList<Datum[]>();
+    rows.add(new Datum[] {DatumFactory.createInt4(1)});
+    rows.add(new Datum[] {DatumFactory.createInt8(1)});
+    rows.add(new Datum[] {DatumFactory.createInt8(2)});
+    assertEquals(2, aggregate(new ApproxCountDistinct(), rows, 1).asInt8());
+  }
+
+  @Test
+  public void testMergeSketches() {
+    List<Datum[]> sketches = new ArrayList<Datum[]>();
+    for (int day = 0; day < 3; day++) {
+      List<Datum[]> rows = new ArrayList<Datum[]>();
+      for (int i = 0; i < 500; i++) {
+        rows.add(new Datum[] {DatumFactory.createText("user" + (day * 200 + i))});
+      }
+      sketches.add(new Datum[] {aggregate(new HllSketch(), rows, 2)});
+    }
+    sketches.add(new Datum[] {NullDatum.get()});
+
+    Datum merged = aggregate(new HllMerge(), sketches, 2);
+    assertEquals(900, new HllEstimate().eval(new VTuple(new Datum[] {merged})).asInt8());
+  }
+
+  @Test
+  public void testNulls() {
+    List<Datum[]> rows = new ArrayList<Datum[]>();
+    rows.add(new Datum[] {NullDatum.get()});
+    assertEquals(0, aggregate(new ApproxCountDistinct(), rows, 1).asInt8());
+    assertTrue(aggregate(new HllSketch(), rows, 1).isNull());
+    assertTrue(new HllEstimate().eval(new VTuple(new Datum[] {NullDatum.get()})).isNull());
+  }
+
+  /**
+   * Aggregates rows in the given number of tasks, and merges their partial results like a two-phase aggregation.
+   */
+  private static Datum aggregate(AggFunction<?> function, List<Datum[]> rows, int tasks) {
+    FunctionContext result = function.newContext();
+    for (int task = 0; task < tasks; task++) {
+      FunctionContext partial = function.newContext();
+      for (int i = task; i < rows.size(); i += tasks) {
+        function.eval(partial, new VTuple(rows.get(i)));
+      }
+      function.merge(result, new VTuple(new Datum[] {function.getPartialResult(partial)}));
+    }
+    return function.terminate(result);
+  }
+}
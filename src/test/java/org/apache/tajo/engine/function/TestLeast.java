@@ -0,0 +1,89 @@
+/**
+ * Licensed to the Apache Software Foundation (ASF) under one
+ * or more contributor license agreements.  See the NOTICE file
+ * distributed with this work for additional information
+ * regarding copyright ownership.  The ASF licenses this file
+ * to you under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance
+ * with the License.  You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package org.apache.tajo.engine.function;
+
+import org.apache.tajo.engine.query.QueryContext;
+import org.junit.Test;
+
+public class TestLeast extends ExprTest {
+  @Test
+  public void testLeastInt() throws Exception {
+    testSimpleEval("select least(2, 5, 12, 3)", new String[]{"2"});
+    testSimpleEval("select least(5);", new String[]{"5"});
+    testSimpleEval("select least(100, 300, 600, 1000, 2000, 10000, 5000);",
+      new String[]{"100"});
+  }
+
+  @Test
+  public void testLeastLong() throws Exception {
+    testSimpleEval("select least(2147483650);", new String[]{"2147483650"});
+    testSimpleEval("select least(2147483647, 2147483650, 2147483747, 2147483547);", new String[]{"2147483547"});
+    testSimpleEval("select least(214748364700, 214748368000, 214748374700, 214748354700);",
+      new String[]{"214748354700"});
+  }
+
+  @Test
+  public void testLeastFloat() throws Exception {
+    testSimpleEval("select least(2.0, 5.0, 12.0, 3.0)", new String[]{"2.0"});
+    testSimpleEval("select least(5.0);", new String[]{"5.0"});
+    testSimpleEval("select least(100.0, 300.0, 600.0, 1000.0, 2000.0, 10000.0, 5000.0);",
+      new String[]{"100.0"});
+  }
+
+  @Test
+  public void testLeastDouble() throws Exception {
+    testSimpleEval("select least(1.7976931348623, 1.7976931348625, 1.7976931348699)",
+      new String[]{"1.7976931348623"});
+    testSimpleEval("select least(1.7976931348623);", new String[]{"1.7976931348623"});
+  }
+
+  @Test
+  public void testLeastText() throws Exception {
+    testSimpleEval("select least('2', '5', '12', '3')", new String[]{"12"});
+    testSimpleEval("select least('tajo');", new String[]{"tajo"});
+    testSimpleEval("select least('apples', 'oranges', 'bananas');", new String[]{"apples"});
+    testSimpleEval("select least('z', '가', 'ä');", new String[]{"z"});
+    testSimpleEval("select least('tajo', 'tajo2');", new String[]{"tajo"});
+    testSimpleEval("select least('apache tajo', 'apache tajo udf', 'apache taj');", new String[]{"apache taj"});
+    testSimpleEval("select least('z database', '가 database', 'ä database');", new String[]{"z database"});
+  }
+
+  @Test
+  public void testLeastDate() throws Exception {
+    testSimpleEval("select least(date '2016-01-01', date '2016-02-29', date '2015-12-31');",
+      new String[]{"2015-12-31"});
+    testSimpleEval("select least(date '1999-12-31');", new String[]{"1999-12-31"});
+  }
+
+  @Test
+  public void testLeastTime() throws Exception {
+    testSimpleEval("select least(time '10:20:30', time '23:59:59', time '00:00:01');",
+      new String[]{"00:00:01"});
+  }
+
+  @Test
+  public void testLeastNulls() throws Exception {
+    testSimpleEval("select least(2, null, 1);", new String[]{""});
+
+    QueryContext context = new QueryContext(getConf());
+    context.set(FunctionSessionVars.GREATEST_LEAST_NULLS, FunctionSessionVars.NULLS_IGNORE);
+    testSimpleEval(context, "select least(2, null, 1);", new String[]{"1"});
+    testSimpleEval(context, "select least('b', null, 'a');", new String[]{"a"});
+  }
+}
@@ -18,6 +18,8 @@
 
 package org.apache.tajo.engine.function;
 
+import org.apache.tajo.catalog.Schema;
+import org.apache.tajo.common.TajoDataTypes;
 import org.junit.Test;
 
 public class TestStringFunctions extends ExprTest {
@@ -29,4 +31,76 @@ public class TestStringFunctions extends ExprTest {
     testSimpleEval("select replace('value1', null, 'value2');", new String[]{"value1"});
   }
 
+  @Test
+  public void testReplaceLiteral() throws Exception {
+    testSimpleEval("select replace('tajo', 'xyz', 'abc');", new String[]{"tajo"});
+    testSimpleEval("select replace('aaaa', 'aa', 'b');", new String[]{"bb"});
+    testSimpleEval("select replace('tajo tajo', 'tajo', '');", new String[]{" "});
+    testSimpleEval("select replace('타조 tajo 타조', '타조', 'tajo');", new String[]{"tajo tajo tajo"});
+  }
+
+  @Test
+  public void testReplaceWithColumns() throws Exception {
+    Schema schema = new Schema();
+    schema.addColumn("col1", TajoDataTypes.Type.TEXT);
+    schema.addColumn("col2", TajoDataTypes.Type.TEXT);
+    schema.addColumn("col3", TajoDataTypes.Type.TEXT);
+
+    testEval(schema, "table1", "tajo1234,[0-9]+,x", "select replace(col1, col2, col3) from table1;",
+      new String[]{"tajox"});
+    testEval(schema, "table1", "JACK and JUE,J,BL", "select replace(col1, col2, col3) from table1;",
+      new String[]{"BLACK and BLUE"});
+    testEval(schema, "table1", "tajo1234,[0-9]+,x", "select replace(col1, col2, 'y') from table1;",
+      new String[]{"tajoy"});
+  }
+
+  @Test
+  public void testReplaceMany() throws Exception {
+    testSimpleEval("select replace_many('JACK and JUE', 'J', 'BL', 'and', '&');", new String[]{"BLACK & BLUE"});
+    testSimpleEval("select replace_many('tajo', 'x', 'y');", new String[]{"tajo"});
+    testSimpleEval("select replace_many('abcd', 'ab', 'x', 'abc', 'y', 'd', 'z');", new String[]{"yz"});
+    testSimpleEval("select replace_many('ab', 'a', 'b', 'b', 'a');", new String[]{"ba"});
+    testSimpleEval("select replace_many('타조 tajo', '타조', 'tajo', 'tajo', '타조');", new String[]{"tajo 타조"});
+    testSimpleEval("select replace_many('tajo1234', '1', '', '2');", new String[]{"tajo34"});
+  }
+
+  @Test
+  public void testTranslate() throws Exception {
+    testSimpleEval("select translate('SQL*Plus Users Guide', ' */', '__');",
+      new String[]{"SQL_Plus_Users_Guide"});
+    testSimpleEval("select translate('2KRW229', '0123456789ABCDEFGHIJKLMNOPQRSTUVWXYZ', " +
+      "'9999999999XXXXXXXXXXXXXXXXXXXXXXXXXX');", new String[]{"9XXX999"});
+    testSimpleEval("select translate('tajo', 'xyz', 'abc');", new String[]{"tajo"});
+    testSimpleEval("select translate('가나다', '가다', 'ab');", new String[]{"a나b"});
+    testSimpleEval("select translate('tajo', 'ja', '자');", new String[]{"t자o"});
+  }
+
+  @Test
+  public void testRegexpLike() throws Exception {
+    testSimpleEval("select regexp_like('tajo1234', '[0-9]+$');", new String[]{"t"});
+    testSimpleEval("select regexp_like('tajo', '^[0-9]+');", new String[]{"f"});
+    testSimpleEval("select regexp_like('타조 tajo', '^\\W+ tajo$');", new String[]{"t"});
+    // catastrophic backtracking for a backtracking matcher
+    testSimpleEval("select regexp_like('aaaaaaaaaaaaaaaaaaaaaaaaaaaaaaaaaaaaaaaa', '(a*)*b');", new String[]{"f"});
+    // backreferences are matched by java.util.regex
+    testSimpleEval("select regexp_like('tajo tajo', '(\\w+) \\1');", new String[]{"t"});
+  }
+
+  @Test
+  public void testRegexpExtract() throws Exception {
+    testSimpleEval("select regexp_extract('tajo-1234', '[0-9]+');", new String[]{"1234"});
+    testSimpleEval("select regexp_extract('tajo-1234', '([a-z]+)-([0-9]+)', 1);", new String[]{"tajo"});
+    testSimpleEval("select regexp_extract('tajo-1234', '([a-z]+)-([0-9]+)', 2);", new String[]{"1234"});
+    testSimpleEval("select regexp_extract('타조-1234', '(\\W+)-', 1);", new String[]{"타조"});
+  }
+
+  @Test
+  public void testSafeRegexpReplace() throws Exception {
+    testSimpleEval("select safe_regexp_replace('tajo1234', '[0-9]+', 'x');", new String[]{"tajox"});
+    testSimpleEval("select safe_regexp_replace('tajo-1234', '([a-z]+)-([0-9]+)', '$2-$1');",
+      new String[]{"1234-tajo"});
+    testSimpleEval("select safe_regexp_replace('tajo', 'x*', '-');", new String[]{"-t-a-j-o-"});
+    testSimpleEval("select safe_regexp_replace('타조 tajo', '타|t', 'T');", new String[]{"T조 Tajo"});
+    testSimpleEval("select safe_regexp_replace('tajo', '[0-9]', 'x');", new String[]{"tajo"});
+  }
 }
@@ -0,0 +1,249 @@
+/**
+ * Licensed to the Apache Software Foundation (ASF) under one
+ * or more contributor license agreements.  See the NOTICE file
+ * distributed with this work for additional information
+ * regarding copyright ownership.  The ASF licenses this file
+ * to you under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance
+ * with the License.  You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+
+package org.apache.tajo.engine.function.benchmark;
+
+import com.google.gson.Gson;
+import com.google.gson.GsonBuilder;
+import com.google.gson.JsonArray;
+import com.google.gson.JsonElement;
+import com.google.gson.JsonObject;
+import com.google.gson.JsonParser;
+
+import java.io.File;
+import java.io.FileInputStream;
+import java.io.FileOutputStream;
+import java.io.IOException;
+import java.io.InputStreamReader;
+import java.io.OutputStreamWriter;
+import java.io.Reader;
+import java.io.Writer;
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayList;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.TreeMap;
+
+/**
+ * Compares JMH results in JSON with a baseline in the same format, and fails if any benchmark regresses.
+ * <p>
+ * The primary score and the allocation per operation reported by the GC profiler are compared.
+ * A score regresses if it is worse than the baseline by more than the threshold, and the confidence
+ * intervals of both scores do not overlap. A result without a baseline also fails the check, so that
+ * new or renamed benchmarks are not silently left unchecked. Baselines without a result are skipped,
+ * e.g. when only some benchmarks are run.
+ * <p>
+ * If the system property <code>benchmark.record</code> is true, the results are written to the baseline
+ * instead of failing the check. Baselines without a result are kept, so that recording some benchmarks
+ * does not drop the others.
+ *
+ * <pre>
+ * usage: BenchmarkRegressionChecker baseline.json result.json [threshold]
+ * </pre>
+ */
+public class BenchmarkRegressionChecker {
+  static final String ALLOCATION_METRIC = "\u00b7gc.alloc.rate.norm";
+  static final double DEFAULT_THRESHOLD = 0.1;
+  static final String RECORD_PROPERTY = "benchmark.record";
+
+  // allocations smaller than this in bytes per operation are noise, e.g. by escape analysis
+  private static final double MIN_ALLOCATION_DELTA = 8;
+
+  private final double threshold;
+  private final List<String> report = new ArrayList<String>();
+  private final List<String> regressions = new ArrayList<String>();
+
+  public BenchmarkRegressionChecker(double threshold) {
+    this.threshold = threshold;
+  }
+
+  static class Score {
+    final double score;
+    final double lower;
+    final double upper;
+
+    Score(double score, double lower, double upper) {
+      this.score = score;
+      // a single iteration has no confidence interval
+      this.lower = Double.isNaN(lower) ? score : lower;
+      this.upper = Double.isNaN(upper) ? score : upper;
+    }
+
+    static Score of(JsonObject metric) {
+      JsonArray confidence = metric.getAsJsonArray("scoreConfidence");
+      return new Score(metric.get("score").getAsDouble(),
+        confidence.get(0).getAsDouble(), confidence.get(1).getAsDouble());
+    }
+
+    boolean overlaps(Score other) {
+      return lower <= other.upper && other.lower <= upper;
+    }
+  }
+
+  /**
+   * Compares the results with the baseline.
+   *
+   * @return true if no benchmark regresses and every result has a baseline
+   */
+  public boolean check(JsonArray baseline, JsonArray result) {
+    Map<String, JsonObject> baselines = index(baseline);
+    for (Map.Entry<String, JsonObject> entry : index(result).entrySet()) {
+      JsonObject base = baselines.get(entry.getKey());
+      if (base == null) {
+        String line = entry.getKey() + ": no baseline";
+        report.add(line);
+        regressions.add(line);
+        continue;
+      }
+      JsonObject current = entry.getValue();
+
+      boolean higherIsBetter = "thrpt".equals(current.get("mode").getAsString());
+      compare(entry.getKey(), current.getAsJsonObject("primaryMetric").get("scoreUnit").getAsString(),
+        Score.of(base.getAsJsonObject("primaryMetric")), Score.of(current.getAsJsonObject("primaryMetric")),
+        higherIsBetter, 0);
+
+      JsonObject baseAllocation = allocation(base);
+      JsonObject allocation = allocation(current);
+      if (baseAllocation != null && allocation != null) {
+        compare(entry.getKey(), allocation.get("scoreUnit").getAsString(),
+          Score.of(baseAllocation), Score.of(allocation), false, MIN_ALLOCATION_DELTA);
+      }
+    }
+    return regressions.isEmpty();
+  }
+
+  private void compare(String benchmark, String unit, Score base, Score current, boolean higherIsBetter,
+                       double minDelta) {
+    double change = base.score == 0 ? 0 : (current.score - base.score) / base.score;
+    String line = String.format("%s: %.3f -> %.3f %s (%+.1f%%)", benchmark, base.score, current.score, unit,
+      change * 100);
+    report.add(line);
+
+    double worse = higherIsBetter ? base.score - current.score : current.score - base.score;
+    if (worse > base.score * threshold && worse > minDelta && !base.overlaps(current)) {
+      regressions.add(line);
+    }
+  }
+
+  /**
+   * Returns the baseline updated with the results, in which benchmarks without a result keep their baseline.
+   */
+  public static JsonArray record(JsonArray baseline, JsonArray result) {
+    Map<String, JsonObject> baselines = index(baseline);
+    baselines.putAll(index(result));
+    JsonArray recorded = new JsonArray();
+    for (JsonObject benchmark : baselines.values()) {
+      recorded.add(benchmark);
+    }
+    return recorded;
+  }
+
+  private static JsonObject allocation(JsonObject benchmark) {
+    JsonObject secondaries = benchmark.getAsJsonObject("secondaryMetrics");
+    if (secondaries == null || !secondaries.has(ALLOCATION_METRIC)) {
+      return null;
+    }
+    return secondaries.getAsJsonObject(ALLOCATION_METRIC);
+  }
+
+  /**
+   * Returns the benchmarks by their names and parameters.
+   */
+  private static Map<String, JsonObject> index(JsonArray results) {
+    Map<String, JsonObject> index = new LinkedHashMap<String, JsonObject>();
+    for (JsonElement element : results) {
+      JsonObject benchmark = element.getAsJsonObject();
+      index.put(key(benchmark), benchmark);
+    }
+    return index;
+  }
+
+  static String key(JsonObject benchmark) {
+    StringBuilder key = new StringBuilder(benchmark.get("benchmark").getAsString());
+    JsonObject params = benchmark.getAsJsonObject("params");
+    if (params != null) {
+      Map<String, String> sorted = new TreeMap<String, String>();
+      for (Map.Entry<String, JsonElement> param : params.entrySet()) {
+        sorted.put(param.getKey(), param.getValue().getAsString());
+      }
+      key.append(sorted);
+    }
+    return key.toString();
+  }
+
+  public List<String> getReport() {
+    return report;
+  }
+
+  public List<String> getRegressions() {
+    return regressions;
+  }
+
+  private static JsonArray read(String path) throws IOException {
+    Reader reader = new InputStreamReader(new FileInputStream(path), StandardCharsets.UTF_8);
+    try {
+      return new JsonParser().parse(reader).getAsJsonArray();
+    } finally {
+      reader.close();
+    }
+  }
+
+  private static void write(String path, JsonArray results) throws IOException {
+    Gson gson = new GsonBuilder().setPrettyPrinting().disableHtmlEscaping().create();
+    Writer writer = new OutputStreamWriter(new FileOutputStream(path), StandardCharsets.UTF_8);
+    try {
+      gson.toJson(results, writer);
+      writer.write('\n');
+    } finally {
+      writer.close();
+    }
+  }
+
+  public static void main(String[] args) throws IOException {
+    if (args.length < 2) {
+      System.err.println("usage: BenchmarkRegressionChecker baseline.json result.json [threshold]");
+      System.exit(2);
+    }
+
+    double threshold = args.length > 2 ? Double.parseDouble(args[2]) : DEFAULT_THRESHOLD;
+    BenchmarkRegressionChecker checker = new BenchmarkRegressionChecker(threshold);
+    boolean record = Boolean.getBoolean(RECORD_PROPERTY);
+    JsonArray baseline = record && !new File(args[0]).exists() ? new JsonArray() : read(args[0]);
+    JsonArray result = read(args[1]);
+    boolean passed = checker.check(baseline, result);
+    for (String line : checker.getReport()) {
+      System.out.println(line);
+    }
+    if (record) {
+      write(args[0], record(baseline, result));
+      System.out.println("Recorded " + result.size() + " benchmark(s) in " + args[0]);
+      return;
+    }
+    if (!passed) {
+      System.err.println(checker.getRegressions().size() + " benchmark(s) regressed by more than "
+        + (threshold * 100) + "% or have no baseline:");
+      for (String line : checker.getRegressions()) {
+        System.err.println("  " + line);
+      }
+      System.err.println("To record the results as the baseline, run again with -D" + RECORD_PROPERTY + "=true.");
+      System.exit(1);
+    }
+  }
+}
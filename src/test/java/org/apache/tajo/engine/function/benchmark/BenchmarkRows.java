@@ -0,0 +1,115 @@
+/**
+ * Licensed to the Apache Software Foundation (ASF) under one
+ * or more contributor license agreements.  See the NOTICE file
+ * distributed with this work for additional information
+ * regarding copyright ownership.  The ASF licenses this file
+ * to you under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance
+ * with the License.  You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+
+package org.apache.tajo.engine.function.benchmark;
+
+import org.apache.tajo.common.TajoDataTypes.Type;
+import org.apache.tajo.datum.Datum;
+import org.apache.tajo.datum.DatumFactory;
+import org.apache.tajo.datum.NullDatum;
+import org.apache.tajo.engine.function.vector.ColumnVector;
+import org.apache.tajo.storage.Tuple;
+import org.apache.tajo.storage.VTuple;
+
+import java.util.Arrays;
+import java.util.Random;
+
+/**
+ * Generates the input rows of benchmarks. The values are random, and each of them is null
+ * with the given probability.
+ */
+final class BenchmarkRows {
+  static final int SIZE = 1024;
+
+  private static final String ALPHABET = "abcdefghijklmnopqrstuvwxyzABCDEFGHIJKLMNOPQRSTUVWXYZ0123456789 ";
+
+  private BenchmarkRows() {
+  }
+
+  static Tuple[] generate(Random random, Type type, int argNum, double nullRatio, int length) {
+    return generate(random, types(type, argNum), nullRatio, length);
+  }
+
+  static Tuple[] generate(Random random, Type[] types, double nullRatio, int length) {
+    Tuple[] rows = new Tuple[SIZE];
+    for (int row = 0; row < SIZE; row++) {
+      Datum[] values = new Datum[types.length];
+      for (int i = 0; i < types.length; i++) {
+        values[i] = random.nextDouble() < nullRatio ? NullDatum.get() : value(random, types[i], length);
+      }
+      rows[row] = new VTuple(values);
+    }
+    return rows;
+  }
+
+  /**
+   * Replaces the given argument of every row with the same datum, as a constant argument is evaluated.
+   */
+  static void setConstant(Tuple[] rows, int arg, Datum constant) {
+    for (Tuple row : rows) {
+      row.put(arg, constant);
+    }
+  }
+
+  static Datum value(Random random, Type type, int length) {
+    switch (type) {
+    case BOOLEAN:
+      return DatumFactory.createBool(random.nextBoolean());
+    case INT4:
+      return DatumFactory.createInt4(random.nextInt());
+    case INT8:
+      return DatumFactory.createInt8(random.nextLong());
+    case FLOAT4:
+      return DatumFactory.createFloat4(random.nextFloat() * 1000);
+    case FLOAT8:
+      return DatumFactory.createFloat8(random.nextDouble() * 1000);
+    case DATE:
+      return DatumFactory.createDate(1950 + random.nextInt(100), 1 + random.nextInt(12), 1 + random.nextInt(28));
+    case TEXT:
+      return DatumFactory.createText(text(random, length));
+    default:
+      throw new IllegalArgumentException("Unsupported type for benchmarks: " + type);
+    }
+  }
+
+  static String text(Random random, int length) {
+    char[] chars = new char[length];
+    for (int i = 0; i < length; i++) {
+      chars[i] = ALPHABET.charAt(random.nextInt(ALPHABET.length()));
+    }
+    return new String(chars);
+  }
+
+  static ColumnVector[] toVectors(Tuple[] rows, Type[] types) {
+    ColumnVector[] vectors = new ColumnVector[types.length];
+    for (int i = 0; i < types.length; i++) {
+      vectors[i] = new ColumnVector(types[i], rows.length);
+      for (int row = 0; row < rows.length; row++) {
+        vectors[i].setDatum(row, rows[row].asDatum(i));
+      }
+    }
+    return vectors;
+  }
+
+  static Type[] types(Type type, int argNum) {
+    Type[] types = new Type[argNum];
+    Arrays.fill(types, type);
+    return types;
+  }
+}
@@ -0,0 +1,132 @@
+/**
+ * Licensed to the Apache Software Foundation (ASF) under one
+ * or more contributor license agreements.  See the NOTICE file
+ * distributed with this work for additional information
+ * regarding copyright ownership.  The ASF licenses this file
+ * to you under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance
+ * with the License.  You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+
+package org.apache.tajo.engine.function.benchmark;
+
+import org.apache.tajo.common.TajoDataTypes.Type;
+import org.apache.tajo.conf.TajoConf;
+import org.apache.tajo.engine.function.FunctionSessionVars;
+import org.apache.tajo.engine.function.GreatestDate;
+import org.apache.tajo.engine.function.GreatestDouble;
+import org.apache.tajo.engine.function.GreatestInt;
+import org.apache.tajo.engine.function.GreatestLong;
+import org.apache.tajo.engine.function.GreatestText;
+import org.apache.tajo.engine.function.vector.ColumnVector;
+import org.apache.tajo.engine.function.vector.VectorizedFunction;
+import org.apache.tajo.engine.query.QueryContext;
+import org.apache.tajo.plan.function.GeneralFunction;
+import org.apache.tajo.storage.Tuple;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OperationsPerInvocation;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+import org.openjdk.jmh.infra.Blackhole;
+import org.openjdk.jmh.profile.GCProfiler;
+import org.openjdk.jmh.runner.Runner;
+import org.openjdk.jmh.runner.RunnerException;
+import org.openjdk.jmh.runner.options.OptionsBuilder;
+
+import java.util.Random;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Measures <code>greatest()</code> of three arguments row by row and in batches.
+ */
+@State(Scope.Thread)
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@OperationsPerInvocation(BenchmarkRows.SIZE)
+@Warmup(iterations = 5, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class GreatestBenchmark {
+  private static final int ARG_NUM = 3;
+  private static final int LENGTH = 16;
+
+  @Param({"INT4", "INT8", "FLOAT8", "TEXT", "DATE"})
+  public Type type;
+
+  @Param({"0.0", "0.1", "0.5"})
+  public double nullRatio;
+
+  @Param({FunctionSessionVars.NULLS_PROPAGATE, FunctionSessionVars.NULLS_IGNORE})
+  public String nulls;
+
+  private Tuple[] rows;
+  private ColumnVector[] vectors;
+  private ColumnVector out;
+  private GeneralFunction greatest;
+
+  @Setup
+  public void setup() {
+    rows = BenchmarkRows.generate(new Random(1234), type, ARG_NUM, nullRatio, LENGTH);
+    vectors = BenchmarkRows.toVectors(rows, BenchmarkRows.types(type, ARG_NUM));
+    out = new ColumnVector(type, BenchmarkRows.SIZE);
+
+    QueryContext context = new QueryContext(new TajoConf());
+    context.set(FunctionSessionVars.GREATEST_LEAST_NULLS, nulls);
+    greatest = newGreatest(type);
+    greatest.init(context, null);
+  }
+
+  private static GeneralFunction newGreatest(Type type) {
+    switch (type) {
+    case INT4:
+      return new GreatestInt();
+    case INT8:
+      return new GreatestLong();
+    case FLOAT8:
+      return new GreatestDouble();
+    case TEXT:
+      return new GreatestText();
+    case DATE:
+      return new GreatestDate();
+    default:
+      throw new IllegalArgumentException("Unsupported type: " + type);
+    }
+  }
+
+  @Benchmark
+  public void rowMode(Blackhole blackhole) {
+    for (Tuple row : rows) {
+      blackhole.consume(greatest.eval(row));
+    }
+  }
+
+  @Benchmark
+  public ColumnVector batch() {
+    ((VectorizedFunction) greatest).evalBatch(vectors, null, BenchmarkRows.SIZE, out);
+    return out;
+  }
+
+  public static void main(String[] args) throws RunnerException {
+    new Runner(new OptionsBuilder()
+      .include(GreatestBenchmark.class.getSimpleName())
+      .addProfiler(GCProfiler.class)
+      .build()).run();
+  }
+}
@@ -0,0 +1,129 @@
+/**
+ * Licensed to the Apache Software Foundation (ASF) under one
+ * or more contributor license agreements.  See the NOTICE file
+ * distributed with this work for additional information
+ * regarding copyright ownership.  The ASF licenses this file
+ * to you under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance
+ * with the License.  You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+
+package org.apache.tajo.engine.function.benchmark;
+
+import org.apache.tajo.datum.Datum;
+import org.apache.tajo.datum.DatumFactory;
+import org.apache.tajo.datum.NullDatum;
+import org.apache.tajo.engine.function.LastDay;
+import org.apache.tajo.storage.Tuple;
+import org.apache.tajo.storage.VTuple;
+import org.apache.tajo.util.datetime.DateTimeFormat;
+import org.apache.tajo.util.datetime.DateTimeUtil;
+import org.apache.tajo.util.datetime.TimeMeta;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+import org.openjdk.jmh.infra.Blackhole;
+import org.openjdk.jmh.profile.GCProfiler;
+import org.openjdk.jmh.runner.Runner;
+import org.openjdk.jmh.runner.RunnerException;
+import org.openjdk.jmh.runner.options.OptionsBuilder;
+
+import java.text.ParseException;
+import java.text.SimpleDateFormat;
+import java.util.Calendar;
+import java.util.Random;
+import java.util.TimeZone;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Compares <code>last_day()</code> with the previous implementation, which formatted each date to text
+ * and parsed it back into a {@link Calendar}.
+ */
+@State(Scope.Thread)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 5, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class LastDayBenchmark {
+  private static final int ROWS = 1024;
+
+  private final Tuple[] rows = new Tuple[ROWS];
+  private final LastDay lastDay = new LastDay();
+  private final CalendarLastDay calendarLastDay = new CalendarLastDay();
+
+  @Setup
+  public void setup() {
+    Random random = new Random(1234);
+    for (int i = 0; i < ROWS; i++) {
+      rows[i] = new VTuple(new Datum[]{
+        DatumFactory.createDate(1950 + random.nextInt(100), 1 + random.nextInt(12), 1 + random.nextInt(28))
+      });
+    }
+  }
+
+  @Benchmark
+  public void lastDay(Blackhole blackhole) {
+    for (Tuple row : rows) {
+      blackhole.consume(lastDay.eval(row));
+    }
+  }
+
+  @Benchmark
+  public void calendarLastDay(Blackhole blackhole) {
+    for (Tuple row : rows) {
+      blackhole.consume(calendarLastDay.eval(row));
+    }
+  }
+
+  /**
+   * The previous implementation of {@link LastDay}.
+   */
+  private static class CalendarLastDay {
+    private final SimpleDateFormat standardFormatter = new SimpleDateFormat("yyyy-MM-dd");
+    private final TimeZone timezone = TimeZone.getTimeZone("GMT");
+
+    Datum eval(Tuple params) {
+      if (params.isBlankOrNull(0)) {
+        return NullDatum.get();
+      }
+
+      TimeMeta tm = params.getTimeDate(0);
+      DateTimeUtil.toUserTimezone(tm, this.timezone);
+
+      Calendar calendar = Calendar.getInstance(this.timezone);
+      try {
+        calendar.setTime(standardFormatter.parse(
+          DatumFactory.createText(DateTimeFormat.to_char(tm, "YYYY-MM-DD")).asChars()));
+      } catch (ParseException e) {
+        throw new IllegalStateException(e);
+      }
+
+      int lastDate = calendar.getActualMaximum(Calendar.DATE);
+      return DatumFactory.createDate(tm.years, tm.monthOfYear, lastDate);
+    }
+  }
+
+  public static void main(String[] args) throws RunnerException {
+    new Runner(new OptionsBuilder()
+      .include(LastDayBenchmark.class.getSimpleName())
+      .addProfiler(GCProfiler.class)
+      .build()).run();
+  }
+}
@@ -0,0 +1,122 @@
+/**
+ * Licensed to the Apache Software Foundation (ASF) under one
+ * or more contributor license agreements.  See the NOTICE file
+ * distributed with this work for additional information
+ * regarding copyright ownership.  The ASF licenses this file
+ * to you under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance
+ * with the License.  You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+
+package org.apache.tajo.engine.function.benchmark;
+
+import org.apache.tajo.common.TajoDataTypes.Type;
+import org.apache.tajo.engine.function.Nvl2Date;
+import org.apache.tajo.engine.function.Nvl2Double;
+import org.apache.tajo.engine.function.Nvl2Long;
+import org.apache.tajo.engine.function.Nvl2Text;
+import org.apache.tajo.engine.function.vector.ColumnVector;
+import org.apache.tajo.engine.function.vector.VectorizedFunction;
+import org.apache.tajo.plan.function.GeneralFunction;
+import org.apache.tajo.storage.Tuple;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OperationsPerInvocation;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+import org.openjdk.jmh.infra.Blackhole;
+import org.openjdk.jmh.profile.GCProfiler;
+import org.openjdk.jmh.runner.Runner;
+import org.openjdk.jmh.runner.RunnerException;
+import org.openjdk.jmh.runner.options.OptionsBuilder;
+
+import java.util.Random;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Measures <code>nvl2()</code> of three arguments of fixed-width types row by row and in batches.
+ * {@link Nvl2TextBenchmark} measures TEXT with various lengths, and {@link NvlMixedBenchmark} rows of
+ * mixed types.
+ */
+@State(Scope.Thread)
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@OperationsPerInvocation(BenchmarkRows.SIZE)
+@Warmup(iterations = 5, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class Nvl2Benchmark {
+  private static final int ARG_NUM = 3;
+
+  @Param({"INT8", "FLOAT8", "DATE"})
+  public Type type;
+
+  @Param({"0.0", "0.1", "0.5", "0.9"})
+  public double nullRatio;
+
+  private Tuple[] rows;
+  private ColumnVector[] vectors;
+  private ColumnVector out;
+  private GeneralFunction nvl2;
+
+  @Setup
+  public void setup() {
+    rows = BenchmarkRows.generate(new Random(1234), type, ARG_NUM, nullRatio, 0);
+    vectors = BenchmarkRows.toVectors(rows, BenchmarkRows.types(type, ARG_NUM));
+    out = new ColumnVector(type, BenchmarkRows.SIZE);
+
+    nvl2 = newNvl2(type);
+    nvl2.init(null, null);
+  }
+
+  static GeneralFunction newNvl2(Type type) {
+    switch (type) {
+    case INT8:
+      return new Nvl2Long();
+    case FLOAT8:
+      return new Nvl2Double();
+    case TEXT:
+      return new Nvl2Text();
+    case DATE:
+      return new Nvl2Date();
+    default:
+      throw new IllegalArgumentException("Unsupported type: " + type);
+    }
+  }
+
+  @Benchmark
+  public void rowMode(Blackhole blackhole) {
+    for (Tuple row : rows) {
+      blackhole.consume(nvl2.eval(row));
+    }
+  }
+
+  @Benchmark
+  public ColumnVector batch() {
+    ((VectorizedFunction) nvl2).evalBatch(vectors, null, BenchmarkRows.SIZE, out);
+    return out;
+  }
+
+  public static void main(String[] args) throws RunnerException {
+    new Runner(new OptionsBuilder()
+      .include(Nvl2Benchmark.class.getSimpleName())
+      .addProfiler(GCProfiler.class)
+      .build()).run();
+  }
+}
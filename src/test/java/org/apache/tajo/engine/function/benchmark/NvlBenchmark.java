@@ -0,0 +1,130 @@
+/**
+ * Licensed to the Apache Software Foundation (ASF) under one
+ * or more contributor license agreements.  See the NOTICE file
+ * distributed with this work for additional information
+ * regarding copyright ownership.  The ASF licenses this file
+ * to you under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance
+ * with the License.  You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+
+package org.apache.tajo.engine.function.benchmark;
+
+import org.apache.tajo.common.TajoDataTypes.Type;
+import org.apache.tajo.engine.function.NvlDate;
+import org.apache.tajo.engine.function.NvlDouble;
+import org.apache.tajo.engine.function.NvlInt;
+import org.apache.tajo.engine.function.NvlLong;
+import org.apache.tajo.engine.function.NvlText;
+import org.apache.tajo.engine.function.vector.ColumnVector;
+import org.apache.tajo.engine.function.vector.VectorizedFunction;
+import org.apache.tajo.plan.function.GeneralFunction;
+import org.apache.tajo.storage.Tuple;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OperationsPerInvocation;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+import org.openjdk.jmh.infra.Blackhole;
+import org.openjdk.jmh.profile.GCProfiler;
+import org.openjdk.jmh.runner.Runner;
+import org.openjdk.jmh.runner.RunnerException;
+import org.openjdk.jmh.runner.options.OptionsBuilder;
+
+import java.util.Random;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Measures <code>nvl()</code> of fixed-width types row by row and in batches. The second argument is
+ * a column, or a constant which is the same datum for every row. {@link NvlTextBenchmark} measures TEXT
+ * with various lengths, and {@link NvlMixedBenchmark} rows of mixed types.
+ */
+@State(Scope.Thread)
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@OperationsPerInvocation(BenchmarkRows.SIZE)
+@Warmup(iterations = 5, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class NvlBenchmark {
+  @Param({"INT4", "INT8", "FLOAT8", "DATE"})
+  public Type type;
+
+  @Param({"0.0", "0.1", "0.5", "0.9"})
+  public double nullRatio;
+
+  @Param({"false", "true"})
+  public boolean constantDefault;
+
+  private Tuple[] rows;
+  private ColumnVector[] vectors;
+  private ColumnVector out;
+  private GeneralFunction nvl;
+
+  @Setup
+  public void setup() {
+    Random random = new Random(1234);
+    rows = BenchmarkRows.generate(random, type, 2, nullRatio, 0);
+    if (constantDefault) {
+      BenchmarkRows.setConstant(rows, 1, BenchmarkRows.value(random, type, 0));
+    }
+    vectors = BenchmarkRows.toVectors(rows, BenchmarkRows.types(type, 2));
+    out = new ColumnVector(type, BenchmarkRows.SIZE);
+
+    nvl = newNvl(type);
+    nvl.init(null, null);
+  }
+
+  static GeneralFunction newNvl(Type type) {
+    switch (type) {
+    case INT4:
+      return new NvlInt();
+    case INT8:
+      return new NvlLong();
+    case FLOAT8:
+      return new NvlDouble();
+    case TEXT:
+      return new NvlText();
+    case DATE:
+      return new NvlDate();
+    default:
+      throw new IllegalArgumentException("Unsupported type: " + type);
+    }
+  }
+
+  @Benchmark
+  public void rowMode(Blackhole blackhole) {
+    for (Tuple row : rows) {
+      blackhole.consume(nvl.eval(row));
+    }
+  }
+
+  @Benchmark
+  public ColumnVector batch() {
+    ((VectorizedFunction) nvl).evalBatch(vectors, null, BenchmarkRows.SIZE, out);
+    return out;
+  }
+
+  public static void main(String[] args) throws RunnerException {
+    new Runner(new OptionsBuilder()
+      .include(NvlBenchmark.class.getSimpleName())
+      .addProfiler(GCProfiler.class)
+      .build()).run();
+  }
+}
@@ -0,0 +1,140 @@
+/**
+ * Licensed to the Apache Software Foundation (ASF) under one
+ * or more contributor license agreements.  See the NOTICE file
+ * distributed with this work for additional information
+ * regarding copyright ownership.  The ASF licenses this file
+ * to you under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance
+ * with the License.  You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package org.apache.tajo.engine.function.benchmark;
+
+import org.apache.tajo.common.TajoDataTypes.Type;
+import org.apache.tajo.engine.function.vector.ColumnVector;
+import org.apache.tajo.engine.function.vector.VectorizedFunction;
+import org.apache.tajo.plan.function.GeneralFunction;
+import org.apache.tajo.storage.Tuple;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OperationsPerInvocation;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+import org.openjdk.jmh.infra.Blackhole;
+import org.openjdk.jmh.profile.GCProfiler;
+import org.openjdk.jmh.runner.Runner;
+import org.openjdk.jmh.runner.RunnerException;
+import org.openjdk.jmh.runner.options.OptionsBuilder;
+
+import java.util.Random;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Measures <code>nvl()</code> and <code>nvl2()</code> over rows whose arguments are of different types,
+ * as in a query which calls them on several columns. Each row is evaluated by the typed function of its
+ * type, so the shared evaluation code sees all the types in turn instead of one.
+ * <p>
+ * In batches, the rows of each type are a vector of their own, and the batches of all types are evaluated
+ * one after another.
+ */
+@State(Scope.Thread)
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@OperationsPerInvocation(BenchmarkRows.SIZE)
+@Warmup(iterations = 5, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class NvlMixedBenchmark {
+  private static final Type[] TYPES = {Type.INT8, Type.FLOAT8, Type.TEXT, Type.DATE};
+  private static final int TEXT_LENGTH = 16;
+
+  @Param({"nvl", "nvl2"})
+  public String function;
+
+  @Param({"0.0", "0.5"})
+  public double nullRatio;
+
+  private Tuple[] rows;
+  private GeneralFunction[] rowFunctions;
+
+  private ColumnVector[][] vectors;
+  private ColumnVector[] outs;
+  private GeneralFunction[] functions;
+  private int[] counts;
+
+  @Setup
+  public void setup() {
+    Random random = new Random(1234);
+    int argNum = "nvl".equals(function) ? 2 : 3;
+
+    functions = new GeneralFunction[TYPES.length];
+    for (int i = 0; i < TYPES.length; i++) {
+      functions[i] = "nvl".equals(function) ? NvlBenchmark.newNvl(TYPES[i]) : Nvl2Benchmark.newNvl2(TYPES[i]);
+      functions[i].init(null, null);
+    }
+
+    // the type of each row is random, so that it changes from row to row
+    int[] rowTypes = new int[BenchmarkRows.SIZE];
+    counts = new int[TYPES.length];
+    for (int row = 0; row < rowTypes.length; row++) {
+      rowTypes[row] = random.nextInt(TYPES.length);
+      counts[rowTypes[row]]++;
+    }
+
+    rows = new Tuple[BenchmarkRows.SIZE];
+    rowFunctions = new GeneralFunction[BenchmarkRows.SIZE];
+    vectors = new ColumnVector[TYPES.length][];
+    outs = new ColumnVector[TYPES.length];
+    for (int i = 0; i < TYPES.length; i++) {
+      Tuple[] typed = BenchmarkRows.generate(random, TYPES[i], argNum, nullRatio, TEXT_LENGTH);
+      vectors[i] = BenchmarkRows.toVectors(typed, BenchmarkRows.types(TYPES[i], argNum));
+      outs[i] = new ColumnVector(TYPES[i], BenchmarkRows.SIZE);
+
+      // the rows of this type take the first generated values, as its vectors do
+      int next = 0;
+      for (int row = 0; row < rows.length; row++) {
+        if (rowTypes[row] == i) {
+          rows[row] = typed[next++];
+          rowFunctions[row] = functions[i];
+        }
+      }
+    }
+  }
+
+  @Benchmark
+  public void rowMode(Blackhole blackhole) {
+    for (int row = 0; row < rows.length; row++) {
+      blackhole.consume(rowFunctions[row].eval(rows[row]));
+    }
+  }
+
+  @Benchmark
+  public void batch(Blackhole blackhole) {
+    for (int i = 0; i < functions.length; i++) {
+      ((VectorizedFunction) functions[i]).evalBatch(vectors[i], null, counts[i], outs[i]);
+      blackhole.consume(outs[i]);
+    }
+  }
+
+  public static void main(String[] args) throws RunnerException {
+    new Runner(new OptionsBuilder()
+      .include(NvlMixedBenchmark.class.getSimpleName())
+      .addProfiler(GCProfiler.class)
+      .build()).run();
+  }
+}
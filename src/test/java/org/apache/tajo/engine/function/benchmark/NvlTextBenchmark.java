@@ -0,0 +1,106 @@
+/**
+ * Licensed to the Apache Software Foundation (ASF) under one
+ * or more contributor license agreements.  See the NOTICE file
+ * distributed with this work for additional information
+ * regarding copyright ownership.  The ASF licenses this file
+ * to you under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance
+ * with the License.  You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+
+package org.apache.tajo.engine.function.benchmark;
+
+import org.apache.tajo.common.TajoDataTypes.Type;
+import org.apache.tajo.engine.function.NvlText;
+import org.apache.tajo.engine.function.vector.ColumnVector;
+import org.apache.tajo.storage.Tuple;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OperationsPerInvocation;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+import org.openjdk.jmh.infra.Blackhole;
+import org.openjdk.jmh.profile.GCProfiler;
+import org.openjdk.jmh.runner.Runner;
+import org.openjdk.jmh.runner.RunnerException;
+import org.openjdk.jmh.runner.options.OptionsBuilder;
+
+import java.util.Random;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Measures <code>nvl()</code> of TEXT with various lengths row by row and in batches. The second argument
+ * is a column, or a constant which is the same datum for every row.
+ */
+@State(Scope.Thread)
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@OperationsPerInvocation(BenchmarkRows.SIZE)
+@Warmup(iterations = 5, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class NvlTextBenchmark {
+  @Param({"0.0", "0.1", "0.5", "0.9"})
+  public double nullRatio;
+
+  @Param({"16", "256"})
+  public int length;
+
+  @Param({"false", "true"})
+  public boolean constantDefault;
+
+  private Tuple[] rows;
+  private ColumnVector[] vectors;
+  private ColumnVector out;
+  private NvlText nvl;
+
+  @Setup
+  public void setup() {
+    Random random = new Random(1234);
+    rows = BenchmarkRows.generate(random, Type.TEXT, 2, nullRatio, length);
+    if (constantDefault) {
+      BenchmarkRows.setConstant(rows, 1, BenchmarkRows.value(random, Type.TEXT, length));
+    }
+    vectors = BenchmarkRows.toVectors(rows, BenchmarkRows.types(Type.TEXT, 2));
+    out = new ColumnVector(Type.TEXT, BenchmarkRows.SIZE);
+
+    nvl = new NvlText();
+    nvl.init(null, null);
+  }
+
+  @Benchmark
+  public void rowMode(Blackhole blackhole) {
+    for (Tuple row : rows) {
+      blackhole.consume(nvl.eval(row));
+    }
+  }
+
+  @Benchmark
+  public ColumnVector batch() {
+    nvl.evalBatch(vectors, null, BenchmarkRows.SIZE, out);
+    return out;
+  }
+
+  public static void main(String[] args) throws RunnerException {
+    new Runner(new OptionsBuilder()
+      .include(NvlTextBenchmark.class.getSimpleName())
+      .addProfiler(GCProfiler.class)
+      .build()).run();
+  }
+}
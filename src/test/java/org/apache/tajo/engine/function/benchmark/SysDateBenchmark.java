@@ -0,0 +1,110 @@
+/**
+ * Licensed to the Apache Software Foundation (ASF) under one
+ * or more contributor license agreements.  See the NOTICE file
+ * distributed with this work for additional information
+ * regarding copyright ownership.  The ASF licenses this file
+ * to you under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance
+ * with the License.  You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+
+package org.apache.tajo.engine.function.benchmark;
+
+import org.apache.tajo.conf.TajoConf;
+import org.apache.tajo.datum.Datum;
+import org.apache.tajo.datum.DatumFactory;
+import org.apache.tajo.engine.function.FunctionSessionVars;
+import org.apache.tajo.engine.function.SysDate;
+import org.apache.tajo.engine.query.QueryContext;
+import org.apache.tajo.storage.Tuple;
+import org.apache.tajo.storage.VTuple;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OperationsPerInvocation;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+import org.openjdk.jmh.infra.Blackhole;
+import org.openjdk.jmh.profile.GCProfiler;
+import org.openjdk.jmh.runner.Runner;
+import org.openjdk.jmh.runner.RunnerException;
+import org.openjdk.jmh.runner.options.OptionsBuilder;
+
+import java.util.Random;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Measures <code>sysdate()</code> without arguments, with a constant pattern, and with a constant pattern
+ * and <code>num_days</code> which is a constant or differs by rows.
+ */
+@State(Scope.Thread)
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@OperationsPerInvocation(BenchmarkRows.SIZE)
+@Warmup(iterations = 5, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class SysDateBenchmark {
+  private static final String PATTERN = "YYYY-MM-DD HH24:MI:SS";
+
+  @Param({"none", "pattern", "constantDays", "columnDays"})
+  public String args;
+
+  private final Tuple[] rows = new Tuple[BenchmarkRows.SIZE];
+  private final SysDate sysDate = new SysDate();
+
+  @Setup
+  public void setup() {
+    Random random = new Random(1234);
+    Datum pattern = DatumFactory.createText(PATTERN);
+    Datum days = DatumFactory.createInt4(1);
+    for (int i = 0; i < rows.length; i++) {
+      switch (args) {
+      case "none":
+        rows[i] = new VTuple(new Datum[0]);
+        break;
+      case "pattern":
+        rows[i] = new VTuple(new Datum[]{pattern});
+        break;
+      case "constantDays":
+        rows[i] = new VTuple(new Datum[]{pattern, days});
+        break;
+      default:
+        rows[i] = new VTuple(new Datum[]{pattern, DatumFactory.createInt4(random.nextInt(30))});
+      }
+    }
+
+    QueryContext context = new QueryContext(new TajoConf());
+    context.set(FunctionSessionVars.SYSDATE_TIMESTAMP, "1459468800000");
+    sysDate.init(context, null);
+  }
+
+  @Benchmark
+  public void sysDate(Blackhole blackhole) {
+    for (Tuple row : rows) {
+      blackhole.consume(sysDate.eval(row));
+    }
+  }
+
+  public static void main(String[] args) throws RunnerException {
+    new Runner(new OptionsBuilder()
+      .include(SysDateBenchmark.class.getSimpleName())
+      .addProfiler(GCProfiler.class)
+      .build()).run();
+  }
+}
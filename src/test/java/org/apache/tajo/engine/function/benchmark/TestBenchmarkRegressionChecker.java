@@ -0,0 +1,129 @@
+/**
+ * Licensed to the Apache Software Foundation (ASF) under one
+ * or more contributor license agreements.  See the NOTICE file
+ * distributed with this work for additional information
+ * regarding copyright ownership.  The ASF licenses this file
+ * to you under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance
+ * with the License.  You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+
+package org.apache.tajo.engine.function.benchmark;
+
+import com.google.gson.JsonArray;
+import com.google.gson.JsonParser;
+import org.junit.Test;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertTrue;
+
+public class TestBenchmarkRegressionChecker {
+  private static final String NVL = "org.apache.tajo.engine.function.benchmark.NvlBenchmark.rowMode";
+
+  @Test
+  public void testUnchanged() {
+    BenchmarkRegressionChecker checker = new BenchmarkRegressionChecker(0.1);
+    assertTrue(checker.check(results(throughput(NVL, 1000, 10, 16)), results(throughput(NVL, 990, 10, 16))));
+    assertEquals(2, checker.getReport().size());
+  }
+
+  @Test
+  public void testThroughputRegression() {
+    BenchmarkRegressionChecker checker = new BenchmarkRegressionChecker(0.1);
+    assertFalse(checker.check(results(throughput(NVL, 1000, 10, 16)), results(throughput(NVL, 800, 10, 16))));
+    assertEquals(1, checker.getRegressions().size());
+
+    // within the confidence interval of the baseline
+    assertTrue(new BenchmarkRegressionChecker(0.1).check(
+      results(throughput(NVL, 1000, 300, 16)), results(throughput(NVL, 800, 10, 16))));
+    // within the threshold
+    assertTrue(new BenchmarkRegressionChecker(0.3).check(
+      results(throughput(NVL, 1000, 10, 16)), results(throughput(NVL, 800, 10, 16))));
+  }
+
+  @Test
+  public void testAllocationRegression() {
+    assertFalse(new BenchmarkRegressionChecker(0.1).check(
+      results(throughput(NVL, 1000, 10, 16)), results(throughput(NVL, 1000, 10, 48))));
+    // too small to be a regression
+    assertTrue(new BenchmarkRegressionChecker(0.1).check(
+      results(throughput(NVL, 1000, 10, 0)), results(throughput(NVL, 1000, 10, 4))));
+  }
+
+  @Test
+  public void testAverageTime() {
+    String lastDay = "{\"benchmark\": \"LastDayBenchmark.lastDay\", \"mode\": \"avgt\", "
+      + "\"primaryMetric\": " + metric(100, 1, "ns/op") + "}";
+    String slower = "{\"benchmark\": \"LastDayBenchmark.lastDay\", \"mode\": \"avgt\", "
+      + "\"primaryMetric\": " + metric(150, 1, "ns/op") + "}";
+    assertTrue(new BenchmarkRegressionChecker(0.1).check(results(slower), results(lastDay)));
+    assertFalse(new BenchmarkRegressionChecker(0.1).check(results(lastDay), results(slower)));
+  }
+
+  @Test
+  public void testParams() {
+    BenchmarkRegressionChecker checker = new BenchmarkRegressionChecker(0.1);
+    String text = throughput(NVL, 1000, 10, 16).replace("INT4", "TEXT");
+    // different parameters are different benchmarks
+    assertTrue(checker.check(results(throughput(NVL, 1000, 10, 16), text), results(text)));
+    assertEquals(2, checker.getReport().size());
+  }
+
+  @Test
+  public void testNoBaseline() {
+    String text = throughput(NVL, 1000, 10, 16).replace("INT4", "TEXT");
+    BenchmarkRegressionChecker checker = new BenchmarkRegressionChecker(0.1);
+    assertFalse(checker.check(results(throughput(NVL, 1000, 10, 16)), results(text)));
+    assertEquals(NVL + "{length=16, type=TEXT}: no baseline", checker.getRegressions().get(0));
+
+    assertFalse(new BenchmarkRegressionChecker(0.1).check(new JsonArray(), results(text)));
+    // a baseline without a result is skipped
+    assertTrue(new BenchmarkRegressionChecker(0.1).check(results(text), new JsonArray()));
+  }
+
+  @Test
+  public void testRecord() {
+    String text = throughput(NVL, 1000, 10, 16).replace("INT4", "TEXT");
+    JsonArray recorded = BenchmarkRegressionChecker.record(
+      results(throughput(NVL, 1000, 10, 16), text), results(throughput(NVL, 800, 10, 16)));
+    // the result replaces its baseline, and a baseline without a result is kept
+    assertEquals(2, recorded.size());
+    assertEquals(800, recorded.get(0).getAsJsonObject().getAsJsonObject("primaryMetric").get("score").getAsDouble(), 0);
+    assertEquals(text.replace(" ", ""), recorded.get(1).toString());
+
+    // a new benchmark is added to the baseline
+    recorded = BenchmarkRegressionChecker.record(new JsonArray(), results(text));
+    assertTrue(new BenchmarkRegressionChecker(0.1).check(recorded, results(text)));
+  }
+
+  private static JsonArray results(String... benchmarks) {
+    StringBuilder json = new StringBuilder("[");
+    for (int i = 0; i < benchmarks.length; i++) {
+      json.append(i > 0 ? "," : "").append(benchmarks[i]);
+    }
+    return new JsonParser().parse(json.append("]").toString()).getAsJsonArray();
+  }
+
+  private static String throughput(String benchmark, double score, double error, double allocation) {
+    return "{\"benchmark\": \"" + benchmark + "\", \"mode\": \"thrpt\", "
+      + "\"params\": {\"type\": \"INT4\", \"length\": \"16\"}, "
+      + "\"primaryMetric\": " + metric(score, error, "ops/ms") + ", "
+      + "\"secondaryMetrics\": {\"" + BenchmarkRegressionChecker.ALLOCATION_METRIC + "\": "
+      + metric(allocation, 0, "B/op") + "}}";
+  }
+
+  private static String metric(double score, double error, String unit) {
+    return "{\"score\": " + score + ", \"scoreError\": " + error + ", "
+      + "\"scoreConfidence\": [" + (score - error) + ", " + (score + error) + "], \"scoreUnit\": \"" + unit + "\"}";
+  }
+}
@@ -0,0 +1,198 @@
+/**
+ * Licensed to the Apache Software Foundation (ASF) under one
+ * or more contributor license agreements.  See the NOTICE file
+ * distributed with this work for additional information
+ * regarding copyright ownership.  The ASF licenses this file
+ * to you under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance
+ * with the License.  You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package org.apache.tajo.engine.function.codegen;
+
+import org.apache.tajo.common.TajoDataTypes.Type;
+import org.apache.tajo.conf.TajoConf;
+import org.apache.tajo.datum.Datum;
+import org.apache.tajo.datum.DatumFactory;
+import org.apache.tajo.datum.NullDatum;
+import org.apache.tajo.engine.function.FunctionSessionVars;
+import org.apache.tajo.engine.function.GreatestInt;
+import org.apache.tajo.engine.function.LastDay;
+import org.apache.tajo.engine.function.annotation.Description;
+import org.apache.tajo.engine.function.annotation.ParamTypes;
+import org.apache.tajo.engine.function.example.Hypot;
+import org.apache.tajo.engine.query.QueryContext;
+import org.apache.tajo.function.Function;
+import org.apache.tajo.plan.function.GeneralFunction;
+import org.apache.tajo.storage.VTuple;
+import org.apache.tajo.util.ClassUtil;
+import org.junit.Test;
+
+import java.lang.reflect.Method;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Random;
+import java.util.Set;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertNull;
+import static org.junit.Assert.assertTrue;
+import static org.junit.Assert.fail;
+
+public class TestStaticEntryPoints {
+  private static final int ROUNDS = 1000;
+  private static final double[] SPECIAL_DOUBLES = {
+    0.0, -0.0, 1.0, -1.0, Double.NaN, Double.POSITIVE_INFINITY, Double.NEGATIVE_INFINITY, Double.MIN_VALUE
+  };
+
+  private final Random random = new Random(1234);
+
+  @Test
+  public void testFind() throws Exception {
+    assertEquals(GreatestInt.class.getMethod("greatest", int[].class), StaticEntryPoints.find(GreatestInt.class));
+    assertEquals(LastDay.class.getMethod("lastDay", int.class), StaticEntryPoints.find(LastDay.class));
+    assertNull(StaticEntryPoints.find(TestStaticEntryPoints.class));
+  }
+
+  @Test
+  public void testInvalidEntryPoint() {
+    try {
+      StaticEntryPoints.find(NotStatic.class);
+      fail("an instance method is not an entry point");
+    } catch (IllegalArgumentException e) {
+      assertTrue(e.getMessage().contains("not static"));
+    }
+  }
+
+  @Test
+  public void testNullArguments() {
+    Method entryPoint = StaticEntryPoints.find(Hypot.class);
+    assertEquals(NullDatum.get(), StaticEntryPoints.invoke(entryPoint, Type.FLOAT8,
+      new VTuple(new Datum[] {DatumFactory.createFloat8(3), NullDatum.get()})));
+    assertEquals(DatumFactory.createFloat8(5), StaticEntryPoints.invoke(entryPoint, Type.FLOAT8,
+      new VTuple(new Datum[] {DatumFactory.createFloat8(3), DatumFactory.createFloat8(4)})));
+  }
+
+  @Test
+  public void testIgnoredNulls() {
+    QueryContext context = new QueryContext(new TajoConf());
+    context.set(FunctionSessionVars.GREATEST_LEAST_NULLS, FunctionSessionVars.NULLS_IGNORE);
+    GreatestInt greatest = new GreatestInt();
+    greatest.init(context, null);
+    Method entryPoint = StaticEntryPoints.find(GreatestInt.class);
+
+    // without null arguments, the entry point is the same as eval()
+    VTuple values = new VTuple(new Datum[] {DatumFactory.createInt4(3), DatumFactory.createInt4(7)});
+    assertEquals(greatest.eval(values), StaticEntryPoints.invoke(entryPoint, Type.INT4, values));
+
+    // a null argument is skipped only by eval(), so callers must not use the entry point for such rows
+    VTuple withNull = new VTuple(new Datum[] {DatumFactory.createInt4(3), NullDatum.get()});
+    assertEquals(DatumFactory.createInt4(3), greatest.eval(withNull));
+    assertEquals(NullDatum.get(), StaticEntryPoints.invoke(entryPoint, Type.INT4, withNull));
+  }
+
+  @Test
+  public void testSameAsEval() throws Exception {
+    List<Class<?>> tested = new ArrayList<Class<?>>();
+    Set<Class> classes = ClassUtil.findClasses(Function.class, "org.apache.tajo.engine.function");
+    for (Class<?> clazz : classes) {
+      Method entryPoint = StaticEntryPoints.find(clazz);
+      if (entryPoint != null) {
+        assertSameAsEval(clazz, entryPoint);
+        tested.add(clazz);
+      }
+    }
+
+    assertTrue(tested.toString(), tested.contains(GreatestInt.class));
+    assertTrue(tested.toString(), tested.contains(Hypot.class));
+  }
+
+  private void assertSameAsEval(Class<?> clazz, Method entryPoint) throws Exception {
+    Description description = clazz.getAnnotation(Description.class);
+    Type[] paramTypes = paramTypesOf(description, entryPoint);
+    GeneralFunction function = (GeneralFunction) clazz.newInstance();
+    function.init(null, null);
+
+    for (int round = 0; round < ROUNDS; round++) {
+      Datum[] args;
+      if (paramTypes.length == 1 && paramTypes[0].name().endsWith("_ARRAY")) {
+        Type elementType = Type.valueOf(paramTypes[0].name().substring(0, paramTypes[0].name().length() - 6));
+        args = new Datum[1 + random.nextInt(4)];
+        for (int i = 0; i < args.length; i++) {
+          args[i] = randomDatum(elementType);
+        }
+      } else {
+        args = new Datum[paramTypes.length];
+        for (int i = 0; i < args.length; i++) {
+          args[i] = randomDatum(paramTypes[i]);
+        }
+      }
+
+      VTuple params = new VTuple(args);
+      Datum expected = function.eval(params);
+      Datum actual = StaticEntryPoints.invoke(entryPoint, description.returnType(), params);
+      String message = clazz.getSimpleName() + params;
+      if (description.returnType() == Type.FLOAT4 || description.returnType() == Type.FLOAT8) {
+        // compares NaN and signed zeros by their bits
+        assertEquals(message, Double.doubleToLongBits(expected.asFloat8()), Double.doubleToLongBits(actual.asFloat8()));
+      } else {
+        assertEquals(message, expected, actual);
+      }
+    }
+  }
+
+  private static Type[] paramTypesOf(Description description, Method entryPoint) {
+    int paramNum = entryPoint.getParameterTypes().length;
+    for (ParamTypes paramTypes : description.paramTypes()) {
+      if (paramTypes.paramTypes().length == paramNum) {
+        return paramTypes.paramTypes();
+      }
+    }
+    throw new AssertionError("no parameter types of " + entryPoint);
+  }
+
+  private Datum randomDatum(Type type) {
+    switch (type) {
+    case INT4:
+      return DatumFactory.createInt4(random.nextInt(2001) - 1000);
+    case INT8:
+      return DatumFactory.createInt8(random.nextLong());
+    case FLOAT4:
+      return DatumFactory.createFloat4((float) randomDouble());
+    case FLOAT8:
+      return DatumFactory.createFloat8(randomDouble());
+    case DATE:
+      // julian days from 1900 to 2100
+      return DatumFactory.createDate(2415021 + random.nextInt(73000));
+    case TIME:
+      return DatumFactory.createTime((long) (random.nextDouble() * 86400000000L));
+    case TIMESTAMP:
+      return DatumFactory.createTimestamp(random.nextLong() >> 8);
+    default:
+      throw new AssertionError("unsupported type " + type);
+    }
+  }
+
+  private double randomDouble() {
+    if (random.nextInt(8) == 0) {
+      return SPECIAL_DOUBLES[random.nextInt(SPECIAL_DOUBLES.length)];
+    }
+    // values of various magnitudes, including ones whose squares overflow or underflow
+    return Math.scalb(random.nextDouble() * 2 - 1, random.nextInt(2100) - 1050);
+  }
+
+  public static class NotStatic {
+    @StaticEntryPoint
+    public int identity(int value) {
+      return value;
+    }
+  }
+}
@@ -0,0 +1,66 @@
+/**
+ * Licensed to the Apache Software Foundation (ASF) under one
+ * or more contributor license agreements.  See the NOTICE file
+ * distributed with this work for additional information
+ * regarding copyright ownership.  The ASF licenses this file
+ * to you under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance
+ * with the License.  You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+
+package org.apache.tajo.engine.function.example;
+
+import org.apache.tajo.catalog.Schema;
+import org.apache.tajo.common.TajoDataTypes;
+import org.apache.tajo.engine.function.ExprTest;
+import org.junit.Test;
+
+public class TestMathFunctions extends ExprTest {
+  @Test
+  public void testLog() throws Exception {
+    testSimpleEval("select log(2.0, 8.0) as col1 ", new String[]{"3.0"});
+    testSimpleEval("select log(10.0, 1000.0) as col1 ", new String[]{"3.0"});
+    testSimpleEval("select log(3.0, 1.0) as col1 ", new String[]{"0.0"});
+    testSimpleEval("select log(2.0, null) as col1 ", new String[]{""});
+  }
+
+  @Test
+  public void testLogWithColumns() throws Exception {
+    Schema schema = new Schema();
+    schema.addColumn("col1", TajoDataTypes.Type.FLOAT8);
+    schema.addColumn("col2", TajoDataTypes.Type.FLOAT8);
+
+    testEval(schema, "table1", "2.0,8.0", "select log(col1, col2) from table1;", new String[]{"3.0"});
+    testEval(schema, "table1", "2.0,8.0", "select log(2.0, col2) from table1;", new String[]{"3.0"});
+    testEval(schema, "table1", "5.0,125.0", "select log(col1, col2) from table1;",
+      new String[]{String.valueOf(Math.log(125.0) / Math.log(5.0))});
+  }
+
+  @Test
+  public void testHypot() throws Exception {
+    testSimpleEval("select hypot(3.0, 4.0) as col1 ", new String[]{"5.0"});
+    testSimpleEval("select hypot(-7.5, 0.0) as col1 ", new String[]{"7.5"});
+    testSimpleEval("select hypot(null, 4.0) as col1 ", new String[]{""});
+  }
+
+  @Test
+  public void testHypotWithColumns() throws Exception {
+    Schema schema = new Schema();
+    schema.addColumn("col1", TajoDataTypes.Type.FLOAT8);
+    schema.addColumn("col2", TajoDataTypes.Type.FLOAT8);
+
+    testEval(schema, "table1", "3.0,4.0", "select hypot(col1, col2) from table1;", new String[]{"5.0"});
+    // the squares would overflow
+    testEval(schema, "table1", "1.0E300,1.0E300", "select hypot(col1, col2) from table1;",
+      new String[]{String.valueOf(Math.hypot(1e300, 1e300))});
+  }
+}
@@ -18,9 +18,16 @@
 
 package org.apache.tajo.engine.function.example;
 
+import org.apache.tajo.catalog.Schema;
+import org.apache.tajo.common.TajoDataTypes;
 import org.apache.tajo.engine.function.ExprTest;
 import org.junit.Test;
 
+import java.math.BigDecimal;
+import java.util.Random;
+
+import static org.junit.Assert.assertEquals;
+
 public class TestPow2 extends ExprTest {
   @Test
   public void testPow2() throws Exception {
@@ -28,4 +35,44 @@ public class TestPow2 extends ExprTest {
     testSimpleEval("select pow2(1.0,3) as col1 ", new String[]{String.valueOf(Math.pow(1.0, 3))});
     testSimpleEval("select pow2(20.1,3.1) as col1 ", new String[]{String.valueOf(Math.pow(20.1, 3.1))});
    }
+
+  @Test
+  public void testConstantExponent() throws Exception {
+    testSimpleEval("select pow2(2.0,10) as col1 ", new String[]{"1024.0"});
+    testSimpleEval("select pow2(16.0,0.5) as col1 ", new String[]{"4.0"});
+    testSimpleEval("select pow2(4.0,-1) as col1 ", new String[]{"0.25"});
+    testSimpleEval("select pow2(5.0,0) as col1 ", new String[]{"1.0"});
+    testSimpleEval("select pow2(null,2) as col1 ", new String[]{""});
+  }
+
+  @Test
+  public void testColumnExponent() throws Exception {
+    Schema schema = new Schema();
+    schema.addColumn("col1", TajoDataTypes.Type.FLOAT8);
+    schema.addColumn("col2", TajoDataTypes.Type.FLOAT8);
+
+    testEval(schema, "table1", "2.0,10.0", "select pow2(col1, col2) from table1;", new String[]{"1024.0"});
+    testEval(schema, "table1", "20.1,3.1", "select pow2(col1, col2) from table1;",
+      new String[]{String.valueOf(Math.pow(20.1, 3.1))});
+    testEval(schema, "table1", "1.5,3.0", "select pow2(col1, 3) from table1;",
+      new String[]{String.valueOf(1.5 * 1.5 * 1.5)});
+  }
+
+  @Test
+  public void testMultiplyErrorBound() {
+    // ulps from the correctly rounded result, by the exponent
+    int[] bounds = {0, 0, 0, 2, 3};
+    assertEquals(Pow2.MAX_MULTIPLY_EXPONENT + 1, bounds.length);
+
+    Random random = new Random(42);
+    for (int i = 0; i < 100000; i++) {
+      // the powers of these are normal numbers
+      double x = Math.scalb(1 + random.nextDouble(), random.nextInt(400) - 200) * (random.nextBoolean() ? 1 : -1);
+      for (int n = 0; n <= Pow2.MAX_MULTIPLY_EXPONENT; n++) {
+        double exact = new BigDecimal(x).pow(n).doubleValue();
+        assertEquals(x + "^" + n, exact, Pow2.MULTIPLY[n].apply(x, n), bounds[n] * Math.ulp(exact));
+      }
+    }
+    assertEquals(Double.POSITIVE_INFINITY, Pow2.MULTIPLY[4].apply(1e300, 4), 0);
+  }
 }
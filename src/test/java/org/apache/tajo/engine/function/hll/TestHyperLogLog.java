@@ -0,0 +1,180 @@
+/**
+ * Licensed to the Apache Software Foundation (ASF) under one
+ * or more contributor license agreements.  See the NOTICE file
+ * distributed with this work for additional information
+ * regarding copyright ownership.  The ASF licenses this file
+ * to you under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance
+ * with the License.  You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package org.apache.tajo.engine.function.hll;
+
+import org.junit.Test;
+
+import java.util.Arrays;
+
+import static org.junit.Assert.assertArrayEquals;
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertTrue;
+import static org.junit.Assert.fail;
+
+public class TestHyperLogLog {
+  @Test
+  public void testEmpty() {
+    HyperLogLog sketch = new HyperLogLog();
+    assertEquals(0, sketch.estimate());
+    assertEquals(0, HyperLogLog.fromBytes(sketch.toBytes()).estimate());
+  }
+
+  @Test
+  public void testSparse() {
+    HyperLogLog sketch = new HyperLogLog(14);
+    for (int i = 0; i < 3000; i++) {
+      sketch.addLong(i % 1000);
+    }
+    assertTrue(sketch.isSparse());
+    // linear counting at the sparse precision is nearly exact
+    assertEquals(1000, sketch.estimate());
+  }
+
+  @Test
+  public void testAccuracy() {
+    for (int precision : new int[] {HyperLogLog.MIN_PRECISION, 10, HyperLogLog.DEFAULT_PRECISION}) {
+      double error = 1.04 / Math.sqrt(1 << precision);
+      HyperLogLog sketch = new HyperLogLog(precision);
+      int added = 0;
+      for (int count : new int[] {100, 1000, 10000, 100000, 1000000}) {
+        for (; added < count; added++) {
+          sketch.addString("user" + added);
+        }
+        double relative = Math.abs(sketch.estimate() - count) / (double) count;
+        assertTrue("precision " + precision + ", count " + count + ": " + sketch.estimate(), relative < 4 * error);
+      }
+      assertFalse(sketch.isSparse());
+    }
+  }
+
+  @Test
+  public void testSerialization() {
+    HyperLogLog sketch = new HyperLogLog(12);
+    for (int i = 0; i < 100; i++) {
+      sketch.addLong(i);
+    }
+    byte[] sparse = sketch.toBytes();
+    assertTrue(sparse.length < 400);
+    assertArrayEquals(sparse, HyperLogLog.fromBytes(sparse).toBytes());
+
+    for (int i = 0; i < 100000; i++) {
+      sketch.addLong(i);
+    }
+    byte[] dense = sketch.toBytes();
+    assertEquals(2 + 4096 * 6 / 8, dense.length);
+    assertArrayEquals(dense, HyperLogLog.fromBytes(dense).toBytes());
+    assertEquals(sketch.estimate(), HyperLogLog.fromBytes(dense).estimate());
+  }
+
+  @Test
+  public void testMerge() {
+    HyperLogLog[] parts = new HyperLogLog[4];
+    HyperLogLog all = new HyperLogLog(11);
+    for (int i = 0; i < parts.length; i++) {
+      parts[i] = new HyperLogLog(11);
+      // some parts stay sparse, and the values of the parts overlap
+      for (int j = 0; j < (i + 1) * (i + 1) * 200; j++) {
+        parts[i].addLong(j * 3 + i);
+        all.addLong(j * 3 + i);
+      }
+    }
+
+    HyperLogLog merged = new HyperLogLog(11);
+    for (HyperLogLog part : parts) {
+      merged.merge(HyperLogLog.fromBytes(part.toBytes()));
+    }
+    assertArrayEquals(all.toBytes(), merged.toBytes());
+  }
+
+  @Test
+  public void testMergeIntoBufferedSketch() {
+    // the sketch has adds which are not compacted yet, and the merge crosses the sparse limit
+    HyperLogLog merged = new HyperLogLog(14);
+    HyperLogLog other = new HyperLogLog(14);
+    HyperLogLog all = new HyperLogLog(14);
+    for (int i = 0; i < 3500; i++) {
+      merged.addLong(i);
+      all.addLong(i);
+    }
+    for (int i = 0; i < 1100; i++) {
+      other.addLong(-1 - i);
+      all.addLong(-1 - i);
+    }
+
+    merged.merge(other);
+    assertArrayEquals(all.toBytes(), merged.toBytes());
+    assertEquals(all.estimate(), merged.estimate());
+  }
+
+  @Test
+  public void testMergeDifferentPrecisions() {
+    for (int count : new int[] {50, 50000}) {
+      HyperLogLog high = new HyperLogLog(14);
+      HyperLogLog low = new HyperLogLog(10);
+      HyperLogLog expected = new HyperLogLog(10);
+      for (int i = 0; i < count; i++) {
+        high.addLong(i);
+        expected.addLong(i);
+      }
+
+      // the sketch of the higher precision is reduced to the lower one
+      low.merge(high);
+      assertEquals(10, low.precision());
+      assertArrayEquals(expected.toBytes(), low.toBytes());
+
+      HyperLogLog copy = HyperLogLog.fromBytes(high.toBytes());
+      copy.merge(new HyperLogLog(10));
+      assertEquals(expected.estimate(), copy.estimate());
+    }
+  }
+
+  @Test
+  public void testInvalid() {
+    assertInvalid(new byte[] {1});
+    assertInvalid(new byte[] {3, 14});
+    assertInvalid(new byte[] {2, 14, 0});
+    assertInvalid(new byte[] {1, 30, 0});
+    byte[] bytes = new HyperLogLog(14).toBytes();
+    assertInvalid(Arrays.copyOf(bytes, bytes.length + 1));
+
+    try {
+      new HyperLogLog(HyperLogLog.MAX_PRECISION + 1);
+      fail();
+    } catch (IllegalArgumentException e) {
+      // expected
+    }
+  }
+
+  @Test
+  public void testHashBytes() {
+    // MurmurHash3_x64_128 of "hello" with seed 0 is cbd8a7b341bd9b02 5b1e906a48ae1d19
+    byte[] hello = "hello".getBytes();
+    assertEquals(0xcbd8a7b341bd9b02L, HyperLogLog.hashBytes(hello, 0, hello.length));
+  }
+
+  private static void assertInvalid(byte[] bytes) {
+    try {
+      HyperLogLog.fromBytes(bytes);
+      fail(Arrays.toString(bytes));
+    } catch (IllegalArgumentException e) {
+      // expected
+    }
+  }
+}
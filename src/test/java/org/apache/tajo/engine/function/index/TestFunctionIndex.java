@@ -0,0 +1,91 @@
+/**
+ * Licensed to the Apache Software Foundation (ASF) under one
+ * or more contributor license agreements.  See the NOTICE file
+ * distributed with this work for additional information
+ * regarding copyright ownership.  The ASF licenses this file
+ * to you under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance
+ * with the License.  You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package org.apache.tajo.engine.function.index;
+
+import org.apache.tajo.catalog.FunctionDesc;
+import org.apache.tajo.catalog.proto.CatalogProtos.FunctionType;
+import org.apache.tajo.common.TajoDataTypes.Type;
+import org.apache.tajo.engine.function.FromUtcTimestamp;
+import org.apache.tajo.engine.function.GreatestInt;
+import org.apache.tajo.engine.function.annotation.Description;
+import org.apache.tajo.function.Function;
+import org.apache.tajo.util.ClassUtil;
+import org.junit.Test;
+
+import java.lang.reflect.Modifier;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Set;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertNotNull;
+
+public class TestFunctionIndex {
+  @Test
+  public void testLoad() throws Exception {
+    List<FunctionDesc> descs = FunctionIndex.load();
+
+    FunctionDesc greatest = find(descs, "greatest", Type.INT4_ARRAY);
+    assertNotNull(greatest);
+    assertEquals(GreatestInt.class, greatest.getLegacyFuncClass());
+    assertEquals(FunctionType.GENERAL, greatest.getFuncType());
+    assertEquals(Type.INT4, greatest.getReturnType().getType());
+    assertEquals(GreatestInt.class.getAnnotation(Description.class).example(), greatest.getExample());
+
+    FunctionDesc fromUtc = find(descs, "from_utc_timestamp", Type.TIMESTAMP, Type.TEXT);
+    assertNotNull(fromUtc);
+    assertEquals(FromUtcTimestamp.class, fromUtc.getLegacyFuncClass());
+    assertEquals(FromUtcTimestamp.class.getAnnotation(Description.class).detail(), fromUtc.getDetail());
+  }
+
+  @Test
+  public void testAllFunctionsIndexed() throws Exception {
+    // the functions which the package scan of Tajo finds in the classes of this project
+    Set<Class> scanned = new HashSet<Class>();
+    for (Class clazz : ClassUtil.findClasses(Function.class, "org.apache.tajo.engine.function")) {
+      if (!Modifier.isAbstract(clazz.getModifiers()) && clazz.isAnnotationPresent(Description.class)
+        && clazz.getProtectionDomain().getCodeSource().equals(
+          GreatestInt.class.getProtectionDomain().getCodeSource())) {
+        scanned.add(clazz);
+      }
+    }
+
+    Set<Class> indexed = new HashSet<Class>();
+    for (FunctionDesc desc : FunctionIndex.load()) {
+      indexed.add(desc.getLegacyFuncClass());
+    }
+    assertEquals(scanned, indexed);
+  }
+
+  private static FunctionDesc find(List<FunctionDesc> descs, String name, Type... paramTypes) {
+    for (FunctionDesc desc : descs) {
+      if (!desc.getFunctionName().equals(name) || desc.getParamTypes().length != paramTypes.length) {
+        continue;
+      }
+      boolean matched = true;
+      for (int i = 0; i < paramTypes.length; i++) {
+        matched &= desc.getParamTypes()[i].getType() == paramTypes[i];
+      }
+      if (matched) {
+        return desc;
+      }
+    }
+    return null;
+  }
+}
@@ -0,0 +1,401 @@
+/**
+ * Licensed to the Apache Software Foundation (ASF) under one
+ * or more contributor license agreements.  See the NOTICE file
+ * distributed with this work for additional information
+ * regarding copyright ownership.  The ASF licenses this file
+ * to you under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance
+ * with the License.  You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+
+package org.apache.tajo.engine.function.local;
+
+import org.apache.tajo.LocalTajoTestingUtility;
+import org.apache.tajo.OverridableConf;
+import org.apache.tajo.SessionVars;
+import org.apache.tajo.algebra.Expr;
+import org.apache.tajo.catalog.CatalogConstants;
+import org.apache.tajo.catalog.CatalogServer;
+import org.apache.tajo.catalog.CatalogService;
+import org.apache.tajo.catalog.CatalogUtil;
+import org.apache.tajo.catalog.FunctionDesc;
+import org.apache.tajo.catalog.LocalCatalogWrapper;
+import org.apache.tajo.catalog.Schema;
+import org.apache.tajo.catalog.SchemaUtil;
+import org.apache.tajo.catalog.TableDesc;
+import org.apache.tajo.catalog.store.MemStore;
+import org.apache.tajo.common.TajoDataTypes.Type;
+import org.apache.tajo.conf.TajoConf;
+import org.apache.tajo.engine.codegen.EvalCodeGenerator;
+import org.apache.tajo.engine.codegen.TajoClassLoader;
+import org.apache.tajo.engine.function.FunctionLoader;
+import org.apache.tajo.engine.function.FunctionSessionVars;
+import org.apache.tajo.engine.function.index.FunctionIndex;
+import org.apache.tajo.engine.function.metrics.FunctionMetricsRegistry;
+import org.apache.tajo.engine.query.QueryContext;
+import org.apache.tajo.exception.TajoException;
+import org.apache.tajo.parser.sql.SQLAnalyzer;
+import org.apache.tajo.plan.LogicalPlan;
+import org.apache.tajo.plan.LogicalPlanner;
+import org.apache.tajo.plan.Target;
+import org.apache.tajo.plan.expr.EvalContext;
+import org.apache.tajo.plan.expr.EvalNode;
+import org.apache.tajo.plan.logical.NodeType;
+import org.apache.tajo.plan.logical.SelectionNode;
+import org.apache.tajo.plan.verifier.PreLogicalPlanVerifier;
+import org.apache.tajo.plan.verifier.VerificationState;
+import org.apache.tajo.storage.TablespaceManager;
+import org.apache.tajo.storage.Tuple;
+import org.apache.tajo.util.KeyValueSet;
+
+import java.io.Closeable;
+import java.io.File;
+import java.io.IOException;
+import java.util.ArrayList;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Set;
+import java.util.concurrent.Callable;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+
+/**
+ * Evaluates a projection and a filter of a query over local rows in process, to measure the throughput
+ * of functions on millions of rows without {@link org.apache.tajo.TajoTestingCluster}.
+ * <p>
+ * It runs only an in-memory catalog, which holds the functions loaded by {@link FunctionLoader} and
+ * {@link FunctionIndex}, and the schema of the input table. A query like
+ * <code>SELECT nvl(col1, 'x') FROM t WHERE col2 &gt; 0</code> is planned by {@link LogicalPlanner}, and its targets
+ * and qualification are evaluated for each row of a {@link RowSource}. If {@link SessionVars#CODEGEN} is enabled, they are compiled by {@link EvalCodeGenerator}.
+ *
+ * <pre>
+ * usage: LocalEvalEngine -schema col1:TEXT,col2:INT4 (-csv file [-delimiter ,] | -rows n [-nulls ratio])
+ *                        [-threads n] [-table t] [-metrics tag] sql
+ * </pre>
+ */
+public class LocalEvalEngine implements Closeable {
+  private static final String DATABASE = "default";
+
+  private final TajoConf conf;
+  private final CatalogServer catalogServer;
+  private final CatalogService catalog;
+  private final SQLAnalyzer analyzer = new SQLAnalyzer();
+  private final PreLogicalPlanVerifier verifier;
+  private final LogicalPlanner planner;
+
+  public LocalEvalEngine() throws IOException {
+    conf = new TajoConf();
+    conf.set(CatalogConstants.STORE_CLASS, MemStore.class.getCanonicalName());
+    conf.setVar(TajoConf.ConfVars.CATALOG_ADDRESS, "localhost:0");
+
+    catalogServer = new CatalogServer();
+    catalogServer.init(conf);
+    catalogServer.start();
+    catalog = new LocalCatalogWrapper(catalogServer);
+
+    File warehouse = new File(System.getProperty("java.io.tmpdir"), "tajo-udf-local");
+    catalog.createTablespace(DATABASE, warehouse.toURI().toString());
+    catalog.createDatabase(DATABASE, DATABASE);
+    List<FunctionDesc> udfs = FunctionIndex.load();
+    Set<Class> indexed = new HashSet<Class>();
+    for (FunctionDesc function : udfs) {
+      indexed.add(function.getLegacyFuncClass());
+    }
+    // the built-in functions of Tajo, and the functions of this project from the index
+    for (FunctionDesc function : FunctionLoader.load().values()) {
+      if (!indexed.contains(function.getLegacyFuncClass())) {
+        catalog.createFunction(function);
+      }
+    }
+    for (FunctionDesc function : udfs) {
+      catalog.createFunction(function);
+    }
+
+    verifier = new PreLogicalPlanVerifier(catalog);
+    planner = new LogicalPlanner(catalog, TablespaceManager.getInstance());
+  }
+
+  /**
+   * A planned query, which can be run many times.
+   */
+  public static class Query {
+    final QueryContext context;
+    final Schema schema;
+    final EvalNode[] targets;
+    final EvalNode qual;
+
+    Query(QueryContext context, Schema schema, EvalNode[] targets, EvalNode qual) {
+      this.context = context;
+      this.schema = schema;
+      this.targets = targets;
+      this.qual = qual;
+    }
+  }
+
+  public Query prepare(String tableName, Schema schema, String sql) throws TajoException {
+    return prepare(tableName, schema, sql, null);
+  }
+
+  /**
+   * Plans a query over a table of the given schema.
+   *
+   * @param session session variables of the query, or null
+   */
+  public Query prepare(String tableName, Schema schema, String sql, OverridableConf session) throws TajoException {
+    QueryContext context = LocalTajoTestingUtility.createDummyContext(conf);
+    if (session != null) {
+      context.putAll(session);
+    }
+
+    String qualifiedName = CatalogUtil.buildFQName(DATABASE, CatalogUtil.normalizeIdentifier(tableName));
+    Schema inputSchema = SchemaUtil.clone(schema);
+    inputSchema.setQualifier(qualifiedName);
+    if (catalog.existsTable(qualifiedName)) {
+      catalog.dropTable(qualifiedName);
+    }
+    catalog.createTable(new TableDesc(qualifiedName, inputSchema, "TEXT", new KeyValueSet(),
+      new File(System.getProperty("java.io.tmpdir"), qualifiedName).toURI()));
+
+    Expr expr = analyzer.parse(sql);
+    VerificationState state = new VerificationState();
+    verifier.verify(context, state, expr);
+    if (state.getErrors().size() > 0) {
+      throw new IllegalArgumentException(sql, state.getErrors().get(0));
+    }
+
+    LogicalPlan plan = planner.createPlan(context, expr);
+    Target[] targets = plan.getRootBlock().getRawTargets();
+    EvalNode[] evals = new EvalNode[targets.length];
+    for (int i = 0; i < targets.length; i++) {
+      evals[i] = targets[i].getEvalTree();
+    }
+    SelectionNode selection = plan.getRootBlock().getNode(NodeType.SELECTION);
+    return new Query(context, inputSchema, evals, selection == null ? null : selection.getQual());
+  }
+
+  /**
+   * The result of a run. The checksum of the results keeps them from being optimized away.
+   */
+  public static class Stats {
+    private final long rows;
+    private final long selected;
+    private final long bytes;
+    private final long nanos;
+    private final long checksum;
+
+    Stats(long rows, long selected, long bytes, long nanos, long checksum) {
+      this.rows = rows;
+      this.selected = selected;
+      this.bytes = bytes;
+      this.nanos = nanos;
+      this.checksum = checksum;
+    }
+
+    public long getRows() {
+      return rows;
+    }
+
+    public long getSelectedRows() {
+      return selected;
+    }
+
+    public long getBytes() {
+      return bytes;
+    }
+
+    public long getNanos() {
+      return nanos;
+    }
+
+    public long getChecksum() {
+      return checksum;
+    }
+
+    public double getRowsPerSecond() {
+      return nanos == 0 ? 0 : rows * 1e9 / nanos;
+    }
+
+    public double getBytesPerSecond() {
+      return nanos == 0 ? 0 : bytes * 1e9 / nanos;
+    }
+
+    @Override
+    public String toString() {
+      return String.format("%,d rows (%,d selected), %,d bytes in %.3f s: %,.0f rows/s, %,.1f MB/s",
+        rows, selected, bytes, nanos / 1e9, getRowsPerSecond(), getBytesPerSecond() / (1 << 20));
+    }
+  }
+
+  /**
+   * Evaluates the query for all rows of the source on the given number of threads.
+   */
+  public Stats run(final Query query, final RowSource source, int threads) throws IOException {
+    ExecutorService executor = Executors.newFixedThreadPool(threads);
+    try {
+      List<Future<long[]>> futures = new ArrayList<Future<long[]>>(threads);
+      long start = System.nanoTime();
+      for (int i = 0; i < threads; i++) {
+        futures.add(executor.submit(new Callable<long[]>() {
+          @Override
+          public long[] call() throws Exception {
+            return evaluate(query, source);
+          }
+        }));
+      }
+
+      long[] total = new long[4];
+      for (Future<long[]> future : futures) {
+        long[] result = future.get();
+        for (int i = 0; i < total.length; i++) {
+          total[i] += result[i];
+        }
+      }
+      return new Stats(total[0], total[1], total[2], System.nanoTime() - start, total[3]);
+    } catch (InterruptedException e) {
+      Thread.currentThread().interrupt();
+      throw new IOException(e);
+    } catch (ExecutionException e) {
+      throw new IOException(e.getCause());
+    } finally {
+      executor.shutdownNow();
+    }
+  }
+
+  /**
+   * @return the number of rows, selected rows and bytes, and the checksum of results
+   */
+  private static long[] evaluate(Query query, RowSource source) throws Exception {
+    TajoClassLoader classLoader = new TajoClassLoader();
+    EvalCodeGenerator codegen = query.context.getBool(SessionVars.CODEGEN) ? new EvalCodeGenerator(classLoader) : null;
+    EvalContext evalContext = new EvalContext();
+
+    EvalNode[] targets = new EvalNode[query.targets.length];
+    for (int i = 0; i < targets.length; i++) {
+      targets[i] = bind(query.targets[i], query.schema, evalContext, codegen);
+    }
+    EvalNode qual = query.qual == null ? null : bind(query.qual, query.schema, evalContext, codegen);
+
+    long rows = 0;
+    long selected = 0;
+    long bytes = 0;
+    long checksum = 0;
+    RowSource.Batch batch = new RowSource.Batch();
+    try {
+      while (source.next(batch)) {
+        for (int i = 0; i < batch.size; i++) {
+          Tuple row = batch.rows[i];
+          if (qual != null && !qual.eval(row).isTrue()) {
+            continue;
+          }
+          selected++;
+          for (EvalNode target : targets) {
+            checksum += target.eval(row).hashCode();
+          }
+        }
+        rows += batch.size;
+        bytes += batch.bytes;
+      }
+    } finally {
+      try {
+        classLoader.clean();
+      } catch (Throwable e) {
+        // only the generated classes are left
+      }
+    }
+    return new long[]{rows, selected, bytes, checksum};
+  }
+
+  private static EvalNode bind(EvalNode eval, Schema schema, EvalContext evalContext, EvalCodeGenerator codegen)
+    throws CloneNotSupportedException {
+    EvalNode bound = (EvalNode) eval.clone();
+    if (codegen != null) {
+      bound = codegen.compile(schema, bound);
+    }
+    bound.bind(evalContext, schema);
+    return bound;
+  }
+
+  @Override
+  public void close() {
+    catalogServer.stop();
+  }
+
+  public static void main(String[] args) throws Exception {
+    Schema schema = null;
+    File csv = null;
+    char delimiter = ',';
+    long rows = 1000000;
+    double nulls = 0.1;
+    int threads = 1;
+    String table = "t";
+    String metricsTag = null;
+    String sql = null;
+
+    for (int i = 0; i < args.length; i++) {
+      String arg = args[i];
+      if ("-schema".equals(arg)) {
+        schema = parseSchema(args[++i]);
+      } else if ("-csv".equals(arg)) {
+        csv = new File(args[++i]);
+      } else if ("-delimiter".equals(arg)) {
+        delimiter = args[++i].charAt(0);
+      } else if ("-rows".equals(arg)) {
+        rows = Long.parseLong(args[++i]);
+      } else if ("-nulls".equals(arg)) {
+        nulls = Double.parseDouble(args[++i]);
+      } else if ("-threads".equals(arg)) {
+        threads = Integer.parseInt(args[++i]);
+      } else if ("-table".equals(arg)) {
+        table = args[++i];
+      } else if ("-metrics".equals(arg)) {
+        metricsTag = args[++i];
+      } else {
+        sql = arg;
+      }
+    }
+    if (schema == null || sql == null) {
+      System.err.println("usage: LocalEvalEngine -schema col1:TEXT,col2:INT4 (-csv file [-delimiter ,] | "
+        + "-rows n [-nulls ratio]) [-threads n] [-table t] [-metrics tag] sql");
+      System.exit(2);
+    }
+
+    LocalEvalEngine engine = new LocalEvalEngine();
+    RowSource source = csv != null ? RowSource.csv(csv, schema, delimiter)
+      : RowSource.generated(schema, rows, nulls, 1234);
+    QueryContext session = null;
+    if (metricsTag != null) {
+      session = new QueryContext(new TajoConf());
+      session.set(FunctionSessionVars.UDF_METRICS, "true");
+      session.set(FunctionSessionVars.UDF_METRICS_TAG, metricsTag);
+    }
+    try {
+      System.out.println(engine.run(engine.prepare(table, schema, sql, session), source, threads));
+      if (metricsTag != null) {
+        System.out.print(FunctionMetricsRegistry.summary(metricsTag));
+      }
+    } finally {
+      source.close();
+      engine.close();
+    }
+  }
+
+  static Schema parseSchema(String columns) {
+    Schema schema = new Schema();
+    for (String column : columns.split(",")) {
+      String[] nameAndType = column.trim().split(":");
+      schema.addColumn(nameAndType[0], Type.valueOf(nameAndType[1].trim().toUpperCase()));
+    }
+    return schema;
+  }
+}
@@ -0,0 +1,208 @@
+/**
+ * Licensed to the Apache Software Foundation (ASF) under one
+ * or more contributor license agreements.  See the NOTICE file
+ * distributed with this work for additional information
+ * regarding copyright ownership.  The ASF licenses this file
+ * to you under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance
+ * with the License.  You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+
+package org.apache.tajo.engine.function.local;
+
+import org.apache.tajo.catalog.Column;
+import org.apache.tajo.catalog.Schema;
+import org.apache.tajo.common.TajoDataTypes.Type;
+import org.apache.tajo.datum.Datum;
+import org.apache.tajo.datum.DatumFactory;
+import org.apache.tajo.datum.NullDatum;
+import org.apache.tajo.storage.Tuple;
+import org.apache.tajo.storage.VTuple;
+
+import java.io.BufferedReader;
+import java.io.Closeable;
+import java.io.File;
+import java.io.FileInputStream;
+import java.io.IOException;
+import java.io.InputStreamReader;
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Random;
+
+/**
+ * Rows for {@link LocalEvalEngine}, which are read by multiple threads in batches.
+ */
+public abstract class RowSource implements Closeable {
+  public static final int BATCH_SIZE = 1024;
+
+  /**
+   * A batch of rows. The tuples may be reused for the next batch.
+   */
+  public static class Batch {
+    final Tuple[] rows = new Tuple[BATCH_SIZE];
+    int size;
+    long bytes;
+  }
+
+  /**
+   * Fills the next rows into the batch. It is called by multiple threads.
+   *
+   * @return false if there are no more rows
+   */
+  public abstract boolean next(Batch batch) throws IOException;
+
+  @Override
+  public void close() throws IOException {
+  }
+
+  /**
+   * Reads a delimited text file. Empty fields are null.
+   */
+  public static RowSource csv(File file, Schema schema, char delimiter) throws IOException {
+    return new CsvSource(file, schema, delimiter);
+  }
+
+  /**
+   * Generates random rows. A pool of distinct rows is generated in advance and repeated,
+   * so that generating values is not measured.
+   */
+  public static RowSource generated(Schema schema, long rows, double nullRatio, long seed) {
+    return new GeneratedSource(schema, rows, nullRatio, seed);
+  }
+
+  private static class CsvSource extends RowSource {
+    private final BufferedReader reader;
+    private final Schema schema;
+    private final char delimiter;
+
+    CsvSource(File file, Schema schema, char delimiter) throws IOException {
+      this.reader = new BufferedReader(new InputStreamReader(new FileInputStream(file), StandardCharsets.UTF_8));
+      this.schema = schema;
+      this.delimiter = delimiter;
+    }
+
+    @Override
+    public boolean next(Batch batch) throws IOException {
+      List<String> lines = new ArrayList<String>(BATCH_SIZE);
+      synchronized (this) {
+        String line;
+        while (lines.size() < BATCH_SIZE && (line = reader.readLine()) != null) {
+          lines.add(line);
+        }
+      }
+
+      batch.size = lines.size();
+      batch.bytes = 0;
+      for (int i = 0; i < batch.size; i++) {
+        if (batch.rows[i] == null) {
+          batch.rows[i] = new VTuple(schema.size());
+        }
+        parse(lines.get(i), batch.rows[i]);
+        batch.bytes += lines.get(i).length() + 1;
+      }
+      return batch.size > 0;
+    }
+
+    private void parse(String line, Tuple row) {
+      int from = 0;
+      for (int i = 0; i < schema.size(); i++) {
+        int to = line.indexOf(delimiter, from);
+        if (to < 0) {
+          to = line.length();
+        }
+        String field = from < line.length() ? line.substring(from, to) : "";
+        Column column = schema.getColumn(i);
+        row.put(i, field.isEmpty() ? NullDatum.get() : DatumFactory.createFromString(column.getDataType(), field));
+        from = to + 1;
+      }
+    }
+
+    @Override
+    public void close() throws IOException {
+      reader.close();
+    }
+  }
+
+  private static class GeneratedSource extends RowSource {
+    private static final int POOL_SIZE = 64 * BATCH_SIZE;
+    private static final int TEXT_LENGTH = 16;
+
+    private final Tuple[] pool;
+    private final long[] sizes;
+    private final long rows;
+    private long read;
+
+    GeneratedSource(Schema schema, long rows, double nullRatio, long seed) {
+      this.rows = rows;
+      int poolSize = (int) Math.min(rows, POOL_SIZE);
+      pool = new Tuple[poolSize];
+      sizes = new long[poolSize];
+
+      Random random = new Random(seed);
+      for (int row = 0; row < poolSize; row++) {
+        Datum[] values = new Datum[schema.size()];
+        for (int i = 0; i < values.length; i++) {
+          Type type = schema.getColumn(i).getDataType().getType();
+          values[i] = random.nextDouble() < nullRatio ? NullDatum.get() : random(random, type);
+          sizes[row] += values[i].size();
+        }
+        pool[row] = new VTuple(values);
+      }
+    }
+
+    private static Datum random(Random random, Type type) {
+      switch (type) {
+      case BOOLEAN:
+        return DatumFactory.createBool(random.nextBoolean());
+      case INT2:
+        return DatumFactory.createInt2((short) random.nextInt());
+      case INT4:
+        return DatumFactory.createInt4(random.nextInt());
+      case INT8:
+        return DatumFactory.createInt8(random.nextLong());
+      case FLOAT4:
+        return DatumFactory.createFloat4(random.nextFloat() * 1000);
+      case FLOAT8:
+        return DatumFactory.createFloat8(random.nextDouble() * 1000);
+      case DATE:
+        return DatumFactory.createDate(1950 + random.nextInt(100), 1 + random.nextInt(12), 1 + random.nextInt(28));
+      case TEXT:
+        char[] chars = new char[TEXT_LENGTH];
+        for (int i = 0; i < chars.length; i++) {
+          chars[i] = (char) ('a' + random.nextInt(26));
+        }
+        return DatumFactory.createText(new String(chars));
+      default:
+        throw new IllegalArgumentException("Unsupported type for generated rows: " + type);
+      }
+    }
+
+    @Override
+    public boolean next(Batch batch) {
+      long from;
+      synchronized (this) {
+        from = read;
+        batch.size = (int) Math.min(BATCH_SIZE, rows - read);
+        read += batch.size;
+      }
+
+      batch.bytes = 0;
+      for (int i = 0; i < batch.size; i++) {
+        int row = (int) ((from + i) % pool.length);
+        batch.rows[i] = pool[row];
+        batch.bytes += sizes[row];
+      }
+      return batch.size > 0;
+    }
+  }
+}
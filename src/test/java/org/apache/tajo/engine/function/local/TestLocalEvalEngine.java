@@ -0,0 +1,121 @@
+/**
+ * Licensed to the Apache Software Foundation (ASF) under one
+ * or more contributor license agreements.  See the NOTICE file
+ * distributed with this work for additional information
+ * regarding copyright ownership.  The ASF licenses this file
+ * to you under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance
+ * with the License.  You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+
+package org.apache.tajo.engine.function.local;
+
+import org.apache.tajo.catalog.Schema;
+import org.apache.tajo.conf.TajoConf;
+import org.apache.tajo.engine.function.FunctionSessionVars;
+import org.apache.tajo.engine.function.metrics.FunctionMetrics;
+import org.apache.tajo.engine.function.metrics.FunctionMetricsRegistry;
+import org.apache.tajo.engine.query.QueryContext;
+import org.junit.AfterClass;
+import org.junit.BeforeClass;
+import org.junit.Test;
+
+import java.io.File;
+import java.io.FileOutputStream;
+import java.io.OutputStreamWriter;
+import java.io.Writer;
+import java.nio.charset.StandardCharsets;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertTrue;
+
+public class TestLocalEvalEngine {
+  private static LocalEvalEngine engine;
+
+  @BeforeClass
+  public static void setUp() throws Exception {
+    engine = new LocalEvalEngine();
+  }
+
+  @AfterClass
+  public static void tearDown() {
+    engine.close();
+  }
+
+  @Test
+  public void testGeneratedRows() throws Exception {
+    Schema schema = LocalEvalEngine.parseSchema("col1:TEXT,col2:TEXT,col3:INT4");
+    LocalEvalEngine.Query query = engine.prepare("t", schema,
+      "select nvl(col1, col2), replace(col1, 'a', 'b'), greatest(col3, 0) from t");
+
+    LocalEvalEngine.Stats stats = engine.run(query, RowSource.generated(schema, 100000, 0.1, 1234), 4);
+    assertEquals(100000, stats.getRows());
+    assertEquals(100000, stats.getSelectedRows());
+    assertTrue(stats.getBytes() > 0);
+    assertTrue(stats.getRowsPerSecond() > 0);
+
+    // every thread evaluates its own copy of the query
+    LocalEvalEngine.Stats single = engine.run(query, RowSource.generated(schema, 100000, 0.1, 1234), 1);
+    assertEquals(single.getChecksum(), stats.getChecksum());
+  }
+
+  @Test
+  public void testCsv() throws Exception {
+    File csv = File.createTempFile("rows", ".csv");
+    csv.deleteOnExit();
+    Writer writer = new OutputStreamWriter(new FileOutputStream(csv), StandardCharsets.UTF_8);
+    try {
+      writer.write("tajo,1\n,2\nhadoop,-3\n,\n");
+    } finally {
+      writer.close();
+    }
+
+    Schema schema = LocalEvalEngine.parseSchema("name:TEXT,id:INT4");
+    LocalEvalEngine.Query query = engine.prepare("csv", schema,
+      "select nvl(name, 'none') from csv where nvl(id, 0) > 0");
+    RowSource source = RowSource.csv(csv, schema, ',');
+    try {
+      LocalEvalEngine.Stats stats = engine.run(query, source, 2);
+      assertEquals(4, stats.getRows());
+      assertEquals(2, stats.getSelectedRows());
+    } finally {
+      source.close();
+    }
+  }
+
+  @Test
+  public void testMetrics() throws Exception {
+    QueryContext session = new QueryContext(new TajoConf());
+    session.set(FunctionSessionVars.UDF_METRICS, "true");
+    session.set(FunctionSessionVars.UDF_METRICS_TAG, "testLocalMetrics");
+
+    Schema schema = LocalEvalEngine.parseSchema("col1:TEXT,col2:TEXT");
+    LocalEvalEngine.Query query = engine.prepare("metrics", schema, "select nvl(col1, col2) from metrics", session);
+    try {
+      engine.run(query, RowSource.generated(schema, 10000, 0.1, 1234), 2);
+
+      // the functions created by the planned query record into the tag of the session
+      FunctionMetrics metrics = FunctionMetricsRegistry.get("nvl", "testLocalMetrics");
+      assertEquals(10000, metrics.getInvocations());
+      assertTrue(metrics.getNullInputs() > 0);
+      assertTrue(metrics.getSampledCalls() > 0);
+      assertTrue(FunctionMetricsRegistry.summary("testLocalMetrics").contains("nvl"));
+    } finally {
+      FunctionMetricsRegistry.remove("testLocalMetrics");
+    }
+
+    // without the session variable, nothing is recorded
+    engine.run(engine.prepare("metrics", schema, "select nvl(col1, col2) from metrics"),
+      RowSource.generated(schema, 100, 0.1, 1234), 1);
+    assertTrue(FunctionMetricsRegistry.getMetrics("default").isEmpty());
+  }
+}
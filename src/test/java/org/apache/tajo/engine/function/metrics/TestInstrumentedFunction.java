@@ -0,0 +1,115 @@
+/**
+ * Licensed to the Apache Software Foundation (ASF) under one
+ * or more contributor license agreements.  See the NOTICE file
+ * distributed with this work for additional information
+ * regarding copyright ownership.  The ASF licenses this file
+ * to you under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance
+ * with the License.  You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+
+package org.apache.tajo.engine.function.metrics;
+
+import org.apache.tajo.common.TajoDataTypes;
+import org.apache.tajo.conf.TajoConf;
+import org.apache.tajo.datum.Datum;
+import org.apache.tajo.datum.DatumFactory;
+import org.apache.tajo.datum.NullDatum;
+import org.apache.tajo.engine.function.FunctionSessionVars;
+import org.apache.tajo.engine.function.NvlText;
+import org.apache.tajo.engine.function.vector.ColumnVector;
+import org.apache.tajo.engine.query.QueryContext;
+import org.apache.tajo.storage.VTuple;
+import org.junit.Test;
+
+import java.lang.management.ManagementFactory;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertNull;
+import static org.junit.Assert.assertSame;
+import static org.junit.Assert.assertTrue;
+
+public class TestInstrumentedFunction {
+  @Test
+  public void testDisabled() {
+    NvlText nvl = new NvlText();
+    nvl.init(null, null);
+    assertNull(nvl.getMetrics());
+    nvl.init(new QueryContext(new TajoConf()), null);
+    assertNull(nvl.getMetrics());
+  }
+
+  @Test
+  public void testMetrics() throws Exception {
+    QueryContext context = new QueryContext(new TajoConf());
+    context.set(FunctionSessionVars.UDF_METRICS, "true");
+    context.set(FunctionSessionVars.UDF_METRICS_TAG, "testMetrics");
+
+    NvlText nvl = new NvlText();
+    nvl.init(context, null);
+
+    Datum value = DatumFactory.createText("tajo");
+    for (int i = 0; i < 200; i++) {
+      Datum first = i % 4 == 0 ? NullDatum.get() : value;
+      assertEquals(value, nvl.eval(new VTuple(new Datum[]{first, value})));
+    }
+
+    FunctionMetrics metrics = nvl.getMetrics();
+    assertSame(metrics, FunctionMetricsRegistry.get("nvl", "testMetrics"));
+    assertEquals(200, metrics.getInvocations());
+    assertEquals(50, metrics.getNullInputs());
+    assertEquals(200 / InstrumentedFunction.SAMPLE_INTERVAL, metrics.getSampledCalls());
+
+    // a batch counts all of its rows, and is sampled once
+    ColumnVector first = new ColumnVector(TajoDataTypes.Type.TEXT, 10);
+    ColumnVector second = new ColumnVector(TajoDataTypes.Type.TEXT, 10);
+    ColumnVector out = new ColumnVector(TajoDataTypes.Type.TEXT, 10);
+    for (int row = 0; row < 10; row++) {
+      first.setDatum(row, row < 3 ? NullDatum.get() : value);
+      second.setDatum(row, value);
+    }
+    nvl.evalBatch(new ColumnVector[]{first, second}, null, 10, out);
+    assertEquals(value, out.getDatum(0));
+    assertEquals(210, metrics.getInvocations());
+    assertEquals(53, metrics.getNullInputs());
+    assertEquals(200 / InstrumentedFunction.SAMPLE_INTERVAL + 1, metrics.getSampledCalls());
+    assertTrue(FunctionMetricsRegistry.summary("testMetrics").contains("nvl"));
+
+    assertTrue(ManagementFactory.getPlatformMBeanServer().isRegistered(
+      FunctionMetricsRegistry.objectName(metrics)));
+    FunctionMetricsRegistry.remove("testMetrics");
+    assertFalse(ManagementFactory.getPlatformMBeanServer().isRegistered(
+      FunctionMetricsRegistry.objectName(metrics)));
+  }
+
+  @Test
+  public void testHistogram() {
+    for (long value = 0; value < 100000; value += 7) {
+      int bucket = LatencyHistogram.bucketOf(value);
+      assertTrue(LatencyHistogram.lowerBoundOf(bucket) <= value);
+      assertTrue(value < LatencyHistogram.lowerBoundOf(bucket + 1));
+    }
+    assertTrue(LatencyHistogram.lowerBoundOf(LatencyHistogram.bucketOf(Long.MAX_VALUE)) > 0);
+
+    LatencyHistogram histogram = new LatencyHistogram();
+    for (int i = 1; i <= 100; i++) {
+      histogram.record(i * 1000);
+    }
+    assertEquals(100, histogram.getCount());
+    assertEquals(100000, histogram.getMax());
+    assertEquals(50500.0, histogram.getMean(), 0);
+    // a value is off by at most 12.5%
+    assertTrue(Math.abs(histogram.getPercentile(50) - 50000) <= 50000 / 8);
+    assertTrue(Math.abs(histogram.getPercentile(99) - 99000) <= 99000 / 8);
+  }
+}
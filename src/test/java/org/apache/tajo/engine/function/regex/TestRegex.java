@@ -0,0 +1,155 @@
+/**
+ * Licensed to the Apache Software Foundation (ASF) under one
+ * or more contributor license agreements.  See the NOTICE file
+ * distributed with this work for additional information
+ * regarding copyright ownership.  The ASF licenses this file
+ * to you under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance
+ * with the License.  You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package org.apache.tajo.engine.function.regex;
+
+import org.junit.Test;
+
+import java.nio.charset.StandardCharsets;
+import java.util.Arrays;
+import java.util.Random;
+import java.util.regex.Matcher;
+import java.util.regex.Pattern;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertTrue;
+
+public class TestRegex {
+  private static final String[] PATTERNS = {
+    // literals, classes and quantifiers
+    "abc", "a|b|", "a*b|a", "(a|ab)(c|bcd)(d*)", "x*", "[a-c]+?c", "\\d{2,3}", "a{2,}", "(\\w+)\\s(\\w+)",
+    "[]a]", "[^]a]+", "[a-]+", "[\\d-z]+", "[a-z&&[^aeiou]]+", "[abc&&b-d]", "[a[0-9]]+", "[\\w&&\\D]+",
+    "\\Q.*\\E+", "[\\Q]-\\E]+", "\\x41|\\x{1F600}|\\u00e9", "\\0101\\t", "\\cA|\\e", "\\h+", "\\v", "\\V+",
+    "\\p{Lu}+", "\\p{IsGreek}+", "\\pL\\PL", "[\\p{Lower}\\d]+", "\\p{InLatin-1 Supplement}", "\\p{javaDigit}",
+    // assertions
+    "^a", "b$", "\\bab", "\\B.", "a\\Z", "a\\z", "\\A.", "^", "$", "\\b", "^*a", "\\Ga", "\\R", "\\R\\R",
+    // inline flags
+    "(?i)abc", "(?i)[a-c]+", "(?i)[^a]+", "(?i:a)b", "a(?i)b|c", "(a(?i)b)c", "(?i)a(?-i)b", "(?i)\\w+",
+    "(?iu)é+", "(?iu)[à-ÿ]+", "(?i)é", "(?iu)σ+", "(?iu)k", "(?iu)[k]", "(?iu)[j-l]",
+    "(?iu)s", "(?iu)i+", "(?i)i+", "(?iu)\\u0130", "(?i)\\p{Lower}+", "(?iu)\\p{Lu}+",
+    "(?s).+", "(?s:a.)b", ".+", "(?d).+", "(?m)^.", "(?m).$", "(?m)^$", "(?md)^.", "(?md).$", "(?d)a$",
+    "(?d)a\\Z", "(?x) a b # comment\n c", "(?x)[ a b ]+", "(?x)a\\ b", "(?U)\\w+", "(?U)\\d+", "(?U)\\bb",
+    "(?U)\\s", "(?U)\\p{Alpha}+", "(?)a",
+    // possessive quantifiers
+    "a*+a", "a++b", "\\d?+\\d", "[ab]{1,2}+b", "x{2}+", "(?:a)*+", ".*+",
+    // capturing
+    "(?<word>[a-z]+)(\\d)?", "((a)|b)+", "(a|(b))+c",
+    // loops end after an iteration which matched an empty string, even below their minimum count
+    "([0-9]*|[a-z])+", ".([^a]*|\\w?)+", "(é*[ab]?|x(?:ab|a)*?)+b*", "(^é*){2}x", "(a?)*?b", "(a|b?){2,3}c",
+    "((a*)+|b)*", "(?:a*|b)*?$", "(\\b|a)+", "(a*){3}b",
+  };
+
+  private static final String[] TEXTS = {
+    "", "a", "abc", "ABC", "aaab", "xaAbBcCd", "abcd", "ab]a-z09 ", "12345", "tajo1234 TAJO",
+    "éÉ àÿŸ", "Σσς αβ", "kKK", "sSſ", "iIİı",
+    "a\nb\r\nc\rd e\u0085", "a\n", "a\r\n", "\n", "\r\n\r\n", "\u0001\u001b\t A b ",
+    "éab éb", "a.*.*", "]]-", "café naïve ٣٤", "1a2", "axa", "éxa", "éx",
+  };
+
+  @Test
+  public void testSameAsPattern() {
+    for (String pattern : PATTERNS) {
+      Regex regex = Regex.compile(pattern);
+      assertTrue(pattern, regex.isLinear());
+      for (String text : TEXTS) {
+        assertSameAsPattern(regex, text);
+      }
+    }
+  }
+
+  @Test
+  public void testRandomTexts() {
+    Random random = new Random(7);
+    char[] alphabet = "aAbB01 _\n\réİ".toCharArray();
+    for (String pattern : PATTERNS) {
+      Regex regex = Regex.compile(pattern);
+      for (int i = 0; i < 50; i++) {
+        char[] text = new char[random.nextInt(12)];
+        for (int j = 0; j < text.length; j++) {
+          text[j] = alphabet[random.nextInt(alphabet.length)];
+        }
+        assertSameAsPattern(regex, new String(text));
+      }
+    }
+  }
+
+  private static void assertSameAsPattern(Regex regex, String text) {
+    String message = regex.pattern() + " on \"" + text + "\"";
+    byte[] bytes = text.getBytes(StandardCharsets.UTF_8);
+    Matcher matcher = Pattern.compile(regex.pattern()).matcher(text);
+    boolean found = matcher.find();
+    assertEquals(message, found, regex.find(bytes));
+    assertEquals(message, matcher.groupCount(), regex.groupCount());
+    for (int group = 0; group <= regex.groupCount(); group++) {
+      byte[] extracted = regex.extract(bytes, group);
+      assertEquals(message + " group " + group, found ? matcher.group(group) : null,
+        extracted == null ? null : new String(extracted, StandardCharsets.UTF_8));
+    }
+    assertEquals(message, matcher.replaceAll("<$0>"),
+      new String(regex.replaceAll(bytes, "<$0>"), StandardCharsets.UTF_8));
+  }
+
+  @Test
+  public void testFallback() {
+    for (String pattern : new String[] {"(a)\\1", "(?<a>b)\\k<a>", "a(?=b)", "a(?!b)", "(?<=a)b", "(?<!a)b",
+      "(?>a|ab)c", "(?:ab)*+", "(a)++", "(?c)a"}) {
+      Regex regex = Regex.compile(pattern);
+      assertFalse(pattern, regex.isLinear());
+      assertSameAsPattern(regex, "abab");
+    }
+  }
+
+  @Test
+  public void testCaseInsensitiveIsLinear() {
+    byte[] text = new byte[100000];
+    Arrays.fill(text, (byte) 'A');
+    Regex regex = Regex.compile("(?i)(a*)*b");
+    assertTrue(regex.isLinear());
+    assertFalse(regex.find(text));
+    assertEquals(null, regex.extract(text, 1));
+  }
+
+  @Test
+  public void testReplaceAllIsLinear() {
+    // Each match needs to know that a*b does not match, which takes the rest of the text without liveness.
+    byte[] text = new byte[200000];
+    Arrays.fill(text, (byte) 'a');
+    byte[] replaced = Regex.compile("a*b|a").replaceAll(text, "x");
+    byte[] expected = new byte[text.length];
+    Arrays.fill(expected, (byte) 'x');
+    assertTrue(Arrays.equals(expected, replaced));
+  }
+
+  @Test
+  public void testDfaCacheFlush() {
+    // The DFA needs a state for each combination of the last 16 bytes, which is more than the cache holds.
+    LazyDfa dfa = new LazyDfa(RegexProgram.compile("[ab]*a[ab]{15}c"), Regex.DFA_MEMORY_LIMIT);
+    Random random = new Random(1);
+    byte[] text = new byte[200000];
+    for (int i = 0; i < text.length; i++) {
+      text[i] = (byte) (random.nextBoolean() ? 'a' : 'b');
+    }
+    assertFalse(dfa.matches(text));
+    assertTrue(dfa.flushCount() > 0);
+
+    text[100000] = 'a';
+    text[100016] = 'c';
+    assertTrue(dfa.matches(text));
+  }
+}
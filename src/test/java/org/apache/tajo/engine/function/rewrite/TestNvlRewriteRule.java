@@ -0,0 +1,109 @@
+/**
+ * Licensed to the Apache Software Foundation (ASF) under one
+ * or more contributor license agreements.  See the NOTICE file
+ * distributed with this work for additional information
+ * regarding copyright ownership.  The ASF licenses this file
+ * to you under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance
+ * with the License.  You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package org.apache.tajo.engine.function.rewrite;
+
+import org.apache.tajo.catalog.CatalogUtil;
+import org.apache.tajo.catalog.Column;
+import org.apache.tajo.catalog.FunctionDesc;
+import org.apache.tajo.catalog.proto.CatalogProtos.FunctionType;
+import org.apache.tajo.common.TajoDataTypes.DataType;
+import org.apache.tajo.common.TajoDataTypes.Type;
+import org.apache.tajo.datum.DatumFactory;
+import org.apache.tajo.engine.function.Nvl2Text;
+import org.apache.tajo.engine.function.NvlText;
+import org.apache.tajo.engine.function.Replace;
+import org.apache.tajo.function.Function;
+import org.apache.tajo.plan.expr.CaseWhenEval;
+import org.apache.tajo.plan.expr.ConstEval;
+import org.apache.tajo.plan.expr.EvalNode;
+import org.apache.tajo.plan.expr.EvalType;
+import org.apache.tajo.plan.expr.FieldEval;
+import org.apache.tajo.plan.expr.GeneralFunctionEval;
+import org.junit.Test;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertSame;
+import static org.junit.Assert.assertTrue;
+
+public class TestNvlRewriteRule {
+  private static final FieldEval COL1 = new FieldEval(new Column("col1", Type.TEXT));
+  private static final FieldEval COL2 = new FieldEval(new Column("col2", Type.TEXT));
+
+  @Test
+  public void testNvl() {
+    EvalNode nvl = call(NvlText.class, "nvl", COL1, replace(COL2));
+    assertTrue(NvlRewriteRule.isRewritable(nvl));
+
+    EvalNode rewritten = NvlRewriteRule.rewrite(nvl);
+    assertEquals(EvalType.CASE, rewritten.getType());
+    CaseWhenEval caseWhen = (CaseWhenEval) rewritten;
+    assertEquals(1, caseWhen.getIfThenEvals().size());
+    assertEquals(EvalType.FUNCTION, caseWhen.getElse().getType());
+  }
+
+  @Test
+  public void testNvl2() {
+    EvalNode nvl2 = call(Nvl2Text.class, "nvl2", COL1, new ConstEval(DatumFactory.createText("a")), replace(COL2));
+    assertTrue(NvlRewriteRule.isRewritable(nvl2));
+
+    CaseWhenEval caseWhen = (CaseWhenEval) NvlRewriteRule.rewrite(nvl2);
+    assertEquals(2, caseWhen.getIfThenEvals().size());
+  }
+
+  @Test
+  public void testNested() {
+    EvalNode inner = call(NvlText.class, "nvl", COL2, replace(COL1));
+    EvalNode outer = call(NvlText.class, "nvl", COL1, inner);
+
+    CaseWhenEval caseWhen = (CaseWhenEval) NvlRewriteRule.rewrite(outer);
+    assertEquals(EvalType.CASE, caseWhen.getElse().getType());
+
+    EvalNode wrapped = replace(inner);
+    assertSame(wrapped, NvlRewriteRule.rewrite(wrapped));
+    assertEquals(EvalType.CASE, ((GeneralFunctionEval) wrapped).getArgs()[0].getType());
+  }
+
+  @Test
+  public void testNotRewritten() {
+    // cheap arguments are not worth a CASE expression
+    assertFalse(NvlRewriteRule.isRewritable(call(NvlText.class, "nvl", COL1, COL2)));
+    // a CASE expression would evaluate an expensive test argument twice
+    assertFalse(NvlRewriteRule.isRewritable(call(NvlText.class, "nvl", replace(COL1), replace(COL2))));
+    assertFalse(NvlRewriteRule.isRewritable(replace(COL1)));
+
+    EvalNode nvl = call(NvlText.class, "nvl", COL1, COL2);
+    assertSame(nvl, NvlRewriteRule.rewrite(nvl));
+  }
+
+  private static EvalNode replace(EvalNode arg) {
+    return call(Replace.class, "replace", arg,
+      new ConstEval(DatumFactory.createText("a")), new ConstEval(DatumFactory.createText("b")));
+  }
+
+  private static EvalNode call(Class<? extends Function> clazz, String name, EvalNode... args) {
+    DataType[] paramTypes = new DataType[args.length];
+    for (int i = 0; i < args.length; i++) {
+      paramTypes[i] = CatalogUtil.newSimpleDataType(Type.TEXT);
+    }
+    FunctionDesc desc = new FunctionDesc(name, clazz, FunctionType.GENERAL,
+      CatalogUtil.newSimpleDataType(Type.TEXT), paramTypes);
+    return new GeneralFunctionEval(null, desc, args);
+  }
+}
@@ -0,0 +1,72 @@
+/**
+ * Licensed to the Apache Software Foundation (ASF) under one
+ * or more contributor license agreements.  See the NOTICE file
+ * distributed with this work for additional information
+ * regarding copyright ownership.  The ASF licenses this file
+ * to you under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance
+ * with the License.  You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package org.apache.tajo.engine.function.rewrite;
+
+import org.apache.tajo.conf.TajoConf;
+import org.apache.tajo.datum.Datum;
+import org.apache.tajo.datum.DatumFactory;
+import org.apache.tajo.engine.function.FunctionSessionVars;
+import org.apache.tajo.engine.function.SysDate;
+import org.apache.tajo.engine.query.QueryContext;
+import org.apache.tajo.plan.rewrite.LogicalPlanRewriteRuleContext;
+import org.apache.tajo.storage.VTuple;
+import org.junit.Test;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertTrue;
+
+public class TestSysDateRewriteRule {
+  private static final String PATTERN = "YYYY-MM-DD HH24:MI:SS.MS";
+
+  @Test
+  public void testSameTimeForAllTasks() throws Exception {
+    QueryContext planned = new QueryContext(new TajoConf());
+
+    SysDateRewriteRule rule = new SysDateRewriteRule();
+    LogicalPlanRewriteRuleContext context = new LogicalPlanRewriteRuleContext(planned, null);
+    assertTrue(rule.isEligible(context));
+    rule.rewrite(context);
+    assertTrue(planned.containsKey(FunctionSessionVars.SYSDATE_TIMESTAMP));
+    assertFalse(rule.isEligible(context));
+
+    // each task receives a copy of the query context and initializes its own instance
+    Datum first = evalInTask(planned);
+    Thread.sleep(20);
+    Datum second = evalInTask(planned);
+    assertEquals(first, second);
+  }
+
+  @Test
+  public void testSessionTimestampKept() {
+    QueryContext planned = new QueryContext(new TajoConf());
+    planned.set(FunctionSessionVars.SYSDATE_TIMESTAMP, "1459468800000");
+
+    assertFalse(new SysDateRewriteRule().isEligible(new LogicalPlanRewriteRuleContext(planned, null)));
+    assertEquals("1459468800000", planned.get(FunctionSessionVars.SYSDATE_TIMESTAMP));
+  }
+
+  private static Datum evalInTask(QueryContext planned) {
+    QueryContext task = new QueryContext(new TajoConf());
+    task.putAll(planned);
+    SysDate sysDate = new SysDate();
+    sysDate.init(task, null);
+    return sysDate.eval(new VTuple(new Datum[]{DatumFactory.createText(PATTERN)}));
+  }
+}
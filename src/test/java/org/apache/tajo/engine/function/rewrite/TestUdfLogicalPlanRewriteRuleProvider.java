@@ -0,0 +1,124 @@
+/**
+ * Licensed to the Apache Software Foundation (ASF) under one
+ * or more contributor license agreements.  See the NOTICE file
+ * distributed with this work for additional information
+ * regarding copyright ownership.  The ASF licenses this file
+ * to you under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance
+ * with the License.  You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package org.apache.tajo.engine.function.rewrite;
+
+import org.apache.tajo.catalog.Schema;
+import org.apache.tajo.common.TajoDataTypes.Type;
+import org.apache.tajo.conf.TajoConf;
+import org.apache.tajo.engine.function.ExprTest;
+import org.apache.tajo.plan.LogicalPlan;
+import org.apache.tajo.plan.Target;
+import org.apache.tajo.plan.expr.EvalNode;
+import org.apache.tajo.plan.expr.EvalTreeUtil;
+import org.apache.tajo.plan.expr.EvalType;
+import org.apache.tajo.plan.expr.FunctionEval;
+import org.apache.tajo.plan.logical.BinaryNode;
+import org.apache.tajo.plan.logical.LogicalNode;
+import org.apache.tajo.plan.logical.Projectable;
+import org.apache.tajo.plan.logical.TableSubQueryNode;
+import org.apache.tajo.plan.logical.UnaryNode;
+import org.junit.Test;
+
+import java.util.ArrayList;
+import java.util.List;
+
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertTrue;
+
+public class TestUdfLogicalPlanRewriteRuleProvider extends ExprTest {
+  private static final String PROVIDER = "tajo.plan.logical.rewriter.provider";
+  private static final String QUERY = "select nvl(col1, replace(col2, 'a', 'b')) from nvl_rewrite";
+
+  @Test
+  public void testNvlRewritten() throws Exception {
+    TajoConf conf = getConf();
+    conf.set(PROVIDER, UdfLogicalPlanRewriteRuleProvider.class.getName());
+
+    List<EvalNode> exprs = findExprs(ExprTest.createPlan(conf, schema(), "nvl_rewrite", QUERY));
+    assertTrue(exprs.toString(), contains(exprs, EvalType.CASE));
+    assertFalse(exprs.toString(), containsNvl(exprs));
+  }
+
+  @Test
+  public void testNotRewrittenByDefault() throws Exception {
+    List<EvalNode> exprs = findExprs(ExprTest.createPlan(getConf(), schema(), "nvl_rewrite", QUERY));
+    assertFalse(exprs.toString(), contains(exprs, EvalType.CASE));
+    assertTrue(exprs.toString(), containsNvl(exprs));
+  }
+
+  private static Schema schema() {
+    Schema schema = new Schema();
+    schema.addColumn("col1", Type.TEXT);
+    schema.addColumn("col2", Type.TEXT);
+    return schema;
+  }
+
+  private static boolean contains(List<EvalNode> exprs, EvalType type) {
+    for (EvalNode expr : exprs) {
+      if (expr.getType() == type || !EvalTreeUtil.findEvalsByType(expr, type).isEmpty()) {
+        return true;
+      }
+    }
+    return false;
+  }
+
+  private static boolean containsNvl(List<EvalNode> exprs) {
+    for (EvalNode expr : exprs) {
+      List<EvalNode> calls = new ArrayList<EvalNode>(EvalTreeUtil.findEvalsByType(expr, EvalType.FUNCTION));
+      if (expr.getType() == EvalType.FUNCTION) {
+        calls.add(expr);
+      }
+      for (EvalNode call : calls) {
+        if ("nvl".equalsIgnoreCase(((FunctionEval) call).getFuncDesc().getFunctionName())) {
+          return true;
+        }
+      }
+    }
+    return false;
+  }
+
+  /**
+   * Collects the target expressions of every node, wherever the optimizer has pushed them.
+   */
+  private static List<EvalNode> findExprs(LogicalPlan plan) {
+    List<EvalNode> exprs = new ArrayList<EvalNode>();
+    for (LogicalPlan.QueryBlock block : plan.getQueryBlocks()) {
+      if (block.getRoot() != null) {
+        findExprs(block.getRoot(), exprs);
+      }
+    }
+    return exprs;
+  }
+
+  private static void findExprs(LogicalNode node, List<EvalNode> exprs) {
+    if (node instanceof Projectable && ((Projectable) node).hasTargets()) {
+      for (Target target : ((Projectable) node).getTargets()) {
+        exprs.add(target.getEvalTree());
+      }
+    }
+    if (node instanceof UnaryNode) {
+      findExprs((LogicalNode) ((UnaryNode) node).getChild(), exprs);
+    } else if (node instanceof BinaryNode) {
+      findExprs((LogicalNode) ((BinaryNode) node).getLeftChild(), exprs);
+      findExprs((LogicalNode) ((BinaryNode) node).getRightChild(), exprs);
+    } else if (node instanceof TableSubQueryNode) {
+      findExprs((LogicalNode) ((TableSubQueryNode) node).getSubQuery(), exprs);
+    }
+  }
+}
@@ -0,0 +1,70 @@
+/**
+ * Licensed to the Apache Software Foundation (ASF) under one
+ * or more contributor license agreements.  See the NOTICE file
+ * distributed with this work for additional information
+ * regarding copyright ownership.  The ASF licenses this file
+ * to you under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance
+ * with the License.  You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package org.apache.tajo.engine.function.specialize;
+
+import org.apache.tajo.common.TajoDataTypes.Type;
+import org.apache.tajo.engine.function.GreatestDate;
+import org.apache.tajo.engine.function.GreatestInt;
+import org.apache.tajo.engine.function.LeastDouble;
+import org.apache.tajo.engine.function.LeastText;
+import org.apache.tajo.engine.function.Nvl2Timestamp;
+import org.apache.tajo.engine.function.NvlBoolean;
+import org.apache.tajo.engine.function.annotation.Description;
+import org.apache.tajo.engine.function.vector.ColumnVector;
+import org.apache.tajo.storage.Tuple;
+import org.junit.Test;
+
+import static org.junit.Assert.assertArrayEquals;
+import static org.junit.Assert.assertEquals;
+
+public class TestSpecializationProcessor {
+  @Test
+  public void testDescriptions() {
+    assertDescription(GreatestInt.class, "greatest", Type.INT4, Type.INT4_ARRAY);
+    assertDescription(LeastText.class, "least", Type.TEXT, Type.TEXT_ARRAY);
+    assertDescription(NvlBoolean.class, "nvl", Type.BOOLEAN, Type.BOOLEAN, Type.BOOLEAN);
+    assertDescription(Nvl2Timestamp.class, "nvl2", Type.TIMESTAMP, Type.TIMESTAMP_ARRAY);
+
+    assertEquals("> SELECT greatest(2, 5, 12, 3) FROM src;\n 12",
+      GreatestInt.class.getAnnotation(Description.class).example());
+    assertEquals("> SELECT least('apples', 'oranges', 'bananas') FROM src;\n 'apples'",
+      LeastText.class.getAnnotation(Description.class).example());
+  }
+
+  @Test
+  public void testSpecializedMethods() throws Exception {
+    for (Class<?> clazz : new Class<?>[] {GreatestInt.class, GreatestDate.class, LeastDouble.class, LeastText.class}) {
+      assertEquals(clazz, clazz.getDeclaredMethod("doEval", Tuple.class).getDeclaringClass());
+      assertEquals(clazz, clazz.getDeclaredMethod("doEvalBatch",
+        ColumnVector[].class, int[].class, int.class, ColumnVector.class).getDeclaringClass());
+    }
+  }
+
+  @Test
+  public void testLiteral() {
+    assertEquals("\"a\\\"b\\\\c\\nd\"", SpecializationProcessor.literal("a\"b\\c\nd"));
+  }
+
+  private static void assertDescription(Class<?> clazz, String name, Type returnType, Type... paramTypes) {
+    Description description = clazz.getAnnotation(Description.class);
+    assertEquals(name, description.functionName());
+    assertEquals(returnType, description.returnType());
+    assertArrayEquals(paramTypes, description.paramTypes()[0].paramTypes());
+  }
+}
@@ -0,0 +1,162 @@
+/**
+ * Licensed to the Apache Software Foundation (ASF) under one
+ * or more contributor license agreements.  See the NOTICE file
+ * distributed with this work for additional information
+ * regarding copyright ownership.  The ASF licenses this file
+ * to you under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance
+ * with the License.  You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package org.apache.tajo.engine.function.vector;
+
+import org.apache.tajo.common.TajoDataTypes.Type;
+import org.apache.tajo.engine.function.GreatestInt;
+import org.apache.tajo.engine.function.GreatestText;
+import org.apache.tajo.engine.function.LastDay;
+import org.apache.tajo.engine.function.LeastDouble;
+import org.apache.tajo.engine.function.MonthsBetween;
+import org.apache.tajo.engine.function.NextDay;
+import org.apache.tajo.engine.function.Nvl2Long;
+import org.apache.tajo.engine.function.NvlText;
+import org.apache.tajo.engine.function.OracleAddMonths;
+import org.apache.tajo.engine.function.RoundDate;
+import org.apache.tajo.engine.function.TruncDate;
+import org.apache.tajo.engine.function.example.Hypot;
+import org.apache.tajo.engine.function.example.Log;
+import org.apache.tajo.engine.function.example.Pow2;
+import org.apache.tajo.plan.function.GeneralFunction;
+import org.junit.Test;
+
+import java.util.Random;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertTrue;
+
+public class TestVectorizedFunctions {
+  private static final int SIZE = 300;
+  private final Random random = new Random(1234);
+
+  @Test
+  public void testVectorize() {
+    assertTrue(RowModeAdapter.vectorize(new GreatestInt()) instanceof GreatestInt);
+  }
+
+  @Test
+  public void testGreatest() {
+    assertSameAsRowMode(new GreatestInt(), Type.INT4, 3);
+    assertSameAsRowMode(new GreatestText(), Type.TEXT, 3);
+  }
+
+  @Test
+  public void testLeast() {
+    assertSameAsRowMode(new LeastDouble(), Type.FLOAT8, 4);
+  }
+
+  @Test
+  public void testNvl() {
+    assertSameAsRowMode(new NvlText(), Type.TEXT, 2);
+  }
+
+  @Test
+  public void testNvl2() {
+    assertSameAsRowMode(new Nvl2Long(), Type.INT8, 3);
+  }
+
+  @Test
+  public void testPow2() {
+    assertSameAsRowMode(new Pow2(), Type.FLOAT8, 2);
+  }
+
+  @Test
+  public void testMathFunctions() {
+    assertSameAsRowMode(new Log(), Type.FLOAT8, 2);
+    assertSameAsRowMode(new Hypot(), Type.FLOAT8, 2);
+  }
+
+  @Test
+  public void testDateFunctions() {
+    assertSameAsRowMode(new LastDay(), Type.DATE, randomDates());
+    assertSameAsRowMode(new OracleAddMonths(), Type.DATE, randomDates(), randomVector(Type.INT4));
+    assertSameAsRowMode(new MonthsBetween(), Type.FLOAT8, randomDates(), randomDates());
+    assertSameAsRowMode(new NextDay(), Type.DATE, randomDates(), randomTexts("sunday", "MON", "Friday"));
+    assertSameAsRowMode(new TruncDate(), Type.DATE, randomDates());
+    assertSameAsRowMode(new TruncDate(), Type.DATE, randomDates(), randomTexts("YYYY", "q", "MM", "IW", "DY"));
+    assertSameAsRowMode(new RoundDate(), Type.DATE, randomDates(), randomTexts("CC", "IYYY", "MON", "WW", "W"));
+  }
+
+  private void assertSameAsRowMode(GeneralFunction function, Type type, int argNum) {
+    ColumnVector[] args = new ColumnVector[argNum];
+    for (int i = 0; i < argNum; i++) {
+      args[i] = randomVector(type);
+    }
+    assertSameAsRowMode(function, type, args);
+  }
+
+  private void assertSameAsRowMode(GeneralFunction function, Type type, ColumnVector... args) {
+    function.init(null, null);
+    int[] selected = new int[SIZE / 3];
+    for (int i = 0; i < selected.length; i++) {
+      selected[i] = i * 3 + 1;
+    }
+
+    for (int[] selection : new int[][]{null, selected}) {
+      int count = selection == null ? SIZE : selection.length;
+      ColumnVector expected = new ColumnVector(type, SIZE);
+      ColumnVector actual = new ColumnVector(type, SIZE);
+      new RowModeAdapter(function).evalBatch(args, selection, count, expected);
+      ((VectorizedFunction) function).evalBatch(args, selection, count, actual);
+
+      for (int i = 0; i < count; i++) {
+        int row = selection == null ? i : selection[i];
+        assertEquals("row " + row, expected.getDatum(row), actual.getDatum(row));
+      }
+    }
+  }
+
+  private ColumnVector randomDates() {
+    ColumnVector vector = randomVector(Type.DATE);
+    for (int row = 0; row < SIZE; row++) {
+      // julian days from 1900 to 2100
+      vector.longs[row] = 2415021 + random.nextInt(73000);
+    }
+    return vector;
+  }
+
+  private ColumnVector randomTexts(String... values) {
+    ColumnVector vector = randomVector(Type.TEXT);
+    for (int row = 0; row < SIZE; row++) {
+      vector.bytes[row] = values[random.nextInt(values.length)].getBytes();
+    }
+    return vector;
+  }
+
+  private ColumnVector randomVector(Type type) {
+    ColumnVector vector = new ColumnVector(type, SIZE);
+    for (int row = 0; row < SIZE; row++) {
+      if (random.nextInt(5) == 0) {
+        vector.setNull(row);
+        continue;
+      }
+      switch (vector.storage()) {
+      case LONG:
+        vector.longs[row] = random.nextInt(100) - 50;
+        break;
+      case DOUBLE:
+        vector.doubles[row] = random.nextInt(100) / 10.0;
+        break;
+      default:
+        vector.bytes[row] = ("tajo" + random.nextInt(100)).getBytes();
+      }
+    }
+    return vector;
+  }
+}